@@ -0,0 +1,66 @@
+package org.neo4j.shell.log;
+
+import org.neo4j.shell.cli.Format;
+import org.neo4j.shell.prettyprint.LinePrinter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prints a result of plain rows through the logger, either Ansi rendered or through its raw result output, to a
+ * stream which behaves like STDOUT but discards what is written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultOutputBenchmark {
+    private static final int ROWS = 1000;
+
+    @Param({"ansi", "raw"})
+    public String output;
+
+    private LinePrinter printer;
+    private String[] rows;
+
+    @Setup
+    public void createLogger() {
+        PrintStream out = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }, true);
+        AnsiLogger logger = new AnsiLogger(false, Format.PLAIN, out, out);
+        printer = "raw".equals(output) ? logger.getResultOutput() : logger;
+        rows = new String[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            rows[i] = i + ", \"name-" + i + "\", " + (i * 0.5) + ", [1, 2, 3], {a: \"b\"}";
+        }
+    }
+
+    @Benchmark
+    public void printResult() {
+        for (String row : rows) {
+            printer.printOut(row);
+        }
+        printer.flush();
+    }
+}
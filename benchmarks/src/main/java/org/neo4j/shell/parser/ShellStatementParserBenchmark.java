@@ -0,0 +1,89 @@
+package org.neo4j.shell.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a synthetic script of about a megabyte, line by line, the way the shell runners feed the parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShellStatementParserBenchmark {
+    private static final int SCRIPT_SIZE = 1 << 20;
+
+    /**
+     * single-line: one short statement per line,
+     * multi-line: a single statement spanning every line,
+     * mixed: statements with quotes, escapes and comments, interleaved with commands
+     */
+    @Param({"single-line", "multi-line", "mixed"})
+    public String script;
+
+    private List<String> lines;
+
+    @Setup
+    public void generateScript() {
+        lines = new ArrayList<>();
+        int size = 0;
+        for (int i = 0; size < SCRIPT_SIZE; i++) {
+            String line = line(i);
+            lines.add(line);
+            size += line.length();
+        }
+        if ("multi-line".equals(script)) {
+            lines.add(";\n");
+        }
+    }
+
+    @Benchmark
+    public void parseScript(Blackhole blackhole) {
+        ShellStatementParser parser = new ShellStatementParser();
+        for (String line : lines) {
+            parser.parseMoreText(line);
+            if (parser.hasStatements()) {
+                blackhole.consume(parser.consumeStatements());
+            }
+        }
+        blackhole.consume(parser.containsText());
+    }
+
+    private String line(int i) {
+        switch (script) {
+            case "single-line":
+                return "CREATE (:Person {id: " + i + ", name: 'Person " + i + "'});\n";
+            case "multi-line":
+                return "MERGE (p" + i + ":Person {id: " + i + "}) SET p" + i + ".name = 'Person " + i + "'\n";
+            case "mixed":
+                switch (i % 4) {
+                    case 0:
+                        return ":param id => " + i + "\n";
+                    case 1:
+                        return "// Person number " + i + ", with a ; in the comment\n";
+                    case 2:
+                        return "CREATE (:`Some Label` {name: \"it's \\\"quoted\\\"\", id: $id}) /* block; comment */\n";
+                    default:
+                        return "RETURN 'semicolon; in a string' AS s;\n";
+                }
+            default:
+                throw new IllegalArgumentException("Unknown script: " + script);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.neo4j.shell.prettyprint;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.internal.summary.InternalResultSummary;
+import org.neo4j.driver.internal.summary.InternalServerInfo;
+import org.neo4j.driver.internal.util.ServerVersion;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.driver.v1.summary.StatementType;
+import org.neo4j.shell.state.ListBoltResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.annotation.Nonnull;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Streams 1000 records holding a node, a path, a nested map and a nested list through the formats meant for other
+ * tools to read. Binary output is discarded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExportFormatterBenchmark {
+    private static final List<String> KEYS = asList("name", "node", "path", "map", "list");
+    private static final int ROWS = 1000;
+
+    @Param({"plain", "csv", "jsonl", "arrow"})
+    public String format;
+
+    private List<Record> records;
+    private ResultSummary summary;
+    private OutputFormatter formatter;
+
+    @Setup
+    public void createRecords() {
+        String[] kinds = SyntheticValues.KINDS.split(",");
+        records = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Value[] values = new Value[KEYS.size()];
+            for (int column = 0; column < values.length; column++) {
+                values[column] = SyntheticValues.valueOfKind(kinds[column], i);
+            }
+            records.add(new InternalRecord(KEYS, values));
+        }
+        summary = new InternalResultSummary(new Statement("MATCH (n) RETURN n"),
+                new InternalServerInfo(new BoltServerAddress("localhost:7687"), ServerVersion.vInDev),
+                StatementType.READ_ONLY, null, null, null, Collections.emptyList(), 0, 0);
+        switch (format) {
+            case "csv":
+                formatter = new CsvOutputFormatter(CsvOutputFormatter.DEFAULT_CSV_DELIMITER,
+                        CsvOutputFormatter.DEFAULT_NULL_VALUE);
+                break;
+            case "jsonl":
+                formatter = new JsonLinesOutputFormatter();
+                break;
+            case "arrow":
+                formatter = new ArrowOutputFormatter(new OutputStream() {
+                    @Override
+                    public void write(int b) {
+                    }
+
+                    @Override
+                    public void write(@Nonnull byte[] b, int off, int len) {
+                    }
+                });
+                break;
+            default:
+                formatter = new SimpleOutputFormatter();
+        }
+    }
+
+    @Benchmark
+    public int formatRecords(Blackhole blackhole) {
+        return formatter.formatAndCount(new ListBoltResult(KEYS, records, summary), blackhole::consume);
+    }
+}
@@ -0,0 +1,43 @@
+package org.neo4j.shell.prettyprint;
+
+import org.neo4j.driver.v1.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formats single values, which is what both output formats spend most of their time on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimpleOutputFormatterBenchmark {
+    @Param({"scalar", "node", "path", "map", "list"})
+    public String kind;
+
+    private final SimpleOutputFormatter formatter = new SimpleOutputFormatter();
+    private Value value;
+
+    @Setup
+    public void createValue() {
+        value = SyntheticValues.valueOfKind(kind, 42);
+    }
+
+    @Benchmark
+    public String formatValue() {
+        return formatter.formatValue(value);
+    }
+}
@@ -0,0 +1,90 @@
+package org.neo4j.shell.prettyprint;
+
+import org.neo4j.driver.internal.InternalNode;
+import org.neo4j.driver.internal.InternalPath;
+import org.neo4j.driver.internal.InternalRelationship;
+import org.neo4j.driver.internal.value.NodeValue;
+import org.neo4j.driver.internal.value.PathValue;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+import org.neo4j.driver.v1.types.Entity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Synthetic values of the kinds commonly returned by queries, for the formatter benchmarks.
+ */
+final class SyntheticValues {
+    static final String KINDS = "scalar,node,path,map,list";
+
+    private SyntheticValues() {
+    }
+
+    /**
+     * @param kind one of scalar, node, path (of 5 relationships), map or list (nested 2 levels deep)
+     */
+    static Value valueOfKind(String kind, int id) {
+        switch (kind) {
+            case "scalar":
+                return Values.value("Person " + id);
+            case "node":
+                return new NodeValue(node(id));
+            case "path":
+                return new PathValue(path(id, 5));
+            case "map":
+                return nestedMap(id, 2);
+            case "list":
+                return nestedList(id, 2);
+            default:
+                throw new IllegalArgumentException("Unknown kind of value: " + kind);
+        }
+    }
+
+    private static InternalNode node(int id) {
+        return new InternalNode(id, asList("Person", "Employee"), properties(id));
+    }
+
+    private static InternalPath path(int id, int length) {
+        List<Entity> entities = new ArrayList<>();
+        InternalNode start = node(id);
+        entities.add(start);
+        for (int i = 1; i <= length; i++) {
+            InternalNode end = node(id + i);
+            entities.add(new InternalRelationship(id * 100L + i, start.id(), end.id(), "KNOWS", properties(i)));
+            entities.add(end);
+            start = end;
+        }
+        return new InternalPath(entities);
+    }
+
+    private static Value nestedMap(int id, int depth) {
+        Map<String, Value> map = new HashMap<>(properties(id));
+        if (depth > 0) {
+            map.put("nested", nestedMap(id + 1, depth - 1));
+            map.put("list", nestedList(id + 1, depth - 1));
+        }
+        return Values.value(map);
+    }
+
+    private static Value nestedList(int id, int depth) {
+        List<Value> list = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            list.add(depth > 0 ? nestedMap(id + i, depth - 1) : Values.value(id + i));
+        }
+        return Values.value(list);
+    }
+
+    private static Map<String, Value> properties(int id) {
+        Map<String, Value> properties = new HashMap<>();
+        properties.put("id", Values.value(id));
+        properties.put("name", Values.value("Person " + id));
+        properties.put("born", Values.value(1970 + id % 50));
+        properties.put("tags", Values.value(asList("a", "b", "c")));
+        return properties;
+    }
+}
@@ -0,0 +1,78 @@
+package org.neo4j.shell.prettyprint;
+
+import org.neo4j.driver.internal.BoltServerAddress;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.internal.summary.InternalResultSummary;
+import org.neo4j.driver.internal.summary.InternalServerInfo;
+import org.neo4j.driver.internal.util.ServerVersion;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.driver.v1.summary.StatementType;
+import org.neo4j.shell.state.ListBoltResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Renders a result of records holding a node, a path, a nested map and a nested list as a table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableOutputFormatterBenchmark {
+    private static final List<String> KEYS = asList("name", "node", "path", "map", "list");
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean wrap;
+
+    private List<Record> records;
+    private ResultSummary summary;
+    private TableOutputFormatter formatter;
+
+    @Setup
+    public void createRecords() {
+        String[] kinds = SyntheticValues.KINDS.split(",");
+        records = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Value[] values = new Value[KEYS.size()];
+            for (int column = 0; column < values.length; column++) {
+                values[column] = SyntheticValues.valueOfKind(kinds[column], i);
+            }
+            records.add(new InternalRecord(KEYS, values));
+        }
+        summary = new InternalResultSummary(new Statement("MATCH (n) RETURN n"),
+                new InternalServerInfo(new BoltServerAddress("localhost:7687"), ServerVersion.vInDev),
+                StatementType.READ_ONLY, null, null, null, Collections.emptyList(), 0, 0);
+        // Sizing the columns from only part of the result makes values wrap or get truncated
+        formatter = new TableOutputFormatter(wrap, Math.max(1, rows / 10));
+    }
+
+    @Benchmark
+    public int formatTable(Blackhole blackhole) {
+        return formatter.formatAndCount(new ListBoltResult(KEYS, records, summary), blackhole::consume);
+    }
+}
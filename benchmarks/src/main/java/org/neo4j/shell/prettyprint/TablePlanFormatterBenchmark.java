@@ -0,0 +1,87 @@
+package org.neo4j.shell.prettyprint;
+
+import org.neo4j.driver.internal.value.ListValue;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+import org.neo4j.driver.v1.summary.ProfiledPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.neo4j.driver.internal.summary.InternalProfiledPlan.PROFILED_PLAN_FROM_VALUE;
+
+/**
+ * Renders profiled plans, as deep as those of large queries, where every few operators join in another branch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TablePlanFormatterBenchmark {
+    @Param({"10", "100"})
+    public int depth;
+
+    private final TablePlanFormatter formatter = new TablePlanFormatter();
+    private ProfiledPlan plan;
+
+    @Setup
+    public void createPlan() {
+        plan = PROFILED_PLAN_FROM_VALUE.apply(operator(0));
+    }
+
+    @Benchmark
+    public String formatPlan() {
+        return formatter.formatPlan(plan);
+    }
+
+    private Value operator(int level) {
+        Map<String, Value> operator = new HashMap<>();
+        Map<String, Value> arguments = new HashMap<>();
+        arguments.put("EstimatedRows", Values.value(1000.0 / (level + 1)));
+        arguments.put("Rows", Values.value(1000L - level));
+        arguments.put("DbHits", Values.value(2000L - level));
+        arguments.put("PageCacheHits", Values.value(level * 10L));
+        arguments.put("PageCacheMisses", Values.value(level));
+        arguments.put("time", Values.value(level * 1000L));
+        arguments.put("ExpandExpression", Values.value("(anon_" + level + ")-[:KNOWS]->(n" + level + ")"));
+        operator.put("args", Values.value(arguments));
+        operator.put("identifiers", Values.value(asList("anon_" + level, "n" + level, "  UNNAMED" + level)));
+        operator.put("dbHits", Values.value(2000L - level));
+        operator.put("rows", Values.value(1000L - level));
+        if (level == depth) {
+            operator.put("operatorType", Values.value("NodeByLabelScan"));
+        } else if (level % 5 == 4) {
+            operator.put("operatorType", Values.value("Apply"));
+            operator.put("children", new ListValue(operator(level + 1), leaf(level)));
+        } else {
+            operator.put("operatorType", Values.value("Expand(All)"));
+            operator.put("children", new ListValue(operator(level + 1)));
+        }
+        return Values.value(operator);
+    }
+
+    private Value leaf(int level) {
+        Map<String, Value> operator = new HashMap<>();
+        operator.put("operatorType", Values.value("NodeIndexSeek"));
+        operator.put("args", Values.value(new HashMap<String, Value>()));
+        operator.put("identifiers", Values.value(asList("m" + level)));
+        operator.put("dbHits", Values.value(2L));
+        operator.put("rows", Values.value(1L));
+        return Values.value(operator);
+    }
+}
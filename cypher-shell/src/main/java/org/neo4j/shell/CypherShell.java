@@ -1,23 +1,45 @@
 package org.neo4j.shell;
 
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.exceptions.Neo4jException;
 import org.neo4j.shell.commands.Command;
 import org.neo4j.shell.commands.CommandExecutable;
 import org.neo4j.shell.commands.CommandHelper;
 import org.neo4j.shell.exception.CommandException;
 import org.neo4j.shell.exception.ExitException;
+import org.neo4j.shell.exception.PagerQuitException;
 import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.metrics.MetricsListener;
+import org.neo4j.shell.metrics.StatementMetrics;
+import org.neo4j.shell.metrics.StatementTimer;
+import org.neo4j.shell.parser.LiteralEvaluator;
+import org.neo4j.shell.parser.LiteralParameters;
+import org.neo4j.shell.parser.ParameterReferences;
 import org.neo4j.shell.prettyprint.CypherVariablesFormatter;
+import org.neo4j.shell.prettyprint.LinePrinter;
+import org.neo4j.shell.prettyprint.OutputFormatter;
+import org.neo4j.shell.prettyprint.PagedLinePrinter;
+import org.neo4j.shell.prettyprint.Pager;
+import org.neo4j.shell.prettyprint.PrettyConfig;
 import org.neo4j.shell.prettyprint.PrettyPrinter;
 import org.neo4j.shell.state.BoltResult;
 import org.neo4j.shell.state.BoltStateHandler;
 import org.neo4j.shell.state.ParamValue;
+import org.neo4j.shell.state.SessionPool;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -25,25 +47,51 @@ import java.util.stream.Collectors;
 /**
  * A possibly interactive shell for evaluating cypher statements.
  */
-public class CypherShell implements StatementExecuter, Connector, TransactionHandler, VariableHolder {
+public class CypherShell implements StatementExecuter, Connector, TransactionHandler, VariableHolder,
+        ParallelExecuter {
     // Final space to catch newline
     protected static final Pattern cmdNamePattern = Pattern.compile("^\\s*(?<name>[^\\s]+)\\b(?<args>.*)\\s*$");
+    private static final int EVALUATED_EXPRESSIONS_CACHE_SIZE = 1000;
     protected final Map<String, ParamValue> queryParams = new HashMap<>();
+    // Immutable copy of the parameter values, rebuilt after a parameter is set
+    private Map<String, Object> paramsSnapshot;
+    // Values of constant parameter expressions, least recently used first
+    private final Map<String, Object> evaluatedExpressions = new LeastRecentlyUsed(EVALUATED_EXPRESSIONS_CACHE_SIZE);
     private final Logger logger;
     private final BoltStateHandler boltStateHandler;
     private final PrettyPrinter prettyPrinter;
+    private final LinePrinter output;
     protected CommandHelper commandHelper;
+    private SessionPool sessionPool;
+    private Pager pager;
+    private boolean extractLiterals;
+    private final List<MetricsListener> metricsListeners = new ArrayList<>();
 
     public CypherShell(@Nonnull Logger logger) {
-        this(logger, new BoltStateHandler(), new PrettyPrinter(logger.getFormat()));
+        this(logger, new PrettyConfig(logger.getFormat()));
+    }
+
+    public CypherShell(@Nonnull Logger logger, @Nonnull PrettyConfig prettyConfig) {
+        this(logger, new BoltStateHandler(), new PrettyPrinter(prettyConfig));
     }
 
     protected CypherShell(@Nonnull Logger logger,
                           @Nonnull BoltStateHandler boltStateHandler,
                           @Nonnull PrettyPrinter prettyPrinter) {
+        this(logger, boltStateHandler, prettyPrinter, logger);
+    }
+
+    /**
+     * @param output where results are printed, messages and errors are always printed by the logger
+     */
+    protected CypherShell(@Nonnull Logger logger,
+                          @Nonnull BoltStateHandler boltStateHandler,
+                          @Nonnull PrettyPrinter prettyPrinter,
+                          @Nonnull LinePrinter output) {
         this.logger = logger;
         this.boltStateHandler = boltStateHandler;
         this.prettyPrinter = prettyPrinter;
+        this.output = output;
         addRuntimeHookToResetShell();
     }
 
@@ -83,8 +131,54 @@ public class CypherShell implements StatementExecuter, Connector, TransactionHan
      * @param cypher non-empty cypher text to executeLine
      */
     protected void executeCypher(@Nonnull final String cypher) throws CommandException {
-        final Optional<BoltResult> result = boltStateHandler.runCypher(cypher, getAll());
-        result.ifPresent(boltResult -> logger.printOut(prettyPrinter.format(boltResult)));
+        executeCypher(new Statement(cypher));
+    }
+
+    @Override
+    public void execute(@Nonnull Statement statement) throws CommandException {
+        if (!isConnected()) {
+            throw new CommandException("Not connected to Neo4j");
+        }
+        executeCypher(statement);
+    }
+
+    private void executeCypher(@Nonnull final Statement statement) throws CommandException {
+        final boolean inTransaction = isTransactionOpen();
+        // A pipelined transaction returns the result of an earlier statement, which names itself in its summary
+        final boolean pipelined = inTransaction && boltStateHandler.getPipelineDepth() > 1;
+        final StatementTimer timer = newTimer(pipelined ? null : statement.text());
+        final Statement toRun = maybeExtractLiterals(statement);
+        final String cypher = toRun.text();
+        final Map<String, Object> params = paramsFor(toRun);
+        if (timer != null) {
+            timer.sending();
+        }
+        try {
+            final Optional<BoltResult> result = boltStateHandler.runCypher(cypher, params);
+            if (timer != null) {
+                timer.accepted();
+            }
+            result.ifPresent(r -> printResult(r, timer));
+        } catch (Neo4jException e) {
+            if (timer != null && !timer.isFinished()) {
+                statementFinished(timer.fail());
+            }
+            if (inTransaction && boltStateHandler.getCommittedChunks() > 0) {
+                throw partiallyCommitted(e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Tells how far a transaction which is committed in chunks got before it failed, since the statements of the
+     * chunks which were already committed stay committed.
+     */
+    @Nonnull
+    private CommandException partiallyCommitted(@Nonnull Neo4jException e) {
+        return new CommandException(String.format("%s%nStatements 1 to %d of the transaction were committed in %d " +
+                        "chunk(s) before it failed, later statements were not committed", e.getMessage(),
+                boltStateHandler.getCommittedStatements(), boltStateHandler.getCommittedChunks()));
     }
 
     @Override
@@ -138,8 +232,16 @@ public class CypherShell implements StatementExecuter, Connector, TransactionHan
 
     @Override
     public Optional<List<BoltResult>> commitTransaction() throws CommandException {
-        Optional<List<BoltResult>> results = boltStateHandler.commitTransaction();
-        results.ifPresent(boltResult -> boltResult.forEach(result -> logger.printOut(prettyPrinter.format(result))));
+        Optional<List<BoltResult>> results;
+        try {
+            results = boltStateHandler.commitTransaction();
+        } catch (Neo4jException e) {
+            if (boltStateHandler.getCommittedChunks() > 0) {
+                throw partiallyCommitted(e);
+            }
+            throw e;
+        }
+        results.ifPresent(this::printResults);
         return results;
     }
 
@@ -153,45 +255,236 @@ public class CypherShell implements StatementExecuter, Connector, TransactionHan
         return boltStateHandler.isTransactionOpen();
     }
 
+    @Override
+    public void startWorkers(int workers) throws CommandException {
+        stopWorkers();
+        sessionPool = boltStateHandler.newSessionPool(workers);
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<List<BoltResult>> executeOnWorker(@Nonnull List<Statement> statements,
+                                                               boolean inTransaction) {
+        if (sessionPool == null) {
+            throw new IllegalStateException("Workers have not been started");
+        }
+        // Parameters are captured now, a later :param must not affect statements before it
+        List<Statement> batch = statements.stream()
+                .map(this::maybeExtractLiterals)
+                .map(statement -> new Statement(statement.text(), paramsFor(statement)))
+                .collect(Collectors.toList());
+        return sessionPool.submit(batch, inTransaction);
+    }
+
+    @Nonnull
+    private Statement maybeExtractLiterals(@Nonnull Statement statement) {
+        return extractLiterals ? LiteralParameters.extract(statement, getAll().keySet()) : statement;
+    }
+
+    /**
+     * @return the parameters set in the shell which the statement references, along with its own
+     */
+    @Nonnull
+    private Map<String, Object> paramsFor(@Nonnull Statement statement) {
+        Map<String, Object> params = ParameterReferences.referencedBy(statement.text(), getAll());
+        if (statement.parameters().isEmpty()) {
+            return params;
+        }
+        Map<String, Object> merged = new HashMap<>(params);
+        merged.putAll(statement.parameters().asMap(value -> value));
+        return merged;
+    }
+
+    @Override
+    public void printResults(@Nonnull List<BoltResult> results) {
+        // Statements of a transaction or a parallel batch were sent earlier, only their printing can be timed
+        results.forEach(result -> printResult(result, newTimer(null)));
+    }
+
+    private void printResult(@Nonnull BoltResult result, @Nullable StatementTimer timer) {
+        LinePrinter timedOutput = output;
+        Pager timedPager = pager;
+        BoltResult timedResult = result;
+        if (timer != null) {
+            timedOutput = timer.time(output);
+            timedPager = pager == null ? null : timer.time(pager);
+            timedResult = timer.time(result);
+            timer.printing();
+        }
+        try {
+            int rows = prettyPrinter.format(timedResult,
+                    timedPager == null ? timedOutput : new PagedLinePrinter(timedOutput, timedPager));
+            if (result.isTruncated() && !prettyPrinter.reportsTruncation()) {
+                logger.printError(OutputFormatter.truncatedFooter(rows));
+            }
+        } catch (PagerQuitException e) {
+            result.discardRemaining();
+        } catch (RuntimeException e) {
+            // The records of a streamed result may fail to arrive
+            if (timer != null) {
+                statementFinished(timer.fail());
+            }
+            throw e;
+        } finally {
+            timedOutput.flush();
+        }
+        if (timer != null) {
+            statementFinished(timer.finish(result));
+        }
+    }
+
+    private void statementFinished(@Nonnull StatementMetrics metrics) {
+        metricsListeners.forEach(listener -> listener.statementCompleted(metrics));
+    }
+
+    /**
+     * @param cypher the statement to time, or null to take it from the summary of its result
+     * @return a timer for the statement, or null if no one is listening for metrics
+     */
+    @Nullable
+    private StatementTimer newTimer(@Nullable String cypher) {
+        return metricsListeners.isEmpty() ? null : new StatementTimer(cypher);
+    }
+
+    @Override
+    public void stopWorkers() {
+        if (sessionPool != null) {
+            sessionPool.close();
+            sessionPool = null;
+        }
+    }
+
     @Override
     @Nonnull
     public Optional set(@Nonnull String name, @Nonnull String valueString) throws CommandException {
-        final BoltResult result = setParamsAndValidate(name, valueString);
         String parameterName = CypherVariablesFormatter.unescapedCypherVariable(name);
-        final Object value = result.getRecords().get(0).get(parameterName).asObject();
+        final Object value = evaluate(name, parameterName, valueString);
         queryParams.put(parameterName, new ParamValue(valueString, value));
+        paramsSnapshot = null;
         return Optional.ofNullable(value);
     }
 
-    private BoltResult setParamsAndValidate(@Nonnull String name, @Nonnull String valueString) throws CommandException {
+    /**
+     * Literals are evaluated locally. Other expressions are evaluated by the server, and remembered if they always
+     * have the same value so that setting a parameter to the same expression again is free.
+     */
+    private Object evaluate(@Nonnull String name, @Nonnull String parameterName, @Nonnull String valueString)
+            throws CommandException {
+        Optional<Value> literal = LiteralEvaluator.evaluate(valueString);
+        if (literal.isPresent()) {
+            return literal.get().asObject();
+        }
+        String expression = valueString.trim();
+        if (evaluatedExpressions.containsKey(expression)) {
+            return evaluatedExpressions.get(expression);
+        }
+        final Record record = setParamsAndValidate(name, valueString);
+        final Object value = record.get(parameterName).asObject();
+        if (LiteralEvaluator.isConstant(expression)) {
+            evaluatedExpressions.put(expression, value);
+        }
+        return value;
+    }
+
+    @Nonnull
+    private Record setParamsAndValidate(@Nonnull String name, @Nonnull String valueString) throws CommandException {
         String cypher = "RETURN " + valueString + " as " + name;
-        final Optional<BoltResult> result = boltStateHandler.runCypher(cypher, getAll());
-        if (!result.isPresent() || result.get().getRecords().isEmpty()) {
+        final Map<String, Object> params = ParameterReferences.referencedBy(cypher, getAll());
+        final Optional<BoltResult> result = boltStateHandler.runCypher(cypher, params);
+        // The records of a streamed result can only be read once
+        final List<Record> records = result.isPresent() ? result.get().getRecords() : Collections.emptyList();
+        if (records.isEmpty()) {
             throw new CommandException("Failed to set value of parameter");
         }
-        return result.get();
+        return records.get(0);
     }
 
     @Override
     @Nonnull
     public Map<String, Object> getAll() {
-        return queryParams.entrySet()
-                .stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        value -> value.getValue().getValue()));
+        if (paramsSnapshot == null) {
+            Map<String, Object> params = new HashMap<>(queryParams.size() * 2);
+            queryParams.forEach((name, value) -> params.put(name, value.getValue()));
+            paramsSnapshot = Collections.unmodifiableMap(params);
+        }
+        return paramsSnapshot;
     }
 
     @Nonnull
     @Override
     public Map<String, ParamValue> getAllAsUserInput() {
-        return queryParams;
+        return Collections.unmodifiableMap(queryParams);
     }
 
     public void setCommandHelper(@Nonnull CommandHelper commandHelper) {
         this.commandHelper = commandHelper;
     }
 
+    /**
+     * @param maxRows the maximum number of records to read of each result, or 0 to read all of them
+     */
+    public void setMaxRows(int maxRows) {
+        boltStateHandler.setMaxRows(maxRows);
+    }
+
+    public int getMaxRows() {
+        return boltStateHandler.getMaxRows();
+    }
+
+    /**
+     * @param txChunk the number of statements after which an explicit transaction is committed and a new one begun
+     *                in its place, or 0 to only commit it when told to
+     */
+    public void setTxChunk(int txChunk) {
+        boltStateHandler.setTxChunk(txChunk);
+    }
+
+    public int getTxChunk() {
+        return boltStateHandler.getTxChunk();
+    }
+
+    /**
+     * @param txChunkBytes the length of statement text after which an explicit transaction is committed and a new
+     *                     one begun in its place, or 0 for no limit
+     */
+    public void setTxChunkBytes(long txChunkBytes) {
+        boltStateHandler.setTxChunkBytes(txChunkBytes);
+    }
+
+    public long getTxChunkBytes() {
+        return boltStateHandler.getTxChunkBytes();
+    }
+
+    /**
+     * @param extractLiterals true to send the literals of Cypher statements as parameters, so that statements which
+     *                        only differ in their literals are planned once
+     */
+    public void setExtractLiterals(boolean extractLiterals) {
+        this.extractLiterals = extractLiterals;
+    }
+
+    public boolean getExtractLiterals() {
+        return extractLiterals;
+    }
+
+    /**
+     * @param pager to page results with, or null to print them in full
+     */
+    public void setPager(@Nullable Pager pager) {
+        this.pager = pager;
+    }
+
+    /**
+     * @param listener to tell about the metrics of every statement from now on
+     */
+    public void addMetricsListener(@Nonnull MetricsListener listener) {
+        metricsListeners.add(listener);
+    }
+
+    public void removeMetricsListener(@Nonnull MetricsListener listener) {
+        metricsListeners.remove(listener);
+    }
+
     @Override
     public void reset() {
         boltStateHandler.reset();
@@ -206,4 +499,22 @@ public class CypherShell implements StatementExecuter, Connector, TransactionHan
         });
     }
 
+    /**
+     * A map which forgets the least recently used entry once it holds more than a maximum number of them.
+     */
+    private static class LeastRecentlyUsed extends LinkedHashMap<String, Object> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        LeastRecentlyUsed(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+            return size() > maxSize;
+        }
+    }
 }
@@ -10,12 +10,26 @@ import org.neo4j.shell.commands.CommandHelper;
 import org.neo4j.shell.exception.CommandException;
 import org.neo4j.shell.log.AnsiLogger;
 import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.metrics.MetricsFile;
+import org.neo4j.shell.metrics.RunSummary;
+import org.neo4j.shell.prettyprint.BufferedOutput;
+import org.neo4j.shell.prettyprint.OutputFormatter;
+import org.neo4j.shell.prettyprint.PrettyConfig;
+import org.neo4j.shell.prettyprint.PrettyPrinter;
+import org.neo4j.shell.state.BoltStateHandler;
+import org.neo4j.shell.state.RetryPolicy;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
 import static org.neo4j.shell.ShellRunner.isInputInteractive;
 
 public class Main {
@@ -67,8 +81,37 @@ public class Main {
                 cliArgs.getPassword(),
                 cliArgs.getEncryption());
 
+        BufferedOutput output = null;
+        MetricsFile metricsFile = null;
+        RunSummary summary = null;
+        int code;
         try {
-            CypherShell shell = new CypherShell(logger);
+            PrettyConfig prettyConfig = new PrettyConfig(logger.getFormat(), cliArgs.getWrap(),
+                    cliArgs.getNumSampleRows(), cliArgs.getDelimiter(), cliArgs.getNullValue());
+            BoltStateHandler boltStateHandler = new BoltStateHandler(cliArgs.getPipelineDepth());
+            boltStateHandler.setMaxRows(cliArgs.getMaxRows());
+            boltStateHandler.setTxChunk(cliArgs.getTxChunk());
+            boltStateHandler.setTxChunkBytes(cliArgs.getTxChunkBytes());
+            boltStateHandler.setResultHeapLimit(cliArgs.getResultMemory() * 1024L * 1024L);
+            boltStateHandler.setRetryPolicy(new RetryPolicy(cliArgs.getMaxRetries(), cliArgs.getRetryDelay()));
+            CypherShell shell;
+            if (cliArgs.getOutputFile() == null) {
+                shell = new CypherShell(logger, boltStateHandler, new PrettyPrinter(prettyConfig, out),
+                        logger.getResultOutput());
+            } else {
+                output = BufferedOutput.toFile(cliArgs.getOutputFile());
+                shell = new CypherShell(logger, boltStateHandler,
+                        new PrettyPrinter(prettyConfig, output.getOutputStream()), output);
+            }
+            shell.setExtractLiterals(cliArgs.getExtractLiterals());
+            if (cliArgs.getMetricsFile() != null) {
+                metricsFile = MetricsFile.append(cliArgs.getMetricsFile());
+                shell.addMetricsListener(metricsFile);
+            }
+            if (cliArgs.getSummary() || cliArgs.getSummaryFile() != null) {
+                summary = new RunSummary();
+                shell.addMetricsListener(summary);
+            }
             // Can only prompt for password if input has not been redirected
             connectMaybeInteractively(shell, connectionConfig, isInputInteractive());
 
@@ -79,12 +122,30 @@ public class Main {
 
             shell.setCommandHelper(commandHelper);
 
-            int code = shellRunner.runUntilEnd();
-            System.exit(code);
+            code = shellRunner.runUntilEnd();
         } catch (Throwable e) {
             logger.printError(e);
-            System.exit(1);
+            code = 1;
+        }
+        if (summary != null) {
+            try {
+                reportSummary(summary, cliArgs, logger);
+            } catch (IOException e) {
+                logger.printError(e);
+                code = 1;
+            }
+        }
+        for (AutoCloseable file : new AutoCloseable[] {output, metricsFile}) {
+            if (file != null) {
+                try {
+                    file.close();
+                } catch (Exception e) {
+                    logger.printError(e);
+                    code = 1;
+                }
+            }
         }
+        System.exit(code);
     }
 
     private Logger instantiateLogger(@Nonnull CliArgs cliArgs) {
@@ -96,6 +157,20 @@ public class Main {
         return logger;
     }
 
+    /**
+     * Reports on a run which has ended, also if it failed part of the way through
+     */
+    private static void reportSummary(@Nonnull RunSummary summary, @Nonnull CliArgs cliArgs, @Nonnull Logger logger)
+            throws IOException {
+        if (cliArgs.getSummary()) {
+            logger.getErrorStream().println(summary);
+        }
+        if (cliArgs.getSummaryFile() != null) {
+            Files.write(Paths.get(cliArgs.getSummaryFile()),
+                    (summary.toJson() + OutputFormatter.NEWLINE).getBytes(StandardCharsets.UTF_8), CREATE, APPEND);
+        }
+    }
+
     /**
      * Connect the shell to the server, and try to handle missing passwords and such
      */
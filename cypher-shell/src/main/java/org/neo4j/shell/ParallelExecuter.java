@@ -0,0 +1,44 @@
+package org.neo4j.shell;
+
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.shell.exception.CommandException;
+import org.neo4j.shell.state.BoltResult;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An object which executes batches of Cypher statements concurrently, on a pool of sessions.
+ */
+public interface ParallelExecuter {
+
+    /**
+     * Opens the sessions which batches are executed on
+     *
+     * @param workers number of batches to execute at the same time
+     * @throws CommandException if the sessions could not be opened
+     */
+    void startWorkers(int workers) throws CommandException;
+
+    /**
+     * Starts executing a batch of Cypher statements with the current parameters, on the next free session
+     *
+     * @param statements    Cypher statements to execute, in order, their own parameters take precedence over those
+     *                      set in the shell
+     * @param inTransaction true if the batch should be executed in a single transaction
+     * @return the results of the statements, which have to be printed with {@link #printResults(List)}
+     */
+    @Nonnull
+    CompletableFuture<List<BoltResult>> executeOnWorker(@Nonnull List<Statement> statements, boolean inTransaction);
+
+    /**
+     * Prints the results of a completed batch
+     */
+    void printResults(@Nonnull List<BoltResult> results);
+
+    /**
+     * Closes the sessions opened by {@link #startWorkers(int)}, if any
+     */
+    void stopWorkers();
+}
@@ -51,11 +51,19 @@ public interface ShellRunner {
         } else if (shouldBeInteractive(cliArgs)) {
             UserMessagesHandler userMessagesHandler =
                     new UserMessagesHandler(connectionConfig, cypherShell.getServerVersion());
-            return new InteractiveShellRunner(cypherShell, cypherShell, logger, new ShellStatementParser(),
-                    System.in, FileHistorian.getDefaultHistoryFile(), userMessagesHandler);
+            InteractiveShellRunner runner = new InteractiveShellRunner(cypherShell, cypherShell, logger,
+                    new ShellStatementParser(), System.in, FileHistorian.getDefaultHistoryFile(), userMessagesHandler);
+            if (cliArgs.getPager() && cliArgs.getOutputFile() == null && isOutputInteractive()) {
+                cypherShell.setPager(runner);
+            }
+            return runner;
         } else {
-            return new NonInteractiveShellRunner(cliArgs.getFailBehavior(), cypherShell, logger,
-                    new ShellStatementParser(), System.in);
+            NonInteractiveShellRunner runner = new NonInteractiveShellRunner(cliArgs.getFailBehavior(), cypherShell,
+                    cypherShell, cypherShell, logger, new ShellStatementParser(), System.in, cliArgs.getBatchSize(),
+                    cliArgs.getParallelism());
+            runner.setUnwindBatchSize(cliArgs.getUnwindBatchSize());
+            runner.setAdaptiveParallelism(cliArgs.getAdaptiveParallel());
+            return runner;
         }
     }
 
@@ -1,5 +1,6 @@
 package org.neo4j.shell;
 
+import org.neo4j.driver.v1.Statement;
 import org.neo4j.shell.exception.CommandException;
 import org.neo4j.shell.exception.ExitException;
 
@@ -18,6 +19,13 @@ public interface StatementExecuter {
      */
     void execute(@Nonnull String statement) throws ExitException, CommandException;
 
+    /**
+     * Execute a Cypher statement which has parameters of its own, in addition to those set in the shell
+     * @param statement to execute, its parameters take precedence over those set in the shell
+     * @throws CommandException if something went wrong
+     */
+    void execute(@Nonnull Statement statement) throws CommandException;
+
     /**
      * Stops any running statements
      */
@@ -0,0 +1,73 @@
+package org.neo4j.shell.cli;
+
+/**
+ * Decides how many batches to execute at the same time, between 1 and a maximum, by additive increase and
+ * multiplicative decrease. Every batch which completes without trouble raises the limit by a fraction of one, so that
+ * it grows by one for every limit batches. When a batch had to be retried, or failed in a way which is expected to go
+ * away by itself such as a deadlock, or when the latency per statement rises well above its long term average, the
+ * limit is halved instead. It is decreased at most once for every limit batches which complete, since the batches
+ * which were already running when the server got overloaded all report the same trouble.
+ */
+class AdaptiveConcurrencyLimit {
+    private static final double BACKOFF = 0.5;
+    // The latency of the last few batches is compared to the latency over many batches
+    private static final double SHORT_SMOOTHING = 0.2;
+    private static final double LONG_SMOOTHING = 0.02;
+    private static final double LATENCY_TOLERANCE = 2.0;
+
+    private final int max;
+    private double limit;
+    private double shortLatency;
+    private double longLatency;
+    private int completedSinceDecrease;
+
+    /**
+     * Starts halfway up to the maximum
+     */
+    AdaptiveConcurrencyLimit(int max) {
+        this(max, (max + 1) / 2);
+    }
+
+    AdaptiveConcurrencyLimit(int max, int initial) {
+        this.max = max;
+        this.limit = Math.max(1, Math.min(max, initial));
+    }
+
+    /**
+     * @return the number of batches which may execute at the same time
+     */
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    int getMax() {
+        return max;
+    }
+
+    /**
+     * Called from the worker threads as batches complete, in any order.
+     *
+     * @param nanos      how long the batch took to execute
+     * @param statements the number of statements in the batch
+     * @param overloaded true if the batch was retried or failed because the server could not keep up
+     */
+    synchronized void onBatchCompleted(long nanos, int statements, boolean overloaded) {
+        completedSinceDecrease++;
+        double latency = (double) nanos / Math.max(1, statements);
+        if (longLatency == 0) {
+            shortLatency = longLatency = latency;
+        } else {
+            shortLatency += SHORT_SMOOTHING * (latency - shortLatency);
+            longLatency += LONG_SMOOTHING * (latency - longLatency);
+        }
+
+        if (overloaded || shortLatency > LATENCY_TOLERANCE * longLatency) {
+            if (completedSinceDecrease >= limit) {
+                limit = Math.max(1, Math.floor(limit * BACKOFF));
+                completedSinceDecrease = 0;
+            }
+        } else {
+            limit = Math.min(max, limit + 1 / limit);
+        }
+    }
+}
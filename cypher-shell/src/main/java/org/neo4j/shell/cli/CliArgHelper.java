@@ -1,15 +1,21 @@
 package org.neo4j.shell.cli;
 
 import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
 import net.sourceforge.argparse4j.impl.action.StoreConstArgumentAction;
 import net.sourceforge.argparse4j.impl.action.StoreTrueArgumentAction;
 import net.sourceforge.argparse4j.impl.choice.CollectionArgumentChoice;
 import net.sourceforge.argparse4j.impl.type.BooleanArgumentType;
+import net.sourceforge.argparse4j.inf.Argument;
 import net.sourceforge.argparse4j.inf.ArgumentGroup;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
 import net.sourceforge.argparse4j.inf.ArgumentParserException;
 import net.sourceforge.argparse4j.inf.MutuallyExclusiveGroup;
 import net.sourceforge.argparse4j.inf.Namespace;
+import org.neo4j.shell.prettyprint.CsvOutputFormatter;
+import org.neo4j.shell.prettyprint.TableOutputFormatter;
+import org.neo4j.shell.state.BoltStateHandler;
+import org.neo4j.shell.state.RetryPolicy;
 
 import java.io.PrintWriter;
 import java.util.regex.Matcher;
@@ -82,6 +88,48 @@ public class CliArgHelper {
         //Set Output format
         cliArgs.setFormat(Format.parse(ns.get("format")));
 
+        cliArgs.setWrap(ns.getBoolean("wrap"));
+
+        cliArgs.setPager(ns.getBoolean("pager"));
+
+        cliArgs.setMaxRows(ns.getInt("max-rows"));
+
+        cliArgs.setTxChunk(ns.getInt("tx-chunk"));
+
+        cliArgs.setTxChunkBytes(ns.getLong("tx-chunk-bytes"));
+
+        cliArgs.setNumSampleRows(ns.getInt("sample-rows"));
+
+        cliArgs.setDelimiter(ns.get("delimiter"));
+
+        cliArgs.setNullValue(ns.getString("null-value"));
+
+        cliArgs.setOutputFile(ns.getString("output"));
+
+        cliArgs.setMetricsFile(ns.getString("metrics-file"));
+
+        cliArgs.setSummary(ns.getBoolean("summary"));
+
+        cliArgs.setSummaryFile(ns.getString("summary-file"));
+
+        cliArgs.setBatchSize(ns.getInt("batch-size"));
+
+        cliArgs.setUnwindBatchSize(ns.getInt("unwind-batch-size"));
+
+        cliArgs.setExtractLiterals(ns.getBoolean("extract-literals"));
+
+        cliArgs.setPipelineDepth(ns.getInt("pipeline-depth"));
+
+        cliArgs.setResultMemory(ns.getInt("result-memory"));
+
+        cliArgs.setMaxRetries(ns.getInt("max-retries"));
+
+        cliArgs.setRetryDelay(ns.getLong("retry-delay"));
+
+        cliArgs.setParallelism(ns.getInt("parallel"));
+
+        cliArgs.setAdaptiveParallel(ns.getBoolean("adaptive-parallel"));
+
         cliArgs.setEncryption(ns.getBoolean("encryption"));
 
         cliArgs.setDebugMode(ns.getBoolean("debug"));
@@ -95,6 +143,20 @@ public class CliArgHelper {
         return cliArgs;
     }
 
+    @Nonnull
+    private static Character parseDelimiter(@Nonnull ArgumentParser parser, @Nonnull Argument argument,
+                                            @Nonnull String value) throws ArgumentParserException {
+        if ("\\t".equals(value)) {
+            return '\t';
+        }
+        if (value.length() != 1 || "\"\r\n".indexOf(value.charAt(0)) != -1) {
+            throw new ArgumentParserException(
+                    "argument " + argument.textualName() + ": must be a single character other than a quote or " +
+                            "line break", parser);
+        }
+        return value.charAt(0);
+    }
+
     @Nullable
     private static Matcher parseAddressMatcher(ArgumentParser parser, String address) {
         Matcher matcher = ADDRESS_ARG_PATTERN.matcher(address);
@@ -149,15 +211,179 @@ public class CliArgHelper {
                 .action(new StoreConstArgumentAction());
         parser.setDefault("fail-behavior", FAIL_FAST);
 
+        parser.addArgument("--batch-size")
+                .help("load mode: when reading from file, execute statements in explicit transactions of " +
+                        "BATCH-SIZE statements each and report progress to stderr")
+                .type(Integer.class)
+                .choices(Arguments.range(1, Integer.MAX_VALUE))
+                .metavar("BATCH-SIZE")
+                .dest("batch-size")
+                .setDefault(0);
+
+        parser.addArgument("--unwind-batch-size")
+                .help("when reading from file, collapse up to N consecutive CREATE or MERGE statements which only " +
+                        "differ in their literals into a single UNWIND statement, a failing statement fails its " +
+                        "whole UNWIND statement")
+                .type(Integer.class)
+                .choices(Arguments.range(1, Integer.MAX_VALUE))
+                .metavar("N")
+                .dest("unwind-batch-size")
+                .setDefault(0);
+
+        parser.addArgument("--extract-literals")
+                .help("send the string and number literals of statements as parameters, so that statements which " +
+                        "only differ in their literals are planned once by the server. Unaliased columns are then " +
+                        "named after the parameters")
+                .dest("extract-literals")
+                .action(new StoreTrueArgumentAction());
+
+        parser.addArgument("--pipeline-depth")
+                .help("maximum number of statements of a transaction to send to the server before waiting for " +
+                        "their results")
+                .type(Integer.class)
+                .choices(Arguments.range(1, Integer.MAX_VALUE))
+                .metavar("DEPTH")
+                .dest("pipeline-depth")
+                .setDefault(BoltStateHandler.DEFAULT_PIPELINE_DEPTH);
+
+        parser.addArgument("--max-retries")
+                .help("number of times to retry a statement outside of an explicit transaction when it fails in a " +
+                        "way which is expected to go away by itself, such as a deadlock or a cluster leader switch")
+                .type(Integer.class)
+                .choices(Arguments.range(0, Integer.MAX_VALUE))
+                .metavar("N")
+                .dest("max-retries")
+                .setDefault(RetryPolicy.DEFAULT_MAX_RETRIES);
+
+        parser.addArgument("--retry-delay")
+                .help("milliseconds to wait before the first retry of a statement, which doubles with every retry " +
+                        "and is randomly spread out")
+                .type(Long.class)
+                .choices(Arguments.range(0L, Long.MAX_VALUE))
+                .metavar("MS")
+                .dest("retry-delay")
+                .setDefault(RetryPolicy.DEFAULT_INITIAL_DELAY_MILLIS);
+
+        parser.addArgument("--result-memory")
+                .help("megabytes of heap for the records of results which are read in full before they are " +
+                        "printed, such as those of pipelined or parallel statements. Beyond it records are written " +
+                        "to temporary files and read back as they are printed (0 for no limit)")
+                .type(Integer.class)
+                .choices(Arguments.range(0, Integer.MAX_VALUE))
+                .metavar("MB")
+                .dest("result-memory")
+                .setDefault(0);
+
+        parser.addArgument("--tx-chunk")
+                .help("commit explicit transactions every N statements and carry on in a new one, so that huge " +
+                        "transactions do not run out of memory. On failure, the statements which were already " +
+                        "committed are reported (0 to only commit on :commit, can be changed with :set tx-chunk N)")
+                .type(Integer.class)
+                .choices(Arguments.range(0, Integer.MAX_VALUE))
+                .metavar("N")
+                .dest("tx-chunk")
+                .setDefault(0);
+
+        parser.addArgument("--tx-chunk-bytes")
+                .help("commit explicit transactions once their statements add up to N characters and carry on in a " +
+                        "new one (0 for no limit, can be changed with :set tx-chunk-bytes N)")
+                .type(Long.class)
+                .choices(Arguments.range(0L, Long.MAX_VALUE))
+                .metavar("N")
+                .dest("tx-chunk-bytes")
+                .setDefault(0L);
+
+        parser.addArgument("--parallel")
+                .help("when reading from file, execute statements concurrently on N sessions. Only suitable for " +
+                        "scripts whose statements do not depend on each other, commands and schema statements are " +
+                        "still executed in order")
+                .type(Integer.class)
+                .choices(Arguments.range(1, Integer.MAX_VALUE))
+                .metavar("N")
+                .dest("parallel")
+                .setDefault(1);
+
+        parser.addArgument("--adaptive-parallel")
+                .help("with --parallel, adjust the number of batches executed at the same time to how well the " +
+                        "server copes, between 1 and N. It grows while batches complete quickly and is halved when " +
+                        "they are retried, fail with transient errors or slow down")
+                .dest("adaptive-parallel")
+                .action(new StoreTrueArgumentAction());
+
         parser.addArgument("--format")
                 .help("desired output format, verbose displays results in tabular format and prints statistics, " +
-                        "plain displays data with minimal formatting")
+                        "plain displays data with minimal formatting, csv and tsv write quoted delimiter separated " +
+                        "values, with csv records ending in CRLF as RFC 4180 asks, jsonl writes one JSON object per " +
+                        "record and arrow writes binary Apache Arrow streams, for other tools")
                 .choices(new CollectionArgumentChoice<>(
                         Format.AUTO.name().toLowerCase(),
                         Format.VERBOSE.name().toLowerCase(),
-                        Format.PLAIN.name().toLowerCase()))
+                        Format.PLAIN.name().toLowerCase(),
+                        Format.CSV.name().toLowerCase(),
+                        Format.TSV.name().toLowerCase(),
+                        Format.JSONL.name().toLowerCase(),
+                        Format.ARROW.name().toLowerCase()))
                 .setDefault(Format.AUTO.name().toLowerCase());
 
+        parser.addArgument("--wrap")
+                .help("wrap table column values if column is too narrow, if false they are truncated instead " +
+                        "(only for format=verbose)")
+                .type(new BooleanArgumentType())
+                .setDefault(true);
+
+        parser.addArgument("--max-rows")
+                .help("maximum number of records to fetch for each result, the rest is discarded and the result " +
+                        "is marked as truncated (0 for no limit, can be changed with :set max-rows N)")
+                .type(Integer.class)
+                .choices(Arguments.range(0, Integer.MAX_VALUE))
+                .metavar("N")
+                .dest("max-rows")
+                .setDefault(0);
+
+        parser.addArgument("--pager")
+                .help("in interactive mode, print results which are longer than the terminal one page at a time, " +
+                        "the rest of the result is only fetched as it is paged through and is cancelled on quitting")
+                .type(new BooleanArgumentType())
+                .setDefault(true);
+
+        parser.addArgument("--sample-rows")
+                .help("number of rows sampled to compute table widths, later rows are streamed without being " +
+                        "held in memory (only for format=verbose)")
+                .type(Integer.class)
+                .choices(Arguments.range(1, Integer.MAX_VALUE))
+                .metavar("SAMPLE-ROWS")
+                .dest("sample-rows")
+                .setDefault(TableOutputFormatter.DEFAULT_SAMPLE_ROWS);
+
+        parser.addArgument("--delimiter")
+                .help("field delimiter, a single character or \\t for tab (only for format=csv or format=tsv, " +
+                        "defaults to a comma for csv and a tab for tsv)")
+                .type(CliArgHelper::parseDelimiter)
+                .metavar("CHAR");
+
+        parser.addArgument("--null-value")
+                .help("text representing null (only for format=csv or format=tsv)")
+                .metavar("TEXT")
+                .dest("null-value")
+                .setDefault(CsvOutputFormatter.DEFAULT_NULL_VALUE);
+
+        parser.addArgument("-o", "--output")
+                .help("write results to FILE instead of standard output, through a large buffer which is flushed " +
+                        "after each result, messages and errors are still printed to the terminal")
+                .metavar("FILE");
+        parser.addArgument("--metrics-file")
+                .dest("metrics-file")
+                .help("append the timing of every statement to FILE, as one line of JSON per statement")
+                .metavar("FILE");
+        parser.addArgument("--summary")
+                .help("print a summary of the run to standard error when it ends: the number of statements, their " +
+                        "latency percentiles, the records and bytes written and what the statements changed")
+                .action(new StoreTrueArgumentAction());
+        parser.addArgument("--summary-file")
+                .dest("summary-file")
+                .help("append the summary of the run to FILE when it ends, as a line of JSON")
+                .metavar("FILE");
+
         parser.addArgument("--debug")
                 .help("print additional debug information")
                 .action(new StoreTrueArgumentAction());
@@ -1,5 +1,10 @@
 package org.neo4j.shell.cli;
 
+import org.neo4j.shell.prettyprint.CsvOutputFormatter;
+import org.neo4j.shell.prettyprint.TableOutputFormatter;
+import org.neo4j.shell.state.BoltStateHandler;
+import org.neo4j.shell.state.RetryPolicy;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Optional;
@@ -18,6 +23,27 @@ public class CliArgs {
     private boolean nonInteractive = false;
     private boolean version = false;
     private boolean driverVersion = false;
+    private boolean wrap = true;
+    private boolean pager = true;
+    private int numSampleRows = TableOutputFormatter.DEFAULT_SAMPLE_ROWS;
+    private int batchSize = 0;
+    private int unwindBatchSize = 0;
+    private boolean extractLiterals = false;
+    private int pipelineDepth = BoltStateHandler.DEFAULT_PIPELINE_DEPTH;
+    private int txChunk = 0;
+    private long txChunkBytes = 0;
+    private int resultMemory = 0;
+    private int maxRetries = RetryPolicy.DEFAULT_MAX_RETRIES;
+    private long retryDelay = RetryPolicy.DEFAULT_INITIAL_DELAY_MILLIS;
+    private int parallelism = 1;
+    private boolean adaptiveParallel = false;
+    private int maxRows = 0;
+    private Character delimiter = null;
+    private String nullValue = CsvOutputFormatter.DEFAULT_NULL_VALUE;
+    private String outputFile = null;
+    private String metricsFile = null;
+    private boolean summary = false;
+    private String summaryFile = null;
 
     /**
      * Set the scheme to the primary value, or if null, the fallback value.
@@ -89,6 +115,156 @@ public class CliArgs {
         this.nonInteractive = nonInteractive;
     }
 
+    /**
+     * Set whether table cells wider than their column should wrap onto the next line, or be truncated
+     */
+    public void setWrap(boolean wrap) {
+        this.wrap = wrap;
+    }
+
+    /**
+     * Set the maximum number of records to read of each result, 0 for no limit
+     */
+    public void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Set the number of statements after which an explicit transaction is committed and continued in a new one, 0 to
+     * only commit it when told to
+     */
+    public void setTxChunk(int txChunk) {
+        this.txChunk = txChunk;
+    }
+
+    /**
+     * Set the length of statement text after which an explicit transaction is committed and continued in a new one,
+     * 0 for no limit
+     */
+    public void setTxChunkBytes(long txChunkBytes) {
+        this.txChunkBytes = txChunkBytes;
+    }
+
+    /**
+     * Set the megabytes of heap for results which are read in full before they are printed, beyond which they are
+     * spilled to disk, 0 for no limit
+     */
+    public void setResultMemory(int resultMemory) {
+        this.resultMemory = resultMemory;
+    }
+
+    /**
+     * Set the number of times to retry a statement which failed in a way that is expected to go away by itself
+     */
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Set the delay in milliseconds before the first retry of a statement, which doubles with every retry
+     */
+    public void setRetryDelay(long retryDelay) {
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * Set whether results longer than the terminal should be paged in interactive mode
+     */
+    public void setPager(boolean pager) {
+        this.pager = pager;
+    }
+
+    /**
+     * Set the number of rows used to size the columns of a table
+     */
+    public void setNumSampleRows(int numSampleRows) {
+        this.numSampleRows = numSampleRows;
+    }
+
+    /**
+     * Set the field delimiter of csv and tsv output, or null for the default of the format
+     */
+    public void setDelimiter(@Nullable Character delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Set how null is represented in csv and tsv output
+     */
+    public void setNullValue(@Nonnull String nullValue) {
+        this.nullValue = nullValue;
+    }
+
+    /**
+     * Set the file results are written to, or null to print them to standard output
+     */
+    public void setOutputFile(@Nullable String outputFile) {
+        this.outputFile = outputFile;
+    }
+
+    /**
+     * Set the file the metrics of every statement are appended to, or null to not collect them
+     */
+    public void setMetricsFile(@Nullable String metricsFile) {
+        this.metricsFile = metricsFile;
+    }
+
+    /**
+     * Set whether to print a summary of the run to standard error when it ends
+     */
+    public void setSummary(boolean summary) {
+        this.summary = summary;
+    }
+
+    /**
+     * Set the file a summary of the run is appended to when it ends, or null to not write one
+     */
+    public void setSummaryFile(@Nullable String summaryFile) {
+        this.summaryFile = summaryFile;
+    }
+
+    /**
+     * Set the number of statements to execute per transaction when loading from a file, 0 to disable batching
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Set the largest number of statements of the same shape to collapse into one UNWIND statement, 0 to disable it
+     */
+    public void setUnwindBatchSize(int unwindBatchSize) {
+        this.unwindBatchSize = unwindBatchSize;
+    }
+
+    /**
+     * Set whether to send the literals of Cypher statements as parameters
+     */
+    public void setExtractLiterals(boolean extractLiterals) {
+        this.extractLiterals = extractLiterals;
+    }
+
+    /**
+     * Set the maximum number of statements of a transaction to send before waiting for results
+     */
+    public void setPipelineDepth(int pipelineDepth) {
+        this.pipelineDepth = pipelineDepth;
+    }
+
+    /**
+     * Set the number of sessions to execute statements on concurrently when loading from a file
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Set whether the number of batches executing at the same time is adjusted to the load on the server
+     */
+    public void setAdaptiveParallel(boolean adaptiveParallel) {
+        this.adaptiveParallel = adaptiveParallel;
+    }
+
     /**
      * Enable/disable debug mode
      */
@@ -140,6 +316,95 @@ public class CliArgs {
         return encryption;
     }
 
+    public boolean getWrap() {
+        return wrap;
+    }
+
+    public boolean getPager() {
+        return pager;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public int getTxChunk() {
+        return txChunk;
+    }
+
+    public long getTxChunkBytes() {
+        return txChunkBytes;
+    }
+
+    public int getResultMemory() {
+        return resultMemory;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public long getRetryDelay() {
+        return retryDelay;
+    }
+
+    public int getNumSampleRows() {
+        return numSampleRows;
+    }
+
+    @Nullable
+    public Character getDelimiter() {
+        return delimiter;
+    }
+
+    @Nonnull
+    public String getNullValue() {
+        return nullValue;
+    }
+
+    @Nullable
+    public String getOutputFile() {
+        return outputFile;
+    }
+
+    @Nullable
+    public String getMetricsFile() {
+        return metricsFile;
+    }
+
+    public boolean getSummary() {
+        return summary;
+    }
+
+    @Nullable
+    public String getSummaryFile() {
+        return summaryFile;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getUnwindBatchSize() {
+        return unwindBatchSize;
+    }
+
+    public boolean getExtractLiterals() {
+        return extractLiterals;
+    }
+
+    public int getPipelineDepth() {
+        return pipelineDepth;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public boolean getAdaptiveParallel() {
+        return adaptiveParallel;
+    }
+
     public boolean getDebugMode() {
         return debugMode;
     }
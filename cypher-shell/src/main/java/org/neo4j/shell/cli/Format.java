@@ -11,14 +11,29 @@ public enum Format {
     // Intended for human consumption
     VERBOSE,
     // Intended for machine consumption (nothing except data is printed
-    PLAIN;
-    // TODO JSON, strictly intended for machine consumption with data formatted in JSON
+    PLAIN,
+    // Comma separated values following RFC 4180, intended for other tools
+    CSV,
+    // Tab separated values, quoted like CSV
+    TSV,
+    // One JSON object per record, intended for other tools
+    JSONL,
+    // Binary Apache Arrow IPC streams, intended for analytics tools
+    ARROW;
 
     public static Format parse(@Nonnull String format) {
         if (format.equalsIgnoreCase(PLAIN.name())) {
             return PLAIN;
         } else if (format.equalsIgnoreCase( VERBOSE.name() )) {
             return VERBOSE;
+        } else if (format.equalsIgnoreCase(CSV.name())) {
+            return CSV;
+        } else if (format.equalsIgnoreCase(TSV.name())) {
+            return TSV;
+        } else if (format.equalsIgnoreCase(JSONL.name())) {
+            return JSONL;
+        } else if (format.equalsIgnoreCase(ARROW.name())) {
+            return ARROW;
         } else {
             return isInputInteractive() && isOutputInteractive() ? VERBOSE : PLAIN;
         }
@@ -12,6 +12,8 @@ import org.neo4j.shell.exception.NoMoreInputException;
 import org.neo4j.shell.log.AnsiFormattedText;
 import org.neo4j.shell.log.Logger;
 import org.neo4j.shell.parser.StatementParser;
+import org.neo4j.shell.prettyprint.OutputFormatter;
+import org.neo4j.shell.prettyprint.Pager;
 import sun.misc.Signal;
 import sun.misc.SignalHandler;
 
@@ -24,13 +26,17 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * A shell runner intended for interactive sessions where lines are input one by one and execution should happen
- * along the way.
+ * along the way. It can also page results which are longer than the terminal.
  */
-public class InteractiveShellRunner implements ShellRunner, SignalHandler {
+public class InteractiveShellRunner implements ShellRunner, SignalHandler, Pager {
     static final String INTERRUPT_SIGNAL = "INT";
     private final static AnsiFormattedText freshPrompt = AnsiFormattedText.s().bold().append("neo4j> ");
     private final static AnsiFormattedText continuationPrompt = AnsiFormattedText.s().bold().append("       ");
     private final static AnsiFormattedText transactionPrompt = AnsiFormattedText.s().bold().append("neo4j# ");
+    private final static AnsiFormattedText morePrompt = AnsiFormattedText.s().bold()
+            .append("-- more -- (press q to stop, any other key for the next page)");
+    private static final int CTRL_C = 3;
+    private static final int CTRL_D = 4;
     // Need to know if we are currently executing when catch Ctrl-C, needs to be atomic due to
     // being called from different thread
     private final AtomicBoolean currentlyExecuting;
@@ -138,6 +144,28 @@ public class InteractiveShellRunner implements ShellRunner, SignalHandler {
         }
     }
 
+    @Override
+    public int pageSize() {
+        // Leave a line for the prompt
+        return Math.max(1, reader.getTerminal().getHeight() - 1);
+    }
+
+    @Override
+    public boolean nextPage() {
+        try {
+            reader.print(morePrompt.renderedString());
+            reader.flush();
+            int key = reader.readCharacter();
+            // Overwrite the prompt, so that the next page continues right where the previous one ended
+            reader.print("\r" + OutputFormatter.repeat(' ', morePrompt.plainString().length()) + "\r");
+            reader.flush();
+            return key != 'q' && key != 'Q' && key != CTRL_C && key != CTRL_D && key != -1;
+        } catch (IOException e) {
+            logger.printError(e);
+            return false;
+        }
+    }
+
     /**
      * @return suitable prompt depending on current parsing state
      */
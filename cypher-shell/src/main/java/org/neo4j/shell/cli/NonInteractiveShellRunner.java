@@ -1,64 +1,218 @@
 package org.neo4j.shell.cli;
 
+import org.neo4j.driver.v1.Statement;
 import org.neo4j.shell.Historian;
+import org.neo4j.shell.ParallelExecuter;
 import org.neo4j.shell.ShellRunner;
 import org.neo4j.shell.StatementExecuter;
+import org.neo4j.shell.TransactionHandler;
+import org.neo4j.shell.exception.CommandException;
 import org.neo4j.shell.exception.ExitException;
 import org.neo4j.shell.log.Logger;
 import org.neo4j.shell.parser.StatementParser;
+import org.neo4j.shell.parser.StatementShape;
+import org.neo4j.shell.parser.UnwindBatcher;
+import org.neo4j.shell.prettyprint.StatisticsCollector;
+import org.neo4j.shell.state.BoltResult;
+import org.neo4j.shell.state.MergedSummaryCounters;
+import org.neo4j.shell.state.RetryPolicy;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 
 /**
- * A shell runner which reads all of STDIN and executes commands until completion. In case of errors, the failBehavior
- * determines if the shell exits immediately, or if it should keep trying the next commands.
+ * A shell runner which reads STDIN and executes commands until completion. Statements are parsed on a separate
+ * thread while earlier statements execute, with a bounded queue in between, so the input is never held in memory in
+ * its entirety. In case of errors, the failBehavior determines if the shell exits immediately, or if it should keep
+ * trying the next commands.
+ * <p>
+ * If a batch size is given, the shell runs in load mode: Cypher statements are grouped in explicit transactions of
+ * that many statements each, and progress is reported to the error stream as statements are executed. A batch with a
+ * statement which fails is rolled back as a whole, and its statements no longer count as executed.
+ * <p>
+ * If a parallelism above 1 is given, Cypher statements are executed concurrently on that many sessions, in batches of
+ * the batch size, or one by one if there is none. Commands, schema statements and statements inside a
+ * {@code :begin}/{@code :commit} block act as barriers: all earlier batches complete before they are executed on the
+ * shell's own session. Results and errors are reported in input order. With adaptive parallelism, the number of
+ * batches executing at the same time is instead adjusted between 1 and the parallelism by an
+ * {@link AdaptiveConcurrencyLimit}, as the server copes with the load, and is reported along with the progress.
+ * <p>
+ * If an UNWIND batch size is given, consecutive statements of the same shape which only create or merge are first
+ * collapsed into one by an {@link UnwindBatcher}. Such a statement counts as all the statements it stands for, for
+ * the batch size and the progress reported.
  */
 public class NonInteractiveShellRunner implements ShellRunner {
+    static final int STATEMENT_QUEUE_CAPACITY = 1024;
+    private static final long PROGRESS_INTERVAL_MS = 1000;
+    private static final String COMMAND_PREFIX = ":";
+    private static final Pattern SCHEMA_STATEMENT_PATTERN =
+            Pattern.compile("^\\s*(CREATE|DROP)\\s+(INDEX|CONSTRAINT)\\b", Pattern.CASE_INSENSITIVE);
+    // An empty list marks the end of the input, the parser only ever hands over non-empty lists
+    private static final List<String> END_OF_INPUT = Collections.emptyList();
 
     private final FailBehavior failBehavior;
     @Nonnull
     private final StatementExecuter executer;
+    @Nullable
+    private final TransactionHandler txHandler;
+    @Nullable
+    private final ParallelExecuter parallelExecuter;
     private final Logger logger;
     private final StatementParser statementParser;
     private final InputStream inputStream;
+    private final int batchSize;
+    private final int parallelism;
+    private final BlockingQueue<List<String>> statementQueue = new ArrayBlockingQueue<>(STATEMENT_QUEUE_CAPACITY);
+    private volatile boolean stopped;
+    private volatile Throwable readError;
+    // Set when an error was reported while carrying on with the statement after it
+    private boolean failedAtEnd;
+    private int statementsInBatch;
+    private long executedStatements;
+    private long startTime;
+    private long lastProgressTime;
+    private List<Statement> pendingBatch = new ArrayList<>();
+    private int statementsInPendingBatch;
+    private final Deque<CompletableFuture<List<BoltResult>>> runningBatches = new ArrayDeque<>();
+    // The number of statements each running batch stands for
+    private final Deque<Integer> statementsInRunningBatches = new ArrayDeque<>();
+    private UnwindBatcher unwindBatcher;
+    private AdaptiveConcurrencyLimit concurrencyLimit;
+    private final MergedSummaryCounters counters = new MergedSummaryCounters();
 
     public NonInteractiveShellRunner(@Nonnull FailBehavior failBehavior,
                                      @Nonnull StatementExecuter executer,
                                      @Nonnull Logger logger,
                                      @Nonnull StatementParser statementParser,
                                      @Nonnull InputStream inputStream) {
+        this(failBehavior, executer, null, logger, statementParser, inputStream, 0);
+    }
+
+    /**
+     * @param txHandler used to group statements in transactions, only required if batchSize is positive
+     * @param batchSize number of Cypher statements to execute per transaction, or 0 to execute each statement in its
+     *                  own implicit transaction
+     */
+    public NonInteractiveShellRunner(@Nonnull FailBehavior failBehavior,
+                                     @Nonnull StatementExecuter executer,
+                                     @Nullable TransactionHandler txHandler,
+                                     @Nonnull Logger logger,
+                                     @Nonnull StatementParser statementParser,
+                                     @Nonnull InputStream inputStream,
+                                     int batchSize) {
+        this(failBehavior, executer, txHandler, null, logger, statementParser, inputStream, batchSize, 1);
+    }
+
+    /**
+     * @param parallelExecuter used to execute statements concurrently, only required if parallelism is above 1
+     * @param parallelism      number of batches to execute at the same time
+     */
+    public NonInteractiveShellRunner(@Nonnull FailBehavior failBehavior,
+                                     @Nonnull StatementExecuter executer,
+                                     @Nullable TransactionHandler txHandler,
+                                     @Nullable ParallelExecuter parallelExecuter,
+                                     @Nonnull Logger logger,
+                                     @Nonnull StatementParser statementParser,
+                                     @Nonnull InputStream inputStream,
+                                     int batchSize,
+                                     int parallelism) {
+        if ((batchSize > 0 || parallelism > 1) && txHandler == null) {
+            throw new IllegalArgumentException("A transaction handler is required to execute statements in batches");
+        }
+        if (parallelism > 1 && parallelExecuter == null) {
+            throw new IllegalArgumentException("A parallel executer is required to execute statements in parallel");
+        }
         this.failBehavior = failBehavior;
         this.executer = executer;
+        this.txHandler = txHandler;
+        this.parallelExecuter = parallelExecuter;
         this.logger = logger;
         this.statementParser = statementParser;
         this.inputStream = inputStream;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param unwindBatchSize the largest number of statements to collapse into one, or 0 to execute them as written
+     */
+    public void setUnwindBatchSize(int unwindBatchSize) {
+        unwindBatcher = unwindBatchSize > 0 ? new UnwindBatcher(unwindBatchSize) : null;
+    }
+
+    /**
+     * @param adaptive true to adjust the number of batches executing at the same time to how well the server copes,
+     *                 up to the parallelism, instead of always executing that many
+     */
+    public void setAdaptiveParallelism(boolean adaptive) {
+        concurrencyLimit = adaptive && isParallel() ? new AdaptiveConcurrencyLimit(parallelism) : null;
     }
 
     @Override
     public int runUntilEnd() {
-        List<String> statements;
-        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream))) {
-            bufferedReader
-                    .lines()
-                    .forEach(line -> statementParser.parseMoreText(line + "\n"));
-            statements = statementParser.consumeStatements();
-        } catch (Throwable e) {
-            logger.printError(e);
-            return 1;
+        Thread reader = new Thread(this::readStatements, "cypher-shell-statement-reader");
+        reader.setDaemon(true);
+        startTime = lastProgressTime = System.currentTimeMillis();
+        if (isParallel()) {
+            try {
+                parallelExecuter.startWorkers(parallelism);
+            } catch (CommandException e) {
+                logger.printError(e);
+                return 1;
+            }
+        }
+        reader.start();
+
+        try {
+            return executeStatements();
+        } finally {
+            // Unblocks the reader if we stopped before reaching the end of the input
+            stopped = true;
+            if (isParallel()) {
+                parallelExecuter.stopWorkers();
+            }
         }
+    }
 
+    private int executeStatements() {
         int exitCode = 0;
-        for (String statement : statements) {
+        List<String> statements;
+        while ((statements = takeStatements()) != END_OF_INPUT) {
+            for (String statement : statements) {
+                try {
+                    execute(statement);
+                } catch (ExitException e) {
+                    // These exceptions are always fatal
+                    return e.getCode();
+                } catch (Throwable e) {
+                    exitCode = 1;
+                    logger.printError(e);
+                    if (FailBehavior.FAIL_AT_END != failBehavior) {
+                        rollBackBatch(0);
+                        return exitCode;
+                    }
+                }
+            }
+        }
+
+        while (hasPendingWork()) {
             try {
-                executer.execute(statement);
-            } catch (ExitException e) {
-                // These exceptions are always fatal
-                return e.getCode();
+                finishPendingWork();
             } catch (Throwable e) {
                 exitCode = 1;
                 logger.printError(e);
@@ -67,7 +221,348 @@ public class NonInteractiveShellRunner implements ShellRunner {
                 }
             }
         }
-        return exitCode;
+
+        if (readError != null) {
+            logger.printError(readError);
+            return 1;
+        }
+
+        if (isLoadMode() || isParallel()) {
+            logger.printError(progress());
+        }
+        if (isParallel() && counters.containsUpdates()) {
+            logger.printError(StatisticsCollector.collectStatistics(counters));
+        }
+        return failedAtEnd ? 1 : exitCode;
+    }
+
+    private void execute(@Nonnull String statement) throws ExitException, CommandException {
+        if (unwindBatcher == null) {
+            execute(new Statement(statement), 1);
+            return;
+        }
+        StatementShape shape = isCommand(statement) ? null : UnwindBatcher.shapeOf(statement);
+        if (shape != null && unwindBatcher.fits(shape)) {
+            unwindBatcher.add(statement, shape);
+            if (unwindBatcher.isFull()) {
+                executeUnwindBatch();
+            }
+            return;
+        }
+        flushUnwindBatchBefore();
+        if (shape != null) {
+            unwindBatcher.add(statement, shape);
+        } else {
+            execute(new Statement(statement), 1);
+        }
+    }
+
+    /**
+     * Executes the UNWIND batch before a statement which does not fit in it. The statement still has to be executed
+     * or batched if that fails and the shell carries on after errors, since it may well be a command like
+     * {@code :commit} or {@code :param}, so the error is reported here instead of being thrown past it.
+     */
+    private void flushUnwindBatchBefore() throws ExitException, CommandException {
+        try {
+            executeUnwindBatch();
+        } catch (ExitException e) {
+            throw e;
+        } catch (Throwable e) {
+            if (FailBehavior.FAIL_AT_END != failBehavior) {
+                throw e;
+            }
+            failedAtEnd = true;
+            logger.printError(e);
+        }
+    }
+
+    private void executeUnwindBatch() throws ExitException, CommandException {
+        if (unwindBatcher != null && !unwindBatcher.isEmpty()) {
+            int statements = unwindBatcher.size();
+            execute(unwindBatcher.flush(), statements);
+        }
+    }
+
+    /**
+     * @param statements the number of statements of the input the statement stands for
+     */
+    private void execute(@Nonnull Statement statement, int statements) throws ExitException, CommandException {
+        if (isParallel()) {
+            executeInParallel(statement, statements);
+            return;
+        }
+        if (!isLoadMode()) {
+            run(statement);
+            return;
+        }
+
+        if (isCommand(statement.text())) {
+            // Commands, like :param or a user's own :begin, must see everything before them committed
+            commitBatch();
+        } else if (statementsInBatch == 0 && !txHandler.isTransactionOpen()) {
+            txHandler.beginTransaction();
+            statementsInBatch = statements;
+        } else if (statementsInBatch > 0) {
+            statementsInBatch += statements;
+        }
+
+        try {
+            run(statement);
+        } catch (ExitException e) {
+            throw e;
+        } catch (Throwable e) {
+            // The failed statement terminated the transaction, later statements of the batch could only fail too
+            rollBackBatch(statements);
+            throw e;
+        }
+        executedStatements += statements;
+
+        if (statementsInBatch >= batchSize) {
+            commitBatch();
+        }
+        reportProgress();
+    }
+
+    /**
+     * Statements with parameters of their own are always Cypher, others may be commands too
+     */
+    private void run(@Nonnull Statement statement) throws ExitException, CommandException {
+        if (statement.parameters().isEmpty()) {
+            executer.execute(statement.text());
+        } else {
+            executer.execute(statement);
+        }
+    }
+
+    private void executeInParallel(@Nonnull Statement statement, int statements)
+            throws ExitException, CommandException {
+        String text = statement.text();
+        if (isCommand(text) || isSchemaStatement(text) || txHandler.isTransactionOpen()) {
+            // Everything before a barrier has to be done before it executes, and nothing after it can start earlier
+            awaitWorkers();
+            run(statement);
+            executedStatements += statements;
+            reportProgress();
+            return;
+        }
+
+        pendingBatch.add(statement);
+        statementsInPendingBatch += statements;
+        if (statementsInPendingBatch >= Math.max(1, batchSize)) {
+            submitBatch();
+        }
+    }
+
+    private void submitBatch() throws CommandException {
+        if (pendingBatch.isEmpty()) {
+            return;
+        }
+        while (runningBatches.size() >= runningBatchLimit()) {
+            completeOldestBatch();
+        }
+        long start = System.nanoTime();
+        int statements = statementsInPendingBatch;
+        CompletableFuture<List<BoltResult>> batch = parallelExecuter.executeOnWorker(pendingBatch, batchSize > 0);
+        if (concurrencyLimit != null) {
+            batch.whenComplete((results, e) -> onBatchCompleted(System.nanoTime() - start, statements, results, e));
+        }
+        runningBatches.addLast(batch);
+        statementsInRunningBatches.addLast(statements);
+        pendingBatch = new ArrayList<>();
+        statementsInPendingBatch = 0;
+    }
+
+    private int runningBatchLimit() {
+        return concurrencyLimit == null ? parallelism : concurrencyLimit.getLimit();
+    }
+
+    /**
+     * Tells the concurrency limit how a batch went, as soon as it completes. Failures which would not go away by
+     * themselves, such as syntax errors, say nothing about how well the server copes.
+     */
+    private void onBatchCompleted(long nanos, int statements, @Nullable List<BoltResult> results,
+                                  @Nullable Throwable e) {
+        Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+        if (cause != null && !RetryPolicy.isRetryable(cause)) {
+            return;
+        }
+        boolean overloaded = cause != null || results.stream().anyMatch(result -> result.getRetries() > 0);
+        concurrencyLimit.onBatchCompleted(nanos, statements, overloaded);
+    }
+
+    /**
+     * Waits for the batch which was submitted first, so that results and errors are reported in input order.
+     */
+    private void completeOldestBatch() throws CommandException {
+        List<BoltResult> results;
+        int statements = statementsInRunningBatches.removeFirst();
+        try {
+            results = runningBatches.removeFirst().join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new CommandException(cause.getMessage());
+        }
+        parallelExecuter.printResults(results);
+        for (BoltResult result : results) {
+            counters.add(result.getSummary().counters());
+        }
+        executedStatements += statements;
+        reportProgress();
+    }
+
+    private void awaitWorkers() throws CommandException {
+        submitBatch();
+        while (!runningBatches.isEmpty()) {
+            completeOldestBatch();
+        }
+    }
+
+    private boolean hasPendingWork() {
+        if (unwindBatcher != null && !unwindBatcher.isEmpty()) {
+            return true;
+        }
+        if (isParallel()) {
+            return !pendingBatch.isEmpty() || !runningBatches.isEmpty();
+        }
+        return statementsInBatch > 0;
+    }
+
+    private void finishPendingWork() throws ExitException, CommandException {
+        executeUnwindBatch();
+        if (isParallel()) {
+            awaitWorkers();
+        } else {
+            commitBatch();
+        }
+    }
+
+    /**
+     * Commits the transaction opened for the current batch, if any. If the commit fails the transaction is rolled
+     * back, so that the next batch can start afresh.
+     */
+    private void commitBatch() throws CommandException {
+        if (statementsInBatch == 0) {
+            return;
+        }
+        int statements = statementsInBatch;
+        statementsInBatch = 0;
+        try {
+            txHandler.commitTransaction();
+        } catch (Throwable e) {
+            if (txHandler.isTransactionOpen()) {
+                txHandler.rollbackTransaction();
+            }
+            executedStatements -= statements;
+            logger.printError(String.format("Rolled back the batch of %d statement(s), since it failed to commit",
+                    statements));
+            throw e;
+        }
+    }
+
+    /**
+     * Rolls back the transaction opened for the current batch, if any, so that the next batch can start afresh, and
+     * tells how many of its statements which had executed were rolled back with it.
+     *
+     * @param failed the number of statements of the batch the statement which failed stands for, which were not
+     *               counted as executed, or 0 if none failed
+     */
+    private void rollBackBatch(int failed) {
+        if (statementsInBatch == 0) {
+            return;
+        }
+        int rolledBack = statementsInBatch - failed;
+        statementsInBatch = 0;
+        executedStatements -= rolledBack;
+        try {
+            if (txHandler.isTransactionOpen()) {
+                txHandler.rollbackTransaction();
+            }
+        } catch (Throwable e) {
+            logger.printError(e);
+        }
+        logger.printError(String.format("Rolled back the batch, along with %d statement(s) of it which had executed",
+                rolledBack));
+    }
+
+    private void reportProgress() {
+        long now = System.currentTimeMillis();
+        if (now - lastProgressTime >= PROGRESS_INTERVAL_MS) {
+            lastProgressTime = now;
+            logger.printError(progress());
+        }
+    }
+
+    @Nonnull
+    private String progress() {
+        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+        String progress = String.format("Executed %d statements in %d ms (%d statements/s)", executedStatements,
+                elapsed, executedStatements * 1000 / elapsed);
+        if (concurrencyLimit != null) {
+            progress += String.format(", %d of at most %d batches at a time", concurrencyLimit.getLimit(),
+                    concurrencyLimit.getMax());
+        }
+        return progress;
+    }
+
+    private boolean isLoadMode() {
+        return batchSize > 0;
+    }
+
+    private boolean isParallel() {
+        return parallelism > 1;
+    }
+
+    private static boolean isCommand(@Nonnull String statement) {
+        return statement.trim().startsWith(COMMAND_PREFIX);
+    }
+
+    /**
+     * Schema changes can not be executed in the same transaction as writes, and later statements may depend on them
+     */
+    private static boolean isSchemaStatement(@Nonnull String statement) {
+        return SCHEMA_STATEMENT_PATTERN.matcher(statement).find();
+    }
+
+    @Nonnull
+    private List<String> takeStatements() {
+        try {
+            return statementQueue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return END_OF_INPUT;
+        }
+    }
+
+    /**
+     * Runs on the reader thread, parsing the input and handing over statements as soon as they are complete.
+     */
+    private void readStatements() {
+        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream))) {
+            String line;
+            while (!stopped && (line = bufferedReader.readLine()) != null) {
+                statementParser.parseMoreText(line + "\n");
+                if (statementParser.hasStatements()) {
+                    putStatements(statementParser.consumeStatements());
+                }
+            }
+        } catch (Throwable e) {
+            readError = e;
+        } finally {
+            putStatements(END_OF_INPUT);
+        }
+    }
+
+    private void putStatements(@Nonnull List<String> statements) {
+        try {
+            while (!stopped && !statementQueue.offer(statements, 100, TimeUnit.MILLISECONDS)) {
+                // The executing side is busy, wait for room in the queue
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     @Nonnull
@@ -22,10 +22,10 @@ public class CommandHelper {
     private final TreeMap<String, Command> commands = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
 
     public CommandHelper(Logger logger, Historian historian, CypherShell cypherShell) {
-        registerAllCommands(logger, historian, cypherShell, cypherShell);
+        registerAllCommands(logger, historian, cypherShell, cypherShell, cypherShell);
     }
 
-    private void registerAllCommands(Logger logger, Historian historian,
+    private void registerAllCommands(Logger logger, Historian historian, CypherShell cypherShell,
                                      TransactionHandler transactionHandler, VariableHolder variableHolder) {
         registerCommand(new Exit(logger));
         registerCommand(new Help(logger, this));
@@ -35,6 +35,8 @@ public class CommandHelper {
         registerCommand(new Rollback(transactionHandler));
         registerCommand(new Param(variableHolder));
         registerCommand(new Params(logger, variableHolder));
+        registerCommand(new Set(logger, cypherShell));
+        registerCommand(new Timing(logger, cypherShell));
     }
 
     private void registerCommand(@Nonnull final Command command) throws DuplicateCommandException {
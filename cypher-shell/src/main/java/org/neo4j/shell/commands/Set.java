@@ -0,0 +1,122 @@
+package org.neo4j.shell.commands;
+
+import org.neo4j.shell.CypherShell;
+import org.neo4j.shell.exception.CommandException;
+import org.neo4j.shell.log.AnsiFormattedText;
+import org.neo4j.shell.log.Logger;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.List;
+
+import static org.neo4j.shell.commands.CommandHelper.simpleArgParse;
+
+/**
+ * This command changes an option of the shell, or lists them all.
+ */
+public class Set implements Command {
+    public static final String COMMAND_NAME = ":set";
+    static final String MAX_ROWS = "max-rows";
+    static final String EXTRACT_LITERALS = "extract-literals";
+    static final String TX_CHUNK = "tx-chunk";
+    static final String TX_CHUNK_BYTES = "tx-chunk-bytes";
+
+    private final Logger logger;
+    private final CypherShell shell;
+
+    public Set(@Nonnull final Logger logger, @Nonnull final CypherShell shell) {
+        this.logger = logger;
+        this.shell = shell;
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return COMMAND_NAME;
+    }
+
+    @Nonnull
+    @Override
+    public String getDescription() {
+        return "Set an option of the shell";
+    }
+
+    @Nonnull
+    @Override
+    public String getUsage() {
+        return "[option value]";
+    }
+
+    @Nonnull
+    @Override
+    public String getHelp() {
+        return "Set the option to the value given, or print the current options if none is given. Options are:\n" +
+                MAX_ROWS + " N: the maximum number of records to fetch for a result, 0 for no limit. The rest of " +
+                "a longer result is discarded, and the result is marked as truncated.\n" +
+                EXTRACT_LITERALS + " true|false: send the string and number literals of statements as " +
+                "parameters, so that statements which only differ in their literals are planned once by the server.\n" +
+                TX_CHUNK + " N: commit an explicit transaction every N statements and carry on in a new one, 0 to " +
+                "only commit it on " + Commit.COMMAND_NAME + ".\n" +
+                TX_CHUNK_BYTES + " N: commit an explicit transaction once its statements add up to N characters " +
+                "and carry on in a new one, 0 for no limit.";
+    }
+
+    @Nonnull
+    @Override
+    public List<String> getAliases() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void execute(@Nonnull final String argString) throws CommandException {
+        String[] args = simpleArgParse(argString, 0, 2, COMMAND_NAME, getUsage());
+        if (args.length == 0) {
+            logger.printOut(MAX_ROWS + ": " + shell.getMaxRows());
+            logger.printOut(EXTRACT_LITERALS + ": " + shell.getExtractLiterals());
+            logger.printOut(TX_CHUNK + ": " + shell.getTxChunk());
+            logger.printOut(TX_CHUNK_BYTES + ": " + shell.getTxChunkBytes());
+            return;
+        }
+        if (args.length != 2) {
+            throw new CommandException(AnsiFormattedText.from("Incorrect number of arguments.\nusage: ")
+                    .bold().append(COMMAND_NAME).boldOff().append(" ").append(getUsage()));
+        }
+        if (MAX_ROWS.equalsIgnoreCase(args[0])) {
+            shell.setMaxRows(parseMaxRows(args[1]));
+        } else if (EXTRACT_LITERALS.equalsIgnoreCase(args[0])) {
+            shell.setExtractLiterals(parseBoolean(EXTRACT_LITERALS, args[1]));
+        } else if (TX_CHUNK.equalsIgnoreCase(args[0])) {
+            shell.setTxChunk((int) parseLimit(TX_CHUNK, args[1], Integer.MAX_VALUE, "a number of statements"));
+        } else if (TX_CHUNK_BYTES.equalsIgnoreCase(args[0])) {
+            shell.setTxChunkBytes(parseLimit(TX_CHUNK_BYTES, args[1], Long.MAX_VALUE, "a number of characters"));
+        } else {
+            throw new CommandException(AnsiFormattedText.from("Unknown option: ").bold().append(args[0]).boldOff()
+                    .append("\nOptions are: ")
+                    .append(String.join(", ", MAX_ROWS, EXTRACT_LITERALS, TX_CHUNK, TX_CHUNK_BYTES)));
+        }
+    }
+
+    private static boolean parseBoolean(@Nonnull String option, @Nonnull String value) throws CommandException {
+        if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+            return Boolean.parseBoolean(value);
+        }
+        throw new CommandException(AnsiFormattedText.from(option + " must be true or false"));
+    }
+
+    private static int parseMaxRows(@Nonnull String value) throws CommandException {
+        return (int) parseLimit(MAX_ROWS, value, Integer.MAX_VALUE, "a number of rows");
+    }
+
+    private static long parseLimit(@Nonnull String option, @Nonnull String value, long max, @Nonnull String what)
+            throws CommandException {
+        try {
+            long limit = Long.parseLong(value);
+            if (limit >= 0 && limit <= max) {
+                return limit;
+            }
+        } catch (NumberFormatException ignored) {
+            // Reported below
+        }
+        throw new CommandException(AnsiFormattedText.from(option + " must be " + what + ", or 0 for no limit"));
+    }
+}
@@ -0,0 +1,82 @@
+package org.neo4j.shell.commands;
+
+import org.neo4j.shell.CypherShell;
+import org.neo4j.shell.exception.CommandException;
+import org.neo4j.shell.log.AnsiFormattedText;
+import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.metrics.MetricsListener;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.List;
+
+import static org.neo4j.shell.commands.CommandHelper.simpleArgParse;
+
+/**
+ * This command turns printing the timing of every statement on or off.
+ */
+public class Timing implements Command {
+    public static final String COMMAND_NAME = ":timing";
+
+    private final Logger logger;
+    private final CypherShell shell;
+    private final MetricsListener listener;
+    private boolean on;
+
+    public Timing(@Nonnull final Logger logger, @Nonnull final CypherShell shell) {
+        this.logger = logger;
+        this.shell = shell;
+        this.listener = metrics -> logger.printOut(metrics.toString());
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return COMMAND_NAME;
+    }
+
+    @Nonnull
+    @Override
+    public String getDescription() {
+        return "Print the timing of every statement";
+    }
+
+    @Nonnull
+    @Override
+    public String getUsage() {
+        return "[on|off]";
+    }
+
+    @Nonnull
+    @Override
+    public String getHelp() {
+        return "Turn printing where the time of every statement went on or off, or print whether it is on if no " +
+                "argument is given. The time spent in the shell, on the network and writing the output is " +
+                "printed along with the timings reported by the server.";
+    }
+
+    @Nonnull
+    @Override
+    public List<String> getAliases() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void execute(@Nonnull final String argString) throws CommandException {
+        String[] args = simpleArgParse(argString, 0, 1, COMMAND_NAME, getUsage());
+        if (args.length == 0) {
+            logger.printOut("timing: " + (on ? "on" : "off"));
+        } else if ("on".equalsIgnoreCase(args[0])) {
+            if (!on) {
+                shell.addMetricsListener(listener);
+                on = true;
+            }
+        } else if ("off".equalsIgnoreCase(args[0])) {
+            shell.removeMetricsListener(listener);
+            on = false;
+        } else {
+            throw new CommandException(AnsiFormattedText.from("Incorrect argument.\nusage: ")
+                    .bold().append(COMMAND_NAME).boldOff().append(" ").append(getUsage()));
+        }
+    }
+}
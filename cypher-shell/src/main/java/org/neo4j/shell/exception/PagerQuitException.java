@@ -0,0 +1,8 @@
+package org.neo4j.shell.exception;
+
+/**
+ * Signifies that the user quit the pager, and does not want to see the rest of the result.
+ */
+public class PagerQuitException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+}
@@ -5,10 +5,13 @@ import org.fusesource.jansi.AnsiConsole;
 import org.neo4j.driver.v1.exceptions.ClientException;
 import org.neo4j.shell.cli.Format;
 import org.neo4j.shell.exception.AnsiFormattedException;
+import org.neo4j.shell.prettyprint.BufferedOutput;
+import org.neo4j.shell.prettyprint.LinePrinter;
 
 import javax.annotation.Nonnull;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
 import static org.fusesource.jansi.internal.CLibrary.STDERR_FILENO;
@@ -16,11 +19,14 @@ import static org.fusesource.jansi.internal.CLibrary.STDOUT_FILENO;
 import static org.fusesource.jansi.internal.CLibrary.isatty;
 
 /**
- * A basic logger which prints Ansi formatted text to STDOUT and STDERR
+ * A basic logger which prints Ansi formatted text to STDOUT and STDERR. Result data is printed to STDOUT unformatted.
  */
 public class AnsiLogger implements Logger {
+    private static final int RESULT_BUFFER_SIZE = 1 << 16;
+
     private final PrintStream out;
     private final PrintStream err;
+    private final BufferedOutput resultOutput;
     private final boolean debug;
     private Format format;
 
@@ -34,6 +40,7 @@ public class AnsiLogger implements Logger {
         this.format = format;
         this.out = out;
         this.err = err;
+        this.resultOutput = new BufferedOutput(out, RESULT_BUFFER_SIZE, Charset.defaultCharset());
 
         try {
             if (isOutputInteractive()) {
@@ -78,6 +85,12 @@ public class AnsiLogger implements Logger {
         return err;
     }
 
+    @Nonnull
+    @Override
+    public LinePrinter getResultOutput() {
+        return resultOutput;
+    }
+
     @Nonnull
     @Override
     public Format getFormat() {
@@ -109,6 +122,12 @@ public class AnsiLogger implements Logger {
         out.println(Ansi.ansi().render(msg).toString());
     }
 
+    @Override
+    public void printOut(@Nonnull final String msg, @Nonnull final String terminator) {
+        out.print(Ansi.ansi().render(msg).toString());
+        out.print(terminator);
+    }
+
     /**
      * Interpret the cause of a Bolt exception and translate it into a sensible error message.
      */
@@ -1,11 +1,12 @@
 package org.neo4j.shell.log;
 
 import org.neo4j.shell.cli.Format;
+import org.neo4j.shell.prettyprint.LinePrinter;
 
 import javax.annotation.Nonnull;
 import java.io.PrintStream;
 
-public interface Logger {
+public interface Logger extends LinePrinter {
     /**
      * @return the output stream
      */
@@ -38,8 +39,18 @@ public interface Logger {
      *
      * @param text to print to the output stream
      */
+    @Override
     void printOut(@Nonnull String text);
 
+    /**
+     * Lines printed here are written exactly as given, without the Ansi rendering which {@link #printOut(String)}
+     * does, and may be buffered until {@link LinePrinter#flush()} is called.
+     *
+     * @return where result data is printed
+     */
+    @Nonnull
+    LinePrinter getResultOutput();
+
     /**
      * @return the current format of the logger
      */
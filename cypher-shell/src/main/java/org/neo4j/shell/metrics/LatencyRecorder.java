@@ -0,0 +1,76 @@
+package org.neo4j.shell.metrics;
+
+/**
+ * Records durations in a fixed amount of memory, however many there are, in the manner of an HdrHistogram. Values
+ * are counted in buckets which double in width, each split into 64 sub-buckets, so percentiles are accurate to
+ * within 1/64th of the value while a recorder takes about 30 kB.
+ */
+public class LatencyRecorder {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+
+    private final long[] counts = new long[(Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_HALF_COUNT];
+    private long count;
+    private long sum;
+    private long max;
+
+    /**
+     * @param value to record, negative values are ignored
+     */
+    public void record(long value) {
+        if (value < 0) {
+            return;
+        }
+        counts[indexOf(value)]++;
+        count++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the value which the given percentage of recorded values are at or below, or 0 if none were recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return 0;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // Keep the top SUB_BUCKET_BITS bits of the value, the shift tells which bucket they belong to
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+    }
+
+    private static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return (subBucket << shift) + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,57 @@
+package org.neo4j.shell.metrics;
+
+import org.neo4j.shell.prettyprint.OutputFormatter;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Appends the metrics of each statement to a file as a line of JSON, which is flushed straight away so that the file
+ * can be followed while a script is running.
+ */
+public class MetricsFile implements MetricsListener, AutoCloseable {
+    private final Writer writer;
+
+    public MetricsFile(@Nonnull Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * @param path of the file to append to, which is created if it does not exist
+     * @return a listener writing to the file
+     * @throws IOException if the file could not be opened
+     */
+    @Nonnull
+    public static MetricsFile append(@Nonnull String path) throws IOException {
+        return new MetricsFile(Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8, CREATE, APPEND, WRITE));
+    }
+
+    @Override
+    public void statementCompleted(@Nonnull StatementMetrics metrics) {
+        try {
+            writer.write(metrics.toJson());
+            writer.write(OutputFormatter.NEWLINE);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
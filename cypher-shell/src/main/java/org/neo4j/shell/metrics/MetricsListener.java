@@ -0,0 +1,14 @@
+package org.neo4j.shell.metrics;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Is told about every statement whose result has been printed, or which failed, while metrics are being collected.
+ */
+public interface MetricsListener {
+
+    /**
+     * @param metrics of the statement which just completed, or failed if {@link StatementMetrics#isFailed()}
+     */
+    void statementCompleted(@Nonnull StatementMetrics metrics);
+}
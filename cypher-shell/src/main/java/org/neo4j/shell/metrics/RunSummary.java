@@ -0,0 +1,163 @@
+package org.neo4j.shell.metrics;
+
+import org.neo4j.driver.v1.summary.SummaryCounters;
+
+import javax.annotation.Nonnull;
+import java.util.Locale;
+
+/**
+ * Adds up the metrics of every statement of a run, to report on once it has ended.
+ */
+public class RunSummary implements MetricsListener {
+    private final LatencyRecorder latencies = new LatencyRecorder();
+    private final long started = System.nanoTime();
+    private long statements;
+    private long failures;
+    private long rows;
+    private long bytes;
+    private long retries;
+    private long retriedStatements;
+    private long nodesCreated;
+    private long nodesDeleted;
+    private long relationshipsCreated;
+    private long relationshipsDeleted;
+    private long propertiesSet;
+    private long labelsAdded;
+    private long labelsRemoved;
+    private long indexesAdded;
+    private long indexesRemoved;
+    private long constraintsAdded;
+    private long constraintsRemoved;
+
+    @Override
+    public void statementCompleted(@Nonnull StatementMetrics metrics) {
+        statements++;
+        latencies.record(metrics.getTotalNanos());
+        if (metrics.isFailed()) {
+            failures++;
+        }
+        rows += metrics.getRows();
+        bytes += metrics.getBytes();
+        retries += metrics.getRetries();
+        if (metrics.getRetries() > 0) {
+            retriedStatements++;
+        }
+        SummaryCounters counters = metrics.getCounters();
+        nodesCreated += counters.nodesCreated();
+        nodesDeleted += counters.nodesDeleted();
+        relationshipsCreated += counters.relationshipsCreated();
+        relationshipsDeleted += counters.relationshipsDeleted();
+        propertiesSet += counters.propertiesSet();
+        labelsAdded += counters.labelsAdded();
+        labelsRemoved += counters.labelsRemoved();
+        indexesAdded += counters.indexesAdded();
+        indexesRemoved += counters.indexesRemoved();
+        constraintsAdded += counters.constraintsAdded();
+        constraintsRemoved += counters.constraintsRemoved();
+    }
+
+    /**
+     * @return the number of statements, including those which failed
+     */
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    @Nonnull
+    public LatencyRecorder getLatencies() {
+        return latencies;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the number of times statements were retried after failures which were expected to go away by themselves
+     */
+    public long getRetries() {
+        return retries;
+    }
+
+    /**
+     * @return the number of statements which had to be retried
+     */
+    public long getRetriedStatements() {
+        return retriedStatements;
+    }
+
+    public long getNodesCreated() {
+        return nodesCreated;
+    }
+
+    public long getRelationshipsCreated() {
+        return relationshipsCreated;
+    }
+
+    public long getPropertiesSet() {
+        return propertiesSet;
+    }
+
+    /**
+     * @return the summary as a single line JSON object, with durations in milliseconds
+     */
+    @Nonnull
+    public String toJson() {
+        return "{\"statements\":" + statements +
+                ",\"failures\":" + failures +
+                ",\"elapsed_ms\":" + millis(System.nanoTime() - started) +
+                ",\"total_ms\":" + millis(latencies.getSum()) +
+                ",\"p50_ms\":" + millis(latencies.getValueAtPercentile(50)) +
+                ",\"p95_ms\":" + millis(latencies.getValueAtPercentile(95)) +
+                ",\"p99_ms\":" + millis(latencies.getValueAtPercentile(99)) +
+                ",\"max_ms\":" + millis(latencies.getMax()) +
+                ",\"rows\":" + rows +
+                ",\"bytes\":" + bytes +
+                ",\"retries\":" + retries +
+                ",\"retried_statements\":" + retriedStatements +
+                ",\"nodes_created\":" + nodesCreated +
+                ",\"nodes_deleted\":" + nodesDeleted +
+                ",\"relationships_created\":" + relationshipsCreated +
+                ",\"relationships_deleted\":" + relationshipsDeleted +
+                ",\"properties_set\":" + propertiesSet +
+                ",\"labels_added\":" + labelsAdded +
+                ",\"labels_removed\":" + labelsRemoved +
+                ",\"indexes_added\":" + indexesAdded +
+                ",\"indexes_removed\":" + indexesRemoved +
+                ",\"constraints_added\":" + constraintsAdded +
+                ",\"constraints_removed\":" + constraintsRemoved + "}";
+    }
+
+    /**
+     * @return the summary in a form meant to be read by the user, over a few lines
+     */
+    @Nonnull
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "Statements: %d, of which %d failed, in %s ms, %s ms spent on statements%n" +
+                        "Latency: p50 %s ms, p95 %s ms, p99 %s ms, max %s ms%n" +
+                        "Records: %d, bytes written: %d; retries: %d, of %d statement(s)%n" +
+                        "Nodes created: %d, deleted: %d; relationships created: %d, deleted: %d; " +
+                        "properties set: %d; labels added: %d, removed: %d; indexes added: %d, removed: %d; " +
+                        "constraints added: %d, removed: %d",
+                statements, failures, millis(System.nanoTime() - started), millis(latencies.getSum()),
+                millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(95)),
+                millis(latencies.getValueAtPercentile(99)), millis(latencies.getMax()),
+                rows, bytes, retries, retriedStatements,
+                nodesCreated, nodesDeleted, relationshipsCreated, relationshipsDeleted, propertiesSet,
+                labelsAdded, labelsRemoved, indexesAdded, indexesRemoved, constraintsAdded, constraintsRemoved);
+    }
+
+    @Nonnull
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,217 @@
+package org.neo4j.shell.metrics;
+
+import org.neo4j.driver.internal.summary.InternalSummaryCounters;
+import org.neo4j.driver.v1.summary.SummaryCounters;
+import org.neo4j.shell.prettyprint.JsonLinesOutputFormatter;
+
+import javax.annotation.Nonnull;
+import java.util.Locale;
+
+/**
+ * Where the time went for a single statement, measured by the shell, along with the timings reported by the server.
+ * Durations are in nanoseconds, and are -1 when they are not known, such as the parse and run times of statements
+ * executed in a transaction, which were sent when it was committed.
+ * <ul>
+ * <li>parse: from receiving the statement until sending it, spent recognising it and finding its parameters</li>
+ * <li>run: from sending the statement until the server has accepted it, a network round trip plus planning</li>
+ * <li>first record: from sending the statement until its first record was received</li>
+ * <li>fetch: waiting for records and the summary to arrive while printing them</li>
+ * <li>render: formatting the records</li>
+ * <li>write: writing the formatted result to the output</li>
+ * <li>total: from receiving the statement until its result has been written, not counting time spent paging</li>
+ * </ul>
+ * The server reports when the result became available and how long it took to consume it, in milliseconds. Statements
+ * which failed in a way that was expected to go away by itself may have been retried before they succeeded, the
+ * durations include the retries. Statements which failed for good are measured up to the failure, without any
+ * records, server timings or counters.
+ */
+public class StatementMetrics {
+    private final String statement;
+    private final long parseNanos;
+    private final long runNanos;
+    private final long firstRecordNanos;
+    private final long fetchNanos;
+    private final long renderNanos;
+    private final long writeNanos;
+    private final long totalNanos;
+    private final long rows;
+    private final long bytes;
+    private final long serverAvailableMillis;
+    private final long serverConsumedMillis;
+    private final boolean truncated;
+    private final int retries;
+    private final SummaryCounters counters;
+    private final boolean failed;
+
+    public StatementMetrics(@Nonnull String statement, long parseNanos, long runNanos, long firstRecordNanos,
+                            long fetchNanos, long renderNanos, long writeNanos, long totalNanos, long rows, long bytes,
+                            long serverAvailableMillis, long serverConsumedMillis, boolean truncated, int retries,
+                            @Nonnull SummaryCounters counters) {
+        this(statement, parseNanos, runNanos, firstRecordNanos, fetchNanos, renderNanos, writeNanos, totalNanos, rows,
+                bytes, serverAvailableMillis, serverConsumedMillis, truncated, retries, counters, false);
+    }
+
+    private StatementMetrics(@Nonnull String statement, long parseNanos, long runNanos, long firstRecordNanos,
+                             long fetchNanos, long renderNanos, long writeNanos, long totalNanos, long rows,
+                             long bytes, long serverAvailableMillis, long serverConsumedMillis, boolean truncated,
+                             int retries, @Nonnull SummaryCounters counters, boolean failed) {
+        this.statement = statement;
+        this.parseNanos = parseNanos;
+        this.runNanos = runNanos;
+        this.firstRecordNanos = firstRecordNanos;
+        this.fetchNanos = fetchNanos;
+        this.renderNanos = renderNanos;
+        this.writeNanos = writeNanos;
+        this.totalNanos = totalNanos;
+        this.rows = rows;
+        this.bytes = bytes;
+        this.serverAvailableMillis = serverAvailableMillis;
+        this.serverConsumedMillis = serverConsumedMillis;
+        this.truncated = truncated;
+        this.retries = retries;
+        this.counters = counters;
+        this.failed = failed;
+    }
+
+    /**
+     * @param parseNanos from receiving the statement until sending it, or -1 if it was never sent
+     * @param totalNanos from receiving the statement until it failed, not counting time spent paging
+     * @return the metrics of a statement which failed
+     */
+    @Nonnull
+    public static StatementMetrics failure(@Nonnull String statement, long parseNanos, long totalNanos) {
+        return new StatementMetrics(statement, parseNanos, -1, -1, 0, 0, 0, totalNanos, 0, 0, -1, -1, false, 0,
+                InternalSummaryCounters.EMPTY_STATS, true);
+    }
+
+    @Nonnull
+    public String getStatement() {
+        return statement;
+    }
+
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    public long getRunNanos() {
+        return runNanos;
+    }
+
+    public long getFirstRecordNanos() {
+        return firstRecordNanos;
+    }
+
+    public long getFetchNanos() {
+        return fetchNanos;
+    }
+
+    public long getRenderNanos() {
+        return renderNanos;
+    }
+
+    public long getWriteNanos() {
+        return writeNanos;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return the number of records read
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the number of bytes of text written, as UTF-8, binary output is not counted
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getServerAvailableMillis() {
+        return serverAvailableMillis;
+    }
+
+    public long getServerConsumedMillis() {
+        return serverConsumedMillis;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @return the number of times the statement was retried before it succeeded
+     */
+    public int getRetries() {
+        return retries;
+    }
+
+    /**
+     * @return what the statement changed, as reported by the server
+     */
+    @Nonnull
+    public SummaryCounters getCounters() {
+        return counters;
+    }
+
+    /**
+     * @return true if the statement failed, instead of completing
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * @return the metrics as a single line JSON object, with durations in milliseconds and null where not known
+     */
+    @Nonnull
+    public String toJson() {
+        return "{\"statement\":" + JsonLinesOutputFormatter.quote(statement) +
+                ",\"parse_ms\":" + millis(parseNanos) +
+                ",\"run_ms\":" + millis(runNanos) +
+                ",\"first_record_ms\":" + millis(firstRecordNanos) +
+                ",\"fetch_ms\":" + millis(fetchNanos) +
+                ",\"render_ms\":" + millis(renderNanos) +
+                ",\"write_ms\":" + millis(writeNanos) +
+                ",\"total_ms\":" + millis(totalNanos) +
+                ",\"rows\":" + rows +
+                ",\"bytes\":" + bytes +
+                ",\"server_available_ms\":" + (serverAvailableMillis < 0 ? "null" : serverAvailableMillis) +
+                ",\"server_consumed_ms\":" + (serverConsumedMillis < 0 ? "null" : serverConsumedMillis) +
+                ",\"truncated\":" + truncated +
+                ",\"retries\":" + retries +
+                ",\"failed\":" + failed + "}";
+    }
+
+    /**
+     * @return the metrics in a form meant to be read by the user
+     */
+    @Nonnull
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "Timing: parse %s, run %s, first record %s, fetch %s, render %s, " +
+                        "write %s, total %s; server: available after %s, consumed after %s; %d row%s, %d bytes",
+                display(parseNanos), display(runNanos), display(firstRecordNanos), display(fetchNanos),
+                display(renderNanos), display(writeNanos), display(totalNanos),
+                serverAvailableMillis < 0 ? "-" : serverAvailableMillis + " ms",
+                serverConsumedMillis < 0 ? "-" : serverConsumedMillis + " ms",
+                rows, rows != 1 ? "s" : "", bytes) +
+                (retries > 0 ? String.format(Locale.ROOT, "; retried %d time%s", retries, retries != 1 ? "s" : "")
+                        : "") +
+                (failed ? "; failed" : "");
+    }
+
+    @Nonnull
+    private static String millis(long nanos) {
+        return nanos < 0 ? "null" : String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    @Nonnull
+    private static String display(long nanos) {
+        return nanos < 0 ? "-" : millis(nanos) + " ms";
+    }
+}
@@ -0,0 +1,291 @@
+package org.neo4j.shell.metrics;
+
+import org.neo4j.driver.internal.summary.InternalSummaryCounters;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.shell.prettyprint.LinePrinter;
+import org.neo4j.shell.prettyprint.OutputFormatter;
+import org.neo4j.shell.prettyprint.Pager;
+import org.neo4j.shell.state.BoltResult;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a statement as it is executed and printed, by wrapping the result, the output and the pager so that the
+ * time spent waiting on each of them can be told apart from the time spent formatting.
+ */
+public class StatementTimer {
+    private static final int NEWLINE_BYTES = OutputFormatter.NEWLINE.length();
+
+    private final long received;
+    private String statement;
+    private long sent = -1;
+    private long accepted = -1;
+    private long firstRecord = -1;
+    private long printStarted = -1;
+    private long fetchNanos;
+    private long writeNanos;
+    private long pagingNanos;
+    private long rows;
+    private long bytes;
+    private boolean finished;
+
+    /**
+     * Starts timing a statement which has just been received.
+     *
+     * @param statement the statement, or null if it is only known from the summary of its result
+     */
+    public StatementTimer(@Nullable String statement) {
+        this.received = System.nanoTime();
+        this.statement = statement;
+    }
+
+    /**
+     * Marks the statement as about to be sent to the server
+     */
+    public void sending() {
+        sent = System.nanoTime();
+    }
+
+    /**
+     * Marks the statement as accepted by the server, so that its result can be read
+     */
+    public void accepted() {
+        accepted = System.nanoTime();
+    }
+
+    /**
+     * Marks the start of printing the result, every call to the returned wrappers is timed from now on.
+     */
+    public void printing() {
+        printStarted = System.nanoTime();
+    }
+
+    @Nonnull
+    public BoltResult time(@Nonnull BoltResult result) {
+        return new TimedResult(result);
+    }
+
+    @Nonnull
+    public LinePrinter time(@Nonnull LinePrinter output) {
+        return new TimedLinePrinter(output);
+    }
+
+    @Nonnull
+    public Pager time(@Nonnull Pager pager) {
+        return new TimedPager(pager);
+    }
+
+    /**
+     * @param result which has been printed
+     * @return the metrics of the statement
+     */
+    @Nonnull
+    public StatementMetrics finish(@Nonnull BoltResult result) {
+        this.finished = true;
+        long finished = System.nanoTime();
+        // The summary of a cancelled result has no server timings, which it reports as -1
+        ResultSummary summary = result.getSummary();
+        if (statement == null) {
+            statement = summary.statement() == null ? "" : summary.statement().text();
+        }
+        long printNanos = printStarted < 0 ? 0 : finished - printStarted;
+        return new StatementMetrics(
+                statement,
+                sent < 0 ? -1 : sent - received,
+                sent < 0 || accepted < 0 ? -1 : accepted - sent,
+                sent < 0 || firstRecord < 0 ? -1 : firstRecord - sent,
+                fetchNanos,
+                Math.max(0, printNanos - fetchNanos - writeNanos - pagingNanos),
+                writeNanos,
+                finished - received - pagingNanos,
+                rows,
+                bytes,
+                summary.resultAvailableAfter(TimeUnit.MILLISECONDS),
+                summary.resultConsumedAfter(TimeUnit.MILLISECONDS),
+                result.isTruncated(),
+                result.getRetries(),
+                summary.counters() == null ? InternalSummaryCounters.EMPTY_STATS : summary.counters());
+    }
+
+    /**
+     * @return the metrics of the statement, which failed to execute or to be printed
+     */
+    @Nonnull
+    public StatementMetrics fail() {
+        finished = true;
+        return StatementMetrics.failure(statement == null ? "" : statement, sent < 0 ? -1 : sent - received,
+                System.nanoTime() - received - pagingNanos);
+    }
+
+    /**
+     * @return true if the metrics of the statement have been taken already
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    private static int utf8Length(@Nonnull String text) {
+        int length = text.length();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x800) {
+                // Surrogate pairs count 2 + 2, which is the 4 bytes they take
+                length += Character.isSurrogate(c) ? 1 : 2;
+            } else if (c >= 0x80) {
+                length += 1;
+            }
+        }
+        return length;
+    }
+
+    private class TimedResult implements BoltResult {
+        private final BoltResult result;
+
+        TimedResult(@Nonnull BoltResult result) {
+            this.result = result;
+        }
+
+        @Nonnull
+        @Override
+        public List<String> getKeys() {
+            return result.getKeys();
+        }
+
+        @Nonnull
+        @Override
+        public List<Record> getRecords() {
+            long start = System.nanoTime();
+            try {
+                List<Record> records = result.getRecords();
+                if (!records.isEmpty()) {
+                    recordReceived();
+                }
+                rows += records.size();
+                return records;
+            } finally {
+                fetchNanos += System.nanoTime() - start;
+            }
+        }
+
+        @Nonnull
+        @Override
+        public Iterator<Record> iterate() {
+            Iterator<Record> records = result.iterate();
+            return new Iterator<Record>() {
+                @Override
+                public boolean hasNext() {
+                    long start = System.nanoTime();
+                    try {
+                        return records.hasNext();
+                    } finally {
+                        fetchNanos += System.nanoTime() - start;
+                    }
+                }
+
+                @Override
+                public Record next() {
+                    long start = System.nanoTime();
+                    try {
+                        Record record = records.next();
+                        recordReceived();
+                        rows++;
+                        return record;
+                    } finally {
+                        fetchNanos += System.nanoTime() - start;
+                    }
+                }
+            };
+        }
+
+        @Nonnull
+        @Override
+        public ResultSummary getSummary() {
+            long start = System.nanoTime();
+            try {
+                return result.getSummary();
+            } finally {
+                fetchNanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public boolean isTruncated() {
+            return result.isTruncated();
+        }
+
+        @Override
+        public int getRetries() {
+            return result.getRetries();
+        }
+
+        @Override
+        public void discardRemaining() {
+            result.discardRemaining();
+        }
+
+        private void recordReceived() {
+            if (firstRecord < 0) {
+                firstRecord = System.nanoTime();
+            }
+        }
+    }
+
+    private class TimedLinePrinter implements LinePrinter {
+        private final LinePrinter output;
+
+        TimedLinePrinter(@Nonnull LinePrinter output) {
+            this.output = output;
+        }
+
+        @Override
+        public void printOut(@Nonnull String line) {
+            long start = System.nanoTime();
+            output.printOut(line);
+            writeNanos += System.nanoTime() - start;
+            bytes += utf8Length(line) + NEWLINE_BYTES;
+        }
+
+        @Override
+        public void printOut(@Nonnull String line, @Nonnull String terminator) {
+            long start = System.nanoTime();
+            output.printOut(line, terminator);
+            writeNanos += System.nanoTime() - start;
+            bytes += utf8Length(line) + utf8Length(terminator);
+        }
+
+        @Override
+        public void flush() {
+            long start = System.nanoTime();
+            output.flush();
+            writeNanos += System.nanoTime() - start;
+        }
+    }
+
+    private class TimedPager implements Pager {
+        private final Pager pager;
+
+        TimedPager(@Nonnull Pager pager) {
+            this.pager = pager;
+        }
+
+        @Override
+        public int pageSize() {
+            return pager.pageSize();
+        }
+
+        @Override
+        public boolean nextPage() {
+            long start = System.nanoTime();
+            try {
+                return pager.nextPage();
+            } finally {
+                pagingNanos += System.nanoTime() - start;
+            }
+        }
+    }
+}
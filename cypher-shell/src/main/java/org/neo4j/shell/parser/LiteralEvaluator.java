@@ -0,0 +1,339 @@
+package org.neo4j.shell.parser;
+
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Evaluates Cypher literals on the client, so that setting a parameter to one does not need a round trip to the
+ * server. Integers, floats, strings, booleans, null, and lists and maps of those are understood. Anything else,
+ * including literals written in less common ways such as hexadecimal or octal integers, is left to the server.
+ */
+public class LiteralEvaluator {
+    private final String text;
+    private int pos;
+
+    private LiteralEvaluator(@Nonnull String text) {
+        this(text, 0);
+    }
+
+    LiteralEvaluator(@Nonnull String text, int pos) {
+        this.text = text;
+        this.pos = pos;
+    }
+
+    /**
+     * @return the value of the string or number starting exactly at the current position, or null if there is none
+     * or it is left to the server
+     */
+    @Nullable
+    Value stringOrNumber() {
+        char c = text.charAt(pos);
+        if (c == '\'' || c == '"') {
+            String string = string(c);
+            return string == null ? null : Values.value(string);
+        }
+        return isDigit(c) ? number() : null;
+    }
+
+    /**
+     * @return the position after what has been evaluated so far
+     */
+    int position() {
+        return pos;
+    }
+
+    /**
+     * @param expression the Cypher expression to evaluate
+     * @return the value of the expression if it is a literal, or empty if it has to be evaluated by the server
+     */
+    @Nonnull
+    public static Optional<Value> evaluate(@Nonnull String expression) {
+        LiteralEvaluator evaluator = new LiteralEvaluator(expression);
+        Value value = evaluator.literal();
+        evaluator.skipWhitespace();
+        if (value == null || evaluator.pos != expression.length()) {
+            return Optional.empty();
+        }
+        return Optional.of(value);
+    }
+
+    /**
+     * An expression which neither references parameters nor calls functions or reads the graph always evaluates to
+     * the same value, so it only has to be sent to the server once.
+     *
+     * @param expression the Cypher expression to check
+     * @return true if the expression is known to always have the same value, false if it might not
+     */
+    public static boolean isConstant(@Nonnull String expression) {
+        char quote = 0;
+        for (int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+            if (quote != 0) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '$' || c == '(' || (c == '{' && isOldStyleParameter(expression, i))) {
+                return false;
+            }
+        }
+        return quote == 0;
+    }
+
+    /**
+     * @return true if the text at the given opening brace is a parameter written like {name} rather than a map
+     */
+    private static boolean isOldStyleParameter(@Nonnull String expression, int brace) {
+        int end = expression.indexOf('}', brace);
+        return end != -1 && expression.substring(brace + 1, end).trim().matches("[\\p{L}0-9_]+");
+    }
+
+    /**
+     * @return the value of the literal starting at the current position, or null if there is none
+     */
+    @Nullable
+    private Value literal() {
+        skipWhitespace();
+        if (pos >= text.length()) {
+            return null;
+        }
+        char c = text.charAt(pos);
+        switch (c) {
+            case '\'':
+            case '"':
+                String string = string(c);
+                return string == null ? null : Values.value(string);
+            case '[':
+                return list();
+            case '{':
+                return map();
+            default:
+                if (c == '-' || isDigit(c)) {
+                    return number();
+                }
+                return keyword();
+        }
+    }
+
+    @Nullable
+    private Value keyword() {
+        int start = pos;
+        while (pos < text.length() && Character.isLetter(text.charAt(pos))) {
+            pos++;
+        }
+        String word = text.substring(start, pos);
+        if ("true".equalsIgnoreCase(word)) {
+            return Values.value(true);
+        } else if ("false".equalsIgnoreCase(word)) {
+            return Values.value(false);
+        } else if ("null".equalsIgnoreCase(word)) {
+            return Values.NULL;
+        }
+        return null;
+    }
+
+    @Nullable
+    private Value number() {
+        int start = pos;
+        if (text.charAt(pos) == '-') {
+            pos++;
+        }
+        int digits = digits();
+        // A leading zero makes an octal integer, which is left to the server along with hexadecimal
+        if (digits == 0 || (digits > 1 && text.charAt(pos - digits) == '0')) {
+            return null;
+        }
+        boolean isFloat = false;
+        if (pos < text.length() && text.charAt(pos) == '.') {
+            pos++;
+            if (digits() == 0) {
+                return null;
+            }
+            isFloat = true;
+        }
+        if (pos < text.length() && (text.charAt(pos) == 'e' || text.charAt(pos) == 'E')) {
+            pos++;
+            if (pos < text.length() && (text.charAt(pos) == '-' || text.charAt(pos) == '+')) {
+                pos++;
+            }
+            if (digits() == 0) {
+                return null;
+            }
+            isFloat = true;
+        }
+        if (pos < text.length() && (Character.isLetterOrDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+            return null;
+        }
+
+        String number = text.substring(start, pos);
+        try {
+            if (isFloat) {
+                double value = Double.parseDouble(number);
+                return Double.isInfinite(value) ? null : Values.value(value);
+            }
+            return Values.value(Long.parseLong(number));
+        } catch (NumberFormatException e) {
+            // Out of range, let the server report it
+            return null;
+        }
+    }
+
+    private int digits() {
+        int start = pos;
+        while (pos < text.length() && isDigit(text.charAt(pos))) {
+            pos++;
+        }
+        return pos - start;
+    }
+
+    @Nullable
+    private String string(char quote) {
+        StringBuilder sb = new StringBuilder();
+        pos++;
+        while (pos < text.length()) {
+            char c = text.charAt(pos++);
+            if (c == quote) {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= text.length()) {
+                return null;
+            }
+            char escaped = text.charAt(pos++);
+            switch (escaped) {
+                case '\\':
+                case '\'':
+                case '"':
+                    sb.append(escaped);
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'u':
+                    if (pos + 4 > text.length()) {
+                        return null;
+                    }
+                    try {
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                    pos += 4;
+                    break;
+                default:
+                    return null;
+            }
+        }
+        // Unterminated
+        return null;
+    }
+
+    @Nullable
+    private Value list() {
+        List<Value> values = new ArrayList<>();
+        pos++;
+        skipWhitespace();
+        if (consume(']')) {
+            return Values.value(values);
+        }
+        do {
+            Value value = literal();
+            if (value == null) {
+                return null;
+            }
+            values.add(value);
+            skipWhitespace();
+        } while (consume(','));
+        return consume(']') ? Values.value(values) : null;
+    }
+
+    @Nullable
+    private Value map() {
+        Map<String, Value> values = new LinkedHashMap<>();
+        pos++;
+        skipWhitespace();
+        if (consume('}')) {
+            return Values.value(values);
+        }
+        do {
+            skipWhitespace();
+            String key = key();
+            skipWhitespace();
+            if (key == null || !consume(':')) {
+                return null;
+            }
+            Value value = literal();
+            if (value == null) {
+                return null;
+            }
+            values.put(key, value);
+            skipWhitespace();
+        } while (consume(','));
+        return consume('}') ? Values.value(values) : null;
+    }
+
+    @Nullable
+    private String key() {
+        if (pos < text.length() && text.charAt(pos) == '`') {
+            int end = text.indexOf('`', pos + 1);
+            if (end == -1 || (end + 1 < text.length() && text.charAt(end + 1) == '`')) {
+                // Escaped backticks are left to the server
+                return null;
+            }
+            String key = text.substring(pos + 1, end);
+            pos = end + 1;
+            return key;
+        }
+        int start = pos;
+        if (pos < text.length() && (Character.isLetter(text.charAt(pos)) || text.charAt(pos) == '_')) {
+            while (pos < text.length() && (Character.isLetterOrDigit(text.charAt(pos)) || text.charAt(pos) == '_')) {
+                pos++;
+            }
+        }
+        return pos > start ? text.substring(start, pos) : null;
+    }
+
+    private boolean consume(char c) {
+        if (pos < text.length() && text.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
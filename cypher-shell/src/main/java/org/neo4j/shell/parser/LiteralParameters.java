@@ -0,0 +1,49 @@
+package org.neo4j.shell.parser;
+
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.Value;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Replaces the literals of a Cypher statement by parameters, so that statements which only differ in their literals
+ * have the same text and the server can plan them once, from its plan cache. What is taken out is decided by
+ * {@link StatementShape}. The parameters are named {@code _lit0}, {@code _lit1} and so on, and the statement is left
+ * as it is if one of those names is taken.
+ * <p>
+ * Note that the column of an expression which is returned without an alias is named after its text, so
+ * {@code RETURN 1 + 1} gives a column called {@code $_lit0 + $_lit1}.
+ */
+public class LiteralParameters {
+    static final String PREFIX = "_lit";
+
+    private LiteralParameters() {
+    }
+
+    /**
+     * @param statement Cypher statement, optionally with parameters of its own
+     * @param taken     names of other parameters, which the generated ones must not hide
+     * @return a statement with parameters in place of its literals, or the same statement if it has none
+     */
+    @Nonnull
+    public static Statement extract(@Nonnull Statement statement, @Nonnull Set<String> taken) {
+        StatementShape shape = StatementShape.of(statement.text());
+        List<Value> literals = shape.getLiterals();
+        if (literals.isEmpty()) {
+            return statement;
+        }
+        Map<String, Object> params = new HashMap<>(statement.parameters().asMap(value -> value));
+        for (int i = 0; i < literals.size(); i++) {
+            String name = PREFIX + i;
+            if (params.containsKey(name) || taken.contains(name)) {
+                return statement;
+            }
+            params.put(name, literals.get(i));
+        }
+        return new Statement(shape.text(i -> "$" + PREFIX + i), params);
+    }
+}
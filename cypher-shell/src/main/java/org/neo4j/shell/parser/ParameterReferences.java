@@ -0,0 +1,173 @@
+package org.neo4j.shell.parser;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Finds the parameters a Cypher statement references, written as $name, $`name` or {name}, so that only those have
+ * to be sent along with it. Quotes and comments are skipped. A procedure called without an argument list takes its
+ * arguments from parameters of the same names, so such a statement is given all of them.
+ */
+public class ParameterReferences {
+    private final String cypher;
+    private final Map<String, Object> params;
+    private final Map<String, Object> referenced = new HashMap<>();
+    private int pos;
+
+    private ParameterReferences(@Nonnull String cypher, @Nonnull Map<String, Object> params) {
+        this.cypher = cypher;
+        this.params = params;
+    }
+
+    /**
+     * @param cypher statement to look for parameters in
+     * @param params all parameters which are currently set
+     * @return the parameters referenced by the statement
+     */
+    @Nonnull
+    public static Map<String, Object> referencedBy(@Nonnull String cypher, @Nonnull Map<String, Object> params) {
+        if (params.isEmpty()) {
+            return params;
+        }
+        ParameterReferences references = new ParameterReferences(cypher, params);
+        if (!references.find()) {
+            return params;
+        }
+        if (references.referenced.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        if (references.referenced.size() == params.size()) {
+            return params;
+        }
+        return Collections.unmodifiableMap(references.referenced);
+    }
+
+    /**
+     * @return false if all parameters are needed, true if those added to {@link #referenced} are enough
+     */
+    private boolean find() {
+        while (pos < cypher.length()) {
+            char c = cypher.charAt(pos++);
+            switch (c) {
+                case '\'':
+                case '"':
+                    skipString(c);
+                    break;
+                case '`':
+                    skipPast("`");
+                    break;
+                case '/':
+                    if (consume('/')) {
+                        skipPast("\n");
+                    } else if (consume('*')) {
+                        skipPast("*/");
+                    }
+                    break;
+                case '$':
+                    reference(consume('`') ? quotedName() : name());
+                    break;
+                case '{':
+                    int brace = pos;
+                    skipWhitespace();
+                    String name = name();
+                    skipWhitespace();
+                    if (!name.isEmpty() && consume('}')) {
+                        reference(name);
+                    } else {
+                        pos = brace;
+                    }
+                    break;
+                default:
+                    if (Character.isLetter(c)) {
+                        pos--;
+                        boolean isProperty = pos > 0 && cypher.charAt(pos - 1) == '.';
+                        if ("call".equalsIgnoreCase(name()) && !isProperty && callsWithoutArguments()) {
+                            return false;
+                        }
+                    }
+            }
+        }
+        return true;
+    }
+
+    private boolean callsWithoutArguments() {
+        skipWhitespace();
+        int start = pos;
+        while (pos < cypher.length()) {
+            char c = cypher.charAt(pos);
+            if (c == '`') {
+                pos++;
+                skipPast("`");
+            } else if (Character.isLetterOrDigit(c) || c == '_' || c == '.') {
+                pos++;
+            } else {
+                break;
+            }
+        }
+        if (pos == start) {
+            return false;
+        }
+        skipWhitespace();
+        return !consume('(');
+    }
+
+    private void reference(@Nonnull String name) {
+        if (params.containsKey(name)) {
+            referenced.put(name, params.get(name));
+        }
+    }
+
+    @Nonnull
+    private String name() {
+        int start = pos;
+        while (pos < cypher.length() && (Character.isLetterOrDigit(cypher.charAt(pos)) || cypher.charAt(pos) == '_')) {
+            pos++;
+        }
+        return cypher.substring(start, pos);
+    }
+
+    @Nonnull
+    private String quotedName() {
+        StringBuilder name = new StringBuilder();
+        while (pos < cypher.length()) {
+            char c = cypher.charAt(pos++);
+            if (c == '`' && !consume('`')) {
+                break;
+            }
+            name.append(c);
+        }
+        return name.toString();
+    }
+
+    private void skipString(char quote) {
+        while (pos < cypher.length()) {
+            char c = cypher.charAt(pos++);
+            if (c == '\\') {
+                pos++;
+            } else if (c == quote) {
+                return;
+            }
+        }
+    }
+
+    private void skipPast(@Nonnull String delimiter) {
+        int end = cypher.indexOf(delimiter, pos);
+        pos = end == -1 ? cypher.length() : end + delimiter.length();
+    }
+
+    private void skipWhitespace() {
+        while (pos < cypher.length() && Character.isWhitespace(cypher.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private boolean consume(char c) {
+        if (pos < cypher.length() && cypher.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+}
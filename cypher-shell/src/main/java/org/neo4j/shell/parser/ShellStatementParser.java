@@ -2,36 +2,45 @@ package org.neo4j.shell.parser;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.regex.Pattern;
 import javax.annotation.Nonnull;
 
 /**
  * A cypher aware parser which can detect shell commands (:prefixed) or cypher.
+ * <p>
+ * The parser is a character level state machine over a single reusable buffer. Each character is looked at once and
+ * nothing is allocated per character, so the time taken is linear in the size of the input, also for statements
+ * spanning many lines, and scripts of several hundred megabytes parse in a matter of seconds.
  */
 public class ShellStatementParser implements StatementParser {
 
     private static final Pattern SHELL_CMD_PATTERN = Pattern.compile("^\\s*:.+\\s*$");
     private static final char SEMICOLON = ';';
     private static final char BACKSLASH = '\\';
-    private static final String LINE_COMMENT_START = "//";
-    private static final String LINE_COMMENT_END = "\n";
-    private static final String BLOCK_COMMENT_START = "/*";
-    private static final String BLOCK_COMMENT_END = "*/";
+    private static final char SLASH = '/';
+    private static final char ASTERISK = '*';
+    private static final char NEWLINE = '\n';
+    private static final char COLON = ':';
     private static final char BACKTICK = '`';
     private static final char DOUBLE_QUOTE = '"';
     private static final char SINGLE_QUOTE = '\'';
     private static final int NO_COMMENT = -1;
-    private Optional<String> awaitedRightDelimiter;
-    private StringBuilder statement;
-    private ArrayList<String> parsedStatements;
-    private int commentStart = NO_COMMENT;
+    private static final int NO_TEXT = -1;
 
-    public ShellStatementParser() {
-        parsedStatements = new ArrayList<>();
-        statement = new StringBuilder();
-        awaitedRightDelimiter = Optional.empty();
-    }
+    // What would end the quote or comment we are currently in
+    private static final int NO_DELIMITER = 0;
+    private static final int LINE_COMMENT_END = 1;
+    private static final int BLOCK_COMMENT_END = 2;
+    private static final int BACKTICK_END = 3;
+    private static final int DOUBLE_QUOTE_END = 4;
+    private static final int SINGLE_QUOTE_END = 5;
+
+    private int awaitedRightDelimiter = NO_DELIMITER;
+    private final StringBuilder statement = new StringBuilder();
+    private ArrayList<String> parsedStatements = new ArrayList<>();
+    private int commentStart = NO_COMMENT;
+    // Position of the first non-whitespace character of the current statement
+    private int textStart = NO_TEXT;
 
     /**
      * Parses text and adds to the list of parsed statements if a statement is found to be completed.
@@ -42,7 +51,7 @@ public class ShellStatementParser implements StatementParser {
     @Override
     public void parseMoreText(@Nonnull String line) {
         // See if it could possibly be a shell command, only valid if not in a current statement
-        if ( statementNotStarted() && SHELL_CMD_PATTERN.matcher(line).find()) {
+        if (statementNotStarted() && startsWithColon(line) && SHELL_CMD_PATTERN.matcher(line).find()) {
             parsedStatements.add(line);
             return;
         }
@@ -50,9 +59,13 @@ public class ShellStatementParser implements StatementParser {
         // We will guess it is cypher then
         boolean skipNext = false;
         char prev, current = (char) 0;
-        for (char c : line.toCharArray()) {
+        for (int i = 0, length = line.length(); i < length; i++) {
+            char c = line.charAt(i);
             // append current
             statement.append(c);
+            if (textStart == NO_TEXT && !isWhitespace(c)) {
+                textStart = statement.length() - 1;
+            }
             // last char shuffling
             prev = current;
             current = c;
@@ -96,7 +109,8 @@ public class ShellStatementParser implements StatementParser {
             // end current statement
             parsedStatements.add(statement.toString());
             // start a new statement
-            statement = new StringBuilder();
+            statement.setLength(0);
+            textStart = NO_TEXT;
             return true;
         }
         return false;
@@ -111,7 +125,7 @@ public class ShellStatementParser implements StatementParser {
         if (inQuote()) {
             if (isRightDelimiter(prev, current)) {
                 // Then end it
-                awaitedRightDelimiter = Optional.empty();
+                awaitedRightDelimiter = NO_DELIMITER;
                 return true;
             }
             // Didn't end the quote, continue
@@ -134,8 +148,12 @@ public class ShellStatementParser implements StatementParser {
             }
             if (isRightDelimiter(prev, current)) {
                 // Then end it
-                awaitedRightDelimiter = Optional.empty();
-                statement.delete( commentStart, statement.length() );
+                awaitedRightDelimiter = NO_DELIMITER;
+                statement.setLength(commentStart);
+                if (textStart >= commentStart) {
+                    // Only whitespace came before the comment
+                    textStart = NO_TEXT;
+                }
                 commentStart = NO_COMMENT;
                 return true;
             }
@@ -149,24 +167,28 @@ public class ShellStatementParser implements StatementParser {
      * @return true if inside a quote, false otherwise
      */
     private boolean inQuote() {
-        return awaitedRightDelimiter.isPresent() && !inComment();
+        return awaitedRightDelimiter != NO_DELIMITER && !inComment();
     }
 
     /**
      * @param first character
      * @param last  character
-     * @return true if the last two chars ends the current comment, false otherwise
+     * @return true if the last two chars ends the current quote or comment, false otherwise
      */
     private boolean isRightDelimiter(char first, char last) {
-        if (!awaitedRightDelimiter.isPresent()) {
-            return false;
-        }
-        final String expectedEnd = awaitedRightDelimiter.get();
-
-        if (expectedEnd.length() == 1) {
-            return expectedEnd.equals(String.valueOf(last));
-        } else {
-            return expectedEnd.equals(String.valueOf(first) + last);
+        switch (awaitedRightDelimiter) {
+            case LINE_COMMENT_END:
+                return last == NEWLINE;
+            case BLOCK_COMMENT_END:
+                return first == ASTERISK && last == SLASH;
+            case BACKTICK_END:
+                return last == BACKTICK;
+            case DOUBLE_QUOTE_END:
+                return last == DOUBLE_QUOTE;
+            case SINGLE_QUOTE_END:
+                return last == SINGLE_QUOTE;
+            default:
+                return false;
         }
     }
 
@@ -174,45 +196,62 @@ public class ShellStatementParser implements StatementParser {
      * @return true if we are currently inside a comment, false otherwise
      */
     private boolean inComment() {
-        return awaitedRightDelimiter.isPresent() &&
-                (awaitedRightDelimiter.get().equals(LINE_COMMENT_END) ||
-                        awaitedRightDelimiter.get().equals(BLOCK_COMMENT_END));
+        return awaitedRightDelimiter == LINE_COMMENT_END || awaitedRightDelimiter == BLOCK_COMMENT_END;
     }
 
     /**
-     * If the last characters start a quote or a comment, this returns the piece of text which will end said quote
-     * or comment.
+     * If the last characters start a quote or a comment, this returns what will end said quote or comment.
      *
      * @param first character
      * @param last  character
-     * @return the matching right delimiter or something empty if not the start of a quote/comment
+     * @return the matching right delimiter or NO_DELIMITER if not the start of a quote/comment
      */
-    @Nonnull
-    private Optional<String> getRightDelimiter(char first, char last) {
+    private static int getRightDelimiter(char first, char last) {
         // double characters
-        final String lastTwoChars = String.valueOf(first) + last;
-        switch (lastTwoChars) {
-            case LINE_COMMENT_START:
-                return Optional.of(LINE_COMMENT_END);
-            case BLOCK_COMMENT_START:
-                return Optional.of(BLOCK_COMMENT_END);
+        if (first == SLASH && last == SLASH) {
+            return LINE_COMMENT_END;
+        }
+        if (first == SLASH && last == ASTERISK) {
+            return BLOCK_COMMENT_END;
         }
         // single characters
         switch (last) {
             case BACKTICK:
+                return BACKTICK_END;
             case DOUBLE_QUOTE:
+                return DOUBLE_QUOTE_END;
             case SINGLE_QUOTE:
-                return Optional.of(String.valueOf(last));
+                return SINGLE_QUOTE_END;
+            default:
+                return NO_DELIMITER;
         }
-
-        return Optional.empty();
     }
 
     /**
      * @return false if a statement has not begun (non whitespace has been seen) else true
      */
     private boolean statementNotStarted() {
-        return statement.toString().trim().isEmpty();
+        return textStart == NO_TEXT;
+    }
+
+    /**
+     * A cheap check to avoid matching every line of cypher against the shell command pattern
+     */
+    private static boolean startsWithColon(@Nonnull String line) {
+        for (int i = 0, length = line.length(); i < length; i++) {
+            char c = line.charAt(i);
+            if (!isWhitespace(c)) {
+                return c == COLON;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true for the same characters as {@link String#trim()} removes
+     */
+    private static boolean isWhitespace(char c) {
+        return c <= ' ';
     }
 
     @Override
@@ -230,13 +269,15 @@ public class ShellStatementParser implements StatementParser {
 
     @Override
     public boolean containsText() {
-        return !statement.toString().trim().isEmpty();
+        return textStart != NO_TEXT;
     }
 
     @Override
     public void reset() {
-        statement = new StringBuilder();
+        statement.setLength(0);
         parsedStatements.clear();
-        awaitedRightDelimiter = Optional.empty();
+        awaitedRightDelimiter = NO_DELIMITER;
+        commentStart = NO_COMMENT;
+        textStart = NO_TEXT;
     }
 }
@@ -0,0 +1,264 @@
+package org.neo4j.shell.parser;
+
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntFunction;
+
+/**
+ * A Cypher statement with its string, number and boolean literals taken out, so that statements which only differ in
+ * those can be told apart from ones which do not. Quotes and comments are understood, comments are dropped and runs
+ * of whitespace are collapsed. Numbers which can not be replaced by a parameter, like the bounds of a variable length
+ * relationship or the batch size of a periodic commit, are left in place, as are the field terminator of LOAD CSV,
+ * null and literals written in ways {@link LiteralEvaluator} leaves to the server.
+ */
+public class StatementShape {
+    private final List<String> parts = new ArrayList<>();
+    private final List<Value> literals = new ArrayList<>();
+    private final List<String> words = new ArrayList<>();
+    private boolean hasParameters;
+
+    private final String cypher;
+    private final StringBuilder part = new StringBuilder();
+    private int pos;
+    // The last word or symbol, lower case, so that numbers which have to stay literals can be recognised
+    private String previousToken = "";
+
+    private StatementShape(@Nonnull String cypher) {
+        this.cypher = cypher;
+    }
+
+    /**
+     * @param cypher a single statement, optionally ending with a semicolon
+     * @return the shape of the statement
+     */
+    @Nonnull
+    public static StatementShape of(@Nonnull String cypher) {
+        StatementShape shape = new StatementShape(cypher);
+        shape.parse();
+        return shape;
+    }
+
+    /**
+     * @return the literals taken out of the statement, in order
+     */
+    @Nonnull
+    public List<Value> getLiterals() {
+        return Collections.unmodifiableList(literals);
+    }
+
+    /**
+     * @return the words outside of quotes and comments, such as keywords, variables, labels and property keys, as
+     * written
+     */
+    @Nonnull
+    public List<String> getWords() {
+        return Collections.unmodifiableList(words);
+    }
+
+    /**
+     * @return true if the statement references a parameter
+     */
+    public boolean hasParameters() {
+        return hasParameters;
+    }
+
+    /**
+     * @param placeholder the text to put in place of the literal with the given index
+     * @return the statement with placeholders instead of its literals, without a trailing semicolon
+     */
+    @Nonnull
+    public String text(@Nonnull IntFunction<String> placeholder) {
+        StringBuilder text = new StringBuilder(parts.get(0));
+        for (int i = 0; i < literals.size(); i++) {
+            text.append(placeholder.apply(i)).append(parts.get(i + 1));
+        }
+        return text.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof StatementShape && parts.equals(((StatementShape) o).parts));
+    }
+
+    @Override
+    public int hashCode() {
+        return parts.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return text(i -> "?");
+    }
+
+    private void parse() {
+        while (pos < cypher.length()) {
+            char c = cypher.charAt(pos);
+            if (c == '\'' || c == '"') {
+                literal();
+            } else if (c == '`') {
+                copyPast("`");
+                previousToken = "`";
+            } else if (cypher.startsWith("//", pos)) {
+                skipPast("\n");
+            } else if (cypher.startsWith("/*", pos)) {
+                skipPast("*/");
+            } else if (Character.isWhitespace(c)) {
+                skipPast("");
+            } else if (c == '$') {
+                hasParameters = true;
+                pos++;
+                part.append(c);
+                previousToken = "$";
+            } else if (c == '{' && isOldStyleParameter()) {
+                hasParameters = true;
+                copyPast("}");
+                previousToken = "}";
+            } else if (Character.isLetter(c) || c == '_') {
+                word();
+            } else if (isDigit(c)) {
+                number();
+            } else {
+                // Everything after a semicolon is ignored, the parser only hands over one statement at a time
+                if (c == ';') {
+                    break;
+                }
+                part.append(c);
+                pos++;
+                previousToken = String.valueOf(c);
+            }
+        }
+        parts.add(trimEnd(part.toString()));
+    }
+
+    private void literal() {
+        // The field terminator of LOAD CSV can only be a string literal
+        boolean mustStay = previousToken.equals("fieldterminator");
+        LiteralEvaluator evaluator = new LiteralEvaluator(cypher, pos);
+        Value value = mustStay ? null : evaluator.stringOrNumber();
+        if (value == null) {
+            // Left to the server, like a string with an escape the evaluator does not know
+            copyString();
+        } else {
+            lift(value);
+            pos = evaluator.position();
+        }
+        previousToken = "'";
+    }
+
+    private void number() {
+        // A number right after these can not be a parameter: the length of a relationship pattern, the decimals of a
+        // float written without an integer part, the name of a parameter, the batch size of a periodic commit or the
+        // version of Cypher
+        boolean mustStay = previousToken.equals("*") || previousToken.equals(".") || previousToken.equals("$") ||
+                previousToken.equals("commit") || previousToken.equals("cypher");
+        LiteralEvaluator evaluator = new LiteralEvaluator(cypher, pos);
+        Value value = mustStay ? null : evaluator.stringOrNumber();
+        if (value == null) {
+            int start = pos;
+            while (pos < cypher.length() &&
+                    (Character.isLetterOrDigit(cypher.charAt(pos)) || cypher.charAt(pos) == '.')) {
+                pos++;
+            }
+            part.append(cypher, start, pos);
+        } else {
+            lift(value);
+            pos = evaluator.position();
+        }
+        previousToken = "0";
+    }
+
+    private void word() {
+        int start = pos;
+        while (pos < cypher.length() && (Character.isLetterOrDigit(cypher.charAt(pos)) || cypher.charAt(pos) == '_')) {
+            pos++;
+        }
+        String word = cypher.substring(start, pos);
+        String lowerCase = word.toLowerCase(Locale.ROOT);
+        // Property keys are not values, whatever they are called
+        boolean isKey = previousToken.equals(".");
+        if (!isKey && (lowerCase.equals("true") || lowerCase.equals("false"))) {
+            lift(Values.value(lowerCase.equals("true")));
+        } else {
+            part.append(word);
+        }
+        words.add(word);
+        previousToken = lowerCase;
+    }
+
+    private void lift(@Nonnull Value value) {
+        parts.add(part.toString());
+        part.setLength(0);
+        literals.add(value);
+    }
+
+    private void copyString() {
+        char quote = cypher.charAt(pos);
+        int start = pos++;
+        while (pos < cypher.length()) {
+            char c = cypher.charAt(pos++);
+            if (c == '\\') {
+                pos++;
+            } else if (c == quote) {
+                break;
+            }
+        }
+        pos = Math.min(pos, cypher.length());
+        part.append(cypher, start, pos);
+    }
+
+    /**
+     * Copies everything up to and including the delimiter, which starts after the current character
+     */
+    private void copyPast(@Nonnull String delimiter) {
+        int start = pos;
+        int end = cypher.indexOf(delimiter, pos + 1);
+        pos = end == -1 ? cypher.length() : end + delimiter.length();
+        part.append(cypher, start, pos);
+    }
+
+    /**
+     * Skips a comment up to and including the delimiter, or whitespace if the delimiter is empty, leaving a single
+     * space in its place
+     */
+    private void skipPast(@Nonnull String delimiter) {
+        if (delimiter.isEmpty()) {
+            while (pos < cypher.length() && Character.isWhitespace(cypher.charAt(pos))) {
+                pos++;
+            }
+        } else {
+            int end = cypher.indexOf(delimiter, pos + 2);
+            pos = end == -1 ? cypher.length() : end + delimiter.length();
+        }
+        boolean atStart = parts.isEmpty() && part.length() == 0;
+        if (!atStart && (part.length() == 0 || part.charAt(part.length() - 1) != ' ')) {
+            part.append(' ');
+        }
+    }
+
+    /**
+     * @return true if the text at the current opening brace is a parameter written like {name} rather than a map
+     */
+    private boolean isOldStyleParameter() {
+        int end = cypher.indexOf('}', pos);
+        return end != -1 && cypher.substring(pos + 1, end).trim().matches("[\\p{L}0-9_]+");
+    }
+
+    @Nonnull
+    private static String trimEnd(@Nonnull String text) {
+        int end = text.length();
+        while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,152 @@
+package org.neo4j.shell.parser;
+
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.Value;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collapses consecutive statements of the same shape, which only create or merge, into a single statement which
+ * unwinds a parameter holding the literals of each of them:
+ * <pre>
+ * CREATE (:Person {name: 'Alice', age: 42});
+ * CREATE (:Person {name: 'Bob', age: 23});
+ * </pre>
+ * becomes {@code UNWIND $rows AS row CREATE (:Person {name: row.p0, age: row.p1})} with the rows
+ * {@code [{p0: 'Alice', p1: 42}, {p0: 'Bob', p1: 23}]}. The server then plans one statement instead of many, and
+ * later batches of the same shape hit its plan cache.
+ * <p>
+ * Only statements made of CREATE, MERGE and SET clauses are collapsed, since those give the same result whether
+ * each row is executed on its own or all of them at once. A statement which references parameters or a variable
+ * called {@code row} is left alone. As with {@link UpdatingClauses} this errs on the side of caution, a property
+ * named like another clause keeps a statement from being collapsed.
+ */
+public class UnwindBatcher {
+    public static final String ROWS_PARAMETER = "rows";
+    private static final String ROW_VARIABLE = "row";
+    private static final Set<String> FIRST_KEYWORDS = new HashSet<>(Arrays.asList("create", "merge"));
+    private static final Set<String> OTHER_KEYWORDS = new HashSet<>(Arrays.asList(
+            "match", "optional", "where", "with", "return", "unwind", "delete", "detach", "remove", "foreach",
+            "call", "yield", "load", "using", "union", "drop", "index", "constraint", "periodic", "order", "skip",
+            "limit"));
+
+    private final int maxRows;
+    private final List<Map<String, Value>> rows = new ArrayList<>();
+    private StatementShape shape;
+    private String firstStatement;
+
+    /**
+     * @param maxRows the largest number of statements to collapse into one
+     */
+    public UnwindBatcher(int maxRows) {
+        if (maxRows < 1) {
+            throw new IllegalArgumentException("A batch must hold at least one statement");
+        }
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * @param statement a single Cypher statement
+     * @return the shape of the statement if it can be collapsed with others like it, or null if not
+     */
+    @Nullable
+    public static StatementShape shapeOf(@Nonnull String statement) {
+        StatementShape shape = StatementShape.of(statement);
+        List<String> words = shape.getWords();
+        if (shape.hasParameters() || words.isEmpty() ||
+                !FIRST_KEYWORDS.contains(words.get(0).toLowerCase(Locale.ROOT))) {
+            return null;
+        }
+        for (int i = 1; i < words.size(); i++) {
+            String keyword = words.get(i).toLowerCase(Locale.ROOT);
+            boolean isOnMatch = keyword.equals("match") && words.get(i - 1).equalsIgnoreCase("on");
+            if (words.get(i).equals(ROW_VARIABLE) || (OTHER_KEYWORDS.contains(keyword) && !isOnMatch)) {
+                return null;
+            }
+        }
+        return shape;
+    }
+
+    /**
+     * @return true if a statement of the given shape can join the current batch
+     */
+    public boolean fits(@Nonnull StatementShape statementShape) {
+        return shape == null || shape.equals(statementShape);
+    }
+
+    /**
+     * Adds a statement to the batch, which it has to {@link #fits(StatementShape) fit}
+     *
+     * @param statement      the statement as written
+     * @param statementShape the shape of the statement, as returned by {@link #shapeOf(String)}
+     */
+    public void add(@Nonnull String statement, @Nonnull StatementShape statementShape) {
+        if (!fits(statementShape)) {
+            throw new IllegalArgumentException("The statement does not have the shape of the batch");
+        }
+        if (shape == null) {
+            shape = statementShape;
+            firstStatement = statement;
+        }
+        List<Value> literals = statementShape.getLiterals();
+        Map<String, Value> row = new LinkedHashMap<>(literals.size() * 2);
+        for (int i = 0; i < literals.size(); i++) {
+            row.put(placeholder(i), literals.get(i));
+        }
+        rows.add(row);
+    }
+
+    public boolean isEmpty() {
+        return rows.isEmpty();
+    }
+
+    public boolean isFull() {
+        return rows.size() >= maxRows;
+    }
+
+    /**
+     * @return the number of statements in the batch
+     */
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * Empties the batch
+     *
+     * @return a statement doing the work of all statements in the batch, a single statement is returned as written
+     */
+    @Nonnull
+    public Statement flush() {
+        if (rows.isEmpty()) {
+            throw new IllegalStateException("The batch is empty");
+        }
+        Statement statement;
+        if (rows.size() == 1) {
+            statement = new Statement(firstStatement);
+        } else {
+            String text = "UNWIND $" + ROWS_PARAMETER + " AS " + ROW_VARIABLE + " " +
+                    shape.text(i -> ROW_VARIABLE + "." + placeholder(i));
+            statement = new Statement(text, Collections.singletonMap(ROWS_PARAMETER, new ArrayList<>(rows)));
+        }
+        rows.clear();
+        shape = null;
+        firstStatement = null;
+        return statement;
+    }
+
+    @Nonnull
+    private static String placeholder(int index) {
+        return "p" + index;
+    }
+}
@@ -0,0 +1,70 @@
+package org.neo4j.shell.parser;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tells whether a Cypher statement may update the graph or schema, by looking for the keywords of clauses which can.
+ * Quotes and comments are skipped. This errs on the side of caution, a property or map key named like such a keyword
+ * makes a statement count as updating too.
+ */
+public class UpdatingClauses {
+    // Procedures may write, so CALL counts as well
+    private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList(
+            "create", "merge", "set", "delete", "detach", "remove", "foreach", "drop", "call", "periodic"));
+
+    private UpdatingClauses() {
+    }
+
+    /**
+     * @param cypher statement to look at
+     * @return false only if the statement certainly does not update anything
+     */
+    public static boolean mayUpdate(@Nonnull String cypher) {
+        int pos = 0;
+        while (pos < cypher.length()) {
+            char c = cypher.charAt(pos);
+            if (c == '\'' || c == '"') {
+                pos = skipString(cypher, pos + 1, c);
+            } else if (c == '`') {
+                pos = skipPast(cypher, pos + 1, "`");
+            } else if (cypher.startsWith("//", pos)) {
+                pos = skipPast(cypher, pos + 2, "\n");
+            } else if (cypher.startsWith("/*", pos)) {
+                pos = skipPast(cypher, pos + 2, "*/");
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = pos;
+                while (pos < cypher.length() &&
+                        (Character.isLetterOrDigit(cypher.charAt(pos)) || cypher.charAt(pos) == '_')) {
+                    pos++;
+                }
+                if (KEYWORDS.contains(cypher.substring(start, pos).toLowerCase(Locale.ROOT))) {
+                    return true;
+                }
+            } else {
+                pos++;
+            }
+        }
+        return false;
+    }
+
+    private static int skipString(@Nonnull String cypher, int pos, char quote) {
+        while (pos < cypher.length()) {
+            char c = cypher.charAt(pos++);
+            if (c == '\\') {
+                pos++;
+            } else if (c == quote) {
+                break;
+            }
+        }
+        return pos;
+    }
+
+    private static int skipPast(@Nonnull String cypher, int pos, @Nonnull String delimiter) {
+        int end = cypher.indexOf(delimiter, pos);
+        return end == -1 ? cypher.length() : end + delimiter.length();
+    }
+}
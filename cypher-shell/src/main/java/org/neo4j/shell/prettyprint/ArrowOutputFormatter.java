@@ -0,0 +1,403 @@
+package org.neo4j.shell.prettyprint;
+
+import com.google.flatbuffers.FlatBufferBuilder;
+import org.apache.arrow.flatbuf.Binary;
+import org.apache.arrow.flatbuf.Bool;
+import org.apache.arrow.flatbuf.Buffer;
+import org.apache.arrow.flatbuf.Endianness;
+import org.apache.arrow.flatbuf.Field;
+import org.apache.arrow.flatbuf.FieldNode;
+import org.apache.arrow.flatbuf.FloatingPoint;
+import org.apache.arrow.flatbuf.Int;
+import org.apache.arrow.flatbuf.Message;
+import org.apache.arrow.flatbuf.MessageHeader;
+import org.apache.arrow.flatbuf.MetadataVersion;
+import org.apache.arrow.flatbuf.Precision;
+import org.apache.arrow.flatbuf.RecordBatch;
+import org.apache.arrow.flatbuf.Schema;
+import org.apache.arrow.flatbuf.Type;
+import org.apache.arrow.flatbuf.Utf8;
+import org.neo4j.driver.internal.types.TypeRepresentation;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.shell.state.BoltResult;
+import org.neo4j.shell.state.RecordBuffer;
+import org.neo4j.shell.state.RecordSpill;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Writes each result with columns as a single Apache Arrow IPC stream: a schema followed by record batches of at most
+ * a fixed number of rows.
+ * <p>
+ * The type of each column is inferred from all of its values, so the records are buffered before anything is written,
+ * on the heap up to a limit and in a temporary file beyond it. Integers, floats, booleans, strings and bytes get the
+ * matching Arrow type, a column of both integers and floats becomes floats, and any other value, or a mix of types,
+ * is encoded as JSON like {@link JsonLinesOutputFormatter} does. A column which only holds null is a string column.
+ */
+public class ArrowOutputFormatter implements OutputFormatter {
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+    private static final long DEFAULT_HEAP_LIMIT = 64L * 1024 * 1024;
+    private static final int CONTINUATION_MARKER = 0xFFFFFFFF;
+    private static final int ALIGNMENT = 8;
+    private static final byte[] NO_BYTES = new byte[0];
+    private static final byte[] NO_PADDING = new byte[ALIGNMENT];
+
+    private enum ColumnType {
+        UNKNOWN, INTEGER, FLOAT, BOOLEAN, STRING, BYTES, JSON
+    }
+
+    private final OutputStream out;
+    private final int batchSize;
+    private final RecordSpill spill;
+    private final JsonLinesOutputFormatter jsonFormatter = new JsonLinesOutputFormatter();
+    private final byte[] prefix = new byte[ALIGNMENT];
+    private ByteBuffer body = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+    public ArrowOutputFormatter(@Nonnull OutputStream out) {
+        this(out, DEFAULT_BATCH_SIZE, new RecordSpill(DEFAULT_HEAP_LIMIT));
+    }
+
+    /**
+     * @param spill to buffer the records of a result in while the types of its columns are inferred
+     */
+    ArrowOutputFormatter(@Nonnull OutputStream out, int batchSize, @Nonnull RecordSpill spill) {
+        this.out = out;
+        this.batchSize = batchSize;
+        this.spill = spill;
+    }
+
+    @Override
+    public int formatAndCount(@Nonnull BoltResult result, @Nonnull LinePrinter output) {
+        List<String> keys = result.getKeys();
+        Iterator<Record> records = result.iterate();
+        if (keys.isEmpty()) {
+            int numberOfRows = 0;
+            for (; records.hasNext(); records.next()) {
+                numberOfRows++;
+            }
+            return numberOfRows;
+        }
+
+        try (RecordBuffer buffered = spill.newBuffer(keys)) {
+            ColumnType[] types = new ColumnType[keys.size()];
+            Arrays.fill(types, ColumnType.UNKNOWN);
+            while (records.hasNext()) {
+                Record record = records.next();
+                for (int column = 0; column < types.length; column++) {
+                    types[column] = widen(types[column], record.get(column));
+                }
+                buffered.add(record);
+            }
+            writeSchema(keys, types);
+
+            List<Record> batch = new ArrayList<>(Math.min(batchSize, 1024));
+            for (Record record : buffered) {
+                batch.add(record);
+                if (batch.size() == batchSize) {
+                    writeBatch(types, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(types, batch);
+            }
+            writeEndOfStream();
+            out.flush();
+            return buffered.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Nonnull
+    private static ColumnType widen(@Nonnull ColumnType type, @Nonnull Value value) {
+        ColumnType valueType = typeOf(value);
+        if (valueType == ColumnType.UNKNOWN || valueType == type || type == ColumnType.JSON) {
+            return type;
+        }
+        if (type == ColumnType.UNKNOWN) {
+            return valueType;
+        }
+        if ((type == ColumnType.INTEGER && valueType == ColumnType.FLOAT)
+                || (type == ColumnType.FLOAT && valueType == ColumnType.INTEGER)) {
+            return ColumnType.FLOAT;
+        }
+        return ColumnType.JSON;
+    }
+
+    @Nonnull
+    private static ColumnType typeOf(@Nonnull Value value) {
+        switch (((TypeRepresentation) value.type()).constructor()) {
+            case NULL:
+                return ColumnType.UNKNOWN;
+            case INTEGER:
+                return ColumnType.INTEGER;
+            case FLOAT:
+                return ColumnType.FLOAT;
+            case BOOLEAN:
+                return ColumnType.BOOLEAN;
+            case STRING:
+                return ColumnType.STRING;
+            case BYTES:
+                return ColumnType.BYTES;
+            default:
+                return ColumnType.JSON;
+        }
+    }
+
+    private void writeSchema(@Nonnull List<String> keys, @Nonnull ColumnType[] types) throws IOException {
+        FlatBufferBuilder builder = new FlatBufferBuilder();
+        int[] fields = new int[keys.size()];
+        for (int column = 0; column < fields.length; column++) {
+            if (types[column] == ColumnType.UNKNOWN) {
+                types[column] = ColumnType.STRING;
+            }
+            fields[column] = field(builder, keys.get(column), types[column]);
+        }
+        int fieldsVector = Schema.createFieldsVector(builder, fields);
+        Schema.startSchema(builder);
+        Schema.addEndianness(builder, Endianness.Little);
+        Schema.addFields(builder, fieldsVector);
+        int schema = Schema.endSchema(builder);
+
+        body.clear();
+        writeMessage(builder, MessageHeader.Schema, schema);
+    }
+
+    private static int field(@Nonnull FlatBufferBuilder builder, @Nonnull String name, @Nonnull ColumnType type) {
+        int nameOffset = builder.createString(name);
+        byte typeType;
+        int typeOffset;
+        switch (type) {
+            case INTEGER:
+                typeType = Type.Int;
+                typeOffset = Int.createInt(builder, 64, true);
+                break;
+            case FLOAT:
+                typeType = Type.FloatingPoint;
+                typeOffset = FloatingPoint.createFloatingPoint(builder, Precision.DOUBLE);
+                break;
+            case BOOLEAN:
+                typeType = Type.Bool;
+                Bool.startBool(builder);
+                typeOffset = Bool.endBool(builder);
+                break;
+            case BYTES:
+                typeType = Type.Binary;
+                Binary.startBinary(builder);
+                typeOffset = Binary.endBinary(builder);
+                break;
+            default:
+                typeType = Type.Utf8;
+                Utf8.startUtf8(builder);
+                typeOffset = Utf8.endUtf8(builder);
+        }
+        int children = Field.createChildrenVector(builder, new int[0]);
+        Field.startField(builder);
+        Field.addName(builder, nameOffset);
+        Field.addNullable(builder, true);
+        Field.addTypeType(builder, typeType);
+        Field.addType(builder, typeOffset);
+        Field.addChildren(builder, children);
+        return Field.endField(builder);
+    }
+
+    private void writeBatch(@Nonnull ColumnType[] types, @Nonnull List<Record> batch) throws IOException {
+        int rows = batch.size();
+        // Each column has a validity bitmap followed by one buffer of values, or offsets and data for variable width
+        List<long[]> buffers = new ArrayList<>();
+        long[] nullCounts = new long[types.length];
+        body.clear();
+        for (int column = 0; column < types.length; column++) {
+            int validity = body.position();
+            int nullCount = 0;
+            ensureCapacity((rows + 7) / 8);
+            for (int row = 0; row < rows; row += 8) {
+                int bits = 0;
+                for (int bit = 0; bit < 8 && row + bit < rows; bit++) {
+                    if (batch.get(row + bit).get(column).isNull()) {
+                        nullCount++;
+                    } else {
+                        bits |= 1 << bit;
+                    }
+                }
+                body.put((byte) bits);
+            }
+            nullCounts[column] = nullCount;
+            buffers.add(endBuffer(validity));
+
+            switch (types[column]) {
+                case INTEGER:
+                    writeIntegers(buffers, batch, column);
+                    break;
+                case FLOAT:
+                    writeFloats(buffers, batch, column);
+                    break;
+                case BOOLEAN:
+                    writeBooleans(buffers, batch, column);
+                    break;
+                default:
+                    writeVariableWidth(buffers, batch, column, types[column]);
+            }
+        }
+
+        FlatBufferBuilder builder = new FlatBufferBuilder();
+        RecordBatch.startNodesVector(builder, types.length);
+        for (int column = types.length - 1; column >= 0; column--) {
+            FieldNode.createFieldNode(builder, rows, nullCounts[column]);
+        }
+        int nodes = builder.endVector();
+        RecordBatch.startBuffersVector(builder, buffers.size());
+        for (int i = buffers.size() - 1; i >= 0; i--) {
+            Buffer.createBuffer(builder, buffers.get(i)[0], buffers.get(i)[1]);
+        }
+        int buffersVector = builder.endVector();
+        int recordBatch = RecordBatch.createRecordBatch(builder, rows, nodes, buffersVector);
+        writeMessage(builder, MessageHeader.RecordBatch, recordBatch);
+    }
+
+    private void writeIntegers(@Nonnull List<long[]> buffers, @Nonnull List<Record> batch, int column) {
+        int start = body.position();
+        ensureCapacity(8 * batch.size());
+        for (Record record : batch) {
+            Value value = record.get(column);
+            body.putLong(value.isNull() ? 0 : value.asLong());
+        }
+        buffers.add(endBuffer(start));
+    }
+
+    private void writeFloats(@Nonnull List<long[]> buffers, @Nonnull List<Record> batch, int column) {
+        int start = body.position();
+        ensureCapacity(8 * batch.size());
+        for (Record record : batch) {
+            Value value = record.get(column);
+            body.putDouble(value.isNull() ? 0 : value.asDouble());
+        }
+        buffers.add(endBuffer(start));
+    }
+
+    private void writeBooleans(@Nonnull List<long[]> buffers, @Nonnull List<Record> batch, int column) {
+        int start = body.position();
+        int rows = batch.size();
+        ensureCapacity((rows + 7) / 8);
+        for (int row = 0; row < rows; row += 8) {
+            int bits = 0;
+            for (int bit = 0; bit < 8 && row + bit < rows; bit++) {
+                Value value = batch.get(row + bit).get(column);
+                if (!value.isNull() && value.asBoolean()) {
+                    bits |= 1 << bit;
+                }
+            }
+            body.put((byte) bits);
+        }
+        buffers.add(endBuffer(start));
+    }
+
+    private void writeVariableWidth(@Nonnull List<long[]> buffers, @Nonnull List<Record> batch, int column,
+                                    @Nonnull ColumnType type) {
+        List<byte[]> data = new ArrayList<>(batch.size());
+        int offsets = body.position();
+        ensureCapacity(4 * (batch.size() + 1));
+        int offset = 0;
+        body.putInt(offset);
+        for (Record record : batch) {
+            Value value = record.get(column);
+            byte[] bytes = value.isNull() ? NO_BYTES : bytesOf(value, type);
+            data.add(bytes);
+            offset += bytes.length;
+            body.putInt(offset);
+        }
+        buffers.add(endBuffer(offsets));
+
+        int start = body.position();
+        ensureCapacity(offset);
+        for (byte[] bytes : data) {
+            body.put(bytes);
+        }
+        buffers.add(endBuffer(start));
+    }
+
+    @Nonnull
+    private byte[] bytesOf(@Nonnull Value value, @Nonnull ColumnType type) {
+        switch (type) {
+            case BYTES:
+                return value.asByteArray();
+            case STRING:
+                return value.asString().getBytes(StandardCharsets.UTF_8);
+            default:
+                return jsonFormatter.toJson(value).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Pads the body after a buffer which started at the given position
+     *
+     * @return the offset and length of the buffer
+     */
+    @Nonnull
+    private long[] endBuffer(int start) {
+        long[] buffer = {start, body.position() - start};
+        int padding = padding(body.position());
+        ensureCapacity(padding);
+        for (int i = 0; i < padding; i++) {
+            body.put((byte) 0);
+        }
+        return buffer;
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (body.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(body.capacity() * 2, body.position() + bytes))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            body.flip();
+            larger.put(body);
+            body = larger;
+        }
+    }
+
+    /**
+     * Writes an encapsulated message: a continuation marker, the length of the metadata, the metadata padded so
+     * that the body starts on an 8 byte boundary, and the body
+     */
+    private void writeMessage(@Nonnull FlatBufferBuilder builder, byte headerType, int header) throws IOException {
+        int bodyLength = body.position();
+        Message.startMessage(builder);
+        Message.addVersion(builder, MetadataVersion.V4);
+        Message.addHeaderType(builder, headerType);
+        Message.addHeader(builder, header);
+        Message.addBodyLength(builder, bodyLength);
+        builder.finish(Message.endMessage(builder));
+
+        ByteBuffer metadata = builder.dataBuffer();
+        int metadataLength = metadata.remaining();
+        int padding = padding(metadataLength);
+        writePrefix(metadataLength + padding);
+        out.write(metadata.array(), metadata.arrayOffset() + metadata.position(), metadataLength);
+        out.write(NO_PADDING, 0, padding);
+        out.write(body.array(), 0, bodyLength);
+    }
+
+    private void writeEndOfStream() throws IOException {
+        writePrefix(0);
+    }
+
+    private void writePrefix(int metadataLength) throws IOException {
+        ByteBuffer.wrap(prefix).order(ByteOrder.LITTLE_ENDIAN).putInt(CONTINUATION_MARKER).putInt(metadataLength);
+        out.write(prefix);
+    }
+
+    private static int padding(int length) {
+        return (ALIGNMENT - length % ALIGNMENT) % ALIGNMENT;
+    }
+}
@@ -0,0 +1,100 @@
+package org.neo4j.shell.prettyprint;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Prints lines, as UTF-8 unless told otherwise, through a large buffer, which is only written out when it fills up or
+ * is flushed. Nothing is ANSI rendered, so text is written exactly as given. Binary formats write to
+ * {@link #getOutputStream()} instead.
+ */
+public class BufferedOutput implements LinePrinter, AutoCloseable {
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private final OutputStream stream;
+    private final Writer writer;
+
+    public BufferedOutput(@Nonnull OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public BufferedOutput(@Nonnull OutputStream out, int bufferSize) {
+        this(out, bufferSize, StandardCharsets.UTF_8);
+    }
+
+    public BufferedOutput(@Nonnull OutputStream out, int bufferSize, @Nonnull Charset charset) {
+        this.stream = new BufferedOutputStream(out, bufferSize);
+        this.writer = new OutputStreamWriter(stream, charset);
+    }
+
+    /**
+     * @param path of the file to write to, which is created if it does not exist and truncated if it does
+     * @return output to the file
+     * @throws IOException if the file could not be opened
+     */
+    @Nonnull
+    public static BufferedOutput toFile(@Nonnull String path) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(path), CREATE, TRUNCATE_EXISTING, WRITE);
+        return new BufferedOutput(Channels.newOutputStream(channel));
+    }
+
+    @Override
+    public void printOut(@Nonnull String line) {
+        try {
+            writer.write(line);
+            writer.write(OutputFormatter.NEWLINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void printOut(@Nonnull String line, @Nonnull String terminator) {
+        try {
+            writer.write(line);
+            writer.write(terminator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the stream lines are written to, for binary output which is not mixed with lines
+     */
+    @Nonnull
+    public OutputStream getOutputStream() {
+        return stream;
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.neo4j.shell.prettyprint;
+
+import org.neo4j.driver.internal.types.InternalTypeSystem;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.shell.state.BoltResult;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Formats results as delimiter separated values following RFC 4180, a header row with the column names followed by
+ * one row per record. Each row is printed as soon as its record has been received.
+ * <p>
+ * A field is quoted if it contains the delimiter, a quote or a line break, and quotes inside it are doubled. Strings
+ * are written without the quotes Cypher would put around them, and null is written as the configured null value.
+ * A value which would read back as null is quoted to tell them apart.
+ * <p>
+ * As RFC 4180 asks, CSV records end with CRLF whatever the platform, while TSV records end with the platform's line
+ * separator like all other output. The formatter hands the terminator of each record to the {@link LinePrinter}, so
+ * that it does not depend on how the printer ends lines otherwise.
+ */
+public class CsvOutputFormatter implements OutputFormatter {
+    public static final char DEFAULT_CSV_DELIMITER = ',';
+    public static final char DEFAULT_TSV_DELIMITER = '\t';
+    public static final String DEFAULT_NULL_VALUE = "";
+    private static final String CRLF = "\r\n";
+    private static final char QUOTE = '"';
+
+    private final char delimiter;
+    private final String nullValue;
+    private final String recordEnd;
+    private final StringBuilder row = new StringBuilder();
+
+    /**
+     * Formats CSV, whose records end with CRLF.
+     */
+    public CsvOutputFormatter(char delimiter, @Nonnull String nullValue) {
+        this(delimiter, nullValue, true);
+    }
+
+    /**
+     * @param crlf true to end records with CRLF, false to end them with the platform's line separator
+     */
+    public CsvOutputFormatter(char delimiter, @Nonnull String nullValue, boolean crlf) {
+        this.delimiter = delimiter;
+        this.nullValue = nullValue;
+        this.recordEnd = crlf ? CRLF : NEWLINE;
+    }
+
+    @Override
+    public int formatAndCount(@Nonnull BoltResult result, @Nonnull LinePrinter output) {
+        List<String> keys = result.getKeys();
+        if (!keys.isEmpty()) {
+            row.setLength(0);
+            for (int i = 0, size = keys.size(); i < size; i++) {
+                if (i > 0) {
+                    row.append(delimiter);
+                }
+                appendField(keys.get(i), false);
+            }
+            output.printOut(row.toString(), recordEnd);
+        }
+
+        Iterator<Record> records = result.iterate();
+        int numberOfRows = 0;
+        while (records.hasNext()) {
+            Record record = records.next();
+            row.setLength(0);
+            for (int i = 0, size = record.size(); i < size; i++) {
+                if (i > 0) {
+                    row.append(delimiter);
+                }
+                appendValue(record.get(i));
+            }
+            output.printOut(row.toString(), recordEnd);
+            numberOfRows++;
+        }
+        return numberOfRows;
+    }
+
+    private void appendValue(@Nonnull Value value) {
+        if (value.isNull()) {
+            row.append(nullValue);
+        } else if (value.hasType(InternalTypeSystem.TYPE_SYSTEM.STRING())) {
+            appendField(value.asString(), true);
+        } else {
+            appendField(formatValue(value), true);
+        }
+    }
+
+    private void appendField(@Nonnull String field, boolean mightReadAsNull) {
+        if (needsQuotes(field) || (mightReadAsNull && field.equals(nullValue))) {
+            row.append(QUOTE);
+            for (int i = 0, length = field.length(); i < length; i++) {
+                char c = field.charAt(i);
+                if (c == QUOTE) {
+                    row.append(QUOTE);
+                }
+                row.append(c);
+            }
+            row.append(QUOTE);
+        } else {
+            row.append(field);
+        }
+    }
+
+    private boolean needsQuotes(@Nonnull String field) {
+        for (int i = 0, length = field.length(); i < length; i++) {
+            char c = field.charAt(i);
+            if (c == delimiter || c == QUOTE || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,268 @@
+package org.neo4j.shell.prettyprint;
+
+import org.neo4j.driver.internal.types.TypeRepresentation;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.types.Node;
+import org.neo4j.driver.v1.types.Path;
+import org.neo4j.driver.v1.types.Point;
+import org.neo4j.driver.v1.types.Relationship;
+import org.neo4j.shell.state.BoltResult;
+
+import javax.annotation.Nonnull;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Formats results as JSON Lines, one JSON object per record with a member for each column, printed as soon as the
+ * record has been received. Values are encoded by walking them directly into a reused buffer:
+ * <ul>
+ * <li>lists and maps as arrays and objects, other primitive values as themselves, except floats which are not
+ * finite and are written as the strings "NaN", "Infinity" and "-Infinity"</li>
+ * <li>bytes as a base64 string</li>
+ * <li>temporal values as their ISO-8601 string</li>
+ * <li>a node as {"id", "labels", "properties"}</li>
+ * <li>a relationship as {"id", "type", "start", "end", "properties"}, where start and end are node ids</li>
+ * <li>a path as {"nodes", "relationships"}, both in the order they are traversed</li>
+ * <li>a point as {"srid", "x", "y"} and "z" if it has three dimensions</li>
+ * </ul>
+ */
+public class JsonLinesOutputFormatter implements OutputFormatter {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final StringBuilder json = new StringBuilder();
+
+    @Override
+    public int formatAndCount(@Nonnull BoltResult result, @Nonnull LinePrinter output) {
+        Iterator<Record> records = result.iterate();
+        int numberOfRows = 0;
+        while (records.hasNext()) {
+            Record record = records.next();
+            json.setLength(0);
+            appendRecord(record);
+            output.printOut(json.toString());
+            numberOfRows++;
+        }
+        return numberOfRows;
+    }
+
+    /**
+     * @return the value encoded as JSON
+     */
+    @Nonnull
+    String toJson(@Nonnull Value value) {
+        json.setLength(0);
+        appendValue(value);
+        return json.toString();
+    }
+
+    private void appendRecord(@Nonnull Record record) {
+        List<String> keys = record.keys();
+        json.append('{');
+        for (int i = 0, size = keys.size(); i < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendString(keys.get(i));
+            json.append(':');
+            appendValue(record.get(i));
+        }
+        json.append('}');
+    }
+
+    private void appendValue(@Nonnull Value value) {
+        TypeRepresentation type = (TypeRepresentation) value.type();
+        switch (type.constructor()) {
+            case NULL:
+                json.append("null");
+                break;
+            case BOOLEAN:
+                json.append(value.asBoolean());
+                break;
+            case INTEGER:
+                json.append(value.asLong());
+                break;
+            case FLOAT:
+                appendFloat(value.asDouble());
+                break;
+            case STRING:
+                appendString(value.asString());
+                break;
+            case BYTES:
+                appendString(Base64.getEncoder().encodeToString(value.asByteArray()));
+                break;
+            case LIST:
+                appendList(value);
+                break;
+            case MAP:
+                appendMap(value.keys(), value::get);
+                break;
+            case NODE:
+                appendNode(value.asNode());
+                break;
+            case RELATIONSHIP:
+                appendRelationship(value.asRelationship());
+                break;
+            case PATH:
+                appendPath(value.asPath());
+                break;
+            case POINT:
+                appendPoint(value.asPoint());
+                break;
+            case DATE:
+            case TIME:
+            case DATE_TIME:
+            case LOCAL_TIME:
+            case LOCAL_DATE_TIME:
+            case DURATION:
+            default:
+                appendString(value.asObject().toString());
+        }
+    }
+
+    private void appendFloat(double number) {
+        if (Double.isNaN(number) || Double.isInfinite(number)) {
+            appendString(Double.toString(number));
+        } else {
+            json.append(number);
+        }
+    }
+
+    private void appendList(@Nonnull Value list) {
+        json.append('[');
+        for (int i = 0, size = list.size(); i < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendValue(list.get(i));
+        }
+        json.append(']');
+    }
+
+    private void appendNode(@Nonnull Node node) {
+        json.append("{\"id\":").append(node.id()).append(",\"labels\":[");
+        boolean first = true;
+        for (String label : node.labels()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            appendString(label);
+        }
+        json.append("],\"properties\":");
+        appendMap(node.keys(), node::get);
+        json.append('}');
+    }
+
+    private void appendRelationship(@Nonnull Relationship relationship) {
+        json.append("{\"id\":").append(relationship.id()).append(",\"type\":");
+        appendString(relationship.type());
+        json.append(",\"start\":").append(relationship.startNodeId())
+                .append(",\"end\":").append(relationship.endNodeId())
+                .append(",\"properties\":");
+        appendMap(relationship.keys(), relationship::get);
+        json.append('}');
+    }
+
+    private void appendMap(@Nonnull Iterable<String> keys, @Nonnull Function<String, Value> values) {
+        json.append('{');
+        boolean first = true;
+        for (String key : keys) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            appendString(key);
+            json.append(':');
+            appendValue(values.apply(key));
+        }
+        json.append('}');
+    }
+
+    private void appendPath(@Nonnull Path path) {
+        json.append("{\"nodes\":[");
+        boolean first = true;
+        for (Node node : path.nodes()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            appendNode(node);
+        }
+        json.append("],\"relationships\":[");
+        first = true;
+        for (Relationship relationship : path.relationships()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            appendRelationship(relationship);
+        }
+        json.append("]}");
+    }
+
+    private void appendPoint(@Nonnull Point point) {
+        json.append("{\"srid\":").append(point.srid()).append(",\"x\":");
+        appendFloat(point.x());
+        json.append(",\"y\":");
+        appendFloat(point.y());
+        if (!Double.isNaN(point.z())) {
+            json.append(",\"z\":");
+            appendFloat(point.z());
+        }
+        json.append('}');
+    }
+
+    private void appendString(@Nonnull String string) {
+        appendString(json, string);
+    }
+
+    /**
+     * @return the string encoded as JSON
+     */
+    @Nonnull
+    public static String quote(@Nonnull String string) {
+        StringBuilder json = new StringBuilder(string.length() + 2);
+        appendString(json, string);
+        return json.toString();
+    }
+
+    private static void appendString(@Nonnull StringBuilder json, @Nonnull String string) {
+        json.append('"');
+        for (int i = 0, length = string.length(); i < length; i++) {
+            char c = string.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                case '\b':
+                    json.append("\\b");
+                    break;
+                case '\f':
+                    json.append("\\f");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xf]);
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
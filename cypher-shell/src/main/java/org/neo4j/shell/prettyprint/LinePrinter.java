@@ -0,0 +1,34 @@
+package org.neo4j.shell.prettyprint;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Something which output can be written to, one line at a time.
+ */
+public interface LinePrinter {
+
+    /**
+     * Print the designated line to the configured output.
+     *
+     * @param line to print
+     */
+    void printOut(@Nonnull String line);
+
+    /**
+     * Print the designated line followed by the given terminator instead of the platform's line separator, for
+     * formats which define how their lines end. Printers which only collect lines, without writing line separators
+     * of their own, print the line alone.
+     *
+     * @param line       to print
+     * @param terminator to end the line with
+     */
+    default void printOut(@Nonnull String line, @Nonnull String terminator) {
+        printOut(line);
+    }
+
+    /**
+     * Writes out lines which have been printed but are still buffered. Called after each result.
+     */
+    default void flush() {
+    }
+}
@@ -32,7 +32,14 @@ public interface OutputFormatter {
     String SPACE = " ";
     String NEWLINE =  System.getProperty("line.separator");
 
-    @Nonnull String format(@Nonnull BoltResult result);
+    /**
+     * Formats the records of the result as they are streamed from the server, printing them to the given output.
+     *
+     * @param result to format
+     * @param output to print formatted records to
+     * @return the number of records in the result
+     */
+    int formatAndCount(@Nonnull BoltResult result, @Nonnull LinePrinter output);
 
     @Nonnull default String formatValue(@Nonnull final Value value) {
         TypeRepresentation type = (TypeRepresentation) value.type();
@@ -183,10 +190,26 @@ public interface OutputFormatter {
     @Nonnull default String formatInfo(@Nonnull ResultSummary summary) {
         return "";
     }
-    @Nonnull default String formatFooter(@Nonnull BoltResult result) {
+    @Nonnull default String formatFooter(@Nonnull BoltResult result, int numberOfRows) {
         return "";
     }
 
+    /**
+     * @return true if the footer says when records beyond the row limit were discarded, formats which only print
+     * data leave that to be reported elsewhere
+     */
+    default boolean reportsTruncation() {
+        return false;
+    }
+
+    /**
+     * @return the footer of a result whose records beyond the row limit were discarded
+     */
+    @Nonnull static String truncatedFooter(int numberOfRows) {
+        return String.format("%d row%s shown, the rest of the result was discarded (max-rows)",
+                numberOfRows, numberOfRows != 1 ? "s" : "");
+    }
+
 
     List<String> INFO = asList("Version", "Planner", "Runtime");
 
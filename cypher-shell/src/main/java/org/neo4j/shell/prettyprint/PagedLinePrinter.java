@@ -0,0 +1,73 @@
+package org.neo4j.shell.prettyprint;
+
+import org.neo4j.shell.exception.PagerQuitException;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Prints to another {@link LinePrinter} one page at a time, asking the {@link Pager} before starting on each new
+ * page. Since printing blocks in the meantime, the rest of a streamed result is only fetched once it is asked for.
+ */
+public class PagedLinePrinter implements LinePrinter {
+    private final LinePrinter output;
+    private final Pager pager;
+    private int pageSize;
+    private int linesOnPage;
+
+    public PagedLinePrinter(@Nonnull LinePrinter output, @Nonnull Pager pager) {
+        this.output = output;
+        this.pager = pager;
+        this.pageSize = pager.pageSize();
+    }
+
+    /**
+     * @throws PagerQuitException if the user did not want to see the page this line starts
+     */
+    @Override
+    public void printOut(@Nonnull String line) {
+        int lines = startPage(line);
+        output.printOut(line);
+        linesOnPage += lines;
+    }
+
+    /**
+     * @throws PagerQuitException if the user did not want to see the page this line starts
+     */
+    @Override
+    public void printOut(@Nonnull String line, @Nonnull String terminator) {
+        int lines = startPage(line);
+        output.printOut(line, terminator);
+        linesOnPage += lines;
+    }
+
+    /**
+     * Asks the pager before the line if it does not fit on the current page.
+     *
+     * @return the number of lines the line takes up
+     */
+    private int startPage(@Nonnull String line) {
+        int lines = countLines(line);
+        if (linesOnPage > 0 && linesOnPage + lines > pageSize) {
+            output.flush();
+            if (!pager.nextPage()) {
+                throw new PagerQuitException();
+            }
+            pageSize = pager.pageSize();
+            linesOnPage = 0;
+        }
+        return lines;
+    }
+
+    @Override
+    public void flush() {
+        output.flush();
+    }
+
+    private static int countLines(@Nonnull String text) {
+        int lines = 1;
+        for (int i = text.indexOf('\n'); i != -1; i = text.indexOf('\n', i + 1)) {
+            lines++;
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,19 @@
+package org.neo4j.shell.prettyprint;
+
+/**
+ * Lets the user read a result one page at a time.
+ */
+public interface Pager {
+
+    /**
+     * @return the number of lines which fit on a page
+     */
+    int pageSize();
+
+    /**
+     * Waits until the user asks for the next page, which may be never.
+     *
+     * @return true if the next page should be printed, false if the user does not want to see any more of the result
+     */
+    boolean nextPage();
+}
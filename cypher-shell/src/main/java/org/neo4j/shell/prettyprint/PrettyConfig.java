@@ -0,0 +1,73 @@
+package org.neo4j.shell.prettyprint;
+
+import org.neo4j.shell.cli.Format;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Settings which control how results are printed.
+ */
+public class PrettyConfig {
+    private final Format format;
+    private final boolean wrap;
+    private final int numSampleRows;
+    private final char delimiter;
+    private final String nullValue;
+
+    public PrettyConfig(@Nonnull Format format) {
+        this(format, true, TableOutputFormatter.DEFAULT_SAMPLE_ROWS);
+    }
+
+    /**
+     * @param format        the output format
+     * @param wrap          true if table cells wider than their column should wrap, false if they should be truncated
+     * @param numSampleRows the number of rows used to size the columns of a table
+     */
+    public PrettyConfig(@Nonnull Format format, boolean wrap, int numSampleRows) {
+        this(format, wrap, numSampleRows, null, CsvOutputFormatter.DEFAULT_NULL_VALUE);
+    }
+
+    /**
+     * @param format        the output format
+     * @param wrap          true if table cells wider than their column should wrap, false if they should be truncated
+     * @param numSampleRows the number of rows used to size the columns of a table
+     * @param delimiter     the field delimiter of csv and tsv, or null for the default of the format
+     * @param nullValue     how csv and tsv represent null
+     */
+    public PrettyConfig(@Nonnull Format format, boolean wrap, int numSampleRows, @Nullable Character delimiter,
+                        @Nonnull String nullValue) {
+        this.format = format;
+        this.wrap = wrap;
+        this.numSampleRows = numSampleRows;
+        if (delimiter != null) {
+            this.delimiter = delimiter;
+        } else {
+            this.delimiter = format == Format.TSV ?
+                    CsvOutputFormatter.DEFAULT_TSV_DELIMITER : CsvOutputFormatter.DEFAULT_CSV_DELIMITER;
+        }
+        this.nullValue = nullValue;
+    }
+
+    @Nonnull
+    public Format getFormat() {
+        return format;
+    }
+
+    public boolean getWrap() {
+        return wrap;
+    }
+
+    public int getNumSampleRows() {
+        return numSampleRows;
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    @Nonnull
+    public String getNullValue() {
+        return nullValue;
+    }
+}
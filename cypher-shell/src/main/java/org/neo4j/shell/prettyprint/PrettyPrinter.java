@@ -1,11 +1,13 @@
 package org.neo4j.shell.prettyprint;
 
+import org.neo4j.driver.v1.summary.ResultSummary;
 import org.neo4j.shell.cli.Format;
 import org.neo4j.shell.state.BoltResult;
 
 import javax.annotation.Nonnull;
-
-import static java.util.Arrays.asList;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Print the result from neo4j in a intelligible fashion.
@@ -15,16 +17,80 @@ public class PrettyPrinter {
     private final OutputFormatter outputFormatter;
 
     public PrettyPrinter(@Nonnull Format format) {
-        this.statisticsCollector = new StatisticsCollector(format);
-        this.outputFormatter = format == Format.VERBOSE ? new TableOutputFormatter() : new SimpleOutputFormatter();
+        this(new PrettyConfig(format));
+    }
+
+    public PrettyPrinter(@Nonnull PrettyConfig prettyConfig) {
+        this(prettyConfig, System.out);
+    }
+
+    /**
+     * @param prettyConfig settings for how results are printed
+     * @param binaryOutput where binary formats write results, text formats print to the given {@link LinePrinter}
+     */
+    public PrettyPrinter(@Nonnull PrettyConfig prettyConfig, @Nonnull OutputStream binaryOutput) {
+        this.statisticsCollector = new StatisticsCollector(prettyConfig.getFormat());
+        this.outputFormatter = outputFormatter(prettyConfig, binaryOutput);
+    }
+
+    @Nonnull
+    private static OutputFormatter outputFormatter(@Nonnull PrettyConfig prettyConfig,
+                                                   @Nonnull OutputStream binaryOutput) {
+        switch (prettyConfig.getFormat()) {
+            case VERBOSE:
+                return new TableOutputFormatter(prettyConfig.getWrap(), prettyConfig.getNumSampleRows());
+            case CSV:
+                return new CsvOutputFormatter(prettyConfig.getDelimiter(), prettyConfig.getNullValue(), true);
+            case TSV:
+                return new CsvOutputFormatter(prettyConfig.getDelimiter(), prettyConfig.getNullValue(), false);
+            case JSONL:
+                return new JsonLinesOutputFormatter();
+            case ARROW:
+                return new ArrowOutputFormatter(binaryOutput);
+            default:
+                return new SimpleOutputFormatter();
+        }
+    }
+
+    /**
+     * Prints the result as it is streamed from the server. Plan information, the footer and statistics are printed
+     * after the records, since the summary is only complete once all records have been received.
+     *
+     * @param result to print
+     * @param linePrinter to print to
+     * @return the number of rows printed
+     */
+    public int format(@Nonnull final BoltResult result, @Nonnull LinePrinter linePrinter) {
+        int numberOfRows = outputFormatter.formatAndCount(result, linePrinter);
+        ResultSummary summary = result.getSummary();
+        printIfNotBlank(linePrinter, outputFormatter.formatInfo(summary));
+        printIfNotBlank(linePrinter, outputFormatter.formatPlan(summary));
+        printIfNotBlank(linePrinter, outputFormatter.formatFooter(result, numberOfRows));
+        printIfNotBlank(linePrinter, statisticsCollector.collect(summary));
+        return numberOfRows;
+    }
+
+    /**
+     * @return true if the output says when records beyond the row limit were discarded, otherwise it has to be
+     * reported separately, so as not to mix it in with the data
+     */
+    public boolean reportsTruncation() {
+        return outputFormatter.reportsTruncation();
+    }
+
+    /**
+     * Buffers the entire output for the result in a single String, only intended for testing.
+     */
+    @Nonnull
+    String format(@Nonnull final BoltResult result) {
+        List<String> lines = new ArrayList<>();
+        format(result, lines::add);
+        return OutputFormatter.joinNonBlanks(OutputFormatter.NEWLINE, lines);
     }
 
-    public String format(@Nonnull final BoltResult result) {
-        String infoOutput = outputFormatter.formatInfo(result.getSummary());
-        String planOutput = outputFormatter.formatPlan(result.getSummary());
-        String statistics = statisticsCollector.collect(result.getSummary());
-        String resultOutput = outputFormatter.format(result);
-        String footer = outputFormatter.formatFooter(result);
-        return OutputFormatter.joinNonBlanks(OutputFormatter.NEWLINE, asList(infoOutput, planOutput, resultOutput, footer, statistics));
+    private static void printIfNotBlank(@Nonnull LinePrinter linePrinter, @Nonnull String text) {
+        if (OutputFormatter.isNotBlank(text)) {
+            linePrinter.printOut(text);
+        }
     }
 }
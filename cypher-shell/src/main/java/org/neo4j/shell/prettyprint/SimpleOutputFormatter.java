@@ -5,7 +5,7 @@ import org.neo4j.driver.v1.Value;
 import org.neo4j.driver.v1.summary.ResultSummary;
 import org.neo4j.shell.state.BoltResult;
 
-import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -14,16 +14,18 @@ import javax.annotation.Nonnull;
 public class SimpleOutputFormatter implements OutputFormatter {
 
     @Override
-    @Nonnull
-    public String format(@Nonnull final BoltResult result) {
-        StringBuilder sb = new StringBuilder();
-        List<Record> records = result.getRecords();
-        if (!records.isEmpty()) {
-            sb.append(records.get(0).keys().stream().collect(Collectors.joining(COMMA_SEPARATOR)));
-            sb.append("\n");
-            sb.append(records.stream().map(this::formatRecord).collect(Collectors.joining("\n")));
+    public int formatAndCount(@Nonnull BoltResult result, @Nonnull LinePrinter output) {
+        Iterator<Record> records = result.iterate();
+        int numberOfRows = 0;
+        while (records.hasNext()) {
+            Record record = records.next();
+            if (numberOfRows == 0) {
+                output.printOut(record.keys().stream().collect(Collectors.joining(COMMA_SEPARATOR)));
+            }
+            output.printOut(formatRecord(record));
+            numberOfRows++;
         }
-        return sb.toString();
+        return numberOfRows;
     }
 
     @Nonnull
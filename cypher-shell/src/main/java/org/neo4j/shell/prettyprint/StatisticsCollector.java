@@ -25,9 +25,17 @@ public class StatisticsCollector {
     }
 
     private String collectStatistics(@Nonnull ResultSummary summary) {
-        List<String> statistics = new ArrayList<>();
         SummaryCounters counters = summary.counters();
         if (counters == null) return "";
+        return collectStatistics(counters);
+    }
+
+    /**
+     * @return the non-zero counters as a single line, regardless of format
+     */
+    @Nonnull
+    public static String collectStatistics(@Nonnull SummaryCounters counters) {
+        List<String> statistics = new ArrayList<>();
         if (counters.nodesCreated() != 0) {
             statistics.add(String.format("Added %d nodes", counters.nodesCreated()));
         }
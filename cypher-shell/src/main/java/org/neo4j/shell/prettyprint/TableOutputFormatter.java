@@ -1,123 +1,178 @@
 package org.neo4j.shell.prettyprint;
 
+import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.Value;
-import org.neo4j.driver.v1.Values;
 import org.neo4j.driver.v1.summary.ResultSummary;
 import org.neo4j.shell.state.BoltResult;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Collections;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class TableOutputFormatter implements OutputFormatter {
+    public static final int DEFAULT_SAMPLE_ROWS = 1000;
+    private static final String ELLIPSIS = "…";
 
-    @Override
-    @Nonnull
-    public String format(@Nonnull final BoltResult result) {
-        List<Value> data = result.getRecords().stream()
-                .map(r -> Values.value(r.<Value>asMap(v -> v)))
-                .collect(Collectors.toList());
-        return formatValues(data, result.getKeys());
+    private final boolean wrap;
+    private final int numSampleRows;
+
+    public TableOutputFormatter() {
+        this(true, DEFAULT_SAMPLE_ROWS);
     }
 
-    @Nonnull
-    String formatValues(@Nonnull List<Value> data, List<String> columns) {
+    /**
+     * @param wrap          true if values wider than their column should continue on the next line, false if they
+     *                      should be truncated
+     * @param numSampleRows the number of rows to look at when sizing the columns, the remaining rows are streamed
+     */
+    public TableOutputFormatter(boolean wrap, int numSampleRows) {
+        this.wrap = wrap;
+        this.numSampleRows = numSampleRows;
+    }
+
+    @Override
+    public int formatAndCount(@Nonnull BoltResult result, @Nonnull LinePrinter output) {
+        List<String> columns = result.getKeys();
         if (columns.isEmpty()) {
-            return "";
+            return 0;
         }
-        if (data.isEmpty()) {
-            return "";
+
+        // Only the first rows are held in memory to size the columns, every cell is only formatted once
+        Iterator<Record> records = result.iterate();
+        List<String[]> sample = new ArrayList<>();
+        while (sample.size() < numSampleRows && records.hasNext()) {
+            sample.add(formatRecord(records.next()));
+        }
+        if (sample.isEmpty()) {
+            return 0;
         }
 
-        StringBuilder sb = new StringBuilder();
-        Map<String, Integer> columnSizes = calculateColumnSizes(columns, data);
-        String headerLine = padColumnHeading(columnSizes);
+        return formatTable(columns.toArray(new String[columns.size()]), sample, records, output);
+    }
+
+    private int formatTable(@Nonnull String[] columns, @Nonnull List<String[]> sample,
+                            @Nonnull Iterator<Record> remainingRecords, @Nonnull LinePrinter output) {
+        int[] columnSizes = calculateColumnSizes(columns, sample);
+        String headerLine = formatRow(columnSizes, columns, output);
         int lineWidth = headerLine.length() - 2;
         String dashes = "+" + OutputFormatter.repeat('-', lineWidth) + "+";
-        addHeader(sb, headerLine, dashes);
-
-        data.forEach(record -> sb.append(padColumnHeading(columnSizes, record)).append(NEWLINE));
 
-        sb.append(dashes).append(NEWLINE);
-        return sb.toString();
-    }
+        output.printOut(dashes);
+        output.printOut(headerLine);
+        output.printOut(dashes);
 
-    private void addHeader(StringBuilder sb, String headerLine, String dashes) {
-        sb.append(dashes).append(NEWLINE);
-        sb.append(headerLine).append(NEWLINE);
-        sb.append(dashes).append(NEWLINE);
-    }
+        int numberOfRows = 0;
+        for (String[] row : sample) {
+            output.printOut(formatRow(columnSizes, row, output));
+            numberOfRows++;
+        }
+        // Let the sample be garbage collected while the rest of the result is streamed
+        sample.clear();
+        while (remainingRecords.hasNext()) {
+            output.printOut(formatRow(columnSizes, formatRecord(remainingRecords.next()), output));
+            numberOfRows++;
+        }
 
-    @Nonnull
-    public String formatFooter(@Nonnull BoltResult result) {
-        int rows = result.getRecords().size();
-        ResultSummary summary = result.getSummary();
-        return String.format("%d row%s available after %d ms, " +
-                        "consumed after another %d ms", rows, rows != 1 ? "s" : "",
-                summary.resultAvailableAfter(MILLISECONDS),
-                summary.resultConsumedAfter(MILLISECONDS));
+        output.printOut(dashes + NEWLINE);
+        return numberOfRows;
     }
 
     @Nonnull
-    private String padColumnHeading(@Nonnull Map<String, Integer> columnSizes, @Nonnull Value m) {
-        StringBuilder sb = new StringBuilder("|");
-        columnSizes.entrySet().forEach(entry -> {
-            sb.append(" ");
-            String txt = formatValue(m.get(entry.getKey()));
-            String value = OutputFormatter.rightPad(txt, entry.getValue());
-            sb.append(value);
-            sb.append(" |");
-        });
-        return sb.toString();
+    private String[] formatRecord(@Nonnull Record record) {
+        List<Value> values = record.values();
+        String[] row = new String[values.size()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = formatValue(values.get(i));
+        }
+        return row;
     }
 
+    /**
+     * Formats a single row. Values wider than their column are either truncated, or, if wrapping, continued on
+     * following lines. Any such continuation lines are printed directly, and only the last line is returned.
+     */
     @Nonnull
-    private String padColumnHeading(@Nonnull Map<String, Integer> columnSizes) {
-        StringBuilder sb = new StringBuilder("|");
-        for (String column : columnSizes.keySet()) {
-            sb.append(" ");
-            sb.append(OutputFormatter.rightPad(column, columnSizes.get(column)));
-            sb.append(" |");
+    private String formatRow(@Nonnull int[] columnSizes, @Nonnull String[] row, @Nonnull LinePrinter output) {
+        String[] remaining = row;
+        while (true) {
+            String[] overflow = null;
+            StringBuilder sb = new StringBuilder("|");
+            for (int i = 0; i < columnSizes.length; i++) {
+                String txt = i < remaining.length && remaining[i] != null ? remaining[i] : "";
+                int width = columnSizes[i];
+                sb.append(" ");
+                if (txt.length() <= width) {
+                    sb.append(OutputFormatter.rightPad(txt, width));
+                } else if (wrap) {
+                    sb.append(txt, 0, width);
+                    if (overflow == null) {
+                        overflow = new String[columnSizes.length];
+                    }
+                    overflow[i] = txt.substring(width);
+                } else {
+                    sb.append(txt, 0, width - 1).append(ELLIPSIS);
+                }
+                sb.append(" |");
+            }
+            if (overflow == null) {
+                return sb.toString();
+            }
+            output.printOut(sb.toString());
+            remaining = overflow;
         }
-        return sb.toString();
     }
 
     @Nonnull
-    private Map<String, Integer> calculateColumnSizes(@Nonnull List<String> columns, @Nonnull List<Value> data) {
-        Map<String, Integer> columnSizesMap = mapColumnsToLength(columns);
-        for (Map.Entry<String, Integer> entry : columnSizesMap.entrySet()) {
-            String key = entry.getKey();
-            Integer maxRecordSize = data.stream().map(record ->
-                    formatValue(record.get(key)).length()).max(Integer::compareTo).get();
-            if (entry.getValue() < maxRecordSize) {
-                columnSizesMap.put(key, maxRecordSize);
+    private int[] calculateColumnSizes(@Nonnull String[] columns, @Nonnull List<String[]> sample) {
+        int[] columnSizes = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            // Never zero wide, or wrapped values could not make any progress
+            columnSizes[i] = Math.max(1, columns[i].length());
+        }
+        for (String[] row : sample) {
+            for (int i = 0; i < columns.length && i < row.length; i++) {
+                columnSizes[i] = Math.max(columnSizes[i], row[i].length());
             }
         }
-        return columnSizesMap;
+        return columnSizes;
     }
 
-    private Map<String, Integer> mapColumnsToLength(@Nonnull List<String> columns) {
-        Map<String, Integer> columnSizes = new LinkedHashMap<>();
-        for (String column : columns) {
-            columnSizes.put(column, column.length());
+    @Override
+    public boolean reportsTruncation() {
+        return true;
+    }
+
+    @Nonnull
+    public String formatFooter(@Nonnull BoltResult result, int numberOfRows) {
+        if (result.isTruncated()) {
+            return OutputFormatter.truncatedFooter(numberOfRows);
         }
-        return columnSizes;
+        ResultSummary summary = result.getSummary();
+        return String.format("%d row%s available after %d ms, " +
+                        "consumed after another %d ms", numberOfRows, numberOfRows != 1 ? "s" : "",
+                summary.resultAvailableAfter(MILLISECONDS),
+                summary.resultConsumedAfter(MILLISECONDS));
     }
 
     @Override
     @Nonnull
     public String formatInfo(@Nonnull ResultSummary summary) {
         Map<String, Value> info = OutputFormatter.info(summary);
-        List<Value> data = Collections.singletonList(Values.value(info));
-        List<String> columns = new ArrayList<>(info.keySet());
-        return formatValues(data, columns);
+        if (info.isEmpty()) {
+            return "";
+        }
+        String[] columns = info.keySet().toArray(new String[info.size()]);
+        String[] row = info.values().stream().map(this::formatValue).toArray(String[]::new);
+
+        List<String> lines = new ArrayList<>();
+        formatTable(columns, new ArrayList<>(Collections.singletonList(row)), Collections.emptyIterator(), lines::add);
+        return String.join(NEWLINE, lines);
     }
 
     @Override
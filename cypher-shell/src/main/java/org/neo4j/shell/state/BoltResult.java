@@ -1,37 +1,66 @@
 package org.neo4j.shell.state;
 
 import org.neo4j.driver.v1.Record;
-import org.neo4j.driver.v1.StatementResult;
 import org.neo4j.driver.v1.summary.ResultSummary;
 
 import javax.annotation.Nonnull;
+import java.util.Iterator;
 import java.util.List;
 
 /**
- * A class holds the result from executing some Cypher.
+ * The result from executing some Cypher.
  */
-public class BoltResult {
-    private final List<Record> records;
-    private StatementResult statementResult;
-
-    public BoltResult(@Nonnull List<Record> records, StatementResult statementResult) {
-        //Not calling statementResult.list() because it executes cypher in the server
-        this.records = records;
-        this.statementResult = statementResult;
-    }
+public interface BoltResult {
 
+    /**
+     * @return the names of the columns in the result
+     */
     @Nonnull
-    public List<Record> getRecords() {
-        return records;
-    }
+    List<String> getKeys();
 
+    /**
+     * Materialize all (remaining) records of the result. Prefer {@link #iterate()} when the records are only going
+     * to be visited once, since this keeps every record on the heap at the same time.
+     *
+     * @return all records of the result
+     */
     @Nonnull
-    public List<String> getKeys() {
-        return statementResult.keys();
-    }
+    List<Record> getRecords();
+
+    /**
+     * Stream the records of the result. Records are fetched from the server as the iterator advances, so only one
+     * of {@link #iterate()} and {@link #getRecords()} should be used on any given result.
+     *
+     * @return an iterator over the records of the result
+     */
+    @Nonnull
+    Iterator<Record> iterate();
 
+    /**
+     * Note that for a streaming result, this consumes any records which have not yet been visited.
+     *
+     * @return the summary of the result
+     */
     @Nonnull
-    public ResultSummary getSummary() {
-        return statementResult.summary();
+    ResultSummary getSummary();
+
+    /**
+     * @return true if records beyond the row limit were discarded, which is only known once they have been visited
+     */
+    default boolean isTruncated() {
+        return false;
+    }
+
+    /**
+     * @return the number of times the statement was retried before it succeeded
+     */
+    default int getRetries() {
+        return 0;
+    }
+
+    /**
+     * Stops reading the result, any records which have not been visited yet are discarded.
+     */
+    default void discardRemaining() {
     }
 }
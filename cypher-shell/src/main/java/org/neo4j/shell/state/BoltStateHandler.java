@@ -10,41 +10,154 @@ import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.Session;
 import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.StatementResult;
+import org.neo4j.driver.v1.StatementResultCursor;
 import org.neo4j.driver.v1.Transaction;
-import org.neo4j.driver.v1.exceptions.SessionExpiredException;
+import org.neo4j.driver.v1.exceptions.ClientException;
+import org.neo4j.driver.v1.exceptions.Neo4jException;
 import org.neo4j.shell.ConnectionConfig;
 import org.neo4j.shell.Connector;
 import org.neo4j.shell.TransactionHandler;
 import org.neo4j.shell.TriFunction;
 import org.neo4j.shell.exception.CommandException;
 import org.neo4j.shell.log.NullLogging;
+import org.neo4j.shell.parser.UpdatingClauses;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.BiFunction;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Handles interactions with the driver
  */
 public class BoltStateHandler implements TransactionHandler, Connector {
+    public static final int DEFAULT_PIPELINE_DEPTH = 1;
+
     private final TriFunction<String, AuthToken, Config, Driver> driverProvider;
+    private final int pipelineDepth;
+    private int maxRows;
+    private int txChunk;
+    private long txChunkBytes;
+    private RecordSpill spill = new RecordSpill(0);
+    private RetryPolicy retryPolicy = new RetryPolicy();
     protected Driver driver;
     protected Session session;
     private String version;
-    private List<Statement> transactionStatements;
+    private Transaction tx;
+    private final Deque<CompletionStage<BoltResult>> inFlight = new ArrayDeque<>();
+    // Progress of a transaction which is committed in chunks
+    private int chunkStatements;
+    private long chunkBytes;
+    private int committedStatements;
+    private int committedChunks;
+    private boolean chunkCommitFailed;
+    // The driver terminates a transaction once a statement of it fails, closing it then rolls it back without a word,
+    // set from the driver's threads when a pipelined statement fails
+    private volatile boolean statementFailed;
 
     public BoltStateHandler() {
-        this(GraphDatabase::driver);
+        this(DEFAULT_PIPELINE_DEPTH);
+    }
+
+    /**
+     * @param pipelineDepth the maximum number of statements of a transaction to have in flight at once
+     */
+    public BoltStateHandler(int pipelineDepth) {
+        this(GraphDatabase::driver, pipelineDepth);
     }
 
     BoltStateHandler(TriFunction<String, AuthToken, Config, Driver> driverProvider) {
+        this(driverProvider, DEFAULT_PIPELINE_DEPTH);
+    }
+
+    BoltStateHandler(TriFunction<String, AuthToken, Config, Driver> driverProvider, int pipelineDepth) {
         this.driverProvider = driverProvider;
+        this.pipelineDepth = pipelineDepth;
+    }
+
+    /**
+     * @param maxRows the maximum number of records to read of each result, or 0 to read all of them
+     */
+    public void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    /**
+     * @param txChunk the number of statements after which an explicit transaction is committed and a new one begun
+     *                in its place, or 0 to only commit it when told to
+     */
+    public void setTxChunk(int txChunk) {
+        this.txChunk = txChunk;
+    }
+
+    public int getTxChunk() {
+        return txChunk;
+    }
+
+    /**
+     * @param txChunkBytes the length of statement text after which an explicit transaction is committed and a new
+     *                     one begun in its place, or 0 for no limit
+     */
+    public void setTxChunkBytes(long txChunkBytes) {
+        this.txChunkBytes = txChunkBytes;
+    }
+
+    public long getTxChunkBytes() {
+        return txChunkBytes;
+    }
+
+    /**
+     * @return the number of statements of the current or last explicit transaction which were committed early,
+     * because it was committed in chunks
+     */
+    public int getCommittedStatements() {
+        return committedStatements;
+    }
+
+    /**
+     * @return the number of chunks of the current or last explicit transaction which were committed early
+     */
+    public int getCommittedChunks() {
+        return committedChunks;
+    }
+
+    /**
+     * @param retryPolicy decides which statements outside of explicit transactions are retried after failing
+     */
+    public void setRetryPolicy(@Nonnull RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    @Nonnull
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * @param resultHeapLimit the estimated number of bytes of records to keep on the heap for results which are read
+     *                        in full before they are printed, beyond which they are written to temporary files, or 0
+     *                        for no limit
+     */
+    public void setResultHeapLimit(long resultHeapLimit) {
+        this.spill = new RecordSpill(resultHeapLimit);
+    }
+
+    /**
+     * @return the maximum number of statements of a transaction to have in flight at once
+     */
+    public int getPipelineDepth() {
+        return pipelineDepth;
     }
 
     @Override
@@ -55,7 +168,13 @@ public class BoltStateHandler implements TransactionHandler, Connector {
         if (isTransactionOpen()) {
             throw new CommandException("There is already an open transaction");
         }
-        transactionStatements = new ArrayList<>();
+        tx = session.beginTransaction();
+        chunkStatements = 0;
+        chunkBytes = 0;
+        committedStatements = 0;
+        committedChunks = 0;
+        chunkCommitFailed = false;
+        statementFailed = false;
     }
 
     @Override
@@ -66,8 +185,27 @@ public class BoltStateHandler implements TransactionHandler, Connector {
         if (!isTransactionOpen()) {
             throw new CommandException("There is no open transaction to commit");
         }
-        return captureResults(transactionStatements);
-
+        if (chunkCommitFailed) {
+            // The driver has already closed the transaction
+            clearTransaction();
+            throw new CommandException("The transaction was rolled back after statements 1 to " +
+                    committedStatements + " were committed in " + committedChunks + " chunk(s), since the next " +
+                    "chunk failed to commit");
+        }
+        try {
+            List<BoltResult> results = awaitInFlight();
+            if (statementFailed) {
+                tx.failure();
+                throw new CommandException("The transaction was rolled back, since a statement of it failed" +
+                        (committedChunks > 0 ? ", after statements 1 to " + committedStatements +
+                                " were committed in " + committedChunks + " chunk(s)" : ""));
+            }
+            tx.success();
+            return results.isEmpty() ? Optional.empty() : Optional.of(results);
+        } finally {
+            // If a statement failed the transaction is rolled back instead, either way the server is done with it
+            closeTransaction();
+        }
     }
 
     @Override
@@ -78,12 +216,13 @@ public class BoltStateHandler implements TransactionHandler, Connector {
         if (!isTransactionOpen()) {
             throw new CommandException("There is no open transaction to rollback");
         }
-        clearTransactionStatements();
+        tx.failure();
+        closeTransaction();
     }
 
     @Override
     public boolean isTransactionOpen() {
-        return transactionStatements != null;
+        return tx != null;
     }
 
     @Override
@@ -147,37 +286,170 @@ public class BoltStateHandler implements TransactionHandler, Connector {
         if (!isConnected()) {
             throw new CommandException("Not connected to Neo4j");
         }
-        if (this.transactionStatements != null) {
-            transactionStatements.add(new Statement(cypher, queryParams));
-            return Optional.empty();
+        if (isTransactionOpen()) {
+            return runInTransaction(new Statement(cypher, queryParams));
         } else {
-            try {
-                // Note that PERIODIC COMMIT can't execute in a transaction, so if the user has not typed BEGIN, then
-                // the statement should NOT be executed in a transaction.
-                return getBoltResult(cypher, queryParams);
-            } catch (SessionExpiredException e) {
-                // Server is no longer accepting writes, reconnect and try again.
-                // If it still fails, leave it up to the user
-                reconnect();
-                return getBoltResult(cypher, queryParams);
-            }
+            // Note that PERIODIC COMMIT can't execute in a transaction, so if the user has not typed BEGIN, then
+            // the statement should NOT be executed in a transaction.
+            return runWithRetries(cypher, queryParams);
         }
     }
 
     /**
-     * @throws SessionExpiredException when server no longer serves writes anymore
+     * Runs a statement in a transaction of its own, and tries it again for as long as the retry policy allows when it
+     * fails in a way which is expected to go away by itself. When the server no longer serves the session, such as
+     * after a cluster leader switch, a new session is opened before retrying. If it still fails, it is left up to the
+     * user.
      */
     @Nonnull
-    private Optional<BoltResult> getBoltResult(@Nonnull String cypher, @Nonnull Map<String, Object> queryParams) throws SessionExpiredException {
+    private Optional<BoltResult> runWithRetries(@Nonnull String cypher, @Nonnull Map<String, Object> queryParams) {
+        int retries = 0;
+        boolean reconnect = false;
+        while (true) {
+            try {
+                if (reconnect) {
+                    reconnect();
+                }
+                return getBoltResult(cypher, queryParams, retries);
+            } catch (Neo4jException e) {
+                if (!retryPolicy.shouldRetry(cypher, e, retries)) {
+                    throw e;
+                }
+                reconnect = RetryPolicy.needsReconnect(e);
+                try {
+                    Thread.sleep(retryPolicy.delayMillis(retries));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                retries++;
+            }
+        }
+    }
+
+    @Nonnull
+    private Optional<BoltResult> getBoltResult(@Nonnull String cypher, @Nonnull Map<String, Object> queryParams,
+                                               int retries) {
         StatementResult statementResult = session.run(new Statement(cypher, queryParams));
 
         if (statementResult == null) {
             return Optional.empty();
         }
+        if (retryPolicy.getMaxRetries() > 0) {
+            // Wait until the statement has executed far enough to produce a record, so that failures to execute it can
+            // still be retried, before anything has been printed
+            statementResult.hasNext();
+        }
+
+        // Records are pulled from the server as the result is printed, instead of all being held in memory. Records
+        // beyond the row limit are cancelled on the server, unless that would roll back an update. There is no
+        // transaction open which resetting could roll back.
+        Runnable cancel = UpdatingClauses.mayUpdate(cypher) ? null : this::reset;
+        return Optional.of(new StatementBoltResult(statementResult, maxRows, cancel, retries));
+    }
+
+    /**
+     * Sends a statement of the open transaction to the server straight away. Unless statements are pipelined, its
+     * records are streamed as the result is printed. Cancelling the remaining records by resetting the session would
+     * roll back the whole transaction, so records beyond the row limit are always discarded instead.
+     * <p>
+     * When pipelining, the statement is sent without waiting for the results of earlier statements, keeping up to
+     * pipelineDepth of them in flight, so that round trips overlap. Once that many are in flight the result of the
+     * oldest one is returned, so results and errors are still reported in the order of the statements.
+     */
+    @Nonnull
+    private Optional<BoltResult> runInTransaction(@Nonnull Statement statement) {
+        commitChunkIfFull();
+        chunkStatements++;
+        chunkBytes += statement.text().length();
+        if (pipelineDepth <= 1) {
+            StatementResult result;
+            try {
+                result = tx.run(statement);
+            } catch (RuntimeException e) {
+                statementFailed = true;
+                throw e;
+            }
+            return Optional.of(new StatementBoltResult(result, maxRows, null, 0, this::statementFailed));
+        }
+        Optional<BoltResult> oldest = Optional.empty();
+        if (inFlight.size() >= pipelineDepth) {
+            oldest = Optional.of(await(inFlight.removeFirst()));
+        }
+        inFlight.addLast(tx.runAsync(statement).thenCompose(this::collectResult).whenComplete((result, e) -> {
+            if (e != null) {
+                statementFailed();
+            }
+        }));
+        return oldest;
+    }
+
+    /**
+     * Marks the open transaction as failed, since the driver has terminated it.
+     */
+    private void statementFailed() {
+        statementFailed = true;
+    }
+
+    /**
+     * Commits the statements of the open transaction so far and begins a new one in its place, once they reach the
+     * chunk size, so that neither the server nor the shell have to hold on to the state of a huge transaction.
+     * Results of pipelined statements are kept to be returned in order, but have to have arrived before the commit.
+     * A chunk with a failed statement is never committed, since the driver has already terminated its transaction.
+     */
+    private void commitChunkIfFull() {
+        boolean full = (txChunk > 0 && chunkStatements >= txChunk) ||
+                (txChunkBytes > 0 && chunkBytes >= txChunkBytes);
+        if (!full || chunkCommitFailed) {
+            return;
+        }
+        inFlight.forEach(BoltStateHandler::await);
+        if (statementFailed) {
+            // Closing the transaction would quietly roll the chunk back, so it is left to fail the statements after it
+            // and to be reported as rolled back when committed
+            return;
+        }
+        tx.success();
+        try {
+            tx.close();
+        } catch (RuntimeException e) {
+            // Later statements fail as the transaction is closed, and it must not look committed when it is
+            chunkCommitFailed = true;
+            throw e;
+        }
+        committedStatements += chunkStatements;
+        committedChunks++;
+        chunkStatements = 0;
+        chunkBytes = 0;
+        tx = session.beginTransaction();
+    }
 
-        // calling list() is what actually executes cypher on the server
-        List<Record> list = statementResult.list();
-        return Optional.of(new BoltResult(list, statementResult));
+    /**
+     * Waits for the results of all statements of the transaction which are still in flight.
+     */
+    @Nonnull
+    private List<BoltResult> awaitInFlight() {
+        List<BoltResult> results = new ArrayList<>(inFlight.size());
+        while (!inFlight.isEmpty()) {
+            results.add(await(inFlight.removeFirst()));
+        }
+        return results;
+    }
+
+    /**
+     * Opens additional sessions on the current connection's driver, for executing statements concurrently. The
+     * sessions start out from the state of the current session, so they see everything it has committed so far.
+     *
+     * @param size the number of sessions
+     */
+    @Nonnull
+    public SessionPool newSessionPool(int size) throws CommandException {
+        if (!isConnected()) {
+            throw new CommandException("Not connected to Neo4j");
+        }
+        String bookmark = session.lastBookmark();
+        return new SessionPool(() -> driver.session(AccessMode.WRITE, bookmark), size, maxRows, spill,
+                retryPolicy);
     }
 
     /**
@@ -195,6 +467,7 @@ public class BoltStateHandler implements TransactionHandler, Connector {
         } finally {
             session = null;
             driver = null;
+            clearTransaction();
         }
     }
 
@@ -208,17 +481,24 @@ public class BoltStateHandler implements TransactionHandler, Connector {
             // Clear current state
             if (isTransactionOpen()) {
                 // Bolt has already rolled back the transaction but it doesn't close it properly
-                clearTransactionStatements();
+                clearTransaction();
             }
         }
     }
 
-    List<Statement> getTransactionStatements() {
-        return this.transactionStatements;
+    private void closeTransaction() {
+        try {
+            tx.close();
+        } finally {
+            clearTransaction();
+        }
     }
 
-    private void clearTransactionStatements() {
-        this.transactionStatements = null;
+    private void clearTransaction() {
+        this.tx = null;
+        // Results which will never be printed give back what they buffered
+        this.inFlight.forEach(result -> result.thenAccept(BoltResult::discardRemaining));
+        this.inFlight.clear();
     }
 
     private Driver getDriver(@Nonnull ConnectionConfig connectionConfig, @Nullable AuthToken authToken) {
@@ -228,26 +508,52 @@ public class BoltStateHandler implements TransactionHandler, Connector {
         return driverProvider.apply(connectionConfig.driverUrl(), authToken, config);
     }
 
-    private Optional<List<BoltResult>> captureResults(@Nonnull List<Statement> transactionStatements) {
-        List<BoltResult> results = executeWithRetry(transactionStatements, (statement, transaction) -> {
-            // calling list() is what actually executes cypher on the server
-            StatementResult sr = transaction.run(statement);
-            List<Record> list = sr.list();
-            return new BoltResult(list, sr);
-        });
-
-        clearTransactionStatements();
-        if (results == null || results.isEmpty()) {
-            return Optional.empty();
+    /**
+     * Results of pipelined statements are read in full as they arrive, since later statements are sent before they
+     * are printed. Records beyond the row limit are discarded as they arrive, and once buffered results take up more
+     * heap than they are allowed to, records are spilled to disk. Records arrive on the driver's network thread, which
+     * only hands them over to be written by the spill's own thread.
+     */
+    @Nonnull
+    private CompletionStage<BoltResult> collectResult(@Nonnull StatementResultCursor cursor) {
+        if (spill.isEnabled()) {
+            RecordBuffer records = spill.newBuffer(cursor.keys());
+            AtomicBoolean truncated = new AtomicBoolean();
+            return cursor.forEachAsync(record -> {
+                if (maxRows == 0 || records.size() < maxRows) {
+                    records.add(record);
+                } else {
+                    truncated.set(true);
+                }
+            }).thenApply(summary -> new BufferedBoltResult(cursor.keys(), records, summary, truncated.get()));
         }
-        return Optional.of(results);
+        if (maxRows == 0) {
+            return cursor.listAsync().thenCompose(records -> cursor.summaryAsync()
+                    .thenApply(summary -> new ListBoltResult(cursor.keys(), records, summary)));
+        }
+        List<Record> records = new ArrayList<>();
+        AtomicBoolean truncated = new AtomicBoolean();
+        return cursor.forEachAsync(record -> {
+            if (records.size() < maxRows) {
+                records.add(record);
+            } else {
+                truncated.set(true);
+            }
+        }).thenApply(summary -> new ListBoltResult(cursor.keys(), records, summary, truncated.get()));
     }
 
-    private List<BoltResult> executeWithRetry(List<Statement> transactionStatements, BiFunction<Statement, Transaction, BoltResult> biFunction) {
-        return session.writeTransaction(tx ->
-                transactionStatements.stream()
-                        .map(transactionStatement -> biFunction.apply(transactionStatement, tx))
-                        .collect(Collectors.toList()));
-
+    @Nonnull
+    private static BoltResult await(@Nonnull CompletionStage<BoltResult> result) {
+        try {
+            return result.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            // Rethrow what the driver failed with, so that errors are the same as when running statements
+            // synchronously
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new ClientException(cause.getMessage(), cause);
+        }
     }
 }
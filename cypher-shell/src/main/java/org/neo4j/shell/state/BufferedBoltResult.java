@@ -0,0 +1,101 @@
+package org.neo4j.shell.state;
+
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.StatementResult;
+import org.neo4j.driver.v1.summary.ResultSummary;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A result which has been read in full before it is printed, like a {@link ListBoltResult}, but whose records may
+ * have been spilled to disk instead of being held on the heap. See {@link RecordBuffer}.
+ */
+public class BufferedBoltResult implements BoltResult {
+    private final List<String> keys;
+    private final RecordBuffer records;
+    private final ResultSummary summary;
+    private final boolean truncated;
+    private final int retries;
+
+    /**
+     * @param truncated true if records beyond the row limit were left out
+     */
+    public BufferedBoltResult(@Nonnull List<String> keys, @Nonnull RecordBuffer records,
+                              @Nonnull ResultSummary summary, boolean truncated) {
+        this(keys, records, summary, truncated, 0);
+    }
+
+    /**
+     * @param retries the number of times the statement was retried before it succeeded
+     */
+    public BufferedBoltResult(@Nonnull List<String> keys, @Nonnull RecordBuffer records,
+                              @Nonnull ResultSummary summary, boolean truncated, int retries) {
+        this.keys = keys;
+        this.records = records;
+        this.summary = summary;
+        this.truncated = truncated;
+        this.retries = retries;
+    }
+
+    /**
+     * Reads at most maxRows records of the result, the rest are discarded as they arrive.
+     *
+     * @param maxRows the maximum number of records to read, or 0 to read all of them
+     * @param retries the number of times the statement was retried before it succeeded
+     */
+    @Nonnull
+    public static BufferedBoltResult read(@Nonnull StatementResult result, int maxRows, @Nonnull RecordSpill spill,
+                                          int retries) {
+        List<String> keys = result.keys();
+        RecordBuffer records = spill.newBuffer(keys);
+        while ((maxRows == 0 || records.size() < maxRows) && result.hasNext()) {
+            records.add(result.next());
+        }
+        boolean truncated = result.hasNext();
+        return new BufferedBoltResult(keys, records, result.consume(), truncated, retries);
+    }
+
+    @Nonnull
+    @Override
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    @Nonnull
+    @Override
+    public List<Record> getRecords() {
+        List<Record> list = new ArrayList<>(records.size());
+        records.forEach(list::add);
+        return list;
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<Record> iterate() {
+        return records.iterator();
+    }
+
+    @Nonnull
+    @Override
+    public ResultSummary getSummary() {
+        return summary;
+    }
+
+    @Override
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public int getRetries() {
+        return retries;
+    }
+
+    @Override
+    public void discardRemaining() {
+        records.close();
+    }
+}
@@ -0,0 +1,82 @@
+package org.neo4j.shell.state;
+
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.summary.Notification;
+import org.neo4j.driver.v1.summary.Plan;
+import org.neo4j.driver.v1.summary.ProfiledPlan;
+import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.driver.v1.summary.ServerInfo;
+import org.neo4j.driver.v1.summary.StatementType;
+import org.neo4j.driver.v1.summary.SummaryCounters;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stands in for the summary of a result whose remaining records were cancelled, since the server never sends one.
+ * All that is known is that the statement did not update anything.
+ */
+class CancelledResultSummary implements ResultSummary {
+    static final ResultSummary INSTANCE = new CancelledResultSummary();
+
+    private final SummaryCounters counters = new MergedSummaryCounters();
+
+    private CancelledResultSummary() {
+    }
+
+    @Override
+    public Statement statement() {
+        return null;
+    }
+
+    @Override
+    public SummaryCounters counters() {
+        return counters;
+    }
+
+    @Override
+    public StatementType statementType() {
+        return StatementType.READ_ONLY;
+    }
+
+    @Override
+    public boolean hasPlan() {
+        return false;
+    }
+
+    @Override
+    public boolean hasProfile() {
+        return false;
+    }
+
+    @Override
+    public Plan plan() {
+        return null;
+    }
+
+    @Override
+    public ProfiledPlan profile() {
+        return null;
+    }
+
+    @Override
+    public List<Notification> notifications() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public long resultAvailableAfter(TimeUnit unit) {
+        return -1;
+    }
+
+    @Override
+    public long resultConsumedAfter(TimeUnit unit) {
+        return -1;
+    }
+
+    @Override
+    public ServerInfo server() {
+        return null;
+    }
+}
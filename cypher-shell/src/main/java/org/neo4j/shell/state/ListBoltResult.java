@@ -0,0 +1,110 @@
+package org.neo4j.shell.state;
+
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.StatementResult;
+import org.neo4j.driver.v1.summary.ResultSummary;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A result which has been fully materialized in memory, such as the results of a committed transaction.
+ */
+public class ListBoltResult implements BoltResult {
+    private final List<String> keys;
+    private final List<Record> records;
+    private final ResultSummary summary;
+    private final boolean truncated;
+    private final int retries;
+
+    public ListBoltResult(@Nonnull List<Record> records, @Nonnull ResultSummary summary) {
+        this(records.isEmpty() ? Collections.emptyList() : records.get(0).keys(), records, summary);
+    }
+
+    public ListBoltResult(@Nonnull List<String> keys, @Nonnull List<Record> records, @Nonnull ResultSummary summary) {
+        this(keys, records, summary, false);
+    }
+
+    /**
+     * @param truncated true if records beyond the row limit were left out
+     */
+    public ListBoltResult(@Nonnull List<String> keys, @Nonnull List<Record> records, @Nonnull ResultSummary summary,
+                          boolean truncated) {
+        this(keys, records, summary, truncated, 0);
+    }
+
+    /**
+     * @param retries the number of times the statement was retried before it succeeded
+     */
+    public ListBoltResult(@Nonnull List<String> keys, @Nonnull List<Record> records, @Nonnull ResultSummary summary,
+                          boolean truncated, int retries) {
+        this.keys = keys;
+        this.records = records;
+        this.summary = summary;
+        this.truncated = truncated;
+        this.retries = retries;
+    }
+
+    /**
+     * Reads at most maxRows records of the result, the rest are discarded as they arrive.
+     *
+     * @param maxRows the maximum number of records to read, or 0 to read all of them
+     */
+    @Nonnull
+    public static ListBoltResult read(@Nonnull StatementResult result, int maxRows) {
+        return read(result, maxRows, 0);
+    }
+
+    /**
+     * @param retries the number of times the statement was retried before it succeeded
+     */
+    @Nonnull
+    public static ListBoltResult read(@Nonnull StatementResult result, int maxRows, int retries) {
+        if (maxRows == 0) {
+            return new ListBoltResult(result.keys(), result.list(), result.summary(), false, retries);
+        }
+        List<Record> records = new ArrayList<>();
+        while (records.size() < maxRows && result.hasNext()) {
+            records.add(result.next());
+        }
+        boolean truncated = result.hasNext();
+        return new ListBoltResult(result.keys(), records, result.consume(), truncated, retries);
+    }
+
+    @Nonnull
+    @Override
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    @Nonnull
+    @Override
+    public List<Record> getRecords() {
+        return records;
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<Record> iterate() {
+        return records.iterator();
+    }
+
+    @Nonnull
+    @Override
+    public ResultSummary getSummary() {
+        return summary;
+    }
+
+    @Override
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public int getRetries() {
+        return retries;
+    }
+}
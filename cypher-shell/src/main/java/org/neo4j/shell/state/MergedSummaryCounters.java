@@ -0,0 +1,98 @@
+package org.neo4j.shell.state;
+
+import org.neo4j.driver.v1.summary.SummaryCounters;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The sum of the counters of many results, such as those of batches executed by different sessions.
+ */
+public class MergedSummaryCounters implements SummaryCounters {
+    private int nodesCreated;
+    private int nodesDeleted;
+    private int relationshipsCreated;
+    private int relationshipsDeleted;
+    private int propertiesSet;
+    private int labelsAdded;
+    private int labelsRemoved;
+    private int indexesAdded;
+    private int indexesRemoved;
+    private int constraintsAdded;
+    private int constraintsRemoved;
+
+    public void add(@Nonnull SummaryCounters counters) {
+        nodesCreated += counters.nodesCreated();
+        nodesDeleted += counters.nodesDeleted();
+        relationshipsCreated += counters.relationshipsCreated();
+        relationshipsDeleted += counters.relationshipsDeleted();
+        propertiesSet += counters.propertiesSet();
+        labelsAdded += counters.labelsAdded();
+        labelsRemoved += counters.labelsRemoved();
+        indexesAdded += counters.indexesAdded();
+        indexesRemoved += counters.indexesRemoved();
+        constraintsAdded += counters.constraintsAdded();
+        constraintsRemoved += counters.constraintsRemoved();
+    }
+
+    @Override
+    public boolean containsUpdates() {
+        return nodesCreated != 0 || nodesDeleted != 0 || relationshipsCreated != 0 || relationshipsDeleted != 0 ||
+                propertiesSet != 0 || labelsAdded != 0 || labelsRemoved != 0 || indexesAdded != 0 ||
+                indexesRemoved != 0 || constraintsAdded != 0 || constraintsRemoved != 0;
+    }
+
+    @Override
+    public int nodesCreated() {
+        return nodesCreated;
+    }
+
+    @Override
+    public int nodesDeleted() {
+        return nodesDeleted;
+    }
+
+    @Override
+    public int relationshipsCreated() {
+        return relationshipsCreated;
+    }
+
+    @Override
+    public int relationshipsDeleted() {
+        return relationshipsDeleted;
+    }
+
+    @Override
+    public int propertiesSet() {
+        return propertiesSet;
+    }
+
+    @Override
+    public int labelsAdded() {
+        return labelsAdded;
+    }
+
+    @Override
+    public int labelsRemoved() {
+        return labelsRemoved;
+    }
+
+    @Override
+    public int indexesAdded() {
+        return indexesAdded;
+    }
+
+    @Override
+    public int indexesRemoved() {
+        return indexesRemoved;
+    }
+
+    @Override
+    public int constraintsAdded() {
+        return constraintsAdded;
+    }
+
+    @Override
+    public int constraintsRemoved() {
+        return constraintsRemoved;
+    }
+}
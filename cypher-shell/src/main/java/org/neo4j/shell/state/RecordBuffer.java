@@ -0,0 +1,218 @@
+package org.neo4j.shell.state;
+
+import org.neo4j.driver.v1.Record;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * The records of a single result, which are kept on the heap for as long as the {@link RecordSpill} they come from
+ * has room for them. After that, all of them are written to a temporary file, compactly encoded, and can then only
+ * be iterated over once. The heap they took up is given back, and the file deleted, once they have all been visited
+ * or the buffer is closed.
+ * <p>
+ * Records to write are gathered in chunks, which the spill's writer thread appends to the file, opening it only for
+ * as long as that takes, so that buffers waiting to be printed do not each hold on to a file descriptor. Results with
+ * fewer records than a chunk are only written once they are about to be read.
+ */
+public class RecordBuffer implements Iterable<Record>, AutoCloseable {
+    static final int CHUNK_SIZE = 1024;
+
+    private final RecordSpill spill;
+    private final List<String> keys;
+    private List<Record> records = new ArrayList<>();
+    private long reserved;
+    private int size;
+    private boolean spilled;
+    private List<Record> pending = new ArrayList<>();
+    // Completes once the chunks handed over so far are on disk, only the writer thread touches the file before then
+    private CompletableFuture<Void> written = CompletableFuture.completedFuture(null);
+    private Path file;
+
+    RecordBuffer(@Nonnull RecordSpill spill, @Nonnull List<String> keys) {
+        this.spill = spill;
+        this.keys = keys;
+    }
+
+    public void add(@Nonnull Record record) {
+        size++;
+        if (!spilled) {
+            long bytes = RecordCodec.estimateSize(record);
+            if (spill.reserve(bytes)) {
+                reserved += bytes;
+                records.add(record);
+                return;
+            }
+            spilled = true;
+            pending = records;
+            records = new ArrayList<>();
+            spill.release(reserved);
+            reserved = 0;
+        }
+        pending.add(record);
+        if (pending.size() >= CHUNK_SIZE) {
+            writePending();
+        }
+    }
+
+    /**
+     * @return the number of records which have been added
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the records have been written to disk
+     */
+    public boolean isSpilled() {
+        return spilled;
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<Record> iterator() {
+        if (!spilled) {
+            return new InMemoryIterator();
+        }
+        writePending();
+        try {
+            written.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+        }
+        try {
+            return new FileIterator(new DataInputStream(new BufferedInputStream(Files.newInputStream(file))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Discards the records, giving back the heap they took up and deleting the file they were written to.
+     */
+    @Override
+    public void close() {
+        spill.release(reserved);
+        reserved = 0;
+        if (spilled) {
+            // Deleted after any chunks still being written, without waiting for them
+            pending = new ArrayList<>();
+            written = written.handle((ignored, e) -> null).thenCompose(ignored -> spill.submit(this::deleteFile));
+        }
+    }
+
+    /**
+     * Hands the records gathered so far over to the writer thread.
+     */
+    private void writePending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Record> chunk = pending;
+        pending = new ArrayList<>();
+        written = written.thenCompose(ignored -> spill.submit(() -> append(chunk)));
+    }
+
+    /**
+     * Runs on the writer thread
+     */
+    private void append(@Nonnull List<Record> chunk) {
+        try {
+            if (file == null) {
+                file = Files.createTempFile("cypher-shell-", ".records");
+                file.toFile().deleteOnExit();
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(file, StandardOpenOption.APPEND)))) {
+                for (Record record : chunk) {
+                    RecordCodec.write(out, record);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Runs on the writer thread
+     */
+    private void deleteFile() {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private class InMemoryIterator implements Iterator<Record> {
+        private final Iterator<Record> iterator = records.iterator();
+
+        @Override
+        public boolean hasNext() {
+            if (iterator.hasNext()) {
+                return true;
+            }
+            close();
+            return false;
+        }
+
+        @Override
+        public Record next() {
+            return iterator.next();
+        }
+    }
+
+    private class FileIterator implements Iterator<Record> {
+        private final DataInputStream in;
+        private int read;
+
+        FileIterator(@Nonnull DataInputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (read < size) {
+                return true;
+            }
+            try {
+                in.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            close();
+            return false;
+        }
+
+        @Override
+        public Record next() {
+            if (read >= size) {
+                throw new NoSuchElementException();
+            }
+            read++;
+            try {
+                return RecordCodec.read(in, keys);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
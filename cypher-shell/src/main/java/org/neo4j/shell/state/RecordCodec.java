@@ -0,0 +1,412 @@
+package org.neo4j.shell.state;
+
+import org.neo4j.driver.internal.InternalNode;
+import org.neo4j.driver.internal.InternalPath;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.internal.InternalRelationship;
+import org.neo4j.driver.internal.types.TypeRepresentation;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+import org.neo4j.driver.v1.types.Entity;
+import org.neo4j.driver.v1.types.IsoDuration;
+import org.neo4j.driver.v1.types.Node;
+import org.neo4j.driver.v1.types.Path;
+import org.neo4j.driver.v1.types.Point;
+import org.neo4j.driver.v1.types.Relationship;
+
+import javax.annotation.Nonnull;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes records to a stream in a compact binary encoding of the shell's own, and reads them back. Values are taken
+ * apart through the driver's public API only, so the encoding does not depend on how the driver talks to the server.
+ * Graph entities and records have no public constructors, so those of the driver's implementation are used to put
+ * them back together, all in this class. Also estimates how much heap a record takes up.
+ */
+final class RecordCodec {
+    // Markers written before each value
+    private static final byte NULL = 0;
+    private static final byte BOOLEAN = 1;
+    private static final byte INTEGER = 2;
+    private static final byte FLOAT = 3;
+    private static final byte STRING = 4;
+    private static final byte BYTES = 5;
+    private static final byte LIST = 6;
+    private static final byte MAP = 7;
+    private static final byte NODE = 8;
+    private static final byte RELATIONSHIP = 9;
+    private static final byte PATH = 10;
+    private static final byte POINT_2D = 11;
+    private static final byte POINT_3D = 12;
+    private static final byte DATE = 13;
+    private static final byte TIME = 14;
+    private static final byte LOCAL_TIME = 15;
+    private static final byte LOCAL_DATE_TIME = 16;
+    private static final byte DATE_TIME = 17;
+    private static final byte DURATION = 18;
+    // Rough sizes of objects on a 64 bit JVM, including their headers
+    private static final long REFERENCE_SIZE = 8;
+    private static final long VALUE_SIZE = 24;
+    private static final long STRING_SIZE = 40;
+    private static final long COLLECTION_SIZE = 48;
+
+    private RecordCodec() {
+    }
+
+    static void write(@Nonnull DataOutputStream out, @Nonnull Record record) throws IOException {
+        List<Value> values = record.values();
+        out.writeInt(values.size());
+        for (Value value : values) {
+            writeValue(out, value);
+        }
+    }
+
+    @Nonnull
+    static Record read(@Nonnull DataInputStream in, @Nonnull List<String> keys) throws IOException {
+        Value[] values = new Value[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readValue(in);
+        }
+        return new InternalRecord(keys, values);
+    }
+
+    private static void writeValue(@Nonnull DataOutputStream out, @Nonnull Value value) throws IOException {
+        switch (((TypeRepresentation) value.type()).constructor()) {
+            case BOOLEAN:
+                out.writeByte(BOOLEAN);
+                out.writeBoolean(value.asBoolean());
+                break;
+            case INTEGER:
+                out.writeByte(INTEGER);
+                out.writeLong(value.asLong());
+                break;
+            case FLOAT:
+                out.writeByte(FLOAT);
+                out.writeDouble(value.asDouble());
+                break;
+            case STRING:
+                out.writeByte(STRING);
+                writeString(out, value.asString());
+                break;
+            case BYTES:
+                out.writeByte(BYTES);
+                byte[] bytes = value.asByteArray();
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                break;
+            case LIST:
+                out.writeByte(LIST);
+                out.writeInt(value.size());
+                for (Value item : value.values()) {
+                    writeValue(out, item);
+                }
+                break;
+            case MAP:
+                out.writeByte(MAP);
+                writeMap(out, value.asMap(v -> v));
+                break;
+            case NODE:
+                out.writeByte(NODE);
+                writeNode(out, value.asNode());
+                break;
+            case RELATIONSHIP:
+                out.writeByte(RELATIONSHIP);
+                writeRelationship(out, value.asRelationship());
+                break;
+            case PATH:
+                out.writeByte(PATH);
+                writePath(out, value.asPath());
+                break;
+            case POINT:
+                Point point = value.asPoint();
+                boolean is3d = !Double.isNaN(point.z());
+                out.writeByte(is3d ? POINT_3D : POINT_2D);
+                out.writeInt(point.srid());
+                out.writeDouble(point.x());
+                out.writeDouble(point.y());
+                if (is3d) {
+                    out.writeDouble(point.z());
+                }
+                break;
+            case DATE:
+                out.writeByte(DATE);
+                out.writeLong(value.asLocalDate().toEpochDay());
+                break;
+            case TIME:
+                OffsetTime time = value.asOffsetTime();
+                out.writeByte(TIME);
+                out.writeLong(time.toLocalTime().toNanoOfDay());
+                out.writeInt(time.getOffset().getTotalSeconds());
+                break;
+            case LOCAL_TIME:
+                out.writeByte(LOCAL_TIME);
+                out.writeLong(value.asLocalTime().toNanoOfDay());
+                break;
+            case LOCAL_DATE_TIME:
+                out.writeByte(LOCAL_DATE_TIME);
+                writeLocalDateTime(out, value.asLocalDateTime());
+                break;
+            case DATE_TIME:
+                ZonedDateTime dateTime = value.asZonedDateTime();
+                out.writeByte(DATE_TIME);
+                writeLocalDateTime(out, dateTime.toLocalDateTime());
+                out.writeInt(dateTime.getOffset().getTotalSeconds());
+                // Empty if the time zone is just the offset
+                writeString(out, dateTime.getZone() instanceof ZoneOffset ? "" : dateTime.getZone().getId());
+                break;
+            case DURATION:
+                IsoDuration duration = value.asIsoDuration();
+                out.writeByte(DURATION);
+                out.writeLong(duration.months());
+                out.writeLong(duration.days());
+                out.writeLong(duration.seconds());
+                out.writeInt(duration.nanoseconds());
+                break;
+            case NULL:
+                out.writeByte(NULL);
+                break;
+            default:
+                throw new IOException("Can not write a value of type " + value.type().name());
+        }
+    }
+
+    @Nonnull
+    private static Value readValue(@Nonnull DataInputStream in) throws IOException {
+        byte marker = in.readByte();
+        switch (marker) {
+            case NULL:
+                return Values.NULL;
+            case BOOLEAN:
+                return Values.value(in.readBoolean());
+            case INTEGER:
+                return Values.value(in.readLong());
+            case FLOAT:
+                return Values.value(in.readDouble());
+            case STRING:
+                return Values.value(readString(in));
+            case BYTES:
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return Values.value(bytes);
+            case LIST:
+                Value[] items = new Value[in.readInt()];
+                for (int i = 0; i < items.length; i++) {
+                    items[i] = readValue(in);
+                }
+                return Values.value(items);
+            case MAP:
+                return Values.value(new LinkedHashMap<String, Object>(readMap(in)));
+            case NODE:
+                return readNode(in).asValue();
+            case RELATIONSHIP:
+                return readRelationship(in).asValue();
+            case PATH:
+                return readPath(in).asValue();
+            case POINT_2D:
+                return Values.point(in.readInt(), in.readDouble(), in.readDouble());
+            case POINT_3D:
+                return Values.point(in.readInt(), in.readDouble(), in.readDouble(), in.readDouble());
+            case DATE:
+                return Values.value(LocalDate.ofEpochDay(in.readLong()));
+            case TIME:
+                LocalTime localTime = LocalTime.ofNanoOfDay(in.readLong());
+                return Values.value(OffsetTime.of(localTime, ZoneOffset.ofTotalSeconds(in.readInt())));
+            case LOCAL_TIME:
+                return Values.value(LocalTime.ofNanoOfDay(in.readLong()));
+            case LOCAL_DATE_TIME:
+                return Values.value(readLocalDateTime(in));
+            case DATE_TIME:
+                LocalDateTime localDateTime = readLocalDateTime(in);
+                ZoneOffset offset = ZoneOffset.ofTotalSeconds(in.readInt());
+                String zone = readString(in);
+                return Values.value(zone.isEmpty() ? ZonedDateTime.of(localDateTime, offset)
+                        : ZonedDateTime.ofLocal(localDateTime, ZoneId.of(zone), offset));
+            case DURATION:
+                return Values.isoDuration(in.readLong(), in.readLong(), in.readLong(), in.readInt());
+            default:
+                throw new IOException("Unknown value marker " + marker);
+        }
+    }
+
+    private static void writeString(@Nonnull DataOutputStream out, @Nonnull String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Nonnull
+    private static String readString(@Nonnull DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeMap(@Nonnull DataOutputStream out, @Nonnull Map<String, Value> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<String, Value> entry : map.entrySet()) {
+            writeString(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    @Nonnull
+    private static Map<String, Value> readMap(@Nonnull DataInputStream in) throws IOException {
+        int size = in.readInt();
+        Map<String, Value> map = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            String key = readString(in);
+            map.put(key, readValue(in));
+        }
+        return map;
+    }
+
+    private static void writeLocalDateTime(@Nonnull DataOutputStream out, @Nonnull LocalDateTime dateTime)
+            throws IOException {
+        out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(dateTime.getNano());
+    }
+
+    @Nonnull
+    private static LocalDateTime readLocalDateTime(@Nonnull DataInputStream in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeNode(@Nonnull DataOutputStream out, @Nonnull Node node) throws IOException {
+        out.writeLong(node.id());
+        List<String> labels = new ArrayList<>();
+        node.labels().forEach(labels::add);
+        out.writeInt(labels.size());
+        for (String label : labels) {
+            writeString(out, label);
+        }
+        writeMap(out, node.asMap(v -> v));
+    }
+
+    @Nonnull
+    private static InternalNode readNode(@Nonnull DataInputStream in) throws IOException {
+        long id = in.readLong();
+        int count = in.readInt();
+        List<String> labels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            labels.add(readString(in));
+        }
+        return new InternalNode(id, labels, readMap(in));
+    }
+
+    private static void writeRelationship(@Nonnull DataOutputStream out, @Nonnull Relationship relationship)
+            throws IOException {
+        out.writeLong(relationship.id());
+        out.writeLong(relationship.startNodeId());
+        out.writeLong(relationship.endNodeId());
+        writeString(out, relationship.type());
+        writeMap(out, relationship.asMap(v -> v));
+    }
+
+    @Nonnull
+    private static InternalRelationship readRelationship(@Nonnull DataInputStream in) throws IOException {
+        long id = in.readLong();
+        long start = in.readLong();
+        long end = in.readLong();
+        String type = readString(in);
+        return new InternalRelationship(id, start, end, type, readMap(in));
+    }
+
+    /**
+     * A path is written as its start node followed by the relationship and end node of each segment, in order.
+     */
+    private static void writePath(@Nonnull DataOutputStream out, @Nonnull Path path) throws IOException {
+        writeNode(out, path.start());
+        out.writeInt(path.length());
+        for (Path.Segment segment : path) {
+            writeRelationship(out, segment.relationship());
+            writeNode(out, segment.end());
+        }
+    }
+
+    @Nonnull
+    private static InternalPath readPath(@Nonnull DataInputStream in) throws IOException {
+        List<Entity> entities = new ArrayList<>();
+        entities.add(readNode(in));
+        int length = in.readInt();
+        for (int i = 0; i < length; i++) {
+            entities.add(readRelationship(in));
+            entities.add(readNode(in));
+        }
+        return new InternalPath(entities);
+    }
+
+    /**
+     * @return roughly how many bytes of heap the values of the record take up
+     */
+    static long estimateSize(@Nonnull Record record) {
+        long size = COLLECTION_SIZE;
+        for (Value value : record.values()) {
+            size += REFERENCE_SIZE + estimateSize(value);
+        }
+        return size;
+    }
+
+    private static long estimateSize(@Nonnull Value value) {
+        switch (((TypeRepresentation) value.type()).constructor()) {
+            case STRING:
+                return VALUE_SIZE + estimateSize(value.asString());
+            case BYTES:
+                return VALUE_SIZE + value.asByteArray().length;
+            case LIST:
+                long size = VALUE_SIZE + COLLECTION_SIZE;
+                for (Value item : value.values()) {
+                    size += REFERENCE_SIZE + estimateSize(item);
+                }
+                return size;
+            case MAP:
+                return VALUE_SIZE + estimateSize(value.asMap(v -> v));
+            case NODE:
+                Node node = value.asNode();
+                size = VALUE_SIZE + COLLECTION_SIZE + estimateSize(node.asMap(v -> v));
+                for (String label : node.labels()) {
+                    size += REFERENCE_SIZE + estimateSize(label);
+                }
+                return size;
+            case RELATIONSHIP:
+                Relationship relationship = value.asRelationship();
+                return VALUE_SIZE + estimateSize(relationship.type()) + estimateSize(relationship.asMap(v -> v));
+            case PATH:
+                size = VALUE_SIZE + COLLECTION_SIZE;
+                for (Path.Segment segment : value.asPath()) {
+                    size += COLLECTION_SIZE + estimateSize(segment.relationship().asMap(v -> v)) +
+                            estimateSize(segment.end().asMap(v -> v));
+                }
+                return size;
+            default:
+                return VALUE_SIZE;
+        }
+    }
+
+    private static long estimateSize(@Nonnull String string) {
+        return STRING_SIZE + 2L * string.length();
+    }
+
+    private static long estimateSize(@Nonnull Map<String, Value> map) {
+        long size = COLLECTION_SIZE;
+        for (Map.Entry<String, Value> entry : map.entrySet()) {
+            size += COLLECTION_SIZE + estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+        }
+        return size;
+    }
+}
@@ -0,0 +1,89 @@
+package org.neo4j.shell.state;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the records of results which are buffered before they are printed on the heap, up to a limit which is shared
+ * by all of them. Beyond it, the records of a result are written to a temporary file instead, and read back from it
+ * as the result is printed.
+ * <p>
+ * Records are often added on the driver's network threads, which must never wait on the disk, so files are written
+ * by a thread of the spill's own instead, one task after the other.
+ */
+public class RecordSpill {
+    private final long heapLimit;
+    private final AtomicLong heapUsed = new AtomicLong();
+    private ExecutorService writer;
+
+    /**
+     * @param heapLimit the estimated number of bytes of buffered records to keep on the heap, or 0 for no limit
+     */
+    public RecordSpill(long heapLimit) {
+        this.heapLimit = heapLimit;
+    }
+
+    /**
+     * @return true if records are ever written to disk
+     */
+    public boolean isEnabled() {
+        return heapLimit > 0;
+    }
+
+    /**
+     * @param keys of the result the records belong to
+     */
+    @Nonnull
+    public RecordBuffer newBuffer(@Nonnull List<String> keys) {
+        return new RecordBuffer(this, keys);
+    }
+
+    /**
+     * @return the estimated number of bytes of buffered records which are currently kept on the heap
+     */
+    public long getHeapUsed() {
+        return heapUsed.get();
+    }
+
+    /**
+     * @return true if there is room for the given number of bytes on the heap, which are then counted as used
+     */
+    boolean reserve(long bytes) {
+        long used;
+        do {
+            used = heapUsed.get();
+            if (isEnabled() && used + bytes > heapLimit) {
+                return false;
+            }
+        } while (!heapUsed.compareAndSet(used, used + bytes));
+        return true;
+    }
+
+    void release(long bytes) {
+        heapUsed.addAndGet(-bytes);
+    }
+
+    /**
+     * Runs file I/O on the spill's writer thread, after all tasks which were submitted before it.
+     */
+    @Nonnull
+    CompletableFuture<Void> submit(@Nonnull Runnable task) {
+        return CompletableFuture.runAsync(task, writer());
+    }
+
+    @Nonnull
+    private synchronized ExecutorService writer() {
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "cypher-shell-record-spill");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return writer;
+    }
+}
@@ -0,0 +1,93 @@
+package org.neo4j.shell.state;
+
+import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
+import org.neo4j.driver.v1.exceptions.SessionExpiredException;
+import org.neo4j.driver.v1.exceptions.TransientException;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Decides whether and when a statement which failed is tried again. Failures which are expected to go away by
+ * themselves, such as deadlocks and cluster members changing roles, are retried after a delay which doubles with
+ * every retry, up to a maximum, and is randomly spread out by up to a fifth either way, so that clients which failed
+ * together do not all retry at the same moment.
+ */
+public class RetryPolicy {
+    public static final int DEFAULT_MAX_RETRIES = 1;
+    public static final long DEFAULT_INITIAL_DELAY_MILLIS = 200;
+    static final long MAX_DELAY_MILLIS = 30_000;
+    private static final double JITTER = 0.2;
+    // Transactions which were terminated on purpose would only be terminated again
+    private static final Set<String> TERMINATED = new HashSet<>(Arrays.asList(
+            "Neo.TransientError.Transaction.Terminated", "Neo.TransientError.Transaction.LockClientStopped"));
+    // Commits batches as it goes, so what it already committed would be done again
+    private static final Pattern PERIODIC_COMMIT = Pattern.compile("^\\s*using\\s+periodic\\s+commit\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private final int maxRetries;
+    private final long initialDelayMillis;
+
+    public RetryPolicy() {
+        this(DEFAULT_MAX_RETRIES, DEFAULT_INITIAL_DELAY_MILLIS);
+    }
+
+    /**
+     * @param maxRetries         the number of times to retry a statement, 0 to never retry
+     * @param initialDelayMillis the delay before the first retry
+     */
+    public RetryPolicy(int maxRetries, long initialDelayMillis) {
+        this.maxRetries = maxRetries;
+        this.initialDelayMillis = initialDelayMillis;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public long getInitialDelayMillis() {
+        return initialDelayMillis;
+    }
+
+    /**
+     * @param cypher  the statement which failed
+     * @param e       what it failed with
+     * @param retries the number of times it has been retried already
+     * @return true if it should be retried
+     */
+    public boolean shouldRetry(@Nonnull String cypher, @Nonnull Throwable e, int retries) {
+        return retries < maxRetries && isRetryable(e) && !PERIODIC_COMMIT.matcher(cypher).find();
+    }
+
+    /**
+     * @return true if the failure is one which is expected to go away by itself
+     */
+    public static boolean isRetryable(@Nonnull Throwable e) {
+        if (e instanceof SessionExpiredException || e instanceof ServiceUnavailableException) {
+            return true;
+        }
+        return e instanceof TransientException && !TERMINATED.contains(((TransientException) e).code());
+    }
+
+    /**
+     * @return true if the session has to be replaced before retrying after the failure, since the server it is
+     * connected to no longer serves it
+     */
+    static boolean needsReconnect(@Nonnull Throwable e) {
+        return e instanceof SessionExpiredException || e instanceof ServiceUnavailableException;
+    }
+
+    /**
+     * @param retries the number of times the statement has been retried already
+     * @return how long to wait before retrying once more
+     */
+    public long delayMillis(int retries) {
+        double delay = Math.min(MAX_DELAY_MILLIS, initialDelayMillis * Math.pow(2, retries));
+        double jitter = delay * JITTER * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return Math.max(0, Math.round(delay + jitter));
+    }
+}
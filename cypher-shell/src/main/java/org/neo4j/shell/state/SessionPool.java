@@ -0,0 +1,160 @@
+package org.neo4j.shell.state;
+
+import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.StatementResult;
+import org.neo4j.driver.v1.exceptions.Neo4jException;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A fixed number of sessions, each used by one worker thread at a time, which execute batches of statements
+ * concurrently. Results are fully read by the worker, so that they can be printed later on by another thread.
+ * Statements in implicit transactions are retried by the same policy as those executed on the shell's own session,
+ * while batches in a transaction are retried by the driver.
+ */
+public class SessionPool implements AutoCloseable {
+    private final List<Session> sessions;
+    private final BlockingQueue<Session> idleSessions;
+    private final ExecutorService executor;
+    private final int maxRows;
+    private final RecordSpill spill;
+    private final RetryPolicy retryPolicy;
+
+    SessionPool(@Nonnull Supplier<Session> sessionFactory, int size) {
+        this(sessionFactory, size, 0, new RecordSpill(0), new RetryPolicy());
+    }
+
+    /**
+     * @param maxRows     the maximum number of records to read of each result, or 0 to read all of them
+     * @param spill       to buffer the records of results in until they are printed
+     * @param retryPolicy decides which statements in implicit transactions are retried after failing
+     */
+    SessionPool(@Nonnull Supplier<Session> sessionFactory, int size, int maxRows, @Nonnull RecordSpill spill,
+                @Nonnull RetryPolicy retryPolicy) {
+        this.maxRows = maxRows;
+        this.spill = spill;
+        this.retryPolicy = retryPolicy;
+        this.sessions = new ArrayList<>(size);
+        this.idleSessions = new LinkedBlockingQueue<>();
+        for (int i = 0; i < size; i++) {
+            Session session = sessionFactory.get();
+            sessions.add(session);
+            idleSessions.add(session);
+        }
+        AtomicInteger workerCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, "cypher-shell-worker-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return the number of sessions, which is the number of batches that can execute at the same time
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Executes a batch of statements on the next free session.
+     *
+     * @param statements    to execute, in order
+     * @param inTransaction true if the batch should be executed in a single transaction, false if each statement
+     *                      should be executed in its own implicit transaction
+     * @return the results of the statements, in order
+     */
+    @Nonnull
+    public CompletableFuture<List<BoltResult>> submit(@Nonnull List<Statement> statements, boolean inTransaction) {
+        return CompletableFuture.supplyAsync(() -> {
+            Session session = idleSessions.remove();
+            try {
+                if (inTransaction) {
+                    // The driver retries transactions which fail in a way that is expected to go away by itself
+                    AtomicInteger attempts = new AtomicInteger();
+                    return session.writeTransaction(tx -> {
+                        int retries = attempts.getAndIncrement();
+                        return readAll(statement -> read(tx.run(statement), retries), statements);
+                    });
+                }
+                return readAll(statement -> runWithRetries(session, statement), statements);
+            } finally {
+                idleSessions.add(session);
+            }
+        }, executor);
+    }
+
+    @Nonnull
+    private List<BoltResult> readAll(@Nonnull Function<Statement, BoltResult> reader,
+                                     @Nonnull List<Statement> statements) {
+        List<BoltResult> results = new ArrayList<>(statements.size());
+        try {
+            for (Statement statement : statements) {
+                results.add(reader.apply(statement));
+            }
+        } catch (RuntimeException e) {
+            // The batch failed, or is retried, so the results read so far are never printed
+            results.forEach(BoltResult::discardRemaining);
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * Runs a statement in an implicit transaction of its own, and tries it again for as long as the retry policy
+     * allows. The result is read in full before it counts as a success, since records may still fail to arrive. The
+     * session picks a connection for every statement, so it does not have to be replaced when the server it was
+     * connected to no longer serves it.
+     */
+    @Nonnull
+    private BoltResult runWithRetries(@Nonnull Session session, @Nonnull Statement statement) {
+        int retries = 0;
+        while (true) {
+            try {
+                return read(session.run(statement), retries);
+            } catch (Neo4jException e) {
+                if (!retryPolicy.shouldRetry(statement.text(), e, retries)) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(retryPolicy.delayMillis(retries));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                retries++;
+            }
+        }
+    }
+
+    /**
+     * @param retries the number of times the statement has been executed before
+     */
+    @Nonnull
+    private BoltResult read(@Nonnull StatementResult result, int retries) {
+        return spill.isEnabled() ? BufferedBoltResult.read(result, maxRows, spill, retries)
+                : ListBoltResult.read(result, maxRows, retries);
+    }
+
+    /**
+     * Stops the workers and closes the sessions. Batches which have not started yet are not executed.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        for (Session session : sessions) {
+            session.close();
+        }
+    }
+}
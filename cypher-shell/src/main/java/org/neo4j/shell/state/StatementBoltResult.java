@@ -0,0 +1,171 @@
+package org.neo4j.shell.state;
+
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.StatementResult;
+import org.neo4j.driver.v1.summary.ResultSummary;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+/**
+ * A result which is streamed from the server as it is being read, so that records can be printed as soon as they
+ * arrive and never need to be held in memory all at once.
+ * <p>
+ * Only up to a maximum number of records are read. The remaining records are either cancelled on the server, which
+ * is only safe for statements which do not update anything since it rolls back their transaction, or discarded as
+ * they arrive.
+ */
+public class StatementBoltResult implements BoltResult {
+    private final StatementResult statementResult;
+    private final int maxRows;
+    private final Runnable cancel;
+    private final int retries;
+    private final Runnable onFailure;
+    private int rowsRead;
+    private boolean truncated;
+    private boolean cancelled;
+
+    public StatementBoltResult(@Nonnull StatementResult statementResult) {
+        this(statementResult, 0, null);
+    }
+
+    /**
+     * @param maxRows the maximum number of records to read, or 0 to read all of them
+     * @param cancel  stops the server from sending the remaining records, or null if they should be discarded instead
+     */
+    public StatementBoltResult(@Nonnull StatementResult statementResult, int maxRows, @Nullable Runnable cancel) {
+        this(statementResult, maxRows, cancel, 0);
+    }
+
+    /**
+     * @param retries the number of times the statement was retried before it succeeded
+     */
+    public StatementBoltResult(@Nonnull StatementResult statementResult, int maxRows, @Nullable Runnable cancel,
+                               int retries) {
+        this(statementResult, maxRows, cancel, retries, null);
+    }
+
+    /**
+     * @param onFailure told when reading the result fails, or null
+     */
+    public StatementBoltResult(@Nonnull StatementResult statementResult, int maxRows, @Nullable Runnable cancel,
+                               int retries, @Nullable Runnable onFailure) {
+        this.statementResult = statementResult;
+        this.maxRows = maxRows;
+        this.cancel = cancel;
+        this.retries = retries;
+        this.onFailure = onFailure;
+    }
+
+    @Nonnull
+    @Override
+    public List<String> getKeys() {
+        return read(statementResult::keys);
+    }
+
+    @Nonnull
+    @Override
+    public List<Record> getRecords() {
+        if (maxRows == 0) {
+            return read(statementResult::list);
+        }
+        List<Record> records = new ArrayList<>();
+        iterate().forEachRemaining(records::add);
+        return records;
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<Record> iterate() {
+        if (maxRows == 0 && onFailure == null) {
+            return statementResult;
+        }
+        if (maxRows == 0) {
+            return new Iterator<Record>() {
+                @Override
+                public boolean hasNext() {
+                    return read(statementResult::hasNext);
+                }
+
+                @Override
+                public Record next() {
+                    return read(statementResult::next);
+                }
+            };
+        }
+        return new Iterator<Record>() {
+            @Override
+            public boolean hasNext() {
+                if (truncated || cancelled) {
+                    return false;
+                }
+                if (rowsRead < maxRows) {
+                    return read(statementResult::hasNext);
+                }
+                if (read(statementResult::hasNext)) {
+                    truncated = true;
+                    discardRemaining();
+                }
+                return false;
+            }
+
+            @Override
+            public Record next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                rowsRead++;
+                return read(statementResult::next);
+            }
+        };
+    }
+
+    @Nonnull
+    @Override
+    public ResultSummary getSummary() {
+        if (cancelled) {
+            return CancelledResultSummary.INSTANCE;
+        }
+        return read(statementResult::summary);
+    }
+
+    @Override
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public int getRetries() {
+        return retries;
+    }
+
+    @Override
+    public void discardRemaining() {
+        if (cancelled) {
+            return;
+        }
+        if (cancel == null) {
+            read(statementResult::consume);
+        } else {
+            cancel.run();
+            cancelled = true;
+        }
+    }
+
+    @Nonnull
+    private <T> T read(@Nonnull Supplier<T> reading) {
+        try {
+            return reading.get();
+        } catch (RuntimeException e) {
+            if (onFailure != null) {
+                onFailure.run();
+            }
+            throw e;
+        }
+    }
+}
@@ -4,10 +4,16 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.neo4j.driver.v1.Driver;
 import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+import org.neo4j.driver.v1.exceptions.ClientException;
+import org.neo4j.driver.v1.summary.ResultSummary;
 import org.neo4j.shell.cli.CliArgHelper;
 import org.neo4j.shell.cli.CliArgs;
 import org.neo4j.shell.cli.StringShellRunner;
@@ -15,12 +21,21 @@ import org.neo4j.shell.commands.CommandExecutable;
 import org.neo4j.shell.commands.CommandHelper;
 import org.neo4j.shell.exception.CommandException;
 import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.exception.PagerQuitException;
+import org.neo4j.shell.metrics.MetricsListener;
+import org.neo4j.shell.metrics.StatementMetrics;
+import org.neo4j.shell.prettyprint.LinePrinter;
+import org.neo4j.shell.prettyprint.PagedLinePrinter;
+import org.neo4j.shell.prettyprint.Pager;
 import org.neo4j.shell.prettyprint.PrettyPrinter;
 import org.neo4j.shell.state.BoltResult;
 import org.neo4j.shell.state.BoltStateHandler;
 import org.neo4j.shell.test.OfflineTestShell;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import static java.util.Arrays.asList;
@@ -28,11 +43,18 @@ import static junit.framework.TestCase.assertTrue;
 import static junit.framework.TestCase.fail;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyMap;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.contains;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -117,7 +139,7 @@ public class CypherShellTest {
 
         when(mockedBoltStateHandler.runCypher(anyString(), anyMap())).thenThrow(new CommandException("not connected"));
 
-        shell.set("bob", "99");
+        shell.set("bob", "98 + 1");
     }
 
     @Test
@@ -144,7 +166,7 @@ public class CypherShellTest {
 
         assertTrue(offlineTestShell.getAll().isEmpty());
 
-        Optional result = offlineTestShell.set("`bo``b`", "99");
+        Optional result = offlineTestShell.set("`bo``b`", "98 + 1");
         assertEquals("99", result.get());
         assertEquals("99", offlineTestShell.getAll().get("bo`b"));
     }
@@ -162,7 +184,7 @@ public class CypherShellTest {
 
         assertTrue(offlineTestShell.getAll().isEmpty());
 
-        Optional result = offlineTestShell.set("`bob`", "99");
+        Optional result = offlineTestShell.set("`bob`", "98 + 1");
         assertEquals("99", result.get());
         assertEquals("99", offlineTestShell.getAll().get("bob"));
     }
@@ -177,12 +199,172 @@ public class CypherShellTest {
 
         when(boltStateHandler.isConnected()).thenReturn(true);
         when(boltStateHandler.runCypher(anyString(), anyMap())).thenReturn(Optional.of(result));
-        when(mockedPrettyPrinter.format(result)).thenReturn("999");
         when(mockedDriver.session()).thenReturn(session);
 
         OfflineTestShell shell = new OfflineTestShell(logger, boltStateHandler, mockedPrettyPrinter);
         shell.execute("RETURN 999");
-        verify(logger).printOut(contains("999"));
+        verify(mockedPrettyPrinter).format(result, logger);
+    }
+
+    @Test
+    public void executeShouldPrintResultToOutputAndFlushIt() throws CommandException {
+        BoltResult result = mock(BoltResult.class);
+        LinePrinter output = mock(LinePrinter.class);
+
+        BoltStateHandler boltStateHandler = mock(BoltStateHandler.class);
+
+        when(boltStateHandler.isConnected()).thenReturn(true);
+        when(boltStateHandler.runCypher(anyString(), anyMap())).thenReturn(Optional.of(result));
+
+        CypherShell shell = new CypherShell(logger, boltStateHandler, mockedPrettyPrinter, output);
+        shell.execute("RETURN 999");
+
+        InOrder inOrder = inOrder(mockedPrettyPrinter, output);
+        inOrder.verify(mockedPrettyPrinter).format(result, output);
+        inOrder.verify(output).flush();
+        verify(mockedPrettyPrinter, never()).format(result, logger);
+    }
+
+    @Test
+    public void statementParametersTakePrecedenceOverThoseOfTheShell() throws CommandException {
+        BoltStateHandler boltStateHandler = mock(BoltStateHandler.class);
+        when(boltStateHandler.isConnected()).thenReturn(true);
+        when(boltStateHandler.runCypher(anyString(), anyMap())).thenReturn(Optional.empty());
+
+        CypherShell shell = new CypherShell(logger, boltStateHandler, mockedPrettyPrinter);
+        shell.set("rows", "1");
+        shell.set("x", "2");
+        shell.execute(new Statement("UNWIND $rows AS row RETURN row, $x", Collections.singletonMap("rows", 3)));
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("rows", Values.value(3));
+        expected.put("x", 2L);
+        verify(boltStateHandler).runCypher("UNWIND $rows AS row RETURN row, $x", expected);
+    }
+
+    @Test
+    public void literalsAreSentAsParametersWhenExtracted() throws CommandException {
+        BoltStateHandler boltStateHandler = mock(BoltStateHandler.class);
+        when(boltStateHandler.isConnected()).thenReturn(true);
+        when(boltStateHandler.runCypher(anyString(), anyMap())).thenReturn(Optional.empty());
+
+        CypherShell shell = new CypherShell(logger, boltStateHandler, mockedPrettyPrinter);
+        shell.set("x", "2");
+        shell.setExtractLiterals(true);
+        shell.execute("MATCH (n {name: 'Bob'}) RETURN n, $x");
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("_lit0", Values.value("Bob"));
+        expected.put("x", 2L);
+        verify(boltStateHandler).runCypher("MATCH (n {name: $_lit0}) RETURN n, $x", expected);
+    }
+
+    @Test
+    public void truncationIsReportedAsAnErrorWhenTheFormatOnlyPrintsData() throws CommandException {
+        BoltResult result = mock(BoltResult.class);
+        LinePrinter output = mock(LinePrinter.class);
+
+        BoltStateHandler boltStateHandler = mock(BoltStateHandler.class);
+
+        when(boltStateHandler.isConnected()).thenReturn(true);
+        when(boltStateHandler.runCypher(anyString(), anyMap())).thenReturn(Optional.of(result));
+        when(result.isTruncated()).thenReturn(true);
+        when(mockedPrettyPrinter.format(result, output)).thenReturn(2);
+
+        CypherShell shell = new CypherShell(logger, boltStateHandler, mockedPrettyPrinter, output);
+        shell.execute("MATCH (n) RETURN n");
+
+        verify(logger).printError("2 rows shown, the rest of the result was discarded (max-rows)");
+        verify(output, never()).printOut(anyString());
+    }
+
+    @Test
+    public void metricsListenersAreToldAboutEveryStatement() throws CommandException {
+        BoltResult result = mock(BoltResult.class);
+        ResultSummary summary = mock(ResultSummary.class);
+        LinePrinter output = mock(LinePrinter.class);
+        MetricsListener listener = mock(MetricsListener.class);
+
+        BoltStateHandler boltStateHandler = mock(BoltStateHandler.class);
+
+        when(boltStateHandler.isConnected()).thenReturn(true);
+        when(boltStateHandler.runCypher(anyString(), anyMap())).thenReturn(Optional.of(result));
+        when(result.getSummary()).thenReturn(summary);
+
+        CypherShell shell = new CypherShell(logger, boltStateHandler, mockedPrettyPrinter, output);
+        shell.addMetricsListener(listener);
+        shell.execute("RETURN 999");
+        shell.removeMetricsListener(listener);
+        shell.execute("RETURN 998");
+
+        ArgumentCaptor<StatementMetrics> metrics = ArgumentCaptor.forClass(StatementMetrics.class);
+        verify(listener).statementCompleted(metrics.capture());
+        assertEquals("RETURN 999", metrics.getValue().getStatement());
+        assertTrue(metrics.getValue().getRunNanos() >= 0);
+        verify(mockedPrettyPrinter).format(result, output);
+    }
+
+    @Test
+    public void metricsListenersAreToldAboutFailedStatements() throws CommandException {
+        MetricsListener listener = mock(MetricsListener.class);
+        BoltStateHandler boltStateHandler = mock(BoltStateHandler.class);
+        when(boltStateHandler.isConnected()).thenReturn(true);
+        when(boltStateHandler.runCypher(anyString(), anyMap()))
+                .thenThrow(new ClientException("Neo.ClientError.Statement.ArithmeticError", "/ by zero"));
+
+        CypherShell shell = new CypherShell(logger, boltStateHandler, mockedPrettyPrinter, mock(LinePrinter.class));
+        shell.addMetricsListener(listener);
+        try {
+            shell.execute("RETURN 1/0");
+            fail("Expected the statement to fail");
+        } catch (ClientException e) {
+            ArgumentCaptor<StatementMetrics> metrics = ArgumentCaptor.forClass(StatementMetrics.class);
+            verify(listener).statementCompleted(metrics.capture());
+            assertEquals("RETURN 1/0", metrics.getValue().getStatement());
+            assertTrue(metrics.getValue().isFailed());
+            assertTrue(metrics.getValue().getTotalNanos() >= 0);
+        }
+    }
+
+    @Test
+    public void quittingThePagerDiscardsTheRestOfTheResult() throws CommandException {
+        BoltResult result = mock(BoltResult.class);
+        LinePrinter output = mock(LinePrinter.class);
+        Pager pager = mock(Pager.class);
+
+        BoltStateHandler boltStateHandler = mock(BoltStateHandler.class);
+
+        when(boltStateHandler.isConnected()).thenReturn(true);
+        when(boltStateHandler.runCypher(anyString(), anyMap())).thenReturn(Optional.of(result));
+        doThrow(new PagerQuitException()).when(mockedPrettyPrinter).format(eq(result), any(PagedLinePrinter.class));
+
+        CypherShell shell = new CypherShell(logger, boltStateHandler, mockedPrettyPrinter, output);
+        shell.setPager(pager);
+        shell.execute("MATCH (n) RETURN n");
+
+        verify(result).discardRemaining();
+        verify(output).flush();
+    }
+
+    @Test
+    public void quittingThePagerDoesNotRollBackAnOpenTransaction() throws CommandException {
+        BoltResult result = mock(BoltResult.class);
+        LinePrinter output = mock(LinePrinter.class);
+        Pager pager = mock(Pager.class);
+
+        BoltStateHandler boltStateHandler = mock(BoltStateHandler.class);
+
+        when(boltStateHandler.isConnected()).thenReturn(true);
+        when(boltStateHandler.isTransactionOpen()).thenReturn(true);
+        when(boltStateHandler.runCypher(anyString(), anyMap())).thenReturn(Optional.of(result));
+        doThrow(new PagerQuitException()).when(mockedPrettyPrinter).format(eq(result), any(PagedLinePrinter.class));
+
+        CypherShell shell = new CypherShell(logger, boltStateHandler, mockedPrettyPrinter, output);
+        shell.setPager(pager);
+        shell.execute("MATCH (n) RETURN n");
+
+        verify(result).discardRemaining();
+        verify(boltStateHandler, never()).reset();
     }
 
     @Test
@@ -191,13 +373,45 @@ public class CypherShellTest {
 
         BoltStateHandler boltStateHandler = mock(BoltStateHandler.class);
 
-        when(mockedPrettyPrinter.format(result)).thenReturn("999");
         when(boltStateHandler.commitTransaction()).thenReturn(Optional.of(asList(result)));
 
         OfflineTestShell shell = new OfflineTestShell(logger, boltStateHandler, mockedPrettyPrinter);
 
         shell.commitTransaction();
-        verify(logger).printOut(contains("999"));
+        verify(mockedPrettyPrinter).format(result, logger);
+    }
+
+    @Test
+    public void failuresOfAChunkedTransactionTellWhatWasCommitted() throws CommandException {
+        BoltStateHandler boltStateHandler = mock(BoltStateHandler.class);
+        when(boltStateHandler.isConnected()).thenReturn(true);
+        when(boltStateHandler.isTransactionOpen()).thenReturn(true);
+        when(boltStateHandler.getCommittedStatements()).thenReturn(2000);
+        when(boltStateHandler.getCommittedChunks()).thenReturn(2);
+        when(boltStateHandler.runCypher(anyString(), anyMap())).thenThrow(new ClientException("Out of memory"));
+
+        OfflineTestShell shell = new OfflineTestShell(logger, boltStateHandler, mockedPrettyPrinter);
+
+        thrown.expect(CommandException.class);
+        thrown.expectMessage("Out of memory");
+        thrown.expectMessage("Statements 1 to 2000 of the transaction were committed in 2 chunk(s)");
+
+        shell.execute("CREATE (n)");
+    }
+
+    @Test
+    public void failuresOfAnUnchunkedTransactionAreReportedAsTheyAre() throws CommandException {
+        BoltStateHandler boltStateHandler = mock(BoltStateHandler.class);
+        when(boltStateHandler.isConnected()).thenReturn(true);
+        when(boltStateHandler.isTransactionOpen()).thenReturn(true);
+        when(boltStateHandler.runCypher(anyString(), anyMap())).thenThrow(new ClientException("Out of memory"));
+
+        OfflineTestShell shell = new OfflineTestShell(logger, boltStateHandler, mockedPrettyPrinter);
+
+        thrown.expect(ClientException.class);
+        thrown.expectMessage("Out of memory");
+
+        shell.execute("CREATE (n)");
     }
 
     @Test
@@ -279,6 +493,85 @@ public class CypherShellTest {
         CypherShell shell = new CypherShell(logger, mockedBoltStateHandler, mockedPrettyPrinter);
 
         // when
-        shell.set("bob", "99");
+        shell.set("bob", "98 + 1");
+    }
+
+    @Test
+    public void setLiteralParamIsEvaluatedLocally() throws CommandException {
+        CypherShell shell = new CypherShell(logger, mockedBoltStateHandler, mockedPrettyPrinter);
+
+        Optional result = shell.set("bob", "[99, 'x', {a: true}]");
+
+        assertEquals(asList(99L, "x", Collections.singletonMap("a", true)), result.get());
+        assertEquals("[99, 'x', {a: true}]", shell.getAllAsUserInput().get("bob").getValueAsString());
+        verify(mockedBoltStateHandler, never()).runCypher(anyString(), anyMap());
+    }
+
+    @Test
+    public void setConstantExpressionIsEvaluatedOnce() throws CommandException {
+        Value value = mock(Value.class);
+        Record recordMock = mock(Record.class);
+        BoltResult boltResult = mock(BoltResult.class);
+
+        when(mockedBoltStateHandler.runCypher(anyString(), anyMap())).thenReturn(Optional.of(boltResult));
+        when(boltResult.getRecords()).thenReturn(asList(recordMock));
+        when(recordMock.get(anyString())).thenReturn(value);
+        when(value.asObject()).thenReturn(99L);
+
+        CypherShell shell = new CypherShell(logger, mockedBoltStateHandler, mockedPrettyPrinter);
+
+        shell.set("bob", "98 + 1");
+        Optional result = shell.set("alice", "98 + 1");
+
+        assertEquals(99L, result.get());
+        assertEquals(99L, shell.getAll().get("alice"));
+        verify(mockedBoltStateHandler, times(1)).runCypher(anyString(), anyMap());
+    }
+
+    @Test
+    public void setExpressionWithFunctionIsEvaluatedEveryTime() throws CommandException {
+        Value value = mock(Value.class);
+        Record recordMock = mock(Record.class);
+        BoltResult boltResult = mock(BoltResult.class);
+
+        when(mockedBoltStateHandler.runCypher(anyString(), anyMap())).thenReturn(Optional.of(boltResult));
+        when(boltResult.getRecords()).thenReturn(asList(recordMock));
+        when(recordMock.get(anyString())).thenReturn(value);
+        when(value.asObject()).thenReturn(1L, 2L);
+
+        CypherShell shell = new CypherShell(logger, mockedBoltStateHandler, mockedPrettyPrinter);
+
+        shell.set("bob", "timestamp()");
+        Optional result = shell.set("bob", "timestamp()");
+
+        assertEquals(2L, result.get());
+        verify(mockedBoltStateHandler, times(2)).runCypher(anyString(), anyMap());
+    }
+
+    @Test
+    public void onlyReferencedParamsAreSent() throws CommandException {
+        CypherShell shell = new OfflineTestShell(logger, mockedBoltStateHandler, mockedPrettyPrinter);
+        when(mockedBoltStateHandler.isConnected()).thenReturn(true);
+        when(mockedBoltStateHandler.runCypher(anyString(), anyMap())).thenReturn(Optional.empty());
+        shell.set("a", "1");
+        shell.set("b", "'two'");
+
+        shell.execute("RETURN $b");
+
+        verify(mockedBoltStateHandler).runCypher("RETURN $b", Collections.singletonMap("b", "two"));
+    }
+
+    @Test
+    public void paramsSnapshotIsRebuiltWhenAParamIsSet() throws CommandException {
+        CypherShell shell = new CypherShell(logger, mockedBoltStateHandler, mockedPrettyPrinter);
+        shell.set("a", "1");
+        Map<String, Object> snapshot = shell.getAll();
+
+        assertSame(snapshot, shell.getAll());
+
+        shell.set("b", "2");
+
+        assertEquals(1, snapshot.size());
+        assertEquals(2, shell.getAll().size());
     }
 }
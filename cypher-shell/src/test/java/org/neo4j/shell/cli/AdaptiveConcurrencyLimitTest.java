@@ -0,0 +1,90 @@
+package org.neo4j.shell.cli;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveConcurrencyLimitTest {
+    private static final long MILLIS = 1_000_000;
+
+    @Test
+    public void startsHalfwayUpToTheMaximum() {
+        assertEquals(4, new AdaptiveConcurrencyLimit(8).getLimit());
+        assertEquals(1, new AdaptiveConcurrencyLimit(1).getLimit());
+    }
+
+    @Test
+    public void growsByOneForEveryLimitBatchesWhichCompleteWell() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 4);
+
+        completeWell(limit, 5);
+        assertEquals(5, limit.getLimit());
+        completeWell(limit, 6);
+        assertEquals(6, limit.getLimit());
+    }
+
+    @Test
+    public void neverGrowsBeyondTheMaximum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(3, 1);
+
+        completeWell(limit, 100);
+
+        assertEquals(3, limit.getLimit());
+    }
+
+    @Test
+    public void halvesOnceForEveryLimitBatchesWhichAreOverloaded() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(16, 8);
+
+        for (int i = 0; i < 8; i++) {
+            limit.onBatchCompleted(10 * MILLIS, 1, true);
+        }
+        assertEquals(4, limit.getLimit());
+        for (int i = 0; i < 4; i++) {
+            limit.onBatchCompleted(10 * MILLIS, 1, true);
+        }
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    public void neverShrinksBelowOne() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1);
+
+        for (int i = 0; i < 10; i++) {
+            limit.onBatchCompleted(10 * MILLIS, 1, true);
+        }
+
+        assertEquals(1, limit.getLimit());
+    }
+
+    @Test
+    public void shrinksWhenBatchesSlowDown() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(16, 8);
+        completeWell(limit, 100);
+        assertEquals(16, limit.getLimit());
+
+        for (int i = 0; i < 4; i++) {
+            limit.onBatchCompleted(100 * MILLIS, 1, false);
+        }
+
+        assertEquals(8, limit.getLimit());
+    }
+
+    @Test
+    public void latencyIsPerStatement() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(16, 8);
+        completeWell(limit, 100);
+
+        for (int i = 0; i < 4; i++) {
+            limit.onBatchCompleted(100 * MILLIS, 10, false);
+        }
+
+        assertEquals(16, limit.getLimit());
+    }
+
+    private static void completeWell(AdaptiveConcurrencyLimit limit, int batches) {
+        for (int i = 0; i < batches; i++) {
+            limit.onBatchCompleted(10 * MILLIS, 1, false);
+        }
+    }
+}
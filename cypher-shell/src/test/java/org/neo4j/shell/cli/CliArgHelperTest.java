@@ -62,6 +62,87 @@ public class CliArgHelperTest {
                 CliArgHelper.parse(asArray("--driver-version")).getDriverVersion());
     }
 
+    @Test
+    public void testWrapIsDefault() {
+        assertTrue("Wrap should be the default",
+                CliArgHelper.parse(asArray()).getWrap());
+    }
+
+    @Test
+    public void testWrapIsParsed() {
+        assertFalse("Wrap should have been parsed to false",
+                CliArgHelper.parse(asArray("--wrap", "false")).getWrap());
+    }
+
+    @Test
+    public void testSampleRowsIsParsed() {
+        assertEquals("Unexpected number of sample rows", 42,
+                CliArgHelper.parse(asArray("--sample-rows", "42")).getNumSampleRows());
+    }
+
+    @Test
+    public void testSampleRowsMustBePositive() {
+        assertNull(CliArgHelper.parse(asArray("--sample-rows", "0")));
+    }
+
+    @Test
+    public void testBatchSizeIsDisabledByDefault() {
+        assertEquals("Unexpected batch size", 0, CliArgHelper.parse(asArray()).getBatchSize());
+    }
+
+    @Test
+    public void testBatchSizeIsParsed() {
+        assertEquals("Unexpected batch size", 500,
+                CliArgHelper.parse(asArray("--batch-size", "500")).getBatchSize());
+    }
+
+    @Test
+    public void testBatchSizeMustBePositive() {
+        assertNull(CliArgHelper.parse(asArray("--batch-size", "0")));
+    }
+
+    @Test
+    public void testUnwindBatchSizeIsParsed() {
+        assertEquals("Unexpected UNWIND batch size", 0, CliArgHelper.parse(asArray()).getUnwindBatchSize());
+        assertEquals("Unexpected UNWIND batch size", 1000,
+                CliArgHelper.parse(asArray("--unwind-batch-size", "1000")).getUnwindBatchSize());
+        assertNull(CliArgHelper.parse(asArray("--unwind-batch-size", "0")));
+    }
+
+    @Test
+    public void testExtractLiteralsIsParsed() {
+        assertFalse(CliArgHelper.parse(asArray()).getExtractLiterals());
+        assertTrue(CliArgHelper.parse(asArray("--extract-literals")).getExtractLiterals());
+    }
+
+    @Test
+    public void testPipelineDepthIsParsed() {
+        assertEquals("Unexpected pipeline depth", 16,
+                CliArgHelper.parse(asArray("--pipeline-depth", "16")).getPipelineDepth());
+    }
+
+    @Test
+    public void testPipelineDepthMustBePositive() {
+        assertNull(CliArgHelper.parse(asArray("--pipeline-depth", "0")));
+    }
+
+    @Test
+    public void testParallelIsParsed() {
+        assertEquals("Unexpected parallelism", 8,
+                CliArgHelper.parse(asArray("--parallel", "8")).getParallelism());
+    }
+
+    @Test
+    public void testParallelMustBePositive() {
+        assertNull(CliArgHelper.parse(asArray("--parallel", "0")));
+    }
+
+    @Test
+    public void testAdaptiveParallelIsParsed() {
+        assertFalse(CliArgHelper.parse(asArray()).getAdaptiveParallel());
+        assertTrue(CliArgHelper.parse(asArray("--parallel", "8", "--adaptive-parallel")).getAdaptiveParallel());
+    }
+
     @Test
     public void testFailFastIsDefault() {
         assertEquals("Unexpected fail-behavior", FailBehavior.FAIL_FAST,
@@ -101,6 +182,89 @@ public class CliArgHelperTest {
     public void parseFormat() throws Exception {
         assertEquals(Format.PLAIN, CliArgHelper.parse("--format", "plain").getFormat());
         assertEquals(Format.VERBOSE, CliArgHelper.parse("--format", "verbose").getFormat());
+        assertEquals(Format.CSV, CliArgHelper.parse("--format", "csv").getFormat());
+        assertEquals(Format.TSV, CliArgHelper.parse("--format", "tsv").getFormat());
+        assertEquals(Format.JSONL, CliArgHelper.parse("--format", "jsonl").getFormat());
+        assertEquals(Format.ARROW, CliArgHelper.parse("--format", "arrow").getFormat());
+    }
+
+    @Test
+    public void parseDelimiter() throws Exception {
+        assertNull(CliArgHelper.parse().getDelimiter());
+        assertEquals(Character.valueOf(';'), CliArgHelper.parse("--delimiter", ";").getDelimiter());
+        assertEquals(Character.valueOf('\t'), CliArgHelper.parse("--delimiter", "\\t").getDelimiter());
+    }
+
+    @Test
+    public void delimiterMustBeASingleCharacter() throws Exception {
+        assertNull(CliArgHelper.parse("--delimiter", ";;"));
+        assertNull(CliArgHelper.parse("--delimiter", "\""));
+    }
+
+    @Test
+    public void parseNullValue() throws Exception {
+        assertEquals("", CliArgHelper.parse().getNullValue());
+        assertEquals("NULL", CliArgHelper.parse("--null-value", "NULL").getNullValue());
+    }
+
+    @Test
+    public void parseMaxRows() throws Exception {
+        assertEquals(0, CliArgHelper.parse().getMaxRows());
+        assertEquals(1000, CliArgHelper.parse("--max-rows", "1000").getMaxRows());
+        assertNull(CliArgHelper.parse("--max-rows", "-1"));
+    }
+
+    @Test
+    public void parseResultMemory() throws Exception {
+        assertEquals(0, CliArgHelper.parse().getResultMemory());
+        assertEquals(512, CliArgHelper.parse("--result-memory", "512").getResultMemory());
+        assertNull(CliArgHelper.parse("--result-memory", "-1"));
+    }
+
+    @Test
+    public void parseTxChunk() throws Exception {
+        assertEquals(0, CliArgHelper.parse().getTxChunk());
+        assertEquals(0, CliArgHelper.parse().getTxChunkBytes());
+        assertEquals(500, CliArgHelper.parse("--tx-chunk", "500").getTxChunk());
+        assertEquals(10000000000L, CliArgHelper.parse("--tx-chunk-bytes", "10000000000").getTxChunkBytes());
+        assertNull(CliArgHelper.parse("--tx-chunk", "-1"));
+    }
+
+    @Test
+    public void parseRetries() throws Exception {
+        assertEquals(1, CliArgHelper.parse().getMaxRetries());
+        assertEquals(200, CliArgHelper.parse().getRetryDelay());
+        assertEquals(5, CliArgHelper.parse("--max-retries", "5").getMaxRetries());
+        assertEquals(0, CliArgHelper.parse("--max-retries", "0").getMaxRetries());
+        assertEquals(50, CliArgHelper.parse("--retry-delay", "50").getRetryDelay());
+        assertNull(CliArgHelper.parse("--max-retries", "-1"));
+    }
+
+    @Test
+    public void parsePager() throws Exception {
+        assertTrue(CliArgHelper.parse().getPager());
+        assertFalse(CliArgHelper.parse("--pager", "false").getPager());
+    }
+
+    @Test
+    public void parseOutputFile() throws Exception {
+        assertNull(CliArgHelper.parse().getOutputFile());
+        assertEquals("out.csv", CliArgHelper.parse("--output", "out.csv").getOutputFile());
+        assertEquals("out.csv", CliArgHelper.parse("-o", "out.csv").getOutputFile());
+    }
+
+    @Test
+    public void parseMetricsFile() throws Exception {
+        assertNull(CliArgHelper.parse().getMetricsFile());
+        assertEquals("metrics.jsonl", CliArgHelper.parse("--metrics-file", "metrics.jsonl").getMetricsFile());
+    }
+
+    @Test
+    public void parseSummary() throws Exception {
+        assertFalse(CliArgHelper.parse().getSummary());
+        assertNull(CliArgHelper.parse().getSummaryFile());
+        assertTrue(CliArgHelper.parse("--summary").getSummary());
+        assertEquals("run.jsonl", CliArgHelper.parse("--summary-file", "run.jsonl").getSummaryFile());
     }
 
     @Test
@@ -35,6 +35,8 @@ import java.util.concurrent.atomic.AtomicReference;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.contains;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
@@ -89,6 +91,20 @@ public class InteractiveShellRunnerTest {
         verifyNoMoreInteractions(cmdExecuter);
     }
 
+    @Test
+    public void pagerContinuesOnAnyKeyButQ() throws Exception {
+        InteractiveShellRunner runner = new InteractiveShellRunner(cmdExecuter, txHandler, logger, statementParser,
+                new ByteArrayInputStream(" \nxq".getBytes()), historyFile, userMessagesHandler);
+
+        assertTrue(runner.nextPage());
+        assertTrue(runner.nextPage());
+        assertTrue(runner.nextPage());
+        assertFalse(runner.nextPage());
+        // End of input
+        assertFalse(runner.nextPage());
+        assertTrue(runner.pageSize() > 0);
+    }
+
     @Test
     public void runUntilEndShouldKeepGoingOnErrors() throws IOException, CommandException {
         String input = "good1;\n" +
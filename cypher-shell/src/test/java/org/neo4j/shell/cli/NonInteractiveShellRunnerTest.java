@@ -4,23 +4,42 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.InOrder;
+import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.exceptions.ClientException;
+import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.driver.v1.summary.SummaryCounters;
 import org.neo4j.shell.Historian;
+import org.neo4j.shell.ParallelExecuter;
 import org.neo4j.shell.StatementExecuter;
+import org.neo4j.shell.TransactionHandler;
 import org.neo4j.shell.exception.CommandException;
 import org.neo4j.shell.exception.ExitException;
 import org.neo4j.shell.log.Logger;
 import org.neo4j.shell.parser.ShellStatementParser;
 import org.neo4j.shell.parser.StatementParser;
+import org.neo4j.shell.state.BoltResult;
 
 import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyBoolean;
+import static org.mockito.Mockito.anyListOf;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.contains;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -142,6 +161,363 @@ public class NonInteractiveShellRunnerTest {
         verifyNoMoreInteractions(cmdExecuter);
     }
 
+    @Test
+    public void loadModeGroupsStatementsInTransactions() throws Exception {
+        // given
+        TransactionHandler txHandler = mock(TransactionHandler.class);
+        String input =
+                "good1;\n" +
+                        "good2;\n" +
+                        "good3;\n";
+        NonInteractiveShellRunner runner = new NonInteractiveShellRunner(
+                FailBehavior.FAIL_FAST, cmdExecuter, txHandler,
+                logger, statementParser,
+                new ByteArrayInputStream(input.getBytes()), 2);
+
+        // when
+        int code = runner.runUntilEnd();
+
+        // then
+        assertEquals("Exit code incorrect", 0, code);
+        InOrder inOrder = inOrder(txHandler, cmdExecuter);
+        inOrder.verify(txHandler).beginTransaction();
+        inOrder.verify(cmdExecuter).execute(contains("good1"));
+        inOrder.verify(cmdExecuter).execute(contains("good2"));
+        inOrder.verify(txHandler).commitTransaction();
+        inOrder.verify(txHandler).beginTransaction();
+        inOrder.verify(cmdExecuter).execute(contains("good3"));
+        inOrder.verify(txHandler).commitTransaction();
+        verify(logger).printError(contains("Executed 3 statements"));
+    }
+
+    @Test
+    public void loadModeCommitsBeforeCommands() throws Exception {
+        // given
+        TransactionHandler txHandler = mock(TransactionHandler.class);
+        String input =
+                "good1;\n" +
+                        ":param x => 1\n" +
+                        "good2;\n";
+        NonInteractiveShellRunner runner = new NonInteractiveShellRunner(
+                FailBehavior.FAIL_FAST, cmdExecuter, txHandler,
+                logger, statementParser,
+                new ByteArrayInputStream(input.getBytes()), 100);
+
+        // when
+        int code = runner.runUntilEnd();
+
+        // then
+        assertEquals("Exit code incorrect", 0, code);
+        InOrder inOrder = inOrder(txHandler, cmdExecuter);
+        inOrder.verify(cmdExecuter).execute(contains("good1"));
+        inOrder.verify(txHandler).commitTransaction();
+        inOrder.verify(cmdExecuter).execute(contains(":param x => 1"));
+        inOrder.verify(txHandler).beginTransaction();
+        inOrder.verify(cmdExecuter).execute(contains("good2"));
+        inOrder.verify(txHandler).commitTransaction();
+    }
+
+    @Test
+    public void loadModeRollsBackFailedBatch() throws Exception {
+        // given
+        TransactionHandler txHandler = mock(TransactionHandler.class);
+        CommandException commitError = new CommandException("commit failed");
+        doThrow(commitError).when(txHandler).commitTransaction();
+        // Opened by the runner for the batch, and still open after the failed commit
+        doReturn(false).doReturn(true).when(txHandler).isTransactionOpen();
+        String input = "good1;\n";
+        NonInteractiveShellRunner runner = new NonInteractiveShellRunner(
+                FailBehavior.FAIL_FAST, cmdExecuter, txHandler,
+                logger, statementParser,
+                new ByteArrayInputStream(input.getBytes()), 1);
+
+        // when
+        int code = runner.runUntilEnd();
+
+        // then
+        assertEquals("Exit code incorrect", 1, code);
+        verify(txHandler).rollbackTransaction();
+        verify(logger).printError(commitError);
+    }
+
+    @Test
+    public void loadModeRollsBackTheBatchOfAFailedStatementAndCarriesOnAtEnd() throws Exception {
+        // given
+        TransactionHandler txHandler = mock(TransactionHandler.class);
+        // Opened by the runner for the first batch, then for the batch after the failure
+        doReturn(false).doReturn(true).doReturn(false).when(txHandler).isTransactionOpen();
+        String input =
+                "good1;\n" +
+                        "bad;\n" +
+                        "good2;\n";
+        NonInteractiveShellRunner runner = new NonInteractiveShellRunner(
+                FailBehavior.FAIL_AT_END, cmdExecuter, txHandler,
+                logger, statementParser,
+                new ByteArrayInputStream(input.getBytes()), 10);
+
+        // when
+        int code = runner.runUntilEnd();
+
+        // then
+        assertEquals("Exit code incorrect", 1, code);
+        InOrder inOrder = inOrder(txHandler, cmdExecuter, logger);
+        inOrder.verify(txHandler).beginTransaction();
+        inOrder.verify(cmdExecuter).execute(contains("good1"));
+        inOrder.verify(cmdExecuter).execute(contains("bad"));
+        inOrder.verify(txHandler).rollbackTransaction();
+        inOrder.verify(logger).printError("Rolled back the batch, along with 1 statement(s) of it which had executed");
+        inOrder.verify(logger).printError(badLineError);
+        inOrder.verify(txHandler).beginTransaction();
+        inOrder.verify(cmdExecuter).execute(contains("good2"));
+        inOrder.verify(txHandler).commitTransaction();
+        verify(logger).printError(contains("Executed 1 statements"));
+    }
+
+    @Test
+    public void loadModeRollsBackTheBatchOfAFailedStatementWhenFailingFast() throws Exception {
+        // given
+        TransactionHandler txHandler = mock(TransactionHandler.class);
+        doReturn(false).doReturn(true).when(txHandler).isTransactionOpen();
+        String input =
+                "good1;\n" +
+                        "bad;\n" +
+                        "good2;\n";
+        NonInteractiveShellRunner runner = new NonInteractiveShellRunner(
+                FailBehavior.FAIL_FAST, cmdExecuter, txHandler,
+                logger, statementParser,
+                new ByteArrayInputStream(input.getBytes()), 10);
+
+        // when
+        int code = runner.runUntilEnd();
+
+        // then
+        assertEquals("Exit code incorrect", 1, code);
+        verify(txHandler).rollbackTransaction();
+        verify(txHandler, never()).commitTransaction();
+        verify(cmdExecuter, never()).execute(contains("good2"));
+        verify(logger).printError("Rolled back the batch, along with 1 statement(s) of it which had executed");
+    }
+
+    @Test
+    public void unwindBatchingCollapsesConsecutiveStatementsOfTheSameShape() throws Exception {
+        // given
+        String input =
+                "CREATE (:Person {name: 'Alice'});\n" +
+                        "CREATE (:Person {name: 'Bob'});\n" +
+                        "CREATE (:Person {name: 'Carol'});\n" +
+                        "CREATE (:Dog {name: 'Rex'});\n" +
+                        ":param x => 1\n" +
+                        "CREATE (:Person {name: 'Dave'});\n";
+        NonInteractiveShellRunner runner = new NonInteractiveShellRunner(
+                FailBehavior.FAIL_FAST,
+                cmdExecuter,
+                logger, statementParser,
+                new ByteArrayInputStream(input.getBytes()));
+        runner.setUnwindBatchSize(2);
+
+        // when
+        int code = runner.runUntilEnd();
+
+        // then
+        assertEquals("Exit code incorrect", 0, code);
+        InOrder inOrder = inOrder(cmdExecuter);
+        inOrder.verify(cmdExecuter).execute(new Statement("UNWIND $rows AS row CREATE (:Person {name: row.p0})",
+                singletonMap("rows", asList(singletonMap("p0", "Alice"), singletonMap("p0", "Bob")))));
+        inOrder.verify(cmdExecuter).execute("\nCREATE (:Person {name: 'Carol'});");
+        inOrder.verify(cmdExecuter).execute("\nCREATE (:Dog {name: 'Rex'});");
+        inOrder.verify(cmdExecuter).execute(contains(":param x => 1"));
+        inOrder.verify(cmdExecuter).execute("\nCREATE (:Person {name: 'Dave'});");
+        verifyNoMoreInteractions(cmdExecuter);
+    }
+
+    @Test
+    public void statementAfterAFailedUnwindBatchIsStillExecutedAtEnd() throws Exception {
+        // given
+        doThrow(badLineError).when(cmdExecuter).execute(any(Statement.class));
+        String input =
+                ":begin\n" +
+                        "CREATE (:Person {name: 'Alice'});\n" +
+                        "CREATE (:Person {name: 'Bob'});\n" +
+                        ":commit\n";
+        NonInteractiveShellRunner runner = new NonInteractiveShellRunner(
+                FailBehavior.FAIL_AT_END,
+                cmdExecuter,
+                logger, statementParser,
+                new ByteArrayInputStream(input.getBytes()));
+        runner.setUnwindBatchSize(10);
+
+        // when
+        int code = runner.runUntilEnd();
+
+        // then
+        assertEquals("Exit code incorrect", 1, code);
+        verify(logger).printError(badLineError);
+        InOrder inOrder = inOrder(cmdExecuter);
+        inOrder.verify(cmdExecuter).execute(any(Statement.class));
+        inOrder.verify(cmdExecuter).execute(contains(":commit"));
+    }
+
+    @Test
+    public void unwindBatchesCountAsTheirStatementsInLoadMode() throws Exception {
+        // given
+        TransactionHandler txHandler = mock(TransactionHandler.class);
+        String input =
+                "CREATE ({x: 1});\n" +
+                        "CREATE ({x: 2});\n" +
+                        "CREATE ({x: 3});\n" +
+                        "CREATE ({x: 4});\n";
+        NonInteractiveShellRunner runner = new NonInteractiveShellRunner(
+                FailBehavior.FAIL_FAST, cmdExecuter, txHandler,
+                logger, statementParser,
+                new ByteArrayInputStream(input.getBytes()), 3);
+        runner.setUnwindBatchSize(2);
+
+        // when
+        int code = runner.runUntilEnd();
+
+        // then
+        assertEquals("Exit code incorrect", 0, code);
+        InOrder inOrder = inOrder(txHandler, cmdExecuter);
+        inOrder.verify(txHandler).beginTransaction();
+        inOrder.verify(cmdExecuter, times(2)).execute(any(Statement.class));
+        inOrder.verify(txHandler).commitTransaction();
+        verify(txHandler).beginTransaction();
+        verify(logger).printError(contains("Executed 4 statements"));
+    }
+
+    @Test
+    public void parallelModeSubmitsBatchesAndWaitsForThemAtCommands() throws Exception {
+        // given
+        TransactionHandler txHandler = mock(TransactionHandler.class);
+        ParallelExecuter parallelExecuter = mock(ParallelExecuter.class);
+        List<BoltResult> results = asList(resultWithNodesCreated(2), resultWithNodesCreated(3));
+        doReturn(CompletableFuture.completedFuture(results))
+                .when(parallelExecuter).executeOnWorker(anyListOf(Statement.class), anyBoolean());
+        String input =
+                "good1;\n" +
+                        "good2;\n" +
+                        ":param x => 1\n" +
+                        "good3;\n" +
+                        "good4;\n";
+        NonInteractiveShellRunner runner = new NonInteractiveShellRunner(
+                FailBehavior.FAIL_FAST, cmdExecuter, txHandler, parallelExecuter,
+                logger, statementParser,
+                new ByteArrayInputStream(input.getBytes()), 2, 4);
+
+        // when
+        int code = runner.runUntilEnd();
+
+        // then
+        assertEquals("Exit code incorrect", 0, code);
+        InOrder inOrder = inOrder(parallelExecuter, cmdExecuter);
+        inOrder.verify(parallelExecuter).startWorkers(4);
+        inOrder.verify(parallelExecuter).executeOnWorker(asList(new Statement("good1;"), new Statement("\ngood2;")),
+                true);
+        inOrder.verify(parallelExecuter).printResults(results);
+        inOrder.verify(cmdExecuter).execute(contains(":param x => 1"));
+        inOrder.verify(parallelExecuter).executeOnWorker(asList(new Statement("\ngood3;"), new Statement("\ngood4;")),
+                true);
+        inOrder.verify(parallelExecuter).printResults(results);
+        inOrder.verify(parallelExecuter).stopWorkers();
+        verify(cmdExecuter, never()).execute(contains("good"));
+        verify(logger).printError("Added 10 nodes");
+    }
+
+    @Test
+    public void parallelModeExecutesSchemaStatementsInOrder() throws Exception {
+        // given
+        TransactionHandler txHandler = mock(TransactionHandler.class);
+        ParallelExecuter parallelExecuter = mock(ParallelExecuter.class);
+        doReturn(CompletableFuture.completedFuture(Collections.emptyList()))
+                .when(parallelExecuter).executeOnWorker(anyListOf(Statement.class), anyBoolean());
+        String input =
+                "good1;\n" +
+                        "CREATE INDEX ON :Person(name);\n" +
+                        "good2;\n";
+        NonInteractiveShellRunner runner = new NonInteractiveShellRunner(
+                FailBehavior.FAIL_FAST, cmdExecuter, txHandler, parallelExecuter,
+                logger, statementParser,
+                new ByteArrayInputStream(input.getBytes()), 0, 2);
+
+        // when
+        int code = runner.runUntilEnd();
+
+        // then
+        assertEquals("Exit code incorrect", 0, code);
+        InOrder inOrder = inOrder(parallelExecuter, cmdExecuter);
+        inOrder.verify(parallelExecuter).executeOnWorker(asList(new Statement("good1;")), false);
+        inOrder.verify(cmdExecuter).execute(contains("CREATE INDEX"));
+        inOrder.verify(parallelExecuter).executeOnWorker(asList(new Statement("\ngood2;")), false);
+    }
+
+    @Test
+    public void parallelModeReportsFailedBatches() throws Exception {
+        // given
+        TransactionHandler txHandler = mock(TransactionHandler.class);
+        ParallelExecuter parallelExecuter = mock(ParallelExecuter.class);
+        CompletableFuture<List<BoltResult>> failed = new CompletableFuture<>();
+        failed.completeExceptionally(badLineError);
+        doReturn(failed).when(parallelExecuter).executeOnWorker(anyListOf(Statement.class), anyBoolean());
+        String input = "bad;\n";
+        NonInteractiveShellRunner runner = new NonInteractiveShellRunner(
+                FailBehavior.FAIL_FAST, cmdExecuter, txHandler, parallelExecuter,
+                logger, statementParser,
+                new ByteArrayInputStream(input.getBytes()), 0, 2);
+
+        // when
+        int code = runner.runUntilEnd();
+
+        // then
+        assertEquals("Exit code incorrect", 1, code);
+        verify(logger).printError(badLineError);
+        verify(parallelExecuter).stopWorkers();
+    }
+
+    @Test
+    public void adaptiveParallelModeReportsTheNumberOfBatchesAtATime() throws Exception {
+        // given
+        TransactionHandler txHandler = mock(TransactionHandler.class);
+        ParallelExecuter parallelExecuter = mock(ParallelExecuter.class);
+        doReturn(CompletableFuture.completedFuture(Collections.emptyList()))
+                .when(parallelExecuter).executeOnWorker(anyListOf(Statement.class), anyBoolean());
+        String input = "good1;\ngood2;\ngood3;\n";
+        NonInteractiveShellRunner runner = new NonInteractiveShellRunner(
+                FailBehavior.FAIL_FAST, cmdExecuter, txHandler, parallelExecuter,
+                logger, statementParser,
+                new ByteArrayInputStream(input.getBytes()), 0, 4);
+        runner.setAdaptiveParallelism(true);
+
+        // when
+        int code = runner.runUntilEnd();
+
+        // then
+        assertEquals("Exit code incorrect", 0, code);
+        verify(parallelExecuter).startWorkers(4);
+        verify(parallelExecuter, times(3)).executeOnWorker(anyListOf(Statement.class), eq(false));
+        verify(logger).printError(contains("batches at a time"));
+    }
+
+    @Test
+    public void executesStatementsBeyondQueueCapacity() throws Exception {
+        // given
+        StringBuilder input = new StringBuilder();
+        int statements = NonInteractiveShellRunner.STATEMENT_QUEUE_CAPACITY * 3;
+        for (int i = 0; i < statements; i++) {
+            input.append("good;\n");
+        }
+        NonInteractiveShellRunner runner = new NonInteractiveShellRunner(
+                FailBehavior.FAIL_FAST, cmdExecuter,
+                logger, statementParser,
+                new ByteArrayInputStream(input.toString().getBytes()));
+
+        // when
+        int code = runner.runUntilEnd();
+
+        // then
+        assertEquals("Exit code incorrect", 0, code);
+        verify(cmdExecuter, times(statements)).execute(contains("good;"));
+    }
+
     @Test
     public void nonInteractiveHasNoHistory() throws Exception {
         // given
@@ -153,4 +529,14 @@ public class NonInteractiveShellRunnerTest {
         // when then
         assertEquals(Historian.empty, runner.getHistorian());
     }
+
+    private BoltResult resultWithNodesCreated(int nodesCreated) {
+        BoltResult result = mock(BoltResult.class);
+        ResultSummary summary = mock(ResultSummary.class);
+        SummaryCounters counters = mock(SummaryCounters.class);
+        doReturn(nodesCreated).when(counters).nodesCreated();
+        doReturn(summary).when(result).getSummary();
+        doReturn(counters).when(summary).counters();
+        return result;
+    }
 }
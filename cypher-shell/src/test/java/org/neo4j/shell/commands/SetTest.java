@@ -0,0 +1,110 @@
+package org.neo4j.shell.commands;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.neo4j.shell.CypherShell;
+import org.neo4j.shell.exception.CommandException;
+import org.neo4j.shell.log.Logger;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SetTest {
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    private final Logger logger = mock(Logger.class);
+    private final CypherShell shell = mock(CypherShell.class);
+    private final Command cmd = new Set(logger, shell);
+
+    @Test
+    public void setsMaxRows() throws CommandException {
+        cmd.execute("max-rows 1000");
+        verify(shell).setMaxRows(1000);
+    }
+
+    @Test
+    public void zeroMaxRowsMeansNoLimit() throws CommandException {
+        cmd.execute("max-rows 0");
+        verify(shell).setMaxRows(0);
+    }
+
+    @Test
+    public void setsExtractLiterals() throws CommandException {
+        cmd.execute("extract-literals true");
+        verify(shell).setExtractLiterals(true);
+        cmd.execute("extract-literals FALSE");
+        verify(shell).setExtractLiterals(false);
+    }
+
+    @Test
+    public void setsTxChunk() throws CommandException {
+        cmd.execute("tx-chunk 500");
+        verify(shell).setTxChunk(500);
+        cmd.execute("tx-chunk-bytes 1000000");
+        verify(shell).setTxChunkBytes(1000000L);
+    }
+
+    @Test
+    public void printsOptionsWithoutArgs() throws CommandException {
+        when(shell.getMaxRows()).thenReturn(50);
+        when(shell.getExtractLiterals()).thenReturn(true);
+        when(shell.getTxChunk()).thenReturn(100);
+        cmd.execute("");
+        verify(logger).printOut("max-rows: 50");
+        verify(logger).printOut("extract-literals: true");
+        verify(logger).printOut("tx-chunk: 100");
+        verify(logger).printOut("tx-chunk-bytes: 0");
+    }
+
+    @Test
+    public void shouldFailForNonBooleanExtractLiterals() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage(containsString("extract-literals must be true or false"));
+
+        cmd.execute("extract-literals yes");
+    }
+
+    @Test
+    public void shouldFailForMissingValue() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage(containsString("Incorrect number of arguments"));
+
+        cmd.execute("max-rows");
+    }
+
+    @Test
+    public void shouldFailForUnknownOption() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage(containsString("Unknown option"));
+
+        cmd.execute("min-rows 10");
+    }
+
+    @Test
+    public void shouldFailForNegativeMaxRows() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage(containsString("max-rows must be a number of rows"));
+
+        cmd.execute("max-rows -1");
+    }
+
+    @Test
+    public void shouldFailForNegativeTxChunk() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage(containsString("tx-chunk must be a number of statements"));
+
+        cmd.execute("tx-chunk -5");
+    }
+
+    @Test
+    public void shouldFailForNonNumericMaxRows() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage(containsString("max-rows must be a number of rows"));
+
+        cmd.execute("max-rows lots");
+    }
+}
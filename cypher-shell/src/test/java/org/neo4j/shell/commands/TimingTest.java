@@ -0,0 +1,65 @@
+package org.neo4j.shell.commands;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
+import org.neo4j.shell.CypherShell;
+import org.neo4j.shell.exception.CommandException;
+import org.neo4j.shell.log.Logger;
+import org.neo4j.shell.metrics.MetricsListener;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TimingTest {
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    private final Logger logger = mock(Logger.class);
+    private final CypherShell shell = mock(CypherShell.class);
+    private final Command cmd = new Timing(logger, shell);
+
+    @Test
+    public void turningTimingOnAndOffAddsAndRemovesTheSameListener() throws CommandException {
+        cmd.execute("on");
+        cmd.execute("on");
+        cmd.execute("OFF");
+
+        ArgumentCaptor<MetricsListener> added = ArgumentCaptor.forClass(MetricsListener.class);
+        verify(shell, times(1)).addMetricsListener(added.capture());
+        ArgumentCaptor<MetricsListener> removed = ArgumentCaptor.forClass(MetricsListener.class);
+        verify(shell).removeMetricsListener(removed.capture());
+        assertSame(added.getValue(), removed.getValue());
+    }
+
+    @Test
+    public void printsWhetherTimingIsOnWithoutArgs() throws CommandException {
+        cmd.execute("");
+        verify(logger).printOut("timing: off");
+
+        cmd.execute("on");
+        cmd.execute("");
+        verify(logger).printOut("timing: on");
+    }
+
+    @Test
+    public void shouldFailForUnknownArgument() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage(containsString("Incorrect argument"));
+
+        cmd.execute("maybe");
+    }
+
+    @Test
+    public void shouldFailForTooManyArgs() throws CommandException {
+        thrown.expect(CommandException.class);
+        thrown.expectMessage(containsString("Incorrect number of arguments"));
+
+        cmd.execute("on off");
+    }
+}
@@ -5,7 +5,9 @@ import org.junit.Test;
 import org.neo4j.driver.v1.exceptions.ClientException;
 import org.neo4j.shell.cli.Format;
 import org.neo4j.shell.exception.CommandException;
+import org.neo4j.shell.prettyprint.OutputFormatter;
 
+import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 
 import static org.junit.Assert.assertEquals;
@@ -80,6 +82,30 @@ public class AnsiLoggerTest {
         verify(out).println("cod");
     }
 
+    @Test
+    public void resultOutputIsNotRendered() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        logger = new AnsiLogger(false, Format.PLAIN, new PrintStream(bytes, true), err);
+
+        logger.getResultOutput().printOut("@|RED data|@");
+        logger.getResultOutput().flush();
+
+        assertEquals("@|RED data|@" + OutputFormatter.NEWLINE, bytes.toString());
+    }
+
+    @Test
+    public void resultOutputIsBufferedUntilFlushed() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        logger = new AnsiLogger(false, Format.PLAIN, new PrintStream(bytes, true), err);
+
+        logger.getResultOutput().printOut("bob");
+        assertEquals(0, bytes.size());
+
+        logger.printOut("message");
+        logger.getResultOutput().flush();
+        assertEquals("message" + System.lineSeparator() + "bob" + OutputFormatter.NEWLINE, bytes.toString());
+    }
+
     @Test
     public void printErrManyShouldNotBuildState() throws Exception {
         logger.printError("bob");
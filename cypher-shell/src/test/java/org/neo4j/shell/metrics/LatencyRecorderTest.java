@@ -0,0 +1,57 @@
+package org.neo4j.shell.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyRecorderTest {
+
+    @Test
+    public void smallValuesAreExact() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 1; i <= 100; i++) {
+            recorder.record(i);
+        }
+
+        assertEquals(100, recorder.getCount());
+        assertEquals(5050, recorder.getSum());
+        assertEquals(50, recorder.getValueAtPercentile(50));
+        assertEquals(95, recorder.getValueAtPercentile(95));
+        assertEquals(99, recorder.getValueAtPercentile(99));
+        assertEquals(100, recorder.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void largeValuesAreWithinOnePercent() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (long i = 1; i <= 10_000; i++) {
+            recorder.record(i * 1_000_000);
+        }
+
+        assertWithinOnePercent(5_000_000_000L, recorder.getValueAtPercentile(50));
+        assertWithinOnePercent(9_500_000_000L, recorder.getValueAtPercentile(95));
+        assertWithinOnePercent(9_900_000_000L, recorder.getValueAtPercentile(99));
+        assertEquals(10_000_000_000L, recorder.getValueAtPercentile(100));
+        assertEquals(10_000_000_000L, recorder.getMax());
+    }
+
+    @Test
+    public void handlesExtremesAndIgnoresUnknownValues() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        assertEquals(0, recorder.getValueAtPercentile(99));
+
+        recorder.record(-1);
+        recorder.record(0);
+        recorder.record(Long.MAX_VALUE);
+
+        assertEquals(2, recorder.getCount());
+        assertEquals(0, recorder.getValueAtPercentile(50));
+        assertEquals(Long.MAX_VALUE, recorder.getValueAtPercentile(100));
+    }
+
+    private static void assertWithinOnePercent(long expected, long actual) {
+        assertTrue("expected about " + expected + " but was " + actual,
+                Math.abs(expected - actual) <= expected / 100);
+    }
+}
@@ -0,0 +1,36 @@
+package org.neo4j.shell.metrics;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.driver.internal.summary.InternalSummaryCounters.EMPTY_STATS;
+
+public class MetricsFileTest {
+    @Rule
+    public final TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void appendsAJsonLinePerStatement() throws Exception {
+        File file = temp.newFile();
+        Files.write(file.toPath(), "{}\n".getBytes(StandardCharsets.UTF_8));
+        StatementMetrics first = new StatementMetrics("RETURN 1", 0, 0, 0, 0, 0, 0, 0, 1, 2, 0, 0, false, 0,
+                EMPTY_STATS);
+        StatementMetrics second = new StatementMetrics("RETURN 2", 0, 0, 0, 0, 0, 0, 0, 1, 2, 0, 0, false, 0,
+                EMPTY_STATS);
+
+        try (MetricsFile metricsFile = MetricsFile.append(file.getPath())) {
+            metricsFile.statementCompleted(first);
+            metricsFile.statementCompleted(second);
+            // Each line is written out straight away
+            assertEquals(asList("{}", first.toJson(), second.toJson()),
+                    Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.neo4j.shell.metrics;
+
+import org.junit.Test;
+import org.neo4j.driver.internal.summary.InternalSummaryCounters;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class RunSummaryTest {
+
+    @Test
+    public void addsUpEveryStatement() {
+        RunSummary summary = new RunSummary();
+        summary.statementCompleted(metrics(2_000_000, 10, 100, new InternalSummaryCounters(
+                1, 0, 2, 0, 3, 0, 0, 0, 0, 0, 0)));
+        summary.statementCompleted(metrics(4_000_000, 5, 50, new InternalSummaryCounters(
+                4, 1, 5, 0, 6, 0, 0, 0, 0, 0, 0)));
+
+        assertEquals(2, summary.getStatements());
+        assertEquals(15, summary.getRows());
+        assertEquals(150, summary.getBytes());
+        assertEquals(5, summary.getNodesCreated());
+        assertEquals(7, summary.getRelationshipsCreated());
+        assertEquals(9, summary.getPropertiesSet());
+        assertEquals(6_000_000, summary.getLatencies().getSum());
+        assertEquals(4_000_000, summary.getLatencies().getMax());
+    }
+
+    @Test
+    public void reportsAsJsonAndText() {
+        RunSummary summary = new RunSummary();
+        summary.statementCompleted(metrics(1_000_000, 1, 10, new InternalSummaryCounters(
+                0, 0, 0, 0, 7, 0, 0, 0, 0, 0, 0)));
+
+        String json = summary.toJson();
+        assertThat(json, containsString("{\"statements\":1,\"failures\":0,\"elapsed_ms\":"));
+        assertThat(json, containsString(",\"total_ms\":1.000,\"p50_ms\":1.000,"));
+        assertThat(json, containsString(",\"rows\":1,\"bytes\":10,"));
+        assertThat(json, containsString(",\"properties_set\":7,"));
+        assertThat(summary.toString(), containsString("Latency: p50 1.000 ms, p95 1.000 ms, p99 1.000 ms"));
+        assertThat(summary.toString(), containsString("properties set: 7"));
+    }
+
+    @Test
+    public void countsRetries() {
+        RunSummary summary = new RunSummary();
+        summary.statementCompleted(metrics(1_000_000, 0, 0, 3, InternalSummaryCounters.EMPTY_STATS));
+        summary.statementCompleted(metrics(1_000_000, 0, 0, 0, InternalSummaryCounters.EMPTY_STATS));
+        summary.statementCompleted(metrics(1_000_000, 0, 0, 1, InternalSummaryCounters.EMPTY_STATS));
+
+        assertEquals(4, summary.getRetries());
+        assertEquals(2, summary.getRetriedStatements());
+        assertThat(summary.toJson(), containsString(",\"retries\":4,\"retried_statements\":2,"));
+        assertThat(summary.toString(), containsString("retries: 4, of 2 statement(s)"));
+    }
+
+    @Test
+    public void countsFailuresAlongWithTheirLatency() {
+        RunSummary summary = new RunSummary();
+        summary.statementCompleted(metrics(1_000_000, 1, 10, InternalSummaryCounters.EMPTY_STATS));
+        summary.statementCompleted(StatementMetrics.failure("RETURN 1/0", 0, 3_000_000));
+
+        assertEquals(2, summary.getStatements());
+        assertEquals(1, summary.getFailures());
+        assertEquals(3_000_000, summary.getLatencies().getMax());
+        assertThat(summary.toJson(), containsString("{\"statements\":2,\"failures\":1,"));
+        assertThat(summary.toString(), containsString("Statements: 2, of which 1 failed, in "));
+    }
+
+    private static StatementMetrics metrics(long totalNanos, long rows, long bytes,
+                                            InternalSummaryCounters counters) {
+        return metrics(totalNanos, rows, bytes, 0, counters);
+    }
+
+    private static StatementMetrics metrics(long totalNanos, long rows, long bytes, int retries,
+                                            InternalSummaryCounters counters) {
+        return new StatementMetrics("RETURN 1", 0, 0, 0, 0, 0, 0, totalNanos, rows, bytes, 0, 0, false, retries,
+                counters);
+    }
+}
@@ -0,0 +1,54 @@
+package org.neo4j.shell.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.driver.internal.summary.InternalSummaryCounters.EMPTY_STATS;
+
+public class StatementMetricsTest {
+
+    @Test
+    public void jsonHasDurationsInMilliseconds() {
+        StatementMetrics metrics = new StatementMetrics("RETURN 1", 1_000, 2_500_000, 3_000_000, 400_000,
+                1_234_567, 50_000, 7_000_000, 1, 12, 2, 3, false, 0, EMPTY_STATS);
+
+        assertEquals("{\"statement\":\"RETURN 1\",\"parse_ms\":0.001,\"run_ms\":2.500,\"first_record_ms\":3.000," +
+                        "\"fetch_ms\":0.400,\"render_ms\":1.235,\"write_ms\":0.050,\"total_ms\":7.000," +
+                        "\"rows\":1,\"bytes\":12,\"server_available_ms\":2,\"server_consumed_ms\":3," +
+                        "\"truncated\":false,\"retries\":0,\"failed\":false}",
+                metrics.toJson());
+    }
+
+    @Test
+    public void unknownValuesAreNullInJson() {
+        StatementMetrics metrics = new StatementMetrics("RETURN \"a\"\n", -1, -1, -1, 0, 0, 0, 0, 0, 0, -1, -1,
+                true, 0, EMPTY_STATS);
+
+        assertEquals("{\"statement\":\"RETURN \\\"a\\\"\\n\",\"parse_ms\":null,\"run_ms\":null," +
+                        "\"first_record_ms\":null,\"fetch_ms\":0.000,\"render_ms\":0.000,\"write_ms\":0.000," +
+                        "\"total_ms\":0.000,\"rows\":0,\"bytes\":0,\"server_available_ms\":null," +
+                        "\"server_consumed_ms\":null,\"truncated\":true,\"retries\":0,\"failed\":false}",
+                metrics.toJson());
+    }
+
+    @Test
+    public void toStringIsReadable() {
+        StatementMetrics metrics = new StatementMetrics("RETURN 1", -1, 2_000_000, 3_000_000, 0, 0, 0, 5_000_000,
+                2, 10, 1, -1, false, 0, EMPTY_STATS);
+
+        assertEquals("Timing: parse -, run 2.000 ms, first record 3.000 ms, fetch 0.000 ms, render 0.000 ms, " +
+                        "write 0.000 ms, total 5.000 ms; server: available after 1 ms, consumed after -; " +
+                        "2 rows, 10 bytes",
+                metrics.toString());
+    }
+
+    @Test
+    public void retriesAreMentionedWhenThereWereAny() {
+        StatementMetrics metrics = new StatementMetrics("RETURN 1", 0, 0, 0, 0, 0, 0, 0, 1, 1, 0, 0, false, 2,
+                EMPTY_STATS);
+
+        assertTrue(metrics.toString().endsWith("; retried 2 times"));
+        assertTrue(metrics.toJson().endsWith(",\"retries\":2,\"failed\":false}"));
+    }
+}
@@ -0,0 +1,122 @@
+package org.neo4j.shell.metrics;
+
+import org.junit.Test;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.shell.prettyprint.LinePrinter;
+import org.neo4j.shell.prettyprint.Pager;
+import org.neo4j.shell.state.BoltResult;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StatementTimerTest {
+    private final BoltResult result = mock(BoltResult.class);
+    private final ResultSummary summary = mock(ResultSummary.class);
+
+    public StatementTimerTest() {
+        when(result.getSummary()).thenReturn(summary);
+        when(summary.resultAvailableAfter(TimeUnit.MILLISECONDS)).thenReturn(4L);
+        when(summary.resultConsumedAfter(TimeUnit.MILLISECONDS)).thenReturn(5L);
+    }
+
+    @Test
+    public void countsRowsAndBytesWritten() {
+        when(result.iterate()).thenReturn(asList(mock(Record.class), mock(Record.class)).iterator());
+        LinePrinter output = mock(LinePrinter.class);
+
+        StatementTimer timer = new StatementTimer("RETURN 1");
+        timer.sending();
+        timer.accepted();
+        timer.printing();
+        Iterator<Record> records = timer.time(result).iterate();
+        while (records.hasNext()) {
+            records.next();
+        }
+        LinePrinter timedOutput = timer.time(output);
+        timedOutput.printOut("abc");
+        timedOutput.printOut("\u00e9\u20ac");
+        timedOutput.flush();
+        StatementMetrics metrics = timer.finish(result);
+
+        verify(output).printOut("abc");
+        verify(output).flush();
+        assertEquals("RETURN 1", metrics.getStatement());
+        assertEquals(2, metrics.getRows());
+        assertEquals(4 + 6, metrics.getBytes());
+        assertTrue(metrics.getParseNanos() >= 0);
+        assertTrue(metrics.getRunNanos() >= 0);
+        assertTrue(metrics.getFirstRecordNanos() >= 0);
+        assertTrue(metrics.getTotalNanos() >= metrics.getFetchNanos() + metrics.getWriteNanos());
+        assertEquals(4, metrics.getServerAvailableMillis());
+        assertEquals(5, metrics.getServerConsumedMillis());
+        assertFalse(metrics.isTruncated());
+    }
+
+    @Test
+    public void failedStatementsAreMeasuredUpToTheFailure() {
+        StatementTimer timer = new StatementTimer("RETURN 1/0");
+        timer.sending();
+        StatementMetrics metrics = timer.fail();
+
+        assertTrue(timer.isFinished());
+        assertTrue(metrics.isFailed());
+        assertEquals("RETURN 1/0", metrics.getStatement());
+        assertTrue(metrics.getParseNanos() >= 0);
+        assertTrue(metrics.getTotalNanos() >= metrics.getParseNanos());
+        assertEquals(-1, metrics.getServerAvailableMillis());
+        assertEquals(0, metrics.getRows());
+    }
+
+    @Test
+    public void statementsSentEarlierOnlyHaveTheirPrintingTimed() {
+        when(summary.statement()).thenReturn(new Statement("CREATE ()"));
+
+        StatementTimer timer = new StatementTimer(null);
+        timer.printing();
+        StatementMetrics metrics = timer.finish(result);
+
+        assertEquals("CREATE ()", metrics.getStatement());
+        assertEquals(-1, metrics.getParseNanos());
+        assertEquals(-1, metrics.getRunNanos());
+        assertEquals(-1, metrics.getFirstRecordNanos());
+        assertEquals(0, metrics.getRows());
+    }
+
+    @Test
+    public void timeSpentPagingIsNotCounted() {
+        Pager pager = new Pager() {
+            @Override
+            public int pageSize() {
+                return 1;
+            }
+
+            @Override
+            public boolean nextPage() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+
+        StatementTimer timer = new StatementTimer("RETURN 1");
+        timer.printing();
+        assertTrue(timer.time(pager).nextPage());
+        StatementMetrics metrics = timer.finish(result);
+
+        assertTrue(metrics.getTotalNanos() < TimeUnit.MILLISECONDS.toNanos(50));
+        assertTrue(metrics.getRenderNanos() < TimeUnit.MILLISECONDS.toNanos(50));
+    }
+}
@@ -0,0 +1,119 @@
+package org.neo4j.shell.parser;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LiteralEvaluatorTest {
+
+    @Test
+    public void evaluatesNumbers() throws Exception {
+        assertEquals(99L, evaluate("99"));
+        assertEquals(-5L, evaluate(" -5 "));
+        assertEquals(0L, evaluate("0"));
+        assertEquals(1.5, evaluate("1.5"));
+        assertEquals(-0.25, evaluate("-0.25"));
+        assertEquals(1000.0, evaluate("1e3"));
+        assertEquals(0.015, evaluate("1.5E-2"));
+    }
+
+    @Test
+    public void evaluatesStrings() throws Exception {
+        assertEquals("bob", evaluate("'bob'"));
+        assertEquals("bob", evaluate("\"bob\""));
+        assertEquals("it's", evaluate("'it\\'s'"));
+        assertEquals("a\tb\nc\\d\"", evaluate("\"a\\tb\\nc\\\\d\\\"\""));
+        assertEquals("é", evaluate("'\\u00e9'"));
+        assertEquals("", evaluate("''"));
+    }
+
+    @Test
+    public void evaluatesKeywords() throws Exception {
+        assertEquals(true, evaluate("true"));
+        assertEquals(false, evaluate("FALSE"));
+        assertEquals(null, LiteralEvaluator.evaluate("null").get().asObject());
+    }
+
+    @Test
+    public void evaluatesListsAndMaps() throws Exception {
+        assertEquals(Collections.emptyList(), evaluate("[]"));
+        assertEquals(Collections.emptyMap(), evaluate("{}"));
+        assertEquals(asList(1L, "two", asList(3.0, null)), evaluate("[1, 'two', [3.0, null]]"));
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("name", "bob");
+        expected.put("odd key", asList(1L, 2L));
+        expected.put("_nested", Collections.singletonMap("a", false));
+        assertEquals(expected, evaluate("{ name: 'bob', `odd key`: [1, 2], _nested: {a: false} }"));
+    }
+
+    @Test
+    public void leavesExpressionsToTheServer() throws Exception {
+        assertNotALiteral("1 + 2");
+        assertNotALiteral("timestamp()");
+        assertNotALiteral("$other");
+        assertNotALiteral("{other}");
+        assertNotALiteral("[1, $other]");
+        assertNotALiteral("{a: 1 + 2}");
+        assertNotALiteral("'a' + 'b'");
+        assertNotALiteral("truest");
+        assertNotALiteral("- 1");
+    }
+
+    @Test
+    public void leavesUncommonLiteralsToTheServer() throws Exception {
+        assertNotALiteral("0x1F");
+        assertNotALiteral("017");
+        assertNotALiteral(".5");
+        assertNotALiteral("9223372036854775808");
+        assertNotALiteral("1e999");
+        assertNotALiteral("'\\U0001F600'");
+        assertNotALiteral("{`a``b`: 1}");
+    }
+
+    @Test
+    public void leavesInvalidLiteralsToTheServer() throws Exception {
+        assertNotALiteral("");
+        assertNotALiteral("'unterminated");
+        assertNotALiteral("[1, 2");
+        assertNotALiteral("[1, 2,]");
+        assertNotALiteral("{a 1}");
+        assertNotALiteral("1.");
+        assertNotALiteral("1 2");
+    }
+
+    @Test
+    public void constantExpressions() throws Exception {
+        assertTrue(LiteralEvaluator.isConstant("1 + 2"));
+        assertTrue(LiteralEvaluator.isConstant("{a: [1, 2] + 3}"));
+        assertTrue(LiteralEvaluator.isConstant("'$(not a parameter)' + '{x}'"));
+        assertTrue(LiteralEvaluator.isConstant("[x IN [1, 2] | x * 2]"));
+    }
+
+    @Test
+    public void nonConstantExpressions() throws Exception {
+        assertFalse(LiteralEvaluator.isConstant("timestamp()"));
+        assertFalse(LiteralEvaluator.isConstant("rand ()"));
+        assertFalse(LiteralEvaluator.isConstant("$other + 1"));
+        assertFalse(LiteralEvaluator.isConstant("{other} + 1"));
+        assertFalse(LiteralEvaluator.isConstant("[(a)-->(b) | b.name]"));
+    }
+
+    private static Object evaluate(String expression) {
+        Optional<org.neo4j.driver.v1.Value> value = LiteralEvaluator.evaluate(expression);
+        assertTrue("Expected a literal: " + expression, value.isPresent());
+        return value.get().asObject();
+    }
+
+    private static void assertNotALiteral(String expression) {
+        assertFalse("Expected an expression: " + expression, LiteralEvaluator.evaluate(expression).isPresent());
+    }
+}
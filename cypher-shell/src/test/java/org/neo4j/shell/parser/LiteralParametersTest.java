@@ -0,0 +1,65 @@
+package org.neo4j.shell.parser;
+
+import org.junit.Test;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.Values;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class LiteralParametersTest {
+
+    @Test
+    public void literalsBecomeParameters() throws Exception {
+        Statement statement = LiteralParameters.extract(
+                new Statement("MATCH (n:Person {name: 'Alice'}) WHERE n.age > 40 RETURN n LIMIT 10;"),
+                Collections.emptySet());
+
+        assertEquals("MATCH (n:Person {name: $_lit0}) WHERE n.age > $_lit1 RETURN n LIMIT $_lit2", statement.text());
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("_lit0", "Alice");
+        expected.put("_lit1", 40L);
+        expected.put("_lit2", 10L);
+        assertEquals(Values.value(expected), statement.parameters());
+    }
+
+    @Test
+    public void theFieldTerminatorOfLoadCsvIsNotAParameter() throws Exception {
+        Statement statement = LiteralParameters.extract(
+                new Statement("LOAD CSV FROM 'file:///a.csv' AS l FIELDTERMINATOR ';' RETURN l"),
+                Collections.emptySet());
+
+        assertEquals("LOAD CSV FROM $_lit0 AS l FIELDTERMINATOR ';' RETURN l", statement.text());
+        assertEquals(Values.value(Collections.singletonMap("_lit0", "file:///a.csv")), statement.parameters());
+    }
+
+    @Test
+    public void statementsOfTheSameShapeGetTheSameText() throws Exception {
+        assertEquals(
+                LiteralParameters.extract(new Statement("MATCH (n {id: 1}) RETURN n"), Collections.emptySet()).text(),
+                LiteralParameters.extract(new Statement("MATCH (n {id: 2}) RETURN n"), Collections.emptySet()).text());
+    }
+
+    @Test
+    public void ownParametersAreKept() throws Exception {
+        Statement statement = LiteralParameters.extract(
+                new Statement("RETURN $x + 1", Collections.singletonMap("x", 2)), Collections.emptySet());
+
+        assertEquals("RETURN $x + $_lit0", statement.text());
+        assertEquals(Values.value(2), statement.parameters().get("x"));
+        assertEquals(Values.value(1), statement.parameters().get("_lit0"));
+    }
+
+    @Test
+    public void statementsWithoutLiteralsOrWithTakenNamesAreLeftAlone() throws Exception {
+        Statement noLiterals = new Statement("MATCH (n) RETURN n");
+        Statement clashing = new Statement("RETURN 1");
+
+        assertSame(noLiterals, LiteralParameters.extract(noLiterals, Collections.emptySet()));
+        assertSame(clashing, LiteralParameters.extract(clashing, Collections.singleton("_lit0")));
+    }
+}
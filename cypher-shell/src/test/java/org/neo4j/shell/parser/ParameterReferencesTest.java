@@ -0,0 +1,77 @@
+package org.neo4j.shell.parser;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ParameterReferencesTest {
+    private Map<String, Object> params;
+
+    @Before
+    public void setup() {
+        params = new HashMap<>();
+        params.put("a", 1L);
+        params.put("b", 2L);
+        params.put("odd name", 3L);
+    }
+
+    @Test
+    public void noReferences() throws Exception {
+        assertTrue(ParameterReferences.referencedBy("MATCH (n) RETURN n", params).isEmpty());
+    }
+
+    @Test
+    public void dollarReferences() throws Exception {
+        assertEquals(Collections.singletonMap("a", 1L),
+                ParameterReferences.referencedBy("MATCH (n) WHERE n.x = $a RETURN n", params));
+        assertEquals(Collections.singletonMap("odd name", 3L),
+                ParameterReferences.referencedBy("RETURN $`odd name`", params));
+    }
+
+    @Test
+    public void oldStyleReferences() throws Exception {
+        assertEquals(Collections.singletonMap("b", 2L),
+                ParameterReferences.referencedBy("CREATE (n {x: { b }})", params));
+    }
+
+    @Test
+    public void mapsAreNotReferences() throws Exception {
+        assertTrue(ParameterReferences.referencedBy("RETURN {a: 1}, n {.b}", params).isEmpty());
+    }
+
+    @Test
+    public void quotesAndCommentsAreSkipped() throws Exception {
+        String cypher = "RETURN '$a', \"{a}\", `$a` // $a\n /* {b} */ + $b";
+        assertEquals(Collections.singletonMap("b", 2L), ParameterReferences.referencedBy(cypher, params));
+    }
+
+    @Test
+    public void unknownReferencesAreLeftToTheServer() throws Exception {
+        assertTrue(ParameterReferences.referencedBy("RETURN $c", params).isEmpty());
+    }
+
+    @Test
+    public void allReferencedReturnsTheSameMap() throws Exception {
+        assertSame(params, ParameterReferences.referencedBy("RETURN $a, $b, $`odd name`", params));
+    }
+
+    @Test
+    public void callWithoutArgumentsGetsAllParameters() throws Exception {
+        assertSame(params, ParameterReferences.referencedBy("CALL dbms.security.createUser", params));
+        assertSame(params, ParameterReferences.referencedBy("call `my`.proc YIELD x RETURN x", params));
+    }
+
+    @Test
+    public void callWithArgumentsGetsReferencedParameters() throws Exception {
+        assertEquals(Collections.singletonMap("a", 1L),
+                ParameterReferences.referencedBy("CALL db.proc ($a) YIELD x RETURN x", params));
+        assertTrue(ParameterReferences.referencedBy("MATCH (n:Recall) RETURN n.call", params).isEmpty());
+    }
+}
@@ -414,4 +414,36 @@ public class ShellStatementParserTest {
         assertEquals(0, parser.consumeStatements().size());
         assertFalse(parser.containsText());
     }
+
+    @Test
+    public void commandsAreNotRecognisedAfterTextBeforeAComment() throws Exception {
+        // when
+        parser.parseMoreText("RETURN 1 // comment\n");
+        parser.parseMoreText(":help\n");
+        parser.parseMoreText(";\n");
+
+        // then
+        List<String> statements = parser.consumeStatements();
+        assertEquals(1, statements.size());
+        assertEquals("RETURN 1 :help\n;", statements.get(0));
+    }
+
+    @Test(timeout = 10000)
+    public void parseLongMultiLineStatementInLinearTime() throws Exception {
+        // given
+        int lines = 200_000;
+        String line = "CREATE (:Person {name: 'Bob', comment: \"it's; fine\"}) // no; statement end here\n";
+
+        // when
+        for (int i = 0; i < lines; i++) {
+            parser.parseMoreText(line);
+            assertTrue(parser.containsText());
+        }
+        parser.parseMoreText(";\n");
+
+        // then
+        List<String> statements = parser.consumeStatements();
+        assertEquals(1, statements.size());
+        assertEquals(lines * (line.indexOf(" //") + 1) + 1, statements.get(0).length());
+    }
 }
@@ -0,0 +1,88 @@
+package org.neo4j.shell.parser;
+
+import org.junit.Test;
+import org.neo4j.driver.v1.Values;
+
+import java.util.Collections;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StatementShapeTest {
+
+    @Test
+    public void liftsStringsNumbersAndBooleans() throws Exception {
+        StatementShape shape = StatementShape.of("CREATE (:Person {name: 'Alice', age: 42, height: 1.7, cool: true});");
+
+        assertEquals("CREATE (:Person {name: ?, age: ?, height: ?, cool: ?})", shape.toString());
+        assertEquals(asList(Values.value("Alice"), Values.value(42L), Values.value(1.7), Values.value(true)),
+                shape.getLiterals());
+    }
+
+    @Test
+    public void statementsWhichOnlyDifferInLiteralsHaveTheSameShape() throws Exception {
+        StatementShape alice = StatementShape.of("CREATE (:Person {name: 'Alice', age: 42});");
+        StatementShape bob = StatementShape.of("\n  CREATE  (:Person {name: \"Bob\",\n age: 23}) // the builder\n;");
+        StatementShape dog = StatementShape.of("CREATE (:Dog {name: 'Rex', age: 3});");
+
+        assertEquals(alice, bob);
+        assertEquals(alice.hashCode(), bob.hashCode());
+        assertNotEquals(alice, dog);
+    }
+
+    @Test
+    public void whitespaceAroundLiteralsIsKept() throws Exception {
+        StatementShape shape = StatementShape.of("RETURN 1 AS x, 'a'+'b' AS y");
+
+        assertEquals("RETURN $p AS x, $p+$p AS y", shape.text(i -> "$p"));
+    }
+
+    @Test
+    public void escapesInStringsAreUnderstood() throws Exception {
+        StatementShape shape = StatementShape.of("RETURN 'it\\'s', \"say \\\"hi\\\"\", '\\d+'");
+
+        assertEquals("RETURN ?, ?, '\\d+'", shape.toString());
+        assertEquals(asList(Values.value("it's"), Values.value("say \"hi\"")), shape.getLiterals());
+    }
+
+    @Test
+    public void numbersWhichCanNotBeParametersStay() throws Exception {
+        assertEquals("MATCH (a)-[*1..3]->(b) RETURN ?",
+                StatementShape.of("MATCH (a)-[*1..3]->(b) RETURN 5").toString());
+        assertEquals("MATCH (a)-[*2]->(b) RETURN [x IN range(?, ?)][1..2], .5",
+                StatementShape.of("MATCH (a)-[*2]->(b) RETURN [x IN range(0, 9)][1..2], .5").toString());
+        assertEquals("USING PERIODIC COMMIT 500 LOAD CSV FROM ? AS l CREATE ()",
+                StatementShape.of("USING PERIODIC COMMIT 500 LOAD CSV FROM 'file:///a.csv' AS l CREATE ()")
+                        .toString());
+        assertEquals("CYPHER 3.5 RETURN 0x1F, 012, null, -?",
+                StatementShape.of("CYPHER 3.5 RETURN 0x1F, 012, null, -1").toString());
+    }
+
+    @Test
+    public void theFieldTerminatorOfLoadCsvStays() throws Exception {
+        assertEquals("LOAD CSV FROM ? AS l FIELDTERMINATOR ';' RETURN l",
+                StatementShape.of("LOAD CSV FROM 'file:///a.csv' AS l FIELDTERMINATOR ';' RETURN l").toString());
+        assertEquals("LOAD CSV FROM ? AS l fieldTerminator \"\\t\" RETURN ?",
+                StatementShape.of("LOAD CSV FROM 'file:///a.csv' AS l fieldTerminator \"\\t\" RETURN 'x'")
+                        .toString());
+    }
+
+    @Test
+    public void wordsKeysAndIdentifiersAreNotLifted() throws Exception {
+        StatementShape shape = StatementShape.of("MATCH (n:`Odd 'label'`) WHERE n.p1 = x2 AND n.true RETURN n");
+
+        assertEquals(Collections.emptyList(), shape.getLiterals());
+        assertEquals(asList("MATCH", "n", "WHERE", "n", "p1", "x2", "AND", "n", "true", "RETURN", "n"),
+                shape.getWords());
+    }
+
+    @Test
+    public void parametersAreNoticed() throws Exception {
+        assertTrue(StatementShape.of("RETURN $x").hasParameters());
+        assertTrue(StatementShape.of("RETURN {x}").hasParameters());
+        assertFalse(StatementShape.of("RETURN {x: 1}, '$x' // $x").hasParameters());
+    }
+}
@@ -0,0 +1,84 @@
+package org.neo4j.shell.parser;
+
+import org.junit.Test;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class UnwindBatcherTest {
+
+    @Test
+    public void createsAndMergesCanBeBatched() throws Exception {
+        assertNotNull(UnwindBatcher.shapeOf("CREATE (:Person {name: 'Alice'});"));
+        assertNotNull(UnwindBatcher.shapeOf("create (a:A {id: 1})-[:R {w: 0.5}]->(b:B {id: 2})"));
+        assertNotNull(UnwindBatcher.shapeOf("MERGE (n:A {id: 1}) ON CREATE SET n.x = 2 ON MATCH SET n.y = 3"));
+        assertNotNull(UnwindBatcher.shapeOf("CREATE ()"));
+    }
+
+    @Test
+    public void otherStatementsAreNotBatched() throws Exception {
+        assertNull(UnwindBatcher.shapeOf("MATCH (n) SET n.x = 1"));
+        assertNull(UnwindBatcher.shapeOf("CREATE (n:A {id: 1}) RETURN n"));
+        assertNull(UnwindBatcher.shapeOf("MERGE (n:A {id: 1}) WITH n MATCH (m) CREATE (n)-[:R]->(m)"));
+        assertNull(UnwindBatcher.shapeOf("MERGE (a:A) MATCH (b:B) CREATE (a)-[:R]->(b)"));
+        assertNull(UnwindBatcher.shapeOf("CREATE (:A {id: $id})"));
+        assertNull(UnwindBatcher.shapeOf("CREATE (row:A {id: 1})"));
+        assertNull(UnwindBatcher.shapeOf("CREATE INDEX ON :A(id)"));
+        assertNull(UnwindBatcher.shapeOf(":param x => 1"));
+    }
+
+    @Test
+    public void collapsesStatementsOfTheSameShape() throws Exception {
+        UnwindBatcher batcher = new UnwindBatcher(10);
+        add(batcher, "CREATE (:Person {name: 'Alice', age: 42});");
+        add(batcher, "\nCREATE (:Person {name: 'Bob', age: 23});");
+
+        assertEquals(2, batcher.size());
+        assertFalse(batcher.fits(UnwindBatcher.shapeOf("CREATE (:Dog {name: 'Rex'})")));
+
+        Statement statement = batcher.flush();
+        assertEquals("UNWIND $rows AS row CREATE (:Person {name: row.p0, age: row.p1})", statement.text());
+        assertEquals(Values.value(asList(row("Alice", 42L), row("Bob", 23L))),
+                statement.parameters().get(UnwindBatcher.ROWS_PARAMETER));
+        assertTrue(batcher.isEmpty());
+        assertTrue(batcher.fits(UnwindBatcher.shapeOf("CREATE (:Dog {name: 'Rex'})")));
+    }
+
+    @Test
+    public void singleStatementIsExecutedAsWritten() throws Exception {
+        UnwindBatcher batcher = new UnwindBatcher(10);
+        add(batcher, "CREATE (:Person {name: 'Alice'});");
+
+        assertEquals(new Statement("CREATE (:Person {name: 'Alice'});"), batcher.flush());
+    }
+
+    @Test
+    public void isFullAtTheMaximumNumberOfRows() throws Exception {
+        UnwindBatcher batcher = new UnwindBatcher(2);
+        add(batcher, "CREATE ({x: 1})");
+        assertFalse(batcher.isFull());
+        add(batcher, "CREATE ({x: 2})");
+        assertTrue(batcher.isFull());
+    }
+
+    private static void add(UnwindBatcher batcher, String statement) {
+        batcher.add(statement, UnwindBatcher.shapeOf(statement));
+    }
+
+    private static Map<String, Value> row(String name, long age) {
+        Map<String, Value> row = new HashMap<>();
+        row.put("p0", Values.value(name));
+        row.put("p1", Values.value(age));
+        return row;
+    }
+}
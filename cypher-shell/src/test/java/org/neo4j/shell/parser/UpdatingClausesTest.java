@@ -0,0 +1,54 @@
+package org.neo4j.shell.parser;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class UpdatingClausesTest {
+
+    @Test
+    public void readsDoNotUpdate() throws Exception {
+        assertFalse(UpdatingClauses.mayUpdate("MATCH (n) RETURN n"));
+        assertFalse(UpdatingClauses.mayUpdate("MATCH (n:Person) WHERE n.name = 'bob' RETURN n.age ORDER BY n.age"));
+        assertFalse(UpdatingClauses.mayUpdate("UNWIND range(1, 10) AS x WITH x RETURN sum(x)"));
+        assertFalse(UpdatingClauses.mayUpdate("LOAD CSV FROM 'file:///a.csv' AS line RETURN line"));
+    }
+
+    @Test
+    public void updatingClausesUpdate() throws Exception {
+        assertTrue(UpdatingClauses.mayUpdate("CREATE (n)"));
+        assertTrue(UpdatingClauses.mayUpdate("match (n) set n.x = 1 return n"));
+        assertTrue(UpdatingClauses.mayUpdate("MATCH (n) DETACH DELETE n"));
+        assertTrue(UpdatingClauses.mayUpdate("MERGE (n:A) RETURN n"));
+        assertTrue(UpdatingClauses.mayUpdate("MATCH (n) REMOVE n:A"));
+        assertTrue(UpdatingClauses.mayUpdate("MATCH p = ()-->() FOREACH (n IN nodes(p) | SET n.x = 1)"));
+        assertTrue(UpdatingClauses.mayUpdate("DROP INDEX ON :A(x)"));
+        assertTrue(UpdatingClauses.mayUpdate("USING PERIODIC COMMIT LOAD CSV FROM 'x' AS l CREATE ()"));
+    }
+
+    @Test
+    public void proceduresMayUpdate() throws Exception {
+        assertTrue(UpdatingClauses.mayUpdate("CALL db.labels()"));
+        assertTrue(UpdatingClauses.mayUpdate("MATCH (n) CALL apoc.refactor.rename(n) YIELD x RETURN x"));
+    }
+
+    @Test
+    public void keywordsInQuotesAndCommentsAreIgnored() throws Exception {
+        assertFalse(UpdatingClauses.mayUpdate("MATCH (n) WHERE n.name = 'CREATE' RETURN n"));
+        assertFalse(UpdatingClauses.mayUpdate("RETURN \"it's a set\" AS `delete`"));
+        assertFalse(UpdatingClauses.mayUpdate("// CREATE (n)\nMATCH (n) RETURN n"));
+        assertFalse(UpdatingClauses.mayUpdate("MATCH (n) /* SET n.x = 1 */ RETURN n"));
+        assertFalse(UpdatingClauses.mayUpdate("RETURN 'don\\'t create'"));
+    }
+
+    @Test
+    public void keywordsMustBeWholeWords() throws Exception {
+        assertFalse(UpdatingClauses.mayUpdate("MATCH (n) RETURN n.created, n.settings, n.callers"));
+    }
+
+    @Test
+    public void propertiesNamedLikeKeywordsErrOnTheSideOfCaution() throws Exception {
+        assertTrue(UpdatingClauses.mayUpdate("MATCH (n) RETURN n.set"));
+    }
+}
@@ -0,0 +1,192 @@
+package org.neo4j.shell.prettyprint;
+
+import org.apache.arrow.flatbuf.Field;
+import org.apache.arrow.flatbuf.Message;
+import org.apache.arrow.flatbuf.MessageHeader;
+import org.apache.arrow.flatbuf.RecordBatch;
+import org.apache.arrow.flatbuf.Schema;
+import org.apache.arrow.flatbuf.Type;
+import org.junit.Test;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.shell.state.ListBoltResult;
+import org.neo4j.shell.state.RecordSpill;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ArrowOutputFormatterTest {
+    private static final List<String> KEYS = asList("i", "f", "b", "s", "other", "nothing");
+
+    @Test
+    public void infersColumnTypesFromTheValues() throws Exception {
+        ByteBuffer stream = format(10, row(1, 1.5, true, "a", asList(1, 2), null),
+                row(null, 2, false, "b", "mixed", null));
+
+        Schema schema = (Schema) nextMessage(stream, MessageHeader.Schema).header(new Schema());
+        assertEquals(KEYS.size(), schema.fieldsLength());
+        assertField(schema.fields(0), "i", Type.Int);
+        assertField(schema.fields(1), "f", Type.FloatingPoint);
+        assertField(schema.fields(2), "b", Type.Bool);
+        assertField(schema.fields(3), "s", Type.Utf8);
+        assertField(schema.fields(4), "other", Type.Utf8);
+        assertField(schema.fields(5), "nothing", Type.Utf8);
+    }
+
+    @Test
+    public void writesBatchesOfBoundedSize() throws Exception {
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            records.add(row(i, 1.0, true, "x", null, null));
+        }
+        ByteBuffer stream = format(10, records.toArray(new Record[0]));
+
+        nextMessage(stream, MessageHeader.Schema);
+        assertEquals(10, nextBatch(stream).length());
+        assertEquals(10, nextBatch(stream).length());
+        assertEquals(5, nextBatch(stream).length());
+        assertEndOfStream(stream);
+    }
+
+    @Test
+    public void writesValuesAndNulls() throws Exception {
+        ByteBuffer stream = format(10, row(7, 0.5, true, "é", null, null), row(null, null, false, "", null, null));
+
+        nextMessage(stream, MessageHeader.Schema);
+        Message message = nextMessage(stream, MessageHeader.RecordBatch);
+        RecordBatch batch = (RecordBatch) message.header(new RecordBatch());
+        ByteBuffer body = body(stream, message);
+
+        assertEquals(2, batch.length());
+        assertEquals(1, batch.nodes(0).nullCount());
+        assertEquals(0, batch.nodes(3).nullCount());
+        assertEquals(2, batch.nodes(5).nullCount());
+        // validity and values of the integer column
+        assertEquals(0b01, body.get((int) batch.buffers(0).offset()));
+        assertEquals(7, body.getLong((int) batch.buffers(1).offset()));
+        // offsets and data of the string column
+        int offsets = (int) batch.buffers(7).offset();
+        assertEquals(0, body.getInt(offsets));
+        assertEquals(2, body.getInt(offsets + 4));
+        assertEquals(2, body.getInt(offsets + 8));
+        byte[] data = new byte[2];
+        ((ByteBuffer) body.duplicate().position((int) batch.buffers(8).offset())).get(data);
+        assertEquals("é", new String(data, StandardCharsets.UTF_8));
+        for (int i = 0; i < batch.buffersLength(); i++) {
+            assertEquals(0, batch.buffers(i).offset() % 8);
+        }
+        assertEndOfStream(stream);
+    }
+
+    @Test
+    public void writesOneStreamWhoseSchemaFitsLaterBatchesToo() throws Exception {
+        ByteBuffer stream = format(1, row(1, 1.0, true, "a", null, null), row(2.5, 2.0, true, 3, null, null));
+
+        Schema schema = (Schema) nextMessage(stream, MessageHeader.Schema).header(new Schema());
+        assertField(schema.fields(0), "i", Type.FloatingPoint);
+        assertField(schema.fields(3), "s", Type.Utf8);
+        assertEquals(1, nextBatch(stream).length());
+        assertEquals(1, nextBatch(stream).length());
+        assertEndOfStream(stream);
+        assertFalse(stream.hasRemaining());
+    }
+
+    @Test
+    public void recordsBeyondTheHeapLimitAreBufferedOnDisk() throws Exception {
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            records.add(row(i, 1.0, true, "x" + i, null, null));
+        }
+        RecordSpill spill = new RecordSpill(1);
+        ByteBuffer stream = format(10, spill, records.toArray(new Record[0]));
+
+        nextMessage(stream, MessageHeader.Schema);
+        assertEquals(10, nextBatch(stream).length());
+        assertEquals(10, nextBatch(stream).length());
+        assertEquals(5, nextBatch(stream).length());
+        assertEndOfStream(stream);
+        assertEquals(0, spill.getHeapUsed());
+    }
+
+    @Test
+    public void writesNothingForResultsWithoutColumns() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int count = new ArrowOutputFormatter(out).formatAndCount(
+                new ListBoltResult(Collections.emptyList(), Collections.emptyList(), mock(ResultSummary.class)),
+                line -> {
+                });
+
+        assertEquals(0, count);
+        assertEquals(0, out.size());
+    }
+
+    private static Record row(Object... values) {
+        Value[] row = new Value[values.length];
+        for (int i = 0; i < values.length; i++) {
+            row[i] = Values.value(values[i]);
+        }
+        return new InternalRecord(KEYS, row);
+    }
+
+    private static ByteBuffer format(int batchSize, Record... records) {
+        return format(batchSize, new RecordSpill(0), records);
+    }
+
+    private static ByteBuffer format(int batchSize, RecordSpill spill, Record... records) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<String> lines = new ArrayList<>();
+        int count = new ArrowOutputFormatter(out, batchSize, spill).formatAndCount(
+                new ListBoltResult(KEYS, asList(records), mock(ResultSummary.class)), lines::add);
+        assertEquals(records.length, count);
+        assertTrue(lines.isEmpty());
+        return ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static Message nextMessage(ByteBuffer stream, byte headerType) {
+        assertEquals(0xFFFFFFFF, stream.getInt());
+        int length = stream.getInt();
+        assertEquals(0, length % 8);
+        ByteBuffer metadata = (ByteBuffer) stream.slice().order(ByteOrder.LITTLE_ENDIAN).limit(length);
+        stream.position(stream.position() + length);
+        Message message = Message.getRootAsMessage(metadata);
+        assertEquals(headerType, message.headerType());
+        return message;
+    }
+
+    private static RecordBatch nextBatch(ByteBuffer stream) {
+        Message message = nextMessage(stream, MessageHeader.RecordBatch);
+        body(stream, message);
+        return (RecordBatch) message.header(new RecordBatch());
+    }
+
+    private static ByteBuffer body(ByteBuffer stream, Message message) {
+        ByteBuffer body = (ByteBuffer) stream.slice().order(ByteOrder.LITTLE_ENDIAN).limit((int) message.bodyLength());
+        stream.position(stream.position() + (int) message.bodyLength());
+        return body;
+    }
+
+    private static void assertEndOfStream(ByteBuffer stream) {
+        assertEquals(0xFFFFFFFF, stream.getInt());
+        assertEquals(0, stream.getInt());
+    }
+
+    private static void assertField(Field field, String name, byte type) {
+        assertEquals(name, field.name());
+        assertTrue(field.nullable());
+        assertEquals(type, field.typeType());
+    }
+}
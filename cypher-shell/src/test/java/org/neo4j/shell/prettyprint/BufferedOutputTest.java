@@ -0,0 +1,102 @@
+package org.neo4j.shell.prettyprint;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+
+public class BufferedOutputTest {
+    @Rule
+    public final TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void linesAreBufferedUntilFlushed() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BufferedOutput output = new BufferedOutput(out);
+
+        output.printOut("first");
+        output.printOut("second");
+        assertEquals(0, out.size());
+
+        output.flush();
+        assertEquals("first" + OutputFormatter.NEWLINE + "second" + OutputFormatter.NEWLINE,
+                out.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    @Test
+    public void fullBufferIsWrittenOut() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BufferedOutput output = new BufferedOutput(out, 16);
+
+        output.printOut("more than sixteen bytes");
+        output.flush();
+
+        assertEquals("more than sixteen bytes" + OutputFormatter.NEWLINE, out.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    @Test
+    public void linesAreWrittenAsIs() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BufferedOutput output = new BufferedOutput(out);
+
+        output.printOut("@|bold café|@");
+        output.flush();
+
+        assertEquals("@|bold café|@" + OutputFormatter.NEWLINE, out.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    @Test
+    public void linesCanEndWithTheirOwnTerminator() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BufferedOutput output = new BufferedOutput(out);
+
+        output.printOut("a,b", "\r\n");
+        output.printOut("c");
+        output.flush();
+
+        assertEquals("a,b\r\nc" + OutputFormatter.NEWLINE, out.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    @Test
+    public void binaryOutputSharesTheBuffer() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BufferedOutput output = new BufferedOutput(out);
+
+        output.getOutputStream().write(new byte[]{1, 2, 3});
+        assertEquals(0, out.size());
+
+        output.flush();
+        assertEquals(3, out.size());
+    }
+
+    @Test
+    public void toFileTruncatesAnExistingFile() throws Exception {
+        File file = temp.newFile();
+        Files.write(file.toPath(), "some much longer previous content".getBytes(StandardCharsets.UTF_8));
+
+        try (BufferedOutput output = BufferedOutput.toFile(file.getPath())) {
+            output.printOut("new");
+        }
+
+        assertEquals("new" + OutputFormatter.NEWLINE, new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void toFileCreatesTheFile() throws Exception {
+        File file = new File(temp.getRoot(), "results.txt");
+
+        try (BufferedOutput output = BufferedOutput.toFile(file.getPath())) {
+            output.printOut("a");
+            output.printOut("b");
+        }
+
+        assertEquals("a" + OutputFormatter.NEWLINE + "b" + OutputFormatter.NEWLINE,
+                new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+    }
+}
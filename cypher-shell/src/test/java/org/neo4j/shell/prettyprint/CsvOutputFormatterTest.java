@@ -0,0 +1,143 @@
+package org.neo4j.shell.prettyprint;
+
+import org.junit.Test;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.shell.cli.Format;
+import org.neo4j.shell.state.ListBoltResult;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.shell.prettyprint.OutputFormatter.NEWLINE;
+
+public class CsvOutputFormatterTest {
+
+    @Test
+    public void printsHeaderAndRows() throws Exception {
+        List<String> lines = format(new CsvOutputFormatter(',', ""), asList("name", "age"),
+                "bob", 42,
+                "alice", 3.5);
+
+        assertEquals("name,age\r\nbob,42\r\nalice,3.5\r\n", written(lines));
+    }
+
+    @Test
+    public void printsHeaderForEmptyResult() throws Exception {
+        List<String> lines = format(new CsvOutputFormatter(',', ""), asList("name", "age"));
+
+        assertEquals("name,age\r\n", written(lines));
+    }
+
+    @Test
+    public void quotesFieldsFollowingRfc4180() throws Exception {
+        List<String> lines = format(new CsvOutputFormatter(',', ""), asList("a,b", "c"),
+                "x,y", "say \"hi\"",
+                "two\nlines", "plain");
+
+        assertEquals("\"a,b\",c\r\n\"x,y\",\"say \"\"hi\"\"\"\r\n\"two\nlines\",plain\r\n", written(lines));
+    }
+
+    @Test
+    public void separatesNullFromEmptyString() throws Exception {
+        List<String> lines = format(new CsvOutputFormatter(',', ""), asList("a", "b"),
+                null, "");
+
+        assertEquals("a,b\r\n,\"\"\r\n", written(lines));
+    }
+
+    @Test
+    public void usesConfiguredNullValue() throws Exception {
+        List<String> lines = format(new CsvOutputFormatter(',', "NULL"), asList("a", "b"),
+                null, "NULL");
+
+        assertEquals("a,b\r\nNULL,\"NULL\"\r\n", written(lines));
+    }
+
+    @Test
+    public void formatsOtherValuesLikeCypher() throws Exception {
+        List<String> lines = format(new CsvOutputFormatter(',', ""), asList("list", "map"),
+                asList(1, "x"), Collections.singletonMap("k", 1));
+
+        assertEquals("list,map\r\n\"[1, \"\"x\"\"]\",{k: 1}\r\n", written(lines));
+    }
+
+    @Test
+    public void tsvUsesTabs() throws Exception {
+        PrettyPrinter printer = new PrettyPrinter(new PrettyConfig(Format.TSV));
+        List<String> lines = new ArrayList<>();
+
+        printer.format(result(asList("a", "b"), "tab\there", "comma,here"), recording(lines));
+
+        assertEquals("a\tb" + NEWLINE + "\"tab\there\"\tcomma,here" + NEWLINE, written(lines));
+    }
+
+    @Test
+    public void delimiterIsConfigurable() throws Exception {
+        PrettyPrinter printer = new PrettyPrinter(new PrettyConfig(Format.CSV, true, 1, ';', ""));
+        List<String> lines = new ArrayList<>();
+
+        printer.format(result(asList("a", "b"), "x;y", 1), recording(lines));
+
+        assertEquals("a;b\r\n\"x;y\";1\r\n", written(lines));
+    }
+
+    @Test
+    public void csvRecordsCanEndWithThePlatformLineSeparator() throws Exception {
+        List<String> lines = format(new CsvOutputFormatter(',', "", false), asList("a"), "x");
+
+        assertEquals("a" + NEWLINE + "x" + NEWLINE, written(lines));
+    }
+
+    /**
+     * @return the text written for the lines, each already followed by its terminator
+     */
+    private static String written(List<String> lines) {
+        return String.join("", lines);
+    }
+
+    /**
+     * @return a printer which collects each line with the terminator it is written with, the platform's line
+     * separator unless the formatter gives one
+     */
+    private static LinePrinter recording(List<String> lines) {
+        return new LinePrinter() {
+            @Override
+            public void printOut(@Nonnull String line) {
+                lines.add(line + NEWLINE);
+            }
+
+            @Override
+            public void printOut(@Nonnull String line, @Nonnull String terminator) {
+                lines.add(line + terminator);
+            }
+        };
+    }
+
+    private static List<String> format(CsvOutputFormatter formatter, List<String> keys, Object... data) {
+        List<String> lines = new ArrayList<>();
+        int count = formatter.formatAndCount(result(keys, data), recording(lines));
+        assertEquals(data.length / keys.size(), count);
+        return lines;
+    }
+
+    private static ListBoltResult result(List<String> keys, Object... data) {
+        List<Record> records = new ArrayList<>();
+        for (int row = 0; row < data.length / keys.size(); row++) {
+            Value[] values = new Value[keys.size()];
+            for (int column = 0; column < keys.size(); column++) {
+                values[column] = Values.value(data[row * keys.size() + column]);
+            }
+            records.add(new InternalRecord(keys, values));
+        }
+        return new ListBoltResult(keys, records, mock(ResultSummary.class));
+    }
+}
@@ -0,0 +1,119 @@
+package org.neo4j.shell.prettyprint;
+
+import org.junit.Test;
+import org.neo4j.driver.internal.InternalNode;
+import org.neo4j.driver.internal.InternalPath;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.internal.InternalRelationship;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.driver.v1.types.Node;
+import org.neo4j.driver.v1.types.Relationship;
+import org.neo4j.shell.cli.Format;
+import org.neo4j.shell.state.ListBoltResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public class JsonLinesOutputFormatterTest {
+
+    @Test
+    public void printsOneObjectPerRecord() throws Exception {
+        List<String> lines = new ArrayList<>();
+        List<String> keys = asList("name", "age");
+        ListBoltResult result = new ListBoltResult(keys, asList(
+                new InternalRecord(keys, new Value[]{Values.value("bob"), Values.value(42)}),
+                new InternalRecord(keys, new Value[]{Values.NULL, Values.value(3.5)})),
+                mock(ResultSummary.class));
+
+        int count = new JsonLinesOutputFormatter().formatAndCount(result, lines::add);
+
+        assertEquals(2, count);
+        assertEquals(asList("{\"name\":\"bob\",\"age\":42}", "{\"name\":null,\"age\":3.5}"), lines);
+    }
+
+    @Test
+    public void isSelectedByFormat() throws Exception {
+        List<String> lines = new ArrayList<>();
+        List<String> keys = Collections.singletonList("x");
+        ListBoltResult result = new ListBoltResult(keys,
+                Collections.singletonList(new InternalRecord(keys, new Value[]{Values.value(true)})),
+                mock(ResultSummary.class));
+
+        new PrettyPrinter(Format.JSONL).format(result, lines::add);
+
+        assertEquals(Collections.singletonList("{\"x\":true}"), lines);
+    }
+
+    @Test
+    public void escapesStrings() throws Exception {
+        assertEquals("\"a\\\"b\\\\c\\nd\\te\\u0001é\"", format(Values.value("a\"b\\c\nd\te\u0001é")));
+    }
+
+    @Test
+    public void encodesListsAndMaps() throws Exception {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("list", asList(1, "two", null));
+        map.put("nested", Collections.singletonMap("k", false));
+
+        assertEquals("{\"list\":[1,\"two\",null],\"nested\":{\"k\":false}}", format(Values.value(map)));
+        assertEquals("[]", format(Values.value(Collections.emptyList())));
+    }
+
+    @Test
+    public void encodesFloatsWhichAreNotNumbersAsStrings() throws Exception {
+        assertEquals("\"NaN\"", format(Values.value(Double.NaN)));
+        assertEquals("\"-Infinity\"", format(Values.value(Double.NEGATIVE_INFINITY)));
+    }
+
+    @Test
+    public void encodesBytesAsBase64() throws Exception {
+        assertEquals("\"AQID\"", format(Values.value(new byte[]{1, 2, 3})));
+    }
+
+    @Test
+    public void encodesTemporalValuesAsIso8601() throws Exception {
+        assertEquals("\"2018-03-14\"", format(Values.value(LocalDate.of(2018, 3, 14))));
+    }
+
+    @Test
+    public void encodesPoints() throws Exception {
+        assertEquals("{\"srid\":7203,\"x\":1.0,\"y\":2.5}", format(Values.point(7203, 1, 2.5)));
+        assertEquals("{\"srid\":9157,\"x\":1.0,\"y\":2.0,\"z\":3.0}",
+                format(Values.point(9157, 1, 2, 3)));
+    }
+
+    @Test
+    public void encodesGraphEntities() throws Exception {
+        Node start = new InternalNode(1, asList("Person", "Admin"), Collections.singletonMap("name", Values.value("bob")));
+        Node end = new InternalNode(2, Collections.emptyList(), Collections.emptyMap());
+        Relationship knows = new InternalRelationship(3, 1, 2, "KNOWS", Collections.singletonMap("since", Values.value(2001)));
+
+        String startJson = "{\"id\":1,\"labels\":[\"Person\",\"Admin\"],\"properties\":{\"name\":\"bob\"}}";
+        String endJson = "{\"id\":2,\"labels\":[],\"properties\":{}}";
+        String knowsJson = "{\"id\":3,\"type\":\"KNOWS\",\"start\":1,\"end\":2,\"properties\":{\"since\":2001}}";
+        assertEquals(startJson, format(Values.value(start)));
+        assertEquals(knowsJson, format(Values.value(knows)));
+        assertEquals("{\"nodes\":[" + startJson + "," + endJson + "],\"relationships\":[" + knowsJson + "]}",
+                format(Values.value(new InternalPath(start, knows, end))));
+    }
+
+    private static String format(Value value) {
+        List<String> lines = new ArrayList<>();
+        List<String> keys = Collections.singletonList("v");
+        new JsonLinesOutputFormatter().formatAndCount(new ListBoltResult(keys,
+                Collections.singletonList(new InternalRecord(keys, new Value[]{value})), mock(ResultSummary.class)),
+                lines::add);
+        String line = lines.get(0);
+        return line.substring("{\"v\":".length(), line.length() - 1);
+    }
+}
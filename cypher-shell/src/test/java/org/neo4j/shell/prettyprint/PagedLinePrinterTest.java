@@ -0,0 +1,135 @@
+package org.neo4j.shell.prettyprint;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.neo4j.shell.exception.PagerQuitException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PagedLinePrinterTest {
+    private final List<String> lines = new ArrayList<>();
+    private final LinePrinter output = spyingPrinter(lines);
+    private final Pager pager = mock(Pager.class);
+
+    @Test
+    public void shortResultIsNotPaged() throws Exception {
+        when(pager.pageSize()).thenReturn(3);
+        PagedLinePrinter printer = new PagedLinePrinter(output, pager);
+
+        printer.printOut("a");
+        printer.printOut("b");
+        printer.printOut("c");
+
+        assertEquals(asList("a", "b", "c"), lines);
+        verify(pager, never()).nextPage();
+    }
+
+    @Test
+    public void asksBeforeEachNewPage() throws Exception {
+        when(pager.pageSize()).thenReturn(2);
+        when(pager.nextPage()).thenReturn(true);
+        PagedLinePrinter printer = new PagedLinePrinter(output, pager);
+
+        for (String line : asList("a", "b", "c", "d", "e")) {
+            printer.printOut(line);
+        }
+
+        assertEquals(asList("a", "b", "c", "d", "e"), lines);
+        verify(pager, times(2)).nextPage();
+    }
+
+    @Test
+    public void pageIsFlushedBeforeAsking() throws Exception {
+        when(pager.pageSize()).thenReturn(1);
+        when(pager.nextPage()).thenReturn(true);
+        PagedLinePrinter printer = new PagedLinePrinter(output, pager);
+
+        printer.printOut("a");
+        printer.printOut("b");
+
+        InOrder inOrder = inOrder(output, pager);
+        inOrder.verify(output).printOut("a");
+        inOrder.verify(output).flush();
+        inOrder.verify(pager).nextPage();
+        inOrder.verify(output).printOut("b");
+    }
+
+    @Test
+    public void quittingStopsPrinting() throws Exception {
+        when(pager.pageSize()).thenReturn(2);
+        when(pager.nextPage()).thenReturn(false);
+        PagedLinePrinter printer = new PagedLinePrinter(output, pager);
+
+        printer.printOut("a");
+        printer.printOut("b");
+        try {
+            printer.printOut("c");
+            fail("Expected the pager to quit");
+        } catch (PagerQuitException e) {
+            // expected
+        }
+
+        assertEquals(asList("a", "b"), lines);
+    }
+
+    @Test
+    public void textWithLineBreaksCountsAsSeveralLines() throws Exception {
+        when(pager.pageSize()).thenReturn(3);
+        when(pager.nextPage()).thenReturn(true);
+        PagedLinePrinter printer = new PagedLinePrinter(output, pager);
+
+        printer.printOut("a");
+        printer.printOut("b" + OutputFormatter.NEWLINE + "c");
+        verify(pager, never()).nextPage();
+
+        printer.printOut("d");
+        verify(pager).nextPage();
+    }
+
+    @Test
+    public void textLongerThanAPageIsPrintedWhole() throws Exception {
+        when(pager.pageSize()).thenReturn(1);
+        when(pager.nextPage()).thenReturn(true);
+        PagedLinePrinter printer = new PagedLinePrinter(output, pager);
+
+        printer.printOut("a\nb\nc");
+        verify(pager, never()).nextPage();
+
+        printer.printOut("d");
+        verify(pager).nextPage();
+        assertEquals(asList("a\nb\nc", "d"), lines);
+    }
+
+    @Test
+    public void pageSizeIsCheckedForEachPage() throws Exception {
+        when(pager.pageSize()).thenReturn(1, 3);
+        when(pager.nextPage()).thenReturn(true);
+        PagedLinePrinter printer = new PagedLinePrinter(output, pager);
+
+        for (String line : asList("a", "b", "c", "d")) {
+            printer.printOut(line);
+        }
+
+        verify(pager).nextPage();
+    }
+
+    private static LinePrinter spyingPrinter(List<String> lines) {
+        LinePrinter printer = mock(LinePrinter.class);
+        doAnswer(invocation -> lines.add((String) invocation.getArguments()[0]))
+                .when(printer).printOut(anyString());
+        return printer;
+    }
+}
@@ -14,8 +14,10 @@ import org.neo4j.driver.v1.util.Function;
 import org.neo4j.shell.cli.Format;
 import org.neo4j.shell.state.BoltResult;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
@@ -41,7 +43,7 @@ public class PrettyPrinterTest {
         SummaryCounters summaryCounters = mock(SummaryCounters.class);
         BoltResult result = mock(BoltResult.class);
 
-        when(result.getRecords()).thenReturn(Collections.emptyList());
+        when(result.iterate()).thenReturn(Collections.emptyIterator());
         when(result.getSummary()).thenReturn(resultSummary);
         when(resultSummary.counters()).thenReturn(summaryCounters);
         when(summaryCounters.labelsAdded()).thenReturn(1);
@@ -73,7 +75,7 @@ public class PrettyPrinterTest {
         when(plan.arguments()).thenReturn(argumentMap);
 
         BoltResult result = mock(BoltResult.class);
-        when(result.getRecords()).thenReturn(Collections.emptyList());
+        when(result.iterate()).thenReturn(Collections.emptyIterator());
         when(result.getSummary()).thenReturn(resultSummary);
 
         // when
@@ -110,7 +112,7 @@ public class PrettyPrinterTest {
         when(plan.arguments()).thenReturn(argumentMap);
 
         BoltResult result = mock(BoltResult.class);
-        when(result.getRecords()).thenReturn(Collections.emptyList());
+        when(result.iterate()).thenReturn(Collections.emptyIterator());
         when(result.getSummary()).thenReturn(resultSummary);
 
         // when
@@ -148,7 +150,7 @@ public class PrettyPrinterTest {
         when(record1.values()).thenReturn(asList(value1, value2));
         when(record2.values()).thenReturn(asList(value2));
 
-        when(result.getRecords()).thenReturn(asList(record1, record2));
+        when(result.iterate()).thenReturn(asList(record1, record2).iterator());
         when(result.getSummary()).thenReturn(mock(ResultSummary.class));
 
         // when
@@ -158,6 +160,68 @@ public class PrettyPrinterTest {
         assertThat(actual, is("col1, col2\n[val1_1, val1_2], [val2_1]\n[val2_1]"));
     }
 
+    @Test
+    public void prettyPrintStreamsOneLinePerRecord() throws Exception {
+        // given
+        BoltResult result = mock(BoltResult.class);
+
+        Record record1 = mock(Record.class);
+        Record record2 = mock(Record.class);
+        Value value1 = mock(Value.class);
+        Value value2 = mock(Value.class);
+
+        when(value1.type()).thenReturn(InternalTypeSystem.TYPE_SYSTEM.INTEGER());
+        when(value2.type()).thenReturn(InternalTypeSystem.TYPE_SYSTEM.INTEGER());
+        when(value1.toString()).thenReturn("1");
+        when(value2.toString()).thenReturn("2");
+        when(record1.keys()).thenReturn(asList("n"));
+        when(record1.values()).thenReturn(asList(value1));
+        when(record2.values()).thenReturn(asList(value2));
+
+        when(result.iterate()).thenReturn(asList(record1, record2).iterator());
+        when(result.getSummary()).thenReturn(mock(ResultSummary.class));
+
+        // when
+        List<String> lines = new ArrayList<>();
+        plainPrinter.format(result, lines::add);
+
+        // then
+        assertThat(lines, is(asList("n", "1", "2")));
+    }
+
+    @Test
+    public void plainOutputOfATruncatedResultOnlyHoldsTheData() throws Exception {
+        // given
+        BoltResult result = mock(BoltResult.class);
+
+        Record record1 = mock(Record.class);
+        Record record2 = mock(Record.class);
+        Value value1 = mock(Value.class);
+        Value value2 = mock(Value.class);
+
+        when(value1.type()).thenReturn(InternalTypeSystem.TYPE_SYSTEM.INTEGER());
+        when(value2.type()).thenReturn(InternalTypeSystem.TYPE_SYSTEM.INTEGER());
+        when(value1.toString()).thenReturn("1");
+        when(value2.toString()).thenReturn("2");
+        when(record1.keys()).thenReturn(asList("n"));
+        when(record1.values()).thenReturn(asList(value1));
+        when(record2.values()).thenReturn(asList(value2));
+
+        when(result.iterate()).thenReturn(asList(record1, record2).iterator());
+        when(result.getSummary()).thenReturn(mock(ResultSummary.class));
+        when(result.isTruncated()).thenReturn(true);
+
+        // when
+        List<String> lines = new ArrayList<>();
+        int rows = plainPrinter.format(result, lines::add);
+
+        // then
+        assertThat(lines, is(asList("n", "1", "2")));
+        assertThat(rows, is(2));
+        assertThat(plainPrinter.reportsTruncation(), is(false));
+        assertThat(verbosePrinter.reportsTruncation(), is(true));
+    }
+
     @Test
     public void prettyPrintMaps() throws Exception {
         checkMapForPrettyPrint(map(), "map\n{}");
@@ -178,7 +242,7 @@ public class PrettyPrinterTest {
         when(record.keys()).thenReturn(asList("map"));
         when(record.values()).thenReturn(asList(value));
 
-        when(result.getRecords()).thenReturn(asList(record));
+        when(result.iterate()).thenReturn(asList(record).iterator());
         when(result.getSummary()).thenReturn(mock(ResultSummary.class));
 
         // when
@@ -210,7 +274,7 @@ public class PrettyPrinterTest {
         when(record.keys()).thenReturn(asList("col1", "col2"));
         when(record.values()).thenReturn(asList(value));
 
-        when(result.getRecords()).thenReturn(asList(record));
+        when(result.iterate()).thenReturn(asList(record).iterator());
         when(result.getSummary()).thenReturn(mock(ResultSummary.class));
 
         // when
@@ -243,7 +307,7 @@ public class PrettyPrinterTest {
         when(record.keys()).thenReturn(asList("rel"));
         when(record.values()).thenReturn(asList(value));
 
-        when(result.getRecords()).thenReturn(asList(record));
+        when(result.iterate()).thenReturn(asList(record).iterator());
         when(result.getSummary()).thenReturn(mock(ResultSummary.class));
 
         // when
@@ -289,7 +353,7 @@ public class PrettyPrinterTest {
         when(record.keys()).thenReturn(asList("rel", "node"));
         when(record.values()).thenReturn(asList(relVal, nodeVal));
 
-        when(result.getRecords()).thenReturn(asList(record));
+        when(result.iterate()).thenReturn(asList(record).iterator());
         when(result.getSummary()).thenReturn(mock(ResultSummary.class));
 
         // when
@@ -351,7 +415,7 @@ public class PrettyPrinterTest {
         when(record.keys()).thenReturn(asList("path"));
         when(record.values()).thenReturn(asList(value));
 
-        when(result.getRecords()).thenReturn(asList(record));
+        when(result.iterate()).thenReturn(asList(record).iterator());
         when(result.getSummary()).thenReturn(mock(ResultSummary.class));
 
         // when
@@ -399,7 +463,7 @@ public class PrettyPrinterTest {
         when(record.keys()).thenReturn(asList("path"));
         when(record.values()).thenReturn(asList(value));
 
-        when(result.getRecords()).thenReturn(asList(record));
+        when(result.iterate()).thenReturn(asList(record).iterator());
         when(result.getSummary()).thenReturn(mock(ResultSummary.class));
 
         // when
@@ -463,7 +527,7 @@ public class PrettyPrinterTest {
         when(record.keys()).thenReturn(asList("path"));
         when(record.values()).thenReturn(asList(value));
 
-        when(result.getRecords()).thenReturn(asList(record));
+        when(result.iterate()).thenReturn(asList(record).iterator());
         when(result.getSummary()).thenReturn(mock(ResultSummary.class));
 
         // when
@@ -27,12 +27,14 @@ import org.neo4j.driver.v1.types.Path;
 import org.neo4j.driver.v1.types.Relationship;
 import org.neo4j.shell.cli.Format;
 import org.neo4j.shell.state.BoltResult;
+import org.neo4j.shell.state.ListBoltResult;
 
 import java.util.*;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonMap;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
 import static org.hamcrest.core.StringContains.containsString;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.eq;
@@ -62,7 +64,7 @@ public class TableOutputFormatterTest {
         when(plan.arguments()).thenReturn(argumentMap);
 
         BoltResult result = mock(BoltResult.class);
-        when(result.getRecords()).thenReturn(Collections.emptyList());
+        when(result.iterate()).thenReturn(Collections.emptyIterator());
         when(result.getSummary()).thenReturn(resultSummary);
 
         // when
@@ -89,7 +91,7 @@ public class TableOutputFormatterTest {
         Record record = new InternalRecord(keys, new Value[]{point2d, point3d});
 
         // when
-        String actual = verbosePrinter.format(new BoltResult(asList(record), statementResult));
+        String actual = verbosePrinter.format(new ListBoltResult(asList(record), statementResult.summary()));
 
         // then
         assertThat(actual, containsString("| point({srid:4326, x:42.78, y:56.7}) |"));
@@ -109,7 +111,7 @@ public class TableOutputFormatterTest {
         Record record = new InternalRecord(keys, new Value[]{duration});
 
         // when
-        String actual = verbosePrinter.format(new BoltResult(asList(record), statementResult));
+        String actual = verbosePrinter.format(new ListBoltResult(asList(record), statementResult.summary()));
 
         // then
         assertThat(actual, containsString("| P1M2DT3.000000004S |"));
@@ -128,7 +130,7 @@ public class TableOutputFormatterTest {
         Record record = new InternalRecord(keys, new Value[]{duration});
 
         // when
-        String actual = verbosePrinter.format(new BoltResult(asList(record), statementResult));
+        String actual = verbosePrinter.format(new ListBoltResult(asList(record), statementResult.summary()));
 
         // then
         assertThat(actual, containsString("| P1M2DT3S |"));
@@ -152,7 +154,7 @@ public class TableOutputFormatterTest {
         Record record = new InternalRecord(keys, new Value[]{value});
 
         // when
-        String actual = verbosePrinter.format(new BoltResult(asList(record), statementResult));
+        String actual = verbosePrinter.format(new ListBoltResult(asList(record), statementResult.summary()));
 
         // then
         assertThat(actual, containsString("| (:label1:label2 {prop2: \"prop2_value\", prop1: \"prop1_value\"}) |"));
@@ -177,7 +179,7 @@ public class TableOutputFormatterTest {
         when(statementResult.keys()).thenReturn(keys);
 
         // when
-        String actual = verbosePrinter.format(new BoltResult(asList(record), statementResult));
+        String actual = verbosePrinter.format(new ListBoltResult(asList(record), statementResult.summary()));
 
         // then
         assertThat(actual, containsString("| [:RELATIONSHIP_TYPE {prop2: \"prop2_value\", prop1: \"prop1_value\"}] |"));
@@ -236,7 +238,7 @@ public class TableOutputFormatterTest {
         when(statementResult.keys()).thenReturn(keys);
 
         // when
-        String actual = verbosePrinter.format(new BoltResult(asList(record), statementResult));
+        String actual = verbosePrinter.format(new ListBoltResult(asList(record), statementResult.summary()));
 
         // then
         assertThat(actual, containsString("| (:L1)<-[:R1]-(:L2)-[:R2]->(:L3) |"));
@@ -277,7 +279,7 @@ public class TableOutputFormatterTest {
         when(statementResult.keys()).thenReturn(keys);
 
         // when
-        String actual = verbosePrinter.format(new BoltResult(asList(record), statementResult));
+        String actual = verbosePrinter.format(new ListBoltResult(asList(record), statementResult.summary()));
         // then
         assertThat(actual, containsString("| [:`RELATIONSHIP,TYPE` {prop2: 1, prop1: \"prop1, value\"}] |"));
         assertThat(actual, containsString("| (:`label ``1`:label2 {`1prop1`: \"\\\"\\\"\", " +
@@ -334,10 +336,63 @@ public class TableOutputFormatterTest {
                 "| (:Person {name: \"Mark\"})-[:TEST {since: 2016}]->(:Person {name: \"Mark\"}) |"));
     }
 
+    @Test
+    public void wrapValuesWiderThanTheSampledColumn() throws Exception {
+        // GIVEN
+        StatementResult result = mockResult(asList("c1"), "a", "bbbbbb");
+        // WHEN
+        String table = formatResult(result, new TableOutputFormatter(true, 1));
+        // THEN
+        assertThat(table, containsString("| \"a\" |"));
+        assertThat(table, containsString("| \"bb |" + OutputFormatter.NEWLINE + "| bbb |" + OutputFormatter.NEWLINE +
+                "| b\"  |"));
+    }
+
+    @Test
+    public void truncateValuesWiderThanTheSampledColumn() throws Exception {
+        // GIVEN
+        StatementResult result = mockResult(asList("c1"), "a", "bbbbbb");
+        // WHEN
+        String table = formatResult(result, new TableOutputFormatter(false, 1));
+        // THEN
+        assertThat(table, containsString("| \"a\" |"));
+        assertThat(table, containsString("| \"b… |"));
+    }
+
+    @Test
+    public void countRowsBeyondTheSample() throws Exception {
+        // GIVEN
+        StatementResult result = mockResult(asList("c1"), 1, 2, 3);
+        List<Record> records = result.list();
+        // WHEN
+        int numberOfRows = new TableOutputFormatter(true, 1)
+                .formatAndCount(new ListBoltResult(records, result.summary()), line -> {});
+        // THEN
+        assertEquals(3, numberOfRows);
+    }
+
+    @Test
+    public void footerOfATruncatedResult() throws Exception {
+        // GIVEN
+        StatementResult result = mockResult(asList("c1"), 1, 2);
+        ListBoltResult truncated = new ListBoltResult(result.keys(), result.list(), result.summary(), true);
+        // WHEN
+        String footer = new TableOutputFormatter().formatFooter(truncated, 2);
+        // THEN
+        assertEquals("2 rows shown, the rest of the result was discarded (max-rows)", footer);
+    }
+
     private String formatResult(StatementResult result) {
+        return formatResult(result, new TableOutputFormatter());
+    }
+
+    private String formatResult(StatementResult result, TableOutputFormatter formatter) {
         // calling list() is what actually executes cypher on the server
         List<Record> list = result.list();
-        return new TableOutputFormatter().format(new BoltResult(list, result));
+        StringBuilder sb = new StringBuilder();
+        formatter.formatAndCount(new ListBoltResult(list, result.summary()),
+                line -> sb.append(line).append(OutputFormatter.NEWLINE));
+        return sb.toString();
     }
 
     private StatementResult mockResult(List<String> cols, Object... data) {
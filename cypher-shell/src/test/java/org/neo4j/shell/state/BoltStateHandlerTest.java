@@ -12,8 +12,12 @@ import org.neo4j.driver.v1.Record;
 import org.neo4j.driver.v1.Session;
 import org.neo4j.driver.v1.Statement;
 import org.neo4j.driver.v1.StatementResult;
+import org.neo4j.driver.v1.StatementResultCursor;
+import org.neo4j.driver.v1.Transaction;
 import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.exceptions.ClientException;
 import org.neo4j.driver.v1.exceptions.SessionExpiredException;
+import org.neo4j.driver.v1.exceptions.TransientException;
 import org.neo4j.driver.v1.summary.ResultSummary;
 import org.neo4j.driver.v1.summary.ServerInfo;
 import org.neo4j.shell.ConnectionConfig;
@@ -27,22 +31,22 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
-import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
-import static org.mockito.Mockito.anyObject;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -104,11 +108,11 @@ public class BoltStateHandlerTest {
         boltStateHandler.connect();
         boltStateHandler.beginTransaction();
 
-        assertNotNull(boltStateHandler.getTransactionStatements());
+        assertTrue(boltStateHandler.isTransactionOpen());
 
         boltStateHandler.rollbackTransaction();
 
-        assertNull(boltStateHandler.getTransactionStatements());
+        assertFalse(boltStateHandler.isTransactionOpen());
     }
 
     @Test
@@ -139,11 +143,11 @@ public class BoltStateHandlerTest {
     public void closeTransactionAfterCommit() throws CommandException {
         boltStateHandler.connect();
         boltStateHandler.beginTransaction();
-        assertNotNull(boltStateHandler.getTransactionStatements());
+        assertTrue(boltStateHandler.isTransactionOpen());
 
         boltStateHandler.commitTransaction();
 
-        assertNull(boltStateHandler.getTransactionStatements());
+        assertFalse(boltStateHandler.isTransactionOpen());
     }
 
     @Test
@@ -171,60 +175,365 @@ public class BoltStateHandlerTest {
         boltStateHandler.connect();
 
         boltStateHandler.beginTransaction();
-        assertNotNull(boltStateHandler.getTransactionStatements());
+        assertTrue(boltStateHandler.isTransactionOpen());
     }
 
     @Test
-    public void commitPurgesTheTransactionStatementsAndCollectsResults() throws CommandException {
+    public void statementsOfATransactionAreSentStraightAway() throws CommandException {
         Session sessionMock = mock(Session.class);
         Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        Transaction txMock = mock(Transaction.class);
+        when(sessionMock.beginTransaction()).thenReturn(txMock);
+        StatementResult result = mock(StatementResult.class);
+        when(result.keys()).thenReturn(asList("num"));
+        when(txMock.run(new Statement("UNWIND [1,2] as num RETURN *", Collections.emptyMap()))).thenReturn(result);
 
-        BoltResult boltResultMock1 = mock(BoltResult.class);
-        BoltResult boltResultMock2 = mock(BoltResult.class);
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect();
+        boltStateHandler.beginTransaction();
+        Optional<BoltResult> boltResult = boltStateHandler.runCypher("UNWIND [1,2] as num RETURN *",
+                Collections.emptyMap());
 
-        Record record1 = mock(Record.class);
-        Record record2 = mock(Record.class);
-        Record record3 = mock(Record.class);
-        Value val1 = mock(Value.class);
-        Value val2 = mock(Value.class);
-        Value str1Val = mock(Value.class);
-        Value str2Val = mock(Value.class);
+        assertEquals(asList("num"), boltResult.get().getKeys());
+        verify(txMock, never()).success();
 
-        when(boltResultMock1.getRecords()).thenReturn(asList(record1, record2));
-        when(boltResultMock2.getRecords()).thenReturn(asList(record3));
+        assertFalse(boltStateHandler.commitTransaction().isPresent());
+        assertFalse(boltStateHandler.isTransactionOpen());
+        verify(txMock).success();
+        verify(txMock).close();
+    }
+
+    @Test
+    public void rowsBeyondTheLimitInATransactionAreDiscarded() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        Transaction txMock = mock(Transaction.class);
+        when(sessionMock.beginTransaction()).thenReturn(txMock);
+        StatementResult result = mock(StatementResult.class);
+        when(result.hasNext()).thenReturn(true);
+        when(result.next()).thenReturn(mock(Record.class));
+        when(txMock.run(any(Statement.class))).thenReturn(result);
 
-        when(str1Val.toString()).thenReturn("str1");
-        when(str2Val.toString()).thenReturn("str2");
-        when(val1.toString()).thenReturn("1");
-        when(val2.toString()).thenReturn("2");
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.setMaxRows(2);
+        boltStateHandler.connect();
+        boltStateHandler.beginTransaction();
+        BoltResult boltResult = boltStateHandler.runCypher("MATCH (n) RETURN n", Collections.emptyMap()).get();
 
-        when(record1.get(0)).thenReturn(val1);
-        when(record2.get(0)).thenReturn(val2);
+        assertEquals(2, boltResult.getRecords().size());
+        assertTrue(boltResult.isTruncated());
+        // Resetting would roll back the transaction
+        verify(sessionMock, never()).reset();
+        verify(result).consume();
+    }
 
-        when(record3.get(0)).thenReturn(str1Val);
-        when(record3.get(1)).thenReturn(str2Val);
-        when(sessionMock.writeTransaction(anyObject())).thenReturn(asList(boltResultMock1, boltResultMock2));
+    @Test
+    public void commitAfterAFailedStatementReportsTheRollback() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        Transaction txMock = mock(Transaction.class);
+        when(sessionMock.beginTransaction()).thenReturn(txMock);
+        // The driver terminates the transaction, closing it then rolls it back without failing
+        when(txMock.run(new Statement("RETURN 1/0", Collections.emptyMap())))
+                .thenThrow(new ClientException("/ by zero"));
 
         OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
         boltStateHandler.connect();
         boltStateHandler.beginTransaction();
-        boltStateHandler.runCypher("UNWIND [1,2] as num RETURN *", Collections.emptyMap());
-        boltStateHandler.runCypher("RETURN \"str1\", \"str2\"", Collections.emptyMap());
+        boltStateHandler.runCypher("CREATE (:A)", Collections.emptyMap());
+        try {
+            boltStateHandler.runCypher("RETURN 1/0", Collections.emptyMap());
+            fail("Expected the statement to fail");
+        } catch (ClientException e) {
+            assertEquals("/ by zero", e.getMessage());
+        }
 
-        Optional<List<BoltResult>> boltResultOptional = boltStateHandler.commitTransaction();
-        List<BoltResult> boltResults = boltResultOptional.get();
-        Record actualRecord1 = boltResults.get(0).getRecords().get(0);
-        Record actualRecord2 = boltResults.get(0).getRecords().get(1);
+        try {
+            boltStateHandler.commitTransaction();
+            fail("Expected the commit to fail");
+        } catch (CommandException e) {
+            assertEquals("The transaction was rolled back, since a statement of it failed", e.getMessage());
+        }
+        verify(txMock, never()).success();
+        verify(txMock).close();
+        assertFalse(boltStateHandler.isTransactionOpen());
+    }
 
-        Record actualRecord3 = boltResults.get(1).getRecords().get(0);
+    @Test
+    public void commitAfterAStreamedResultFailedReportsTheRollback() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        Transaction txMock = mock(Transaction.class);
+        when(sessionMock.beginTransaction()).thenReturn(txMock);
+        StatementResult result = mock(StatementResult.class);
+        when(result.hasNext()).thenThrow(new ClientException("/ by zero"));
+        when(txMock.run(any(Statement.class))).thenReturn(result);
 
-        assertNull(boltStateHandler.getTransactionStatements());
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect();
+        boltStateHandler.beginTransaction();
+        BoltResult boltResult = boltStateHandler.runCypher("UNWIND [1, 0] AS x RETURN 1/x",
+                Collections.emptyMap()).get();
+        try {
+            boltResult.iterate().hasNext();
+            fail("Expected the result to fail");
+        } catch (ClientException e) {
+            assertEquals("/ by zero", e.getMessage());
+        }
 
-        assertEquals("1", actualRecord1.get(0).toString());
-        assertEquals("2", actualRecord2.get(0).toString());
+        thrown.expect(CommandException.class);
+        thrown.expectMessage("The transaction was rolled back, since a statement of it failed");
 
-        assertEquals("str1", actualRecord3.get(0).toString());
-        assertEquals("str2", actualRecord3.get(1).toString());
+        boltStateHandler.commitTransaction();
+    }
+
+    @Test
+    public void rollbackRollsBackTheTransactionOnTheServer() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        Transaction txMock = mock(Transaction.class);
+        when(sessionMock.beginTransaction()).thenReturn(txMock);
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect();
+        boltStateHandler.beginTransaction();
+        boltStateHandler.rollbackTransaction();
+
+        assertFalse(boltStateHandler.isTransactionOpen());
+        verify(txMock).failure();
+        verify(txMock, never()).success();
+        verify(txMock).close();
+    }
+
+    @Test
+    public void transactionIsCommittedInChunksOfStatements() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        Transaction txMock1 = mock(Transaction.class);
+        Transaction txMock2 = mock(Transaction.class);
+        when(sessionMock.beginTransaction()).thenReturn(txMock1, txMock2);
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.setTxChunk(2);
+        boltStateHandler.connect();
+        boltStateHandler.beginTransaction();
+        boltStateHandler.runCypher("CREATE (:A)", Collections.emptyMap());
+        boltStateHandler.runCypher("CREATE (:B)", Collections.emptyMap());
+        verify(txMock1, never()).success();
+
+        boltStateHandler.runCypher("CREATE (:C)", Collections.emptyMap());
+
+        verify(txMock1).success();
+        verify(txMock1).close();
+        verify(txMock2).run(new Statement("CREATE (:C)", Collections.emptyMap()));
+        assertEquals(2, boltStateHandler.getCommittedStatements());
+        assertEquals(1, boltStateHandler.getCommittedChunks());
+
+        boltStateHandler.commitTransaction();
+
+        verify(txMock2).success();
+        verify(txMock2).close();
+    }
+
+    @Test
+    public void transactionIsCommittedInChunksOfStatementText() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        Transaction txMock1 = mock(Transaction.class);
+        Transaction txMock2 = mock(Transaction.class);
+        when(sessionMock.beginTransaction()).thenReturn(txMock1, txMock2);
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.setTxChunkBytes(20);
+        boltStateHandler.connect();
+        boltStateHandler.beginTransaction();
+        boltStateHandler.runCypher("CREATE (:A {x: 1})", Collections.emptyMap());
+        boltStateHandler.runCypher("CREATE (:B {x: 2})", Collections.emptyMap());
+        verify(txMock1, never()).success();
+
+        boltStateHandler.runCypher("CREATE (:C {x: 3})", Collections.emptyMap());
+
+        verify(txMock1).success();
+        verify(txMock2).run(new Statement("CREATE (:C {x: 3})", Collections.emptyMap()));
+        assertEquals(2, boltStateHandler.getCommittedStatements());
+    }
+
+    @Test
+    public void transactionIsNotCommittedOnceAChunkFailedToCommit() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        Transaction txMock1 = mock(Transaction.class);
+        Transaction txMock2 = mock(Transaction.class);
+        when(sessionMock.beginTransaction()).thenReturn(txMock1, txMock2);
+        doThrow(new ClientException("Out of memory")).when(txMock2).close();
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.setTxChunk(1);
+        boltStateHandler.connect();
+        boltStateHandler.beginTransaction();
+        boltStateHandler.runCypher("CREATE (:A)", Collections.emptyMap());
+        boltStateHandler.runCypher("CREATE (:B)", Collections.emptyMap());
+        try {
+            boltStateHandler.runCypher("CREATE (:C)", Collections.emptyMap());
+            fail("Expected the chunk to fail to commit");
+        } catch (ClientException e) {
+            assertEquals("Out of memory", e.getMessage());
+        }
+        assertEquals(1, boltStateHandler.getCommittedStatements());
+
+        thrown.expect(CommandException.class);
+        thrown.expectMessage("The transaction was rolled back after statements 1 to 1 were committed in 1 chunk(s)");
+
+        boltStateHandler.commitTransaction();
+    }
+
+    @Test
+    public void chunkWithAFailedStatementIsNotCommitted() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        Transaction txMock = mock(Transaction.class);
+        when(sessionMock.beginTransaction()).thenReturn(txMock);
+        when(txMock.run(new Statement("RETURN 1/0", Collections.emptyMap())))
+                .thenThrow(new ClientException("/ by zero"));
+        when(txMock.run(new Statement("CREATE (:C)", Collections.emptyMap())))
+                .thenThrow(new ClientException("Cannot run more statements in this transaction"));
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.setTxChunk(2);
+        boltStateHandler.connect();
+        boltStateHandler.beginTransaction();
+        boltStateHandler.runCypher("CREATE (:A)", Collections.emptyMap());
+        try {
+            boltStateHandler.runCypher("RETURN 1/0", Collections.emptyMap());
+            fail("Expected the statement to fail");
+        } catch (ClientException e) {
+            assertEquals("/ by zero", e.getMessage());
+        }
+        try {
+            boltStateHandler.runCypher("CREATE (:C)", Collections.emptyMap());
+            fail("Expected the statement to fail");
+        } catch (ClientException e) {
+            assertEquals("Cannot run more statements in this transaction", e.getMessage());
+        }
+
+        verify(txMock, never()).success();
+        verify(txMock, never()).close();
+        verify(sessionMock).beginTransaction();
+        assertEquals(0, boltStateHandler.getCommittedStatements());
+        assertEquals(0, boltStateHandler.getCommittedChunks());
+
+        thrown.expect(CommandException.class);
+        thrown.expectMessage("The transaction was rolled back, since a statement of it failed");
+
+        boltStateHandler.commitTransaction();
+    }
+
+    @Test
+    public void rowsBeyondTheLimitOfAReadAreCancelled() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        StatementResult result = mock(StatementResult.class);
+        when(result.hasNext()).thenReturn(true);
+        when(result.next()).thenReturn(mock(Record.class));
+        when(sessionMock.run(any(Statement.class))).thenReturn(result);
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.setMaxRows(2);
+        boltStateHandler.connect();
+        BoltResult boltResult = boltStateHandler.runCypher("MATCH (n) RETURN n", Collections.emptyMap()).get();
+
+        assertEquals(2, boltResult.getRecords().size());
+        assertTrue(boltResult.isTruncated());
+        verify(sessionMock).reset();
+        verify(result, never()).consume();
+    }
+
+    @Test
+    public void rowsBeyondTheLimitOfAnUpdateAreDiscarded() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        StatementResult result = mock(StatementResult.class);
+        when(result.hasNext()).thenReturn(true);
+        when(result.next()).thenReturn(mock(Record.class));
+        when(sessionMock.run(any(Statement.class))).thenReturn(result);
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.setMaxRows(2);
+        boltStateHandler.connect();
+        BoltResult boltResult = boltStateHandler.runCypher("MATCH (n) SET n.x = 1 RETURN n",
+                Collections.emptyMap()).get();
+
+        assertEquals(2, boltResult.getRecords().size());
+        assertTrue(boltResult.isTruncated());
+        // Resetting would roll back the update
+        verify(sessionMock, never()).reset();
+        verify(result).consume();
+    }
+
+    @Test(timeout = 10000)
+    public void commitKeepsSeveralStatementsInFlight() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        Transaction txMock = mock(Transaction.class);
+        when(sessionMock.beginTransaction()).thenReturn(txMock);
+
+        // The first result only arrives once the second statement has been sent
+        CompletableFuture<List<Record>> firstRecords = new CompletableFuture<>();
+        StatementResultCursor cursor1 = stubCursor(firstRecords, "first");
+        StatementResultCursor cursor2 = stubCursor(CompletableFuture.completedFuture(Collections.emptyList()), "second");
+        when(txMock.runAsync(new Statement("RETURN 1", Collections.emptyMap())))
+                .thenReturn(CompletableFuture.completedFuture(cursor1));
+        when(txMock.runAsync(new Statement("RETURN 2", Collections.emptyMap()))).thenAnswer(invocation -> {
+            firstRecords.complete(Collections.emptyList());
+            return CompletableFuture.completedFuture(cursor2);
+        });
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock, 2);
+        boltStateHandler.connect();
+        boltStateHandler.beginTransaction();
+        assertFalse(boltStateHandler.runCypher("RETURN 1", Collections.emptyMap()).isPresent());
+        assertFalse(boltStateHandler.runCypher("RETURN 2", Collections.emptyMap()).isPresent());
+
+        List<BoltResult> boltResults = boltStateHandler.commitTransaction().get();
+
+        assertEquals(2, boltResults.size());
+        assertEquals(asList("first"), boltResults.get(0).getKeys());
+        assertEquals(asList("second"), boltResults.get(1).getKeys());
+    }
+
+    @Test
+    public void commitReportsPipelinedErrorsInStatementOrder() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        Transaction txMock = mock(Transaction.class);
+        when(sessionMock.beginTransaction()).thenReturn(txMock);
+
+        CompletableFuture<List<Record>> failedRecords = new CompletableFuture<>();
+        failedRecords.completeExceptionally(new ClientException("first failed"));
+        CompletableFuture<List<Record>> alsoFailedRecords = new CompletableFuture<>();
+        alsoFailedRecords.completeExceptionally(new ClientException("second failed"));
+        StatementResultCursor cursor1 = stubCursor(failedRecords, "first");
+        StatementResultCursor cursor2 = stubCursor(alsoFailedRecords, "second");
+        when(txMock.runAsync(new Statement("RETURN 1", Collections.emptyMap())))
+                .thenReturn(CompletableFuture.completedFuture(cursor1));
+        when(txMock.runAsync(new Statement("RETURN 2", Collections.emptyMap())))
+                .thenReturn(CompletableFuture.completedFuture(cursor2));
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock, 2);
+        boltStateHandler.connect();
+        boltStateHandler.beginTransaction();
+        boltStateHandler.runCypher("RETURN 1", Collections.emptyMap());
+        boltStateHandler.runCypher("RETURN 2", Collections.emptyMap());
+
+        try {
+            boltStateHandler.commitTransaction();
+            fail("Expected the commit to fail");
+        } catch (ClientException e) {
+            assertEquals("first failed", e.getMessage());
+        }
+        verify(txMock, never()).success();
+        verify(txMock).close();
+        assertFalse(boltStateHandler.isTransactionOpen());
     }
 
     @Test
@@ -250,7 +559,7 @@ public class BoltStateHandlerTest {
         boltStateHandler.connect();
         boltStateHandler.beginTransaction();
 
-        assertNotNull("Expected a transaction", boltStateHandler.getTransactionStatements());
+        assertTrue("Expected a transaction", boltStateHandler.isTransactionOpen());
     }
 
     @Test
@@ -280,6 +589,25 @@ public class BoltStateHandlerTest {
         assertEquals("999", boltResult.getRecords().get(0).get(0).toString());
     }
 
+    @Test
+    public void shouldStreamAutoCommitResults() throws CommandException {
+        Session sessionMock = mock(Session.class);
+        StatementResult versionMock = mock(StatementResult.class);
+        StatementResult resultMock = mock(StatementResult.class);
+
+        Driver driverMock = stubVersionInAnOpenSession(versionMock, sessionMock, "neo4j-version");
+        when(sessionMock.run(any(Statement.class))).thenReturn(resultMock);
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.connect();
+
+        BoltResult boltResult = boltStateHandler.runCypher("UNWIND range(1, 1000000) AS n RETURN n",
+                new HashMap<>()).get();
+
+        verify(resultMock, never()).list();
+        assertThat(boltResult.iterate(), is(resultMock));
+    }
+
     @Test
     public void triesAgainOnSessionExpired() throws Exception {
         Session sessionMock = mock(Session.class);
@@ -310,11 +638,68 @@ public class BoltStateHandlerTest {
         assertEquals("999", boltResult.getRecords().get(0).get(0).toString());
     }
 
+    @Test
+    public void transientFailuresAreRetriedWithoutReconnecting() throws Exception {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        TransientException deadlock = new TransientException("Neo.TransientError.Transaction.DeadlockDetected", "");
+        when(sessionMock.run(any(Statement.class)))
+                .thenThrow(deadlock)
+                .thenThrow(deadlock)
+                .thenReturn(mock(StatementResult.class));
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.setRetryPolicy(new RetryPolicy(2, 0));
+        boltStateHandler.connect();
+        BoltResult boltResult = boltStateHandler.runCypher("CREATE (n)", Collections.emptyMap()).get();
+
+        assertEquals(2, boltResult.getRetries());
+        verify(driverMock, times(1)).session(any(), anyString());
+        verify(sessionMock, times(3)).run(any(Statement.class));
+    }
+
+    @Test
+    public void failuresBeyondTheMaximumNumberOfRetriesAreThrown() throws Exception {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        TransientException deadlock = new TransientException("Neo.TransientError.Transaction.DeadlockDetected", "");
+        when(sessionMock.run(any(Statement.class))).thenThrow(deadlock);
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.setRetryPolicy(new RetryPolicy(2, 0));
+        boltStateHandler.connect();
+        try {
+            boltStateHandler.runCypher("CREATE (n)", Collections.emptyMap());
+            fail("Expected the failure to be thrown");
+        } catch (TransientException e) {
+            assertEquals(deadlock, e);
+        }
+        verify(sessionMock, times(3)).run(any(Statement.class));
+    }
+
+    @Test
+    public void failuresWhichWillNotGoAwayAreNotRetried() throws Exception {
+        Session sessionMock = mock(Session.class);
+        Driver driverMock = stubVersionInAnOpenSession(mock(StatementResult.class), sessionMock, "neo4j-version");
+        when(sessionMock.run(any(Statement.class)))
+                .thenThrow(new ClientException("Neo.ClientError.Statement.SyntaxError", "Invalid input"));
+
+        OfflineBoltStateHandler boltStateHandler = new OfflineBoltStateHandler(driverMock);
+        boltStateHandler.setRetryPolicy(new RetryPolicy(2, 0));
+        boltStateHandler.connect();
+        try {
+            boltStateHandler.runCypher("RETRUN 1", Collections.emptyMap());
+            fail("Expected the failure to be thrown");
+        } catch (ClientException e) {
+            verify(sessionMock, times(1)).run(any(Statement.class));
+        }
+    }
+
     @Test
     public void shouldExecuteInSessionByDefault() throws CommandException {
         boltStateHandler.connect();
 
-        assertNull("Did not expect a transaction", boltStateHandler.getTransactionStatements());
+        assertFalse("Did not expect a transaction", boltStateHandler.isTransactionOpen());
     }
 
     @Test
@@ -347,7 +732,7 @@ public class BoltStateHandlerTest {
 
         // then
         verify(sessionMock).reset();
-        assertNull(boltStateHandler.getTransactionStatements());
+        assertFalse(boltStateHandler.isTransactionOpen());
     }
 
     @Test
@@ -386,6 +771,14 @@ public class BoltStateHandlerTest {
         assertEquals(Config.EncryptionLevel.REQUIRED, provider.config.encryptionLevel());
     }
 
+    private StatementResultCursor stubCursor(CompletableFuture<List<Record>> records, String key) {
+        StatementResultCursor cursor = mock(StatementResultCursor.class);
+        when(cursor.listAsync()).thenReturn(records);
+        when(cursor.summaryAsync()).thenReturn(CompletableFuture.completedFuture(mock(ResultSummary.class)));
+        when(cursor.keys()).thenReturn(asList(key));
+        return cursor;
+    }
+
     private Driver stubVersionInAnOpenSession(StatementResult versionMock, Session sessionMock, String value) {
         Driver driverMock = mock(Driver.class);
         ResultSummary resultSummary = mock(ResultSummary.class);
@@ -411,6 +804,10 @@ public class BoltStateHandlerTest {
             super((uri, authToken, config) -> driver);
         }
 
+        public OfflineBoltStateHandler(Driver driver, int pipelineDepth) {
+            super((uri, authToken, config) -> driver, pipelineDepth);
+        }
+
         public void connect() throws CommandException {
             connect(new ConnectionConfig("bolt://", "", 1, "", "", false));
         }
@@ -0,0 +1,54 @@
+package org.neo4j.shell.state;
+
+import org.junit.Test;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.StatementResult;
+import org.neo4j.driver.v1.summary.ResultSummary;
+
+import java.util.Iterator;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ListBoltResultTest {
+    private final Record first = mock(Record.class);
+    private final Record second = mock(Record.class);
+    private final ResultSummary summary = mock(ResultSummary.class);
+
+    @Test
+    public void readsEverythingWithoutALimit() throws Exception {
+        StatementResult statementResult = mock(StatementResult.class);
+        when(statementResult.keys()).thenReturn(asList("n"));
+        when(statementResult.list()).thenReturn(asList(first, second));
+        when(statementResult.summary()).thenReturn(summary);
+
+        ListBoltResult result = ListBoltResult.read(statementResult, 0);
+
+        assertEquals(asList("n"), result.getKeys());
+        assertEquals(asList(first, second), result.getRecords());
+        assertSame(summary, result.getSummary());
+        assertFalse(result.isTruncated());
+    }
+
+    @Test
+    public void discardsRecordsBeyondTheLimit() throws Exception {
+        Iterator<Record> records = asList(first, second).iterator();
+        StatementResult statementResult = mock(StatementResult.class);
+        when(statementResult.hasNext()).thenAnswer(invocation -> records.hasNext());
+        when(statementResult.next()).thenAnswer(invocation -> records.next());
+        when(statementResult.consume()).thenReturn(summary);
+
+        ListBoltResult result = ListBoltResult.read(statementResult, 1);
+
+        assertEquals(asList(first), result.getRecords());
+        assertSame(summary, result.getSummary());
+        assertTrue(result.isTruncated());
+        verify(statementResult).consume();
+    }
+}
@@ -0,0 +1,117 @@
+package org.neo4j.shell.state;
+
+import org.junit.Test;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RecordBufferTest {
+    private static final List<String> KEYS = asList("i", "s");
+
+    @Test
+    public void recordsStayOnTheHeapWithoutALimit() {
+        RecordSpill spill = new RecordSpill(0);
+        RecordBuffer buffer = spill.newBuffer(KEYS);
+        List<Record> records = records(100);
+        records.forEach(buffer::add);
+
+        assertFalse(buffer.isSpilled());
+        assertTrue(spill.getHeapUsed() > 0);
+        assertEquals(records, readAll(buffer));
+        assertEquals(0, spill.getHeapUsed());
+    }
+
+    @Test
+    public void recordsAreSpilledToDiskBeyondTheLimit() {
+        RecordSpill spill = new RecordSpill(1000);
+        RecordBuffer buffer = spill.newBuffer(KEYS);
+        List<Record> records = records(100);
+        records.forEach(buffer::add);
+
+        assertTrue(buffer.isSpilled());
+        assertEquals(100, buffer.size());
+        assertEquals(0, spill.getHeapUsed());
+        assertEquals(records, readAll(buffer));
+    }
+
+    @Test
+    public void theLimitIsSharedByAllBuffers() {
+        RecordSpill spill = new RecordSpill(10000);
+        RecordBuffer first = spill.newBuffer(KEYS);
+        records(10).forEach(first::add);
+        RecordBuffer second = spill.newBuffer(KEYS);
+        List<Record> records = records(100);
+        records.forEach(second::add);
+
+        assertFalse(first.isSpilled());
+        assertTrue(second.isSpilled());
+        assertEquals(records, readAll(second));
+
+        first.close();
+        assertEquals(0, spill.getHeapUsed());
+    }
+
+    @Test
+    public void recordsOfSeveralChunksAreReadBackInOrder() {
+        RecordSpill spill = new RecordSpill(1);
+        RecordBuffer buffer = spill.newBuffer(KEYS);
+        List<Record> records = records(2 * RecordBuffer.CHUNK_SIZE + 5);
+        records.forEach(buffer::add);
+
+        assertEquals(records, readAll(buffer));
+    }
+
+    @Test
+    public void manySpilledBuffersCanWaitToBeReadAtOnce() {
+        RecordSpill spill = new RecordSpill(1);
+        List<RecordBuffer> buffers = new ArrayList<>();
+        List<Record> records = records(10);
+        for (int i = 0; i < 5000; i++) {
+            RecordBuffer buffer = spill.newBuffer(KEYS);
+            records.forEach(buffer::add);
+            buffers.add(buffer);
+        }
+
+        for (RecordBuffer buffer : buffers) {
+            assertTrue(buffer.isSpilled());
+            assertEquals(records, readAll(buffer));
+        }
+    }
+
+    @Test
+    public void closingGivesBackTheHeap() {
+        RecordSpill spill = new RecordSpill(0);
+        RecordBuffer buffer = spill.newBuffer(KEYS);
+        records(10).forEach(buffer::add);
+        Iterator<Record> iterator = buffer.iterator();
+        iterator.next();
+
+        buffer.close();
+
+        assertEquals(0, spill.getHeapUsed());
+    }
+
+    private static List<Record> readAll(RecordBuffer buffer) {
+        List<Record> read = new ArrayList<>();
+        buffer.forEach(read::add);
+        return read;
+    }
+
+    private static List<Record> records(int count) {
+        List<Record> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(new InternalRecord(KEYS, new Value[] {Values.value(i), Values.value("record " + i)}));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,162 @@
+package org.neo4j.shell.state;
+
+import org.junit.Test;
+import org.neo4j.driver.internal.InternalNode;
+import org.neo4j.driver.internal.InternalPath;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.internal.InternalRelationship;
+import org.neo4j.driver.internal.value.NodeValue;
+import org.neo4j.driver.internal.value.PathValue;
+import org.neo4j.driver.internal.value.RelationshipValue;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Value;
+import org.neo4j.driver.v1.Values;
+import org.neo4j.driver.v1.types.Node;
+import org.neo4j.driver.v1.types.Path;
+import org.neo4j.driver.v1.types.Relationship;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RecordCodecTest {
+    @Test
+    public void plainValuesSurviveARoundTrip() throws IOException {
+        Map<String, Object> map = new HashMap<>();
+        map.put("a", 1L);
+        map.put("b", asList("x", "y"));
+        Record record = record(asList("s", "i", "f", "b", "n", "l", "m", "bytes"),
+                Values.value("text"), Values.value(42), Values.value(1.5), Values.value(true), Values.NULL,
+                Values.value(asList(1L, 2L)), Values.value(map), Values.value(new byte[] {1, 2, 3}));
+
+        Record read = roundTrip(record);
+
+        assertEquals(record, read);
+        assertEquals(record.keys(), read.keys());
+    }
+
+    @Test
+    public void temporalAndSpatialValuesSurviveARoundTrip() throws IOException {
+        Record record = record(asList("d", "t", "lt", "ldt", "dt", "odt", "dur", "p", "p3"),
+                Values.value(LocalDate.of(2018, 1, 2)),
+                Values.value(OffsetTime.of(3, 4, 5, 6, ZoneOffset.ofHours(-5))),
+                Values.value(LocalTime.of(3, 4, 5, 6)),
+                Values.value(LocalDateTime.of(1918, 1, 2, 3, 4, 5, 6)),
+                Values.value(ZonedDateTime.of(2018, 10, 28, 2, 30, 0, 6, ZoneId.of("Europe/Stockholm"))
+                        .withLaterOffsetAtOverlap()),
+                Values.value(ZonedDateTime.of(2018, 1, 2, 3, 4, 5, 6, ZoneOffset.ofHoursMinutes(5, 30))),
+                Values.isoDuration(-1, 2, 3, 4),
+                Values.point(7203, 1.0, 2.0),
+                Values.point(9157, 1.0, 2.0, -3.0));
+
+        Record read = roundTrip(record);
+
+        assertEquals(record, read);
+        assertEquals(ZoneOffset.ofHours(1), read.get("dt").asZonedDateTime().getOffset());
+        assertEquals(-3.0, read.get("p3").asPoint().z(), 0);
+    }
+
+    @Test
+    public void nestedCollectionsSurviveARoundTrip() throws IOException {
+        Map<String, Object> inner = new HashMap<>();
+        inner.put("when", LocalDate.of(2018, 1, 2));
+        inner.put("none", null);
+        Record record = record(asList("l", "m"),
+                Values.value(asList(asList(1L, "a"), Collections.emptyList(), inner)),
+                Values.value(Collections.singletonMap("inner", inner)));
+
+        assertEquals(record, roundTrip(record));
+    }
+
+    @Test
+    public void aPathWithoutRelationshipsSurvivesARoundTrip() throws IOException {
+        Node alone = new InternalNode(1, asList("Person"), Collections.emptyMap());
+        Record record = record(asList("p"), new PathValue(new InternalPath(alone)));
+
+        Path read = roundTrip(record).get("p").asPath();
+
+        assertEquals(0, read.length());
+        assertEquals(1, read.start().id());
+        assertEquals(read.start(), read.end());
+    }
+
+    @Test
+    public void graphEntitiesSurviveARoundTrip() throws IOException {
+        Node alice = new InternalNode(1, asList("Person"), Collections.singletonMap("name", Values.value("Alice")));
+        Node bob = new InternalNode(2, asList("Person", "Admin"), Collections.emptyMap());
+        Node carol = new InternalNode(3, Collections.emptyList(), Collections.emptyMap());
+        Relationship knows = new InternalRelationship(10, 1, 2, "KNOWS",
+                Collections.singletonMap("since", Values.value(2001)));
+        // Walked against its direction in the path
+        Relationship likes = new InternalRelationship(11, 3, 2, "LIKES", Collections.emptyMap());
+        Path path = new InternalPath(alice, knows, bob, likes, carol);
+        Record record = record(asList("n", "r", "p"),
+                new NodeValue(alice), new RelationshipValue(knows), new PathValue(path));
+
+        Record read = roundTrip(record);
+
+        Node node = read.get("n").asNode();
+        assertEquals(1, node.id());
+        assertEquals(asList("Person"), node.labels());
+        assertEquals("Alice", node.get("name").asString());
+
+        Relationship relationship = read.get("r").asRelationship();
+        assertEquals(10, relationship.id());
+        assertEquals(1, relationship.startNodeId());
+        assertEquals(2, relationship.endNodeId());
+        assertEquals("KNOWS", relationship.type());
+        assertEquals(2001, relationship.get("since").asInt());
+
+        Path readPath = read.get("p").asPath();
+        assertEquals(path, readPath);
+        assertEquals(2, readPath.length());
+        int segments = 0;
+        for (Path.Segment segment : readPath) {
+            segments++;
+            if (segment.relationship().id() == 11) {
+                assertEquals(3, segment.relationship().startNodeId());
+                assertEquals(2, segment.relationship().endNodeId());
+                assertEquals(3, segment.end().id());
+            }
+        }
+        assertEquals(2, segments);
+    }
+
+    @Test
+    public void largerValuesAreEstimatedToTakeUpMoreHeap() {
+        long small = RecordCodec.estimateSize(record(asList("s"), Values.value("a")));
+        long large = RecordCodec.estimateSize(record(asList("s"), Values.value(new String(new char[1000]))));
+
+        assertTrue(small > 0);
+        assertTrue(large > small + 1000);
+    }
+
+    private static Record record(List<String> keys, Value... values) {
+        return new InternalRecord(keys, values);
+    }
+
+    private static Record roundTrip(Record record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            RecordCodec.write(out, record);
+        }
+        return RecordCodec.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), record.keys());
+    }
+}
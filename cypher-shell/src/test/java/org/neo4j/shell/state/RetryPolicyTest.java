@@ -0,0 +1,71 @@
+package org.neo4j.shell.state;
+
+import org.junit.Test;
+import org.neo4j.driver.v1.exceptions.ClientException;
+import org.neo4j.driver.v1.exceptions.ServiceUnavailableException;
+import org.neo4j.driver.v1.exceptions.SessionExpiredException;
+import org.neo4j.driver.v1.exceptions.TransientException;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RetryPolicyTest {
+    private final TransientException deadlock =
+            new TransientException("Neo.TransientError.Transaction.DeadlockDetected", "");
+
+    @Test
+    public void failuresWhichGoAwayByThemselvesAreRetryable() {
+        assertTrue(RetryPolicy.isRetryable(deadlock));
+        assertTrue(RetryPolicy.isRetryable(new SessionExpiredException("leader switch")));
+        assertTrue(RetryPolicy.isRetryable(new ServiceUnavailableException("no server")));
+        assertFalse(RetryPolicy.isRetryable(new ClientException("Neo.ClientError.Statement.SyntaxError", "")));
+        assertFalse(RetryPolicy.isRetryable(new IllegalStateException()));
+    }
+
+    @Test
+    public void terminatedTransactionsAreNotRetryable() {
+        assertFalse(RetryPolicy.isRetryable(new TransientException("Neo.TransientError.Transaction.Terminated", "")));
+        assertFalse(RetryPolicy.isRetryable(
+                new TransientException("Neo.TransientError.Transaction.LockClientStopped", "")));
+    }
+
+    @Test
+    public void onlyLostSessionsNeedToReconnect() {
+        assertTrue(RetryPolicy.needsReconnect(new SessionExpiredException("leader switch")));
+        assertFalse(RetryPolicy.needsReconnect(deadlock));
+    }
+
+    @Test
+    public void retriesAreLimited() {
+        RetryPolicy policy = new RetryPolicy(2, 0);
+
+        assertTrue(policy.shouldRetry("CREATE (n)", deadlock, 0));
+        assertTrue(policy.shouldRetry("CREATE (n)", deadlock, 1));
+        assertFalse(policy.shouldRetry("CREATE (n)", deadlock, 2));
+        assertFalse(new RetryPolicy(0, 0).shouldRetry("CREATE (n)", deadlock, 0));
+    }
+
+    @Test
+    public void periodicCommitIsNeverRetried() {
+        RetryPolicy policy = new RetryPolicy(2, 0);
+
+        assertFalse(policy.shouldRetry(" using Periodic Commit LOAD CSV FROM 'file:///x' AS l CREATE (n)",
+                deadlock, 0));
+    }
+
+    @Test
+    public void delayDoublesWithJitterUpToTheMaximum() {
+        RetryPolicy policy = new RetryPolicy(20, 100);
+
+        for (int i = 0; i < 100; i++) {
+            assertBetween(80, 120, policy.delayMillis(0));
+            assertBetween(320, 480, policy.delayMillis(2));
+            assertBetween(RetryPolicy.MAX_DELAY_MILLIS * 4 / 5, RetryPolicy.MAX_DELAY_MILLIS * 6 / 5,
+                    policy.delayMillis(19));
+        }
+    }
+
+    private static void assertBetween(long min, long max, long actual) {
+        assertTrue(actual + " should be between " + min + " and " + max, min <= actual && actual <= max);
+    }
+}
@@ -0,0 +1,144 @@
+package org.neo4j.shell.state;
+
+import org.junit.Test;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.Session;
+import org.neo4j.driver.v1.Statement;
+import org.neo4j.driver.v1.StatementResult;
+import org.neo4j.driver.v1.Transaction;
+import org.neo4j.driver.v1.TransactionWork;
+import org.neo4j.driver.v1.exceptions.TransientException;
+import org.neo4j.driver.v1.summary.ResultSummary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SessionPoolTest {
+    private final Statement statement1 = new Statement("RETURN 1");
+    private final Statement statement2 = new Statement("RETURN 2");
+
+    @Test
+    public void executesStatementsInImplicitTransactions() {
+        Session session = mock(Session.class);
+        StatementResult result1 = stubResult("1");
+        StatementResult result2 = stubResult("2");
+        when(session.run(statement1)).thenReturn(result1);
+        when(session.run(statement2)).thenReturn(result2);
+
+        try (SessionPool pool = new SessionPool(() -> session, 1)) {
+            List<BoltResult> results = pool.submit(asList(statement1, statement2), false).join();
+
+            assertEquals(2, results.size());
+            assertEquals(asList("1"), results.get(0).getKeys());
+            assertEquals(asList("2"), results.get(1).getKeys());
+            verify(session, never()).writeTransaction(any());
+        }
+    }
+
+    @Test
+    public void executesBatchInOneTransaction() {
+        Session session = mock(Session.class);
+        Transaction tx = mock(Transaction.class);
+        StatementResult result1 = stubResult("1");
+        StatementResult result2 = stubResult("2");
+        when(tx.run(statement1)).thenReturn(result1);
+        when(tx.run(statement2)).thenReturn(result2);
+        when(session.writeTransaction(anyObject())).thenAnswer(invocation ->
+                ((TransactionWork<?>) invocation.getArguments()[0]).execute(tx));
+
+        try (SessionPool pool = new SessionPool(() -> session, 1)) {
+            List<BoltResult> results = pool.submit(asList(statement1, statement2), true).join();
+
+            assertEquals(2, results.size());
+            verify(session, never()).run(any(Statement.class));
+        }
+    }
+
+    @Test
+    public void resultsOfRetriedTransactionsCountTheRetries() {
+        Session session = mock(Session.class);
+        Transaction tx = mock(Transaction.class);
+        StatementResult result = stubResult("1");
+        when(tx.run(statement1)).thenReturn(result);
+        when(session.writeTransaction(anyObject())).thenAnswer(invocation -> {
+            TransactionWork<?> work = (TransactionWork<?>) invocation.getArguments()[0];
+            work.execute(tx);
+            return work.execute(tx);
+        });
+
+        try (SessionPool pool = new SessionPool(() -> session, 1)) {
+            List<BoltResult> results = pool.submit(asList(statement1), true).join();
+
+            assertEquals(1, results.get(0).getRetries());
+        }
+    }
+
+    @Test
+    public void statementsInImplicitTransactionsAreRetried() {
+        Session session = mock(Session.class);
+        StatementResult result = stubResult("1");
+        when(session.run(statement1)).thenThrow(deadlock()).thenReturn(result);
+
+        try (SessionPool pool = new SessionPool(() -> session, 1, 0, new RecordSpill(0), new RetryPolicy(2, 0))) {
+            List<BoltResult> results = pool.submit(asList(statement1), false).join();
+
+            assertEquals(1, results.get(0).getRetries());
+            verify(session, times(2)).run(statement1);
+        }
+    }
+
+    @Test
+    public void periodicCommitIsNotRetried() {
+        Session session = mock(Session.class);
+        Statement load = new Statement("USING PERIODIC COMMIT LOAD CSV FROM 'file:///x.csv' AS l CREATE ()");
+        when(session.run(load)).thenThrow(deadlock());
+
+        try (SessionPool pool = new SessionPool(() -> session, 1, 0, new RecordSpill(0), new RetryPolicy(2, 0))) {
+            pool.submit(asList(load), false).join();
+            fail("Expected the statement to fail");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof TransientException);
+            verify(session, times(1)).run(load);
+        }
+    }
+
+    @Test
+    public void closesAllSessions() {
+        Session session1 = mock(Session.class);
+        Session session2 = mock(Session.class);
+        List<Session> sessions = new ArrayList<>(asList(session1, session2));
+
+        SessionPool pool = new SessionPool(() -> sessions.remove(0), 2);
+        assertEquals(2, pool.size());
+        pool.close();
+
+        verify(session1).close();
+        verify(session2).close();
+    }
+
+    private static TransientException deadlock() {
+        return new TransientException("Neo.TransientError.Transaction.DeadlockDetected", "deadlock");
+    }
+
+    private StatementResult stubResult(String key) {
+        StatementResult result = mock(StatementResult.class);
+        when(result.keys()).thenReturn(asList(key));
+        when(result.list()).thenReturn(Collections.<Record>emptyList());
+        when(result.summary()).thenReturn(mock(ResultSummary.class));
+        return result;
+    }
+}
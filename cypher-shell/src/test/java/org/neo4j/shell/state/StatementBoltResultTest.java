@@ -0,0 +1,110 @@
+package org.neo4j.shell.state;
+
+import org.junit.Test;
+import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.StatementResult;
+import org.neo4j.driver.v1.summary.ResultSummary;
+import org.neo4j.driver.v1.summary.StatementType;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StatementBoltResultTest {
+    private final Record first = mock(Record.class);
+    private final Record second = mock(Record.class);
+    private final Record third = mock(Record.class);
+    private final ResultSummary summary = mock(ResultSummary.class);
+    private final Runnable cancel = mock(Runnable.class);
+
+    @Test
+    public void readsEverythingWithoutALimit() throws Exception {
+        StatementResult statementResult = stubResult(first, second, third);
+        BoltResult result = new StatementBoltResult(statementResult, 0, cancel);
+
+        assertEquals(asList(first, second, third), visit(result));
+        assertFalse(result.isTruncated());
+        assertSame(summary, result.getSummary());
+        verify(cancel, never()).run();
+    }
+
+    @Test
+    public void resultWithinTheLimitIsNotTruncated() throws Exception {
+        StatementResult statementResult = stubResult(first, second);
+        BoltResult result = new StatementBoltResult(statementResult, 2, cancel);
+
+        assertEquals(asList(first, second), visit(result));
+        assertFalse(result.isTruncated());
+        assertSame(summary, result.getSummary());
+        verify(cancel, never()).run();
+    }
+
+    @Test
+    public void recordsBeyondTheLimitAreCancelled() throws Exception {
+        StatementResult statementResult = stubResult(first, second, third);
+        BoltResult result = new StatementBoltResult(statementResult, 2, cancel);
+
+        assertEquals(asList(first, second), visit(result));
+        assertTrue(result.isTruncated());
+        verify(cancel).run();
+        verify(statementResult, never()).consume();
+
+        // The server never sends the summary of a cancelled result
+        ResultSummary cancelledSummary = result.getSummary();
+        assertEquals(StatementType.READ_ONLY, cancelledSummary.statementType());
+        assertFalse(cancelledSummary.counters().containsUpdates());
+        assertFalse(cancelledSummary.hasPlan());
+        verify(statementResult, never()).summary();
+    }
+
+    @Test
+    public void recordsBeyondTheLimitAreDiscardedIfTheyCannotBeCancelled() throws Exception {
+        StatementResult statementResult = stubResult(first, second, third);
+        BoltResult result = new StatementBoltResult(statementResult, 1, null);
+
+        assertEquals(asList(first), result.getRecords());
+        assertTrue(result.isTruncated());
+        verify(statementResult).consume();
+        assertSame(summary, result.getSummary());
+    }
+
+    @Test
+    public void discardingCancelsOnlyOnce() throws Exception {
+        StatementResult statementResult = stubResult(first, second);
+        BoltResult result = new StatementBoltResult(statementResult, 0, cancel);
+
+        result.discardRemaining();
+        result.discardRemaining();
+
+        verify(cancel).run();
+    }
+
+    private StatementResult stubResult(Record... records) {
+        Iterator<Record> iterator = asList(records).iterator();
+        StatementResult statementResult = mock(StatementResult.class);
+        when(statementResult.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(statementResult.next()).thenAnswer(invocation -> iterator.next());
+        when(statementResult.summary()).thenReturn(summary);
+        when(statementResult.consume()).thenReturn(summary);
+        return statementResult;
+    }
+
+    private static List<Record> visit(BoltResult result) {
+        List<Record> records = new ArrayList<>();
+        Iterator<Record> iterator = result.iterate();
+        while (iterator.hasNext()) {
+            records.add(iterator.next());
+        }
+        return records;
+    }
+}
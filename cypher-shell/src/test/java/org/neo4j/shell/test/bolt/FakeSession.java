@@ -14,7 +14,7 @@ public class FakeSession implements Session {
 
     @Override
     public Transaction beginTransaction() {
-        return null;
+        return new FakeTransaction();
     }
 
     @Override
@@ -0,0 +1,98 @@
+package org.neo4j.shell.test.bolt;
+
+import org.neo4j.driver.v1.*;
+import org.neo4j.driver.v1.types.TypeSystem;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A fake transaction which returns fake StatementResults
+ */
+public class FakeTransaction implements Transaction {
+    private boolean open = true;
+
+    @Override
+    public void success() {
+    }
+
+    @Override
+    public void failure() {
+    }
+
+    @Override
+    public void close() {
+        open = false;
+    }
+
+    @Override
+    public CompletionStage<Void> commitAsync() {
+        return null;
+    }
+
+    @Override
+    public CompletionStage<Void> rollbackAsync() {
+        return null;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public StatementResult run(String statementTemplate, Value parameters) {
+        return FakeStatementResult.parseStatement(statementTemplate);
+    }
+
+    @Override
+    public CompletionStage<StatementResultCursor> runAsync(String statementTemplate, Value parameters) {
+        return null;
+    }
+
+    @Override
+    public StatementResult run(String statementTemplate, Map<String, Object> statementParameters) {
+        return FakeStatementResult.parseStatement(statementTemplate);
+    }
+
+    @Override
+    public CompletionStage<StatementResultCursor> runAsync(String statementTemplate,
+                                                           Map<String, Object> statementParameters) {
+        return null;
+    }
+
+    @Override
+    public StatementResult run(String statementTemplate, Record statementParameters) {
+        return FakeStatementResult.parseStatement(statementTemplate);
+    }
+
+    @Override
+    public CompletionStage<StatementResultCursor> runAsync(String statementTemplate, Record statementParameters) {
+        return null;
+    }
+
+    @Override
+    public StatementResult run(String statementTemplate) {
+        return FakeStatementResult.parseStatement(statementTemplate);
+    }
+
+    @Override
+    public CompletionStage<StatementResultCursor> runAsync(String statementTemplate) {
+        return null;
+    }
+
+    @Override
+    public StatementResult run(Statement statement) {
+        return new FakeStatementResult();
+    }
+
+    @Override
+    public CompletionStage<StatementResultCursor> runAsync(Statement statement) {
+        return null;
+    }
+
+    @Override
+    public TypeSystem typeSystem() {
+        return null;
+    }
+}